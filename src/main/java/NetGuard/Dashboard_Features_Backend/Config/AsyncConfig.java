@@ -23,4 +23,26 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    @Bean(name = "streamTaskExecutor")
+    public Executor streamTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("Stream-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "deviceDetailsExecutor")
+    public Executor deviceDetailsExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(12);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("DeviceDetails-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -36,7 +36,8 @@ public class DashboardSecurityConfig {
                         "/api/devices/**",
                         "/api/analytics/**",
                         "/api/monitoring/**",
-                        "/api/networks/**"
+                        "/api/networks/**",
+                        "/api/export/**"
                 )
                 // CRITICAL: Enable CORS FIRST
                 .cors(cors -> cors.configurationSource(dashboardCorsConfigurationSource()))
@@ -53,6 +54,7 @@ public class DashboardSecurityConfig {
                         .requestMatchers("/api/analytics/**").hasAnyRole("USER", "ADMIN")
                         .requestMatchers("/api/monitoring/**").hasAnyRole("USER", "ADMIN")
                         .requestMatchers("/api/networks/**").hasAnyRole("USER", "ADMIN")
+                        .requestMatchers("/api/export/**").hasAnyRole("USER", "ADMIN")
                         .anyRequest().authenticated()
                 )
                 .exceptionHandling(ex -> ex.authenticationEntryPoint(jwtAuthenticationEntryPoint))
@@ -88,7 +90,7 @@ public class DashboardSecurityConfig {
         configuration.setExposedHeaders(Arrays.asList(
                 "Authorization", "Content-Type", "Access-Control-Allow-Headers",
                 "Access-Control-Allow-Origin", "Access-Control-Request-Method",
-                "Access-Control-Request-Headers"
+                "Access-Control-Request-Headers", "Content-Disposition"
         ));
 
         // Cache preflight response for 1 hour
@@ -1,17 +1,23 @@
 package NetGuard.Dashboard_Features_Backend.Controller;
 
 import NetGuard.Dashboard_Features_Backend.DTO.*;
+import NetGuard.Dashboard_Features_Backend.Service.DashboardSnapshotService;
 import NetGuard.Dashboard_Features_Backend.Service.DeviceAnalyticsService;
 import NetGuard.Dashboard_Features_Backend.Service.RealTimeMonitoringService;
 import NetGuard.Dashboard_Features_Backend.Service.DeviceManagementService;
+import NetGuard.Dashboard_Features_Backend.Service.SecurityAlertStoreService;
+import NetGuard.Dashboard_Features_Backend.Service.UsageSketchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -49,8 +55,11 @@ import java.util.Map;
 public class DeviceAnalyticsController {
 
     private final DeviceAnalyticsService analyticsService;
+    private final DashboardSnapshotService dashboardSnapshotService;
     private final RealTimeMonitoringService monitoringService;
     private final DeviceManagementService deviceManagementService;
+    private final SecurityAlertStoreService alertStoreService;
+    private final UsageSketchService usageSketchService;
 
     /**
      * 🔥 Get device analytics for specified time range
@@ -130,7 +139,7 @@ public class DeviceAnalyticsController {
         try {
             log.info("📊 Fetching comprehensive dashboard analytics");
 
-            DashboardAnalyticsDTO dashboardData = analyticsService.getDashboardAnalytics();
+            DashboardAnalyticsDTO dashboardData = dashboardSnapshotService.getDashboardAnalytics();
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -219,6 +228,152 @@ public class DeviceAnalyticsController {
         }
     }
 
+    /**
+     * 🔥 Get persisted security alert history (keyset paginated, newest first)
+     */
+    @GetMapping("/security/alerts/history")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getSecurityAlertHistory(
+            @RequestParam(required = false) String deviceMac,
+            @RequestParam(required = false) String severity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            log.info("🔒 Fetching security alert history (device: {}, severity: {})", deviceMac, severity);
+
+            SecurityAlertPageDTO page = alertStoreService.findAlerts(deviceMac, severity, from, to, cursor, limit);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Security alert history retrieved successfully");
+            response.put("data", page.getAlerts());
+            response.put("alertCount", page.getAlerts().size());
+            response.put("nextCursor", page.getNextCursor());
+            response.put("hasMore", page.getHasMore());
+            response.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "InvalidRequest");
+            errorResponse.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.badRequest().body(errorResponse);
+
+        } catch (Exception e) {
+            log.error("❌ Error fetching security alert history: ", e);
+
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Failed to retrieve security alert history: " + e.getMessage());
+            errorResponse.put("error", e.getClass().getSimpleName());
+            errorResponse.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * 🔥 Get screen time and session length quantiles and distinct devices for a range of days
+     * (defaults to the current month)
+     */
+    @GetMapping("/usage/quantiles")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getUsageQuantiles(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            LocalDate end = to != null ? to : usageSketchService.today();
+            LocalDate start = from != null ? from : end.withDayOfMonth(1);
+            log.info("📊 Fetching usage quantiles from {} to {}", start, end);
+
+            UsageSketchSummaryDTO summary = usageSketchService.getSummary(start, end);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Usage quantiles retrieved successfully");
+            response.put("data", summary);
+            response.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "InvalidRequest");
+            errorResponse.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.badRequest().body(errorResponse);
+
+        } catch (Exception e) {
+            log.error("❌ Error fetching usage quantiles: ", e);
+
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Failed to retrieve usage quantiles: " + e.getMessage());
+            errorResponse.put("error", e.getClass().getSimpleName());
+            errorResponse.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * 🔥 Get connection history (keyset paginated, newest first)
+     */
+    @GetMapping("/connections/history")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getConnectionHistory(
+            @RequestParam(required = false) String deviceMac,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            log.info("📜 Fetching connection history (device: {})", deviceMac);
+
+            KeysetPage<ConnectionHistoryDTO> page =
+                    deviceManagementService.getConnectionHistoryPage(deviceMac, from, to, cursor, limit);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Connection history retrieved successfully");
+            response.put("data", page.getItems());
+            response.put("connectionCount", page.getItems().size());
+            response.put("nextCursor", page.getNextCursor());
+            response.put("hasMore", page.getHasMore());
+            response.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "InvalidRequest");
+            errorResponse.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.badRequest().body(errorResponse);
+
+        } catch (Exception e) {
+            log.error("❌ Error fetching connection history: ", e);
+
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Failed to retrieve connection history: " + e.getMessage());
+            errorResponse.put("error", e.getClass().getSimpleName());
+            errorResponse.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
     /**
      * 🔥 Trigger manual device scan
      */
@@ -0,0 +1,239 @@
+package NetGuard.Dashboard_Features_Backend.Controller;
+
+import NetGuard.Dashboard_Features_Backend.DTO.BulkDeviceActionRequestDTO;
+import NetGuard.Dashboard_Features_Backend.DTO.BulkDeviceActionResultDTO;
+import NetGuard.Dashboard_Features_Backend.DTO.ManagedDevicePageDTO;
+import NetGuard.Dashboard_Features_Backend.DTO.ScheduleRuleRequestDTO;
+import NetGuard.Dashboard_Features_Backend.DTO.ScheduleStatusDTO;
+import NetGuard.Dashboard_Features_Backend.Entity.ScheduleRule;
+import NetGuard.Dashboard_Features_Backend.Service.DeviceManagementService;
+import NetGuard.Dashboard_Features_Backend.Service.ScheduleRuleService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/devices")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(
+        origins = {
+                "http://localhost:3000",
+                "http://localhost:3001",
+                "http://127.0.0.1:3000",
+                "http://localhost:5173",
+                "http://localhost:4173"
+        },
+        allowCredentials = "true",
+        allowedHeaders = {
+                "Authorization",
+                "Content-Type",
+                "Accept",
+                "Origin",
+                "Access-Control-Request-Method",
+                "Access-Control-Request-Headers"
+        },
+        methods = {
+                RequestMethod.GET,
+                RequestMethod.POST,
+                RequestMethod.PUT,
+                RequestMethod.DELETE,
+                RequestMethod.OPTIONS
+        },
+        maxAge = 3600
+)
+public class DeviceManagementController {
+
+    private final DeviceManagementService deviceManagementService;
+    private final ScheduleRuleService scheduleRuleService;
+
+    /**
+     * 🔥 List managed devices (keyset paginated by MAC)
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getManagedDevices(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            log.info("📱 Fetching managed devices page (limit {})", limit);
+
+            ManagedDevicePageDTO page = deviceManagementService.getManagedDevices(cursor, limit);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Managed devices retrieved successfully");
+            response.put("data", page.getDevices());
+            response.put("deviceCount", page.getDevices().size());
+            response.put("nextCursor", page.getNextCursor());
+            response.put("hasMore", page.getHasMore());
+            response.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            return errorResponse(HttpStatus.BAD_REQUEST, e.getMessage(), "InvalidRequest");
+
+        } catch (Exception e) {
+            log.error("❌ Error fetching managed devices: ", e);
+            return errorResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Failed to retrieve managed devices: " + e.getMessage(), e.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * 🔥 Block, unblock or set a time limit on many devices in one call
+     */
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> bulkDeviceAction(@RequestBody BulkDeviceActionRequestDTO request) {
+        try {
+            log.info("📦 Bulk {} requested for {} devices", request.getAction(),
+                    request.getDeviceMacs() != null ? request.getDeviceMacs().size() : 0);
+
+            BulkDeviceActionResultDTO result = deviceManagementService.bulkAction(request);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", result.getFailedCount() == 0);
+            response.put("message", String.format("%d of %d devices updated",
+                    result.getSucceededCount(), result.getRequestedCount()));
+            response.put("data", result);
+            response.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            return errorResponse(HttpStatus.BAD_REQUEST, e.getMessage(), "InvalidRequest");
+
+        } catch (Exception e) {
+            log.error("❌ Error applying bulk device action: ", e);
+            return errorResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Failed to apply bulk device action: " + e.getMessage(), e.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * 🔥 List recurring schedule rules
+     */
+    @GetMapping("/schedules")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getScheduleRules() {
+        try {
+            List<ScheduleRule> rules = scheduleRuleService.getRules();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Schedule rules retrieved successfully");
+            response.put("data", rules);
+            response.put("ruleCount", rules.size());
+            response.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            log.error("❌ Error fetching schedule rules: ", e);
+            return errorResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Failed to retrieve schedule rules: " + e.getMessage(), e.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * 🔥 Create a recurring schedule rule for a device or a device type
+     */
+    @PostMapping("/schedules")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> createScheduleRule(@RequestBody ScheduleRuleRequestDTO request) {
+        try {
+            log.info("🗓️ Creating schedule rule '{}'", request.getName());
+
+            ScheduleRule rule = scheduleRuleService.createRule(request);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Schedule rule created successfully");
+            response.put("data", rule);
+            response.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+
+        } catch (IllegalArgumentException e) {
+            return errorResponse(HttpStatus.BAD_REQUEST, e.getMessage(), "InvalidRequest");
+
+        } catch (Exception e) {
+            log.error("❌ Error creating schedule rule: ", e);
+            return errorResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Failed to create schedule rule: " + e.getMessage(), e.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * 🔥 Delete a schedule rule
+     */
+    @DeleteMapping("/schedules/{ruleId}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> deleteScheduleRule(@PathVariable Long ruleId) {
+        try {
+            if (!scheduleRuleService.deleteRule(ruleId)) {
+                return errorResponse(HttpStatus.NOT_FOUND, "Schedule rule not found", "NotFound");
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Schedule rule deleted successfully");
+            response.put("ruleId", ruleId);
+            response.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            log.error("❌ Error deleting schedule rule {}: ", ruleId, e);
+            return errorResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Failed to delete schedule rule: " + e.getMessage(), e.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * 🔥 Whether a device is allowed right now and when that changes
+     */
+    @GetMapping("/{deviceMac}/schedule")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getScheduleStatus(@PathVariable String deviceMac) {
+        try {
+            ScheduleStatusDTO status = scheduleRuleService.getScheduleStatus(deviceMac);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Schedule status retrieved successfully");
+            response.put("data", status);
+            response.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            log.error("❌ Error fetching schedule status for {}: ", deviceMac, e);
+            return errorResponse(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Failed to retrieve schedule status: " + e.getMessage(), e.getClass().getSimpleName());
+        }
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private ResponseEntity<Map<String, Object>> errorResponse(HttpStatus status, String message, String error) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("error", error);
+        errorResponse.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
@@ -0,0 +1,146 @@
+package NetGuard.Dashboard_Features_Backend.Controller;
+
+import NetGuard.Dashboard_Features_Backend.Service.HistoryExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(
+        origins = {
+                "http://localhost:3000",
+                "http://localhost:3001",
+                "http://127.0.0.1:3000",
+                "http://localhost:5173",
+                "http://localhost:4173"
+        },
+        allowCredentials = "true",
+        allowedHeaders = {
+                "Authorization",
+                "Content-Type",
+                "Accept",
+                "Origin"
+        },
+        exposedHeaders = {
+                "Content-Disposition"
+        },
+        methods = {
+                RequestMethod.GET,
+                RequestMethod.OPTIONS
+        },
+        maxAge = 3600
+)
+public class HistoryExportController {
+
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final int GZIP_BUFFER_BYTES = 64 * 1024;
+
+    private final HistoryExportService exportService;
+
+    /**
+     * 🔥 Stream connection history as CSV or NDJSON (defaults to the last 30 days)
+     */
+    @GetMapping("/connections")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportConnections(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String deviceMac,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportRequest request = ExportRequest.of("connections", format, from, to, gzip);
+        log.info("📤 Exporting connections from {} to {} as {} (device: {})", request.from, request.to, request.format, deviceMac);
+
+        return stream(request, out -> exportService.exportConnections(request.from, request.to, deviceMac, request.format, out));
+    }
+
+    /**
+     * 🔥 Stream browsing history as CSV or NDJSON (defaults to the last 30 days)
+     */
+    @GetMapping("/browsing")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportBrowsingHistory(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String deviceMac,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportRequest request = ExportRequest.of("browsing-history", format, from, to, gzip);
+        log.info("📤 Exporting browsing history from {} to {} as {} (device: {})", request.from, request.to, request.format, deviceMac);
+
+        return stream(request, out -> exportService.exportBrowsingVisits(request.from, request.to, deviceMac, request.format, out));
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private ResponseEntity<StreamingResponseBody> stream(ExportRequest request, ExportWriter writer) {
+        // No Content-Length: the body goes out chunked as rows are read
+        StreamingResponseBody body = out -> {
+            try {
+                if (request.gzip) {
+                    GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_BYTES);
+                    writer.write(compressed);
+                    compressed.finish();
+                } else {
+                    writer.write(out);
+                }
+                out.flush();
+            } catch (RuntimeException e) {
+                // Headers are already sent; the client sees a truncated download
+                log.error("❌ Export of {} failed mid-stream: ", request.name, e);
+                throw e;
+            }
+        };
+
+        String fileName = request.name + "-" + request.from.format(FILE_DATE) + "-" + request.to.format(FILE_DATE)
+                + "." + request.format.getExtension() + (request.gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(request.gzip
+                        ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType(request.format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(body);
+    }
+
+    @FunctionalInterface
+    private interface ExportWriter {
+        void write(OutputStream out);
+    }
+
+    private record ExportRequest(String name, HistoryExportService.Format format,
+                                 LocalDateTime from, LocalDateTime to, boolean gzip) {
+
+        private static ExportRequest of(String name, String format, LocalDateTime from, LocalDateTime to, boolean gzip) {
+            try {
+                LocalDateTime end = to != null ? to : LocalDateTime.now();
+                LocalDateTime start = from != null ? from : end.minusDays(30);
+                if (!start.isBefore(end)) {
+                    throw new IllegalArgumentException("'from' must be before 'to'");
+                }
+                return new ExportRequest(name, HistoryExportService.Format.parse(format), start, end, gzip);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package NetGuard.Dashboard_Features_Backend.Controller;
+
+import NetGuard.Dashboard_Features_Backend.Security.StreamTicketStore;
+import NetGuard.Dashboard_Features_Backend.Service.MonitoringStreamService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/monitoring")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(
+        origins = {
+                "http://localhost:3000",
+                "http://localhost:3001",
+                "http://127.0.0.1:3000",
+                "http://localhost:5173",
+                "http://localhost:4173"
+        },
+        allowCredentials = "true",
+        allowedHeaders = {
+                "Authorization",
+                "Content-Type",
+                "Accept",
+                "Origin",
+                "Cache-Control",
+                "Last-Event-ID"
+        },
+        methods = {
+                RequestMethod.GET,
+                RequestMethod.POST,
+                RequestMethod.OPTIONS
+        },
+        maxAge = 3600
+)
+public class MonitoringStreamController {
+
+    private final MonitoringStreamService streamService;
+    private final StreamTicketStore streamTicketStore;
+
+    /**
+     * 🎫 Trade the bearer token for a short-lived, single-use ticket to open the stream with
+     * (EventSource cannot send headers: {@code new EventSource('/api/monitoring/stream?ticket=...')})
+     */
+    @PostMapping("/stream/ticket")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> issueStreamTicket(Authentication authentication) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("ticket", streamTicketStore.issue(authentication.getName()));
+        response.put("expiresInSeconds", streamTicketStore.getTicketTtlSeconds());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 🔥 Live monitoring stream: an initial "snapshot" event followed by coalesced "delta" events
+     * containing only changed device entries, traffic counters and new alerts
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public SseEmitter streamMonitoringDeltas(Authentication authentication) {
+        log.info("📡 Opening monitoring stream for {}", authentication.getName());
+
+        try {
+            return streamService.subscribe(authentication.getName());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+        }
+    }
+}
@@ -340,6 +340,52 @@ public class Overview_AvailableNetwork_Controller {
         }
     }
 
+    /**
+     * Get every network ever seen (keyset paginated, most recently discovered first)
+     */
+    @GetMapping("/history")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getNetworkHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            log.info("📋 Fetching network history page");
+
+            KeysetPage<AvailableNetworkDTO> page = networkService.getNetworkHistory(cursor, limit);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Network history retrieved successfully");
+            response.put("data", page.getItems());
+            response.put("count", page.getItems().size());
+            response.put("nextCursor", page.getNextCursor());
+            response.put("hasMore", page.getHasMore());
+            response.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "InvalidRequest");
+            errorResponse.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.badRequest().body(errorResponse);
+
+        } catch (Exception e) {
+            log.error("❌ Error fetching network history: ", e);
+
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Failed to retrieve network history: " + e.getMessage());
+            errorResponse.put("error", e.getClass().getSimpleName());
+            errorResponse.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
     /**
      * 🔥 ENHANCED: Refresh network data manually with comprehensive discovery
      */
@@ -0,0 +1,17 @@
+package NetGuard.Dashboard_Features_Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeviceActionRequestDTO {
+    private List<String> deviceMacs;
+    private String action; // BLOCK, UNBLOCK, SET_TIME_LIMIT
+    private String reason; // Optional, for BLOCK
+    private TimeLimitRequestDTO timeLimit; // Required for SET_TIME_LIMIT
+}
@@ -0,0 +1,20 @@
+package NetGuard.Dashboard_Features_Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeviceActionResultDTO {
+    private String action;
+    private Integer requestedCount;
+    private Integer succeededCount;
+    private Integer failedCount;
+    private LocalDateTime actionTime;
+    private List<DeviceActionResultDTO> results; // One entry per requested device, in request order
+}
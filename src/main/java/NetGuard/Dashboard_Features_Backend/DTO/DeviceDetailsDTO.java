@@ -16,4 +16,5 @@ public class DeviceDetailsDTO {
     private DeviceStatsDTO statistics;
     private List<SecurityAlertDTO> securityAlerts;
     private DeviceSettingsDTO currentSettings;
-}
\ No newline at end of file
+    private List<String> unavailableSections; // Sections that failed or missed the deadline
+}
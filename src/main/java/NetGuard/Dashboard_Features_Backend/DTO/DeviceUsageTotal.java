@@ -0,0 +1,14 @@
+package NetGuard.Dashboard_Features_Backend.DTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-device usage summed over a range of hourly rollups
+ */
+public interface DeviceUsageTotal {
+    String getDeviceMac();
+    String getDeviceName();
+    Long getBytesUsed();
+    Long getConnectedMinutes();
+    LocalDateTime getLastSeenAt();
+}
@@ -0,0 +1,11 @@
+package NetGuard.Dashboard_Features_Backend.DTO;
+
+/**
+ * Network usage summed per hour of the day over a range of hourly rollups
+ */
+public interface HourOfDayUsageTotal {
+    Integer getHourOfDay();
+    Long getBytesUsed();
+    Long getSignalSum();
+    Long getSignalSamples();
+}
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -13,4 +15,5 @@ public class HourlyActivityDTO {
     private Long dataUsed;
     private Integer sitesVisited;
     private String primaryActivity;
+    private LocalDateTime bucketStart;
 }
\ No newline at end of file
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -12,4 +14,5 @@ public class HourlyUsageDTO {
     private Long bytesUsed;
     private Integer deviceCount;
     private Double averageSignal;
+    private LocalDateTime bucketStart; // Calendar hour or day this entry covers
 }
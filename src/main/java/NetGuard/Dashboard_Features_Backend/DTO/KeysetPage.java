@@ -0,0 +1,31 @@
+package NetGuard.Dashboard_Features_Backend.DTO;
+
+import NetGuard.Dashboard_Features_Backend.Util.KeysetCursor;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPage<T> {
+    private List<T> items;
+    private String nextCursor; // Opaque token for the next page, null on the last page
+    private Boolean hasMore;
+
+    /**
+     * Build a page from rows fetched with one extra row beyond {@code pageSize};
+     * the extra row only signals that another page exists
+     */
+    public static <R, T> KeysetPage<T> of(List<R> rows, int pageSize,
+                                          Function<R, KeysetCursor> cursorOf, Function<R, T> mapper) {
+        boolean hasMore = rows.size() > pageSize;
+        List<R> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(pageRows.get(pageRows.size() - 1)).encode() : null;
+        return new KeysetPage<>(pageRows.stream().map(mapper).collect(Collectors.toList()), nextCursor, hasMore);
+    }
+}
@@ -0,0 +1,16 @@
+package NetGuard.Dashboard_Features_Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ManagedDevicePageDTO {
+    private List<ManagedDeviceDTO> devices;
+    private String nextCursor; // Opaque token for the next page, null on the last page
+    private Boolean hasMore;
+}
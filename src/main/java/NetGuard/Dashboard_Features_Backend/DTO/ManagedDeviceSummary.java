@@ -0,0 +1,18 @@
+package NetGuard.Dashboard_Features_Backend.DTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-device aggregate: the latest network_connections row plus usage totals from the hourly rollups.
+ * Filled by a native projection query in NetworkConnectionRepository.
+ */
+public interface ManagedDeviceSummary {
+    String getDeviceMac();
+    String getDeviceName();
+    String getAssignedIp();
+    String getConnectionStatus();
+    LocalDateTime getLastConnectedAt();
+    Integer getSignalStrength();
+    Long getTotalDataUsageBytes();
+    Long getTotalDurationMinutes();
+}
@@ -0,0 +1,20 @@
+package NetGuard.Dashboard_Features_Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleRuleRequestDTO {
+    private String name;
+    private String deviceMac;        // Target a single device...
+    private String deviceType;       // ...or every device of a type, e.g. "mobile"
+    private List<String> daysOfWeek; // Days the window opens on, e.g. ["SUNDAY", "MONDAY", ...]
+    private String startTime;        // e.g., "21:00"
+    private String endTime;          // e.g., "07:00"
+    private Boolean enabled;
+}
@@ -0,0 +1,17 @@
+package NetGuard.Dashboard_Features_Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleStatusDTO {
+    private String deviceMac;
+    private Boolean allowed;                 // False while a schedule window is open
+    private LocalDateTime nextTransitionAt;  // Null when no rule ever changes the state
+    private Integer minutesUntilTransition;
+    private Integer scheduledWindowCount;
+}
@@ -17,4 +17,13 @@ public class SecurityAlertDTO {
     private String status;
     private Boolean resolved;
     private String details;
+    private String deviceMac;
+    private Integer occurrenceCount; // Repeats folded into this alert within the dedup window
+    private LocalDateTime lastSeen;
+    private Long id; // Stored row id, set once the alert has been persisted
+
+    public SecurityAlertDTO(String alertType, String severity, String description, String url,
+                            LocalDateTime timestamp, String status, Boolean resolved, String details) {
+        this(alertType, severity, description, url, timestamp, status, resolved, details, null, null, null, null);
+    }
 }
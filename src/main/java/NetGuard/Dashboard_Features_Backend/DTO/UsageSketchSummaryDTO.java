@@ -0,0 +1,26 @@
+package NetGuard.Dashboard_Features_Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * Usage quantiles and distinct devices over a range of days, estimated from daily sketches.
+ * Quantiles are null when the range holds no samples.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsageSketchSummaryDTO {
+    private LocalDate from;
+    private LocalDate to;
+    private Integer daysWithData;
+    private Long screenTimeSamples;
+    private Double dailyScreenTimeMedianMinutes;
+    private Double dailyScreenTimeP95Minutes;
+    private Long sessionCount;
+    private Double sessionLengthMedianMinutes;
+    private Double sessionLengthP95Minutes;
+    private Long distinctDevices;
+}
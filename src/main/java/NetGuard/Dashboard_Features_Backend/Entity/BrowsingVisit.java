@@ -0,0 +1,48 @@
+package NetGuard.Dashboard_Features_Backend.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "browsing_visits", indexes = {
+        @Index(name = "idx_browsing_visit_device_time", columnList = "device_mac, started_at"),
+        @Index(name = "idx_browsing_visit_time", columnList = "started_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BrowsingVisit {
+
+    // Pooled sequence so closed visits can be inserted in JDBC batches
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "browsing_visit_seq")
+    @SequenceGenerator(name = "browsing_visit_seq", sequenceName = "browsing_visits_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "device_mac", nullable = false, length = 17)
+    private String deviceMac;
+
+    @Column(nullable = false, length = 255)
+    private String domain;
+
+    @Column(length = 50)
+    private String category;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "ended_at", nullable = false)
+    private LocalDateTime endedAt;
+
+    @Column(name = "dwell_seconds", nullable = false)
+    private Long dwellSeconds;
+
+    @Column(name = "event_count", nullable = false)
+    private Integer eventCount;
+
+    @Column(nullable = false)
+    private Boolean blocked = false;
+}
@@ -0,0 +1,36 @@
+package NetGuard.Dashboard_Features_Backend.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Mergeable usage sketches for one calendar day: t-digests of per-device screen time and of
+ * active session lengths, and a HyperLogLog of the devices seen
+ */
+@Entity
+@Table(name = "daily_usage_sketches")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyUsageSketch {
+
+    @Id
+    @Column(name = "sketch_day")
+    private LocalDate sketchDay;
+
+    @Column(name = "screen_time_digest")
+    private byte[] screenTimeDigest;
+
+    @Column(name = "session_digest")
+    private byte[] sessionDigest;
+
+    @Column(name = "device_sketch")
+    private byte[] deviceSketch;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
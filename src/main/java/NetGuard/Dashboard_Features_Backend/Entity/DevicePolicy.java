@@ -0,0 +1,81 @@
+package NetGuard.Dashboard_Features_Backend.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "device_policy")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DevicePolicy implements Persistable<String> {
+
+    @Id
+    @Column(name = "device_mac", length = 17)
+    private String deviceMac;
+
+    @Column(nullable = false)
+    private Boolean blocked = false;
+
+    @Column(name = "block_reason", length = 255)
+    private String blockReason;
+
+    @Column(name = "blocked_at")
+    private LocalDateTime blockedAt;
+
+    // Address enforced at block time, so an unblock still lifts it after a lease change
+    @Column(name = "blocked_address", length = 45)
+    private String blockedAddress;
+
+    @Column(name = "time_limit_enabled", nullable = false)
+    private Boolean timeLimitEnabled = false;
+
+    @Column(name = "daily_limit_minutes")
+    private Integer dailyLimitMinutes;
+
+    @Column(name = "limit_start_time", length = 5)
+    private String limitStartTime;
+
+    @Column(name = "limit_end_time", length = 5)
+    private String limitEndTime;
+
+    // Comma-separated day names, e.g. "MONDAY,TUESDAY"
+    @Column(name = "allowed_days", length = 100)
+    private String allowedDays;
+
+    // Comma-separated domains that don't count toward the daily limit
+    @Column(name = "exempt_sites", length = 2000)
+    private String exemptSites;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Lets saveAll insert new policies directly instead of probing each MAC with a select first
+    @Transient
+    private boolean persisted;
+
+    public DevicePolicy(String deviceMac) {
+        this.deviceMac = deviceMac;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @Override
+    public String getId() {
+        return deviceMac;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+}
@@ -0,0 +1,36 @@
+package NetGuard.Dashboard_Features_Backend.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Active time of one device on one local day, as counted by time limit enforcement
+ */
+@Entity
+@Table(name = "device_screen_time",
+        uniqueConstraints = @UniqueConstraint(name = "uk_device_screen_time", columnNames = {"usage_day", "device_mac"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceScreenTime {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "device_mac", nullable = false)
+    private String deviceMac;
+
+    @Column(name = "usage_day", nullable = false)
+    private LocalDate usageDay;
+
+    @Column(name = "active_millis", nullable = false)
+    private Long activeMillis = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,49 @@
+package NetGuard.Dashboard_Features_Backend.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Usage of one device during one clock hour, accumulated by the connection accounting job
+ */
+@Entity
+@Table(name = "device_usage_hourly",
+        uniqueConstraints = @UniqueConstraint(name = "uk_device_usage_hourly", columnNames = {"device_mac", "hour_start"}),
+        indexes = @Index(name = "idx_device_usage_hourly_hour", columnList = "hour_start"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceUsageRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "device_mac", nullable = false)
+    private String deviceMac;
+
+    @Column(name = "device_name")
+    private String deviceName;
+
+    @Column(name = "hour_start", nullable = false)
+    private LocalDateTime hourStart;
+
+    @Column(name = "bytes_used", nullable = false)
+    private Long bytesUsed = 0L;
+
+    @Column(name = "connected_minutes", nullable = false)
+    private Long connectedMinutes = 0L;
+
+    @Column(name = "last_seen_at", nullable = false)
+    private LocalDateTime lastSeenAt;
+
+    // Average signal for the hour is signalSum / signalSamples
+    @Column(name = "signal_sum")
+    private Long signalSum = 0L;
+
+    @Column(name = "signal_samples")
+    private Long signalSamples = 0L;
+}
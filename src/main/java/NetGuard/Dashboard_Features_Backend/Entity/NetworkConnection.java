@@ -7,7 +7,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "network_connections")
+@Table(name = "network_connections", indexes = {
+        @Index(name = "idx_network_connection_device_time", columnList = "device_mac, connected_at"),
+        @Index(name = "idx_network_connection_time", columnList = "connected_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
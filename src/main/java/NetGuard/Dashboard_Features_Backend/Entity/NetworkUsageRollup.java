@@ -0,0 +1,43 @@
+package NetGuard.Dashboard_Features_Backend.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Usage carried by one network during one clock hour, accumulated by the connection accounting job
+ */
+@Entity
+@Table(name = "network_usage_hourly",
+        uniqueConstraints = @UniqueConstraint(name = "uk_network_usage_hourly", columnNames = {"network_id", "hour_start"}),
+        indexes = @Index(name = "idx_network_usage_hourly_hour", columnList = "hour_start"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NetworkUsageRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "network_id", nullable = false)
+    private Long networkId;
+
+    @Column(name = "hour_start", nullable = false)
+    private LocalDateTime hourStart;
+
+    @Column(name = "bytes_used", nullable = false)
+    private Long bytesUsed = 0L;
+
+    @Column(name = "connected_minutes", nullable = false)
+    private Long connectedMinutes = 0L;
+
+    // Average signal for the hour is signalSum / signalSamples
+    @Column(name = "signal_sum", nullable = false)
+    private Long signalSum = 0L;
+
+    @Column(name = "signal_samples", nullable = false)
+    private Long signalSamples = 0L;
+}
@@ -0,0 +1,45 @@
+package NetGuard.Dashboard_Features_Backend.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "schedule_rules")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    // Exactly one of deviceMac / deviceType targets the rule
+    @Column(name = "device_mac", length = 17)
+    private String deviceMac;
+
+    @Column(name = "device_type", length = 20)
+    private String deviceType; // mobile, tablet, tv, laptop, desktop, unknown
+
+    // Comma-separated days the window opens on, e.g. "SUNDAY,MONDAY,TUESDAY,WEDNESDAY,THURSDAY"
+    @Column(name = "days_of_week", nullable = false, length = 100)
+    private String daysOfWeek;
+
+    @Column(name = "start_time", nullable = false, length = 5)
+    private String startTime; // e.g., "21:00"
+
+    @Column(name = "end_time", nullable = false, length = 5)
+    private String endTime;   // e.g., "07:00" - earlier than start means the next morning
+
+    @Column(nullable = false)
+    private Boolean enabled = true;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,58 @@
+package NetGuard.Dashboard_Features_Backend.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "security_alerts", indexes = {
+        @Index(name = "idx_security_alert_device_time", columnList = "device_mac, created_at"),
+        @Index(name = "idx_security_alert_severity_time", columnList = "severity, created_at"),
+        @Index(name = "idx_security_alert_time", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SecurityAlert {
+
+    // Sequence with a pooled allocation so the batched writer can use JDBC insert batching
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "security_alert_seq")
+    @SequenceGenerator(name = "security_alert_seq", sequenceName = "security_alerts_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "device_mac", length = 17)
+    private String deviceMac;
+
+    @Column(name = "alert_type", nullable = false, length = 50)
+    private String alertType;
+
+    @Column(nullable = false, length = 20)
+    private String severity; // LOW, MEDIUM, HIGH, CRITICAL
+
+    @Column(length = 255)
+    private String description;
+
+    @Column(length = 2048)
+    private String url;
+
+    @Column(length = 20)
+    private String status; // WARNED, BLOCKED
+
+    @Column(nullable = false)
+    private Boolean resolved = false;
+
+    @Column(length = 500)
+    private String details;
+
+    @Column(name = "occurrence_count", nullable = false)
+    private Integer occurrenceCount = 1;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "last_seen")
+    private LocalDateTime lastSeen;
+}
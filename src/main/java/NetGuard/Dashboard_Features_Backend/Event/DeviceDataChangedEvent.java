@@ -0,0 +1,14 @@
+package NetGuard.Dashboard_Features_Backend.Event;
+
+/**
+ * Published after device or usage data behind the dashboard analytics has been committed.
+ * The device MAC is null when a change spans many devices, such as an accounting pass.
+ */
+public record DeviceDataChangedEvent(Type type, String deviceMac) {
+
+    public enum Type {
+        CONNECTED,
+        DISCONNECTED,
+        USAGE
+    }
+}
@@ -0,0 +1,9 @@
+package NetGuard.Dashboard_Features_Backend.Event;
+
+import java.time.Instant;
+
+/**
+ * A query seen by the embedded DNS forwarder
+ */
+public record DnsQueryEvent(String clientIp, String queryName, int queryType, Instant timestamp) {
+}
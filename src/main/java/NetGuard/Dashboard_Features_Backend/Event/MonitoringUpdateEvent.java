@@ -0,0 +1,16 @@
+package NetGuard.Dashboard_Features_Backend.Event;
+
+/**
+ * Published when a piece of live monitoring state materially changes.
+ * The key is the device MAC for device entries, the counter name for traffic,
+ * and the device MAC (possibly null) for alerts.
+ */
+public record MonitoringUpdateEvent(Type type, String key, Object payload) {
+
+    public enum Type {
+        PERFORMANCE,
+        BROWSING,
+        TRAFFIC,
+        ALERT
+    }
+}
@@ -0,0 +1,13 @@
+package NetGuard.Dashboard_Features_Backend.Event;
+
+import java.time.Instant;
+
+/**
+ * A LAN client observed talking to a website, as reported by one of the activity collectors
+ */
+public record SiteActivityEvent(String clientIp, String domain, Source source, Instant timestamp) {
+
+    public enum Source {
+        DNS, CONNTRACK, PROXY_LOG
+    }
+}
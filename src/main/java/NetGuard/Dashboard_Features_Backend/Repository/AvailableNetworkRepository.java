@@ -1,6 +1,7 @@
 package NetGuard.Dashboard_Features_Backend.Repository;
 
 import NetGuard.Dashboard_Features_Backend.Entity.AvailableNetwork;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -89,6 +90,14 @@ public interface AvailableNetworkRepository extends JpaRepository<AvailableNetwo
     @Query("SELECT an FROM AvailableNetwork an WHERE an.isAvailable = true ORDER BY an.signalStrength DESC")
     List<AvailableNetwork> findAllBySignalStrengthDesc();
 
+    /**
+     * Page through every network ever seen, most recently discovered first; seeks on the
+     * primary key, which scans never rewrite, so rows cannot shift between pages
+     */
+    @Query("SELECT an FROM AvailableNetwork an WHERE an.id < :cursorId ORDER BY an.id DESC")
+    List<AvailableNetwork> findSeenPage(@Param("cursorId") Long cursorId,
+                                        Pageable pageable);
+
     // ==========================================
     // TIME-BASED QUERIES - ACTIVELY USED
     // ==========================================
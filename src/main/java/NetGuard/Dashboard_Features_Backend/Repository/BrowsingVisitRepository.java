@@ -0,0 +1,45 @@
+package NetGuard.Dashboard_Features_Backend.Repository;
+
+import NetGuard.Dashboard_Features_Backend.Entity.BrowsingVisit;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface BrowsingVisitRepository extends JpaRepository<BrowsingVisit, Long> {
+
+    // Served by idx_browsing_visit_device_time
+    List<BrowsingVisit> findByDeviceMacAndStartedAtGreaterThanEqualOrderByStartedAtDesc(
+            String deviceMac, LocalDateTime from, Pageable pageable);
+
+    /**
+     * Stream visits started in [from, to), oldest first, from a server-side cursor;
+     * the caller must hold a transaction and close the stream. Served by idx_browsing_visit_time
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT v FROM BrowsingVisit v WHERE v.startedAt >= :from AND v.startedAt < :to ORDER BY v.startedAt, v.id")
+    Stream<BrowsingVisit> streamVisitsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Served by idx_browsing_visit_device_time
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT v FROM BrowsingVisit v WHERE v.deviceMac = :deviceMac " +
+            "AND v.startedAt >= :from AND v.startedAt < :to ORDER BY v.startedAt, v.id")
+    Stream<BrowsingVisit> streamVisitsBetweenForDevice(@Param("deviceMac") String deviceMac,
+                                                       @Param("from") LocalDateTime from,
+                                                       @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,14 @@
+package NetGuard.Dashboard_Features_Backend.Repository;
+
+import NetGuard.Dashboard_Features_Backend.Entity.DailyUsageSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyUsageSketchRepository extends JpaRepository<DailyUsageSketch, LocalDate> {
+
+    List<DailyUsageSketch> findBySketchDayBetween(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,9 @@
+package NetGuard.Dashboard_Features_Backend.Repository;
+
+import NetGuard.Dashboard_Features_Backend.Entity.DevicePolicy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DevicePolicyRepository extends JpaRepository<DevicePolicy, String> {
+}
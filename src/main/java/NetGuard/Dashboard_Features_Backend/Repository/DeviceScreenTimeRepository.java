@@ -0,0 +1,26 @@
+package NetGuard.Dashboard_Features_Backend.Repository;
+
+import NetGuard.Dashboard_Features_Backend.Entity.DeviceScreenTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DeviceScreenTimeRepository extends JpaRepository<DeviceScreenTime, Long> {
+
+    List<DeviceScreenTime> findByUsageDay(LocalDate usageDay);
+
+    List<DeviceScreenTime> findByUsageDayAndDeviceMacIn(LocalDate usageDay, Collection<String> deviceMacs);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DeviceScreenTime s WHERE s.usageDay < :day")
+    int deleteBefore(@Param("day") LocalDate day);
+}
@@ -0,0 +1,80 @@
+package NetGuard.Dashboard_Features_Backend.Repository;
+
+import NetGuard.Dashboard_Features_Backend.DTO.DeviceUsageTotal;
+import NetGuard.Dashboard_Features_Backend.Entity.DeviceUsageRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DeviceUsageRollupRepository extends JpaRepository<DeviceUsageRollup, Long> {
+
+    /**
+     * Add usage to a device's hour, creating the bucket on first use
+     */
+    @Modifying
+    @Query(value = "INSERT INTO device_usage_hourly " +
+            "(device_mac, device_name, hour_start, bytes_used, connected_minutes, last_seen_at, signal_sum, signal_samples) " +
+            "VALUES (:deviceMac, :deviceName, :hourStart, :bytesUsed, :connectedMinutes, :seenAt, :signalSum, :signalSamples) " +
+            "ON CONFLICT (device_mac, hour_start) DO UPDATE SET " +
+            "bytes_used = device_usage_hourly.bytes_used + EXCLUDED.bytes_used, " +
+            "connected_minutes = device_usage_hourly.connected_minutes + EXCLUDED.connected_minutes, " +
+            "device_name = COALESCE(EXCLUDED.device_name, device_usage_hourly.device_name), " +
+            "last_seen_at = GREATEST(device_usage_hourly.last_seen_at, EXCLUDED.last_seen_at), " +
+            "signal_sum = COALESCE(device_usage_hourly.signal_sum, 0) + EXCLUDED.signal_sum, " +
+            "signal_samples = COALESCE(device_usage_hourly.signal_samples, 0) + EXCLUDED.signal_samples",
+            nativeQuery = true)
+    int addUsage(@Param("deviceMac") String deviceMac,
+                 @Param("deviceName") String deviceName,
+                 @Param("hourStart") LocalDateTime hourStart,
+                 @Param("bytesUsed") long bytesUsed,
+                 @Param("connectedMinutes") long connectedMinutes,
+                 @Param("seenAt") LocalDateTime seenAt,
+                 @Param("signalSum") long signalSum,
+                 @Param("signalSamples") long signalSamples);
+
+    /**
+     * Seed the rollup from existing connection rows, each attributed to the hour it started in
+     */
+    @Modifying
+    @Query(value = "INSERT INTO device_usage_hourly " +
+            "(device_mac, device_name, hour_start, bytes_used, connected_minutes, last_seen_at, signal_sum, signal_samples) " +
+            "SELECT nc.device_mac, MAX(nc.device_name), date_trunc('hour', nc.connected_at), " +
+            "SUM(COALESCE(nc.data_usage_bytes, 0)), SUM(COALESCE(nc.connection_duration_minutes, 0)), " +
+            "MAX(nc.connected_at), SUM(COALESCE(an.signal_strength, 0)), COUNT(an.signal_strength) " +
+            "FROM network_connections nc LEFT JOIN available_networks an ON an.id = nc.network_id " +
+            "GROUP BY nc.device_mac, date_trunc('hour', nc.connected_at) " +
+            "ON CONFLICT (device_mac, hour_start) DO NOTHING",
+            nativeQuery = true)
+    int backfillFromConnections();
+
+    /**
+     * Hourly rows from {@code from} onwards in time order, for warming the in-memory store
+     */
+    List<DeviceUsageRollup> findByHourStartGreaterThanEqualOrderByHourStartAsc(LocalDateTime from);
+
+    /**
+     * Hourly rows starting in [from, to), for breakdowns outside the in-memory window
+     */
+    List<DeviceUsageRollup> findByHourStartGreaterThanEqualAndHourStartLessThan(LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT r.deviceMac AS deviceMac, MAX(r.deviceName) AS deviceName, " +
+            "SUM(r.bytesUsed) AS bytesUsed, SUM(r.connectedMinutes) AS connectedMinutes, " +
+            "MAX(r.lastSeenAt) AS lastSeenAt " +
+            "FROM DeviceUsageRollup r WHERE r.hourStart >= :from AND r.hourStart < :to " +
+            "GROUP BY r.deviceMac")
+    List<DeviceUsageTotal> sumByDevice(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Distinct devices seen per hour of the day, as [hour, count] pairs
+     */
+    @Query("SELECT EXTRACT(HOUR FROM r.hourStart), COUNT(DISTINCT r.deviceMac) " +
+            "FROM DeviceUsageRollup r WHERE r.hourStart >= :from AND r.hourStart < :to " +
+            "GROUP BY EXTRACT(HOUR FROM r.hourStart)")
+    List<Object[]> countDevicesByHourOfDay(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -1,15 +1,22 @@
 package NetGuard.Dashboard_Features_Backend.Repository;
 
+import NetGuard.Dashboard_Features_Backend.DTO.ManagedDeviceSummary;
 import NetGuard.Dashboard_Features_Backend.Entity.AvailableNetwork;
 import NetGuard.Dashboard_Features_Backend.Entity.NetworkConnection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface NetworkConnectionRepository extends JpaRepository<NetworkConnection, Long> {
@@ -23,6 +30,13 @@ public interface NetworkConnectionRepository extends JpaRepository<NetworkConnec
      */
     List<NetworkConnection> findByDeviceMac(String deviceMac);
 
+    /**
+     * All connections for a device with their network fetched in the same query, newest first
+     */
+    @Query("SELECT nc FROM NetworkConnection nc LEFT JOIN FETCH nc.network " +
+            "WHERE nc.deviceMac = :deviceMac ORDER BY nc.connectedAt DESC")
+    List<NetworkConnection> findByDeviceMacWithNetwork(@Param("deviceMac") String deviceMac);
+
     /**
      * Find all currently connected devices
      */
@@ -33,6 +47,11 @@ public interface NetworkConnectionRepository extends JpaRepository<NetworkConnec
      */
     Optional<NetworkConnection> findByDeviceMacAndIsCurrentlyConnectedTrue(String deviceMac);
 
+    /**
+     * Find active connections for several devices at once
+     */
+    List<NetworkConnection> findByDeviceMacInAndIsCurrentlyConnectedTrue(Collection<String> deviceMacs);
+
     /**
      * Find connections by device name
      */
@@ -44,10 +63,124 @@ public interface NetworkConnectionRepository extends JpaRepository<NetworkConnec
     @Query("SELECT nc FROM NetworkConnection nc WHERE nc.network.ssid = :ssid")
     List<NetworkConnection> findByNetworkSsid(@Param("ssid") String ssid);
 
+    // ==========================================
+    // MANAGED DEVICE AGGREGATES - KEYSET PAGINATED BY MAC
+    // Distinct MACs are walked in order with a recursive skip scan that starts at the cursor and
+    // stops once the page is full. Each device's latest row is one probe of
+    // idx_network_connection_device_time, and its totals come from the hourly usage rollups.
+    // ==========================================
+
+    String MANAGED_DEVICE_MACS =
+            "WITH RECURSIVE macs(device_mac) AS (" +
+            "  SELECT MIN(device_mac) FROM network_connections WHERE device_mac > :cursorMac" +
+            "  UNION ALL" +
+            "  SELECT (SELECT MIN(nc.device_mac) FROM network_connections nc WHERE nc.device_mac > macs.device_mac)" +
+            "  FROM macs WHERE macs.device_mac IS NOT NULL" +
+            ") ";
+
+    String MANAGED_DEVICE_SELECT =
+            "SELECT p.device_mac AS deviceMac, l.device_name AS deviceName, l.assigned_ip AS assignedIp, " +
+            "l.connection_status AS connectionStatus, l.connected_at AS lastConnectedAt, " +
+            "n.signal_strength AS signalStrength, s.total_bytes AS totalDataUsageBytes, s.total_minutes AS totalDurationMinutes " +
+            "FROM page p " +
+            "CROSS JOIN LATERAL (" +
+            "  SELECT nc.device_name, nc.assigned_ip, nc.connection_status, nc.connected_at, nc.network_id" +
+            "  FROM network_connections nc WHERE nc.device_mac = p.device_mac" +
+            "  ORDER BY nc.connected_at DESC, nc.id DESC LIMIT 1) l " +
+            "LEFT JOIN available_networks n ON n.id = l.network_id " +
+            "CROSS JOIN LATERAL (" +
+            "  SELECT COALESCE(SUM(r.bytes_used), 0) AS total_bytes," +
+            "         COALESCE(SUM(r.connected_minutes), 0) AS total_minutes" +
+            "  FROM device_usage_hourly r WHERE r.device_mac = p.device_mac) s " +
+            "ORDER BY p.device_mac";
+
+    /**
+     * One page of devices in MAC order after the cursor MAC
+     */
+    @Query(value = MANAGED_DEVICE_MACS +
+            ", page AS (SELECT device_mac FROM macs WHERE device_mac IS NOT NULL LIMIT :limit) " +
+            MANAGED_DEVICE_SELECT, nativeQuery = true)
+    List<ManagedDeviceSummary> findManagedDevicePage(@Param("cursorMac") String cursorMac,
+                                                     @Param("limit") int limit);
+
+    /**
+     * Every device in MAC order, in a single skip scan
+     */
+    @Query(value = MANAGED_DEVICE_MACS +
+            ", page AS (SELECT device_mac FROM macs WHERE device_mac IS NOT NULL) " +
+            MANAGED_DEVICE_SELECT, nativeQuery = true)
+    List<ManagedDeviceSummary> findAllManagedDevices(@Param("cursorMac") String cursorMac);
+
+    /**
+     * Aggregate for a single device
+     */
+    @Query(value = "WITH page AS (SELECT CAST(:deviceMac AS varchar) AS device_mac) " +
+            MANAGED_DEVICE_SELECT, nativeQuery = true)
+    Optional<ManagedDeviceSummary> findManagedDevice(@Param("deviceMac") String deviceMac);
+
     // ==========================================
     // TIME-BASED QUERIES - ACTIVELY USED
     // ==========================================
 
+    // ==========================================
+    // KEYSET PAGINATION - NEWEST FIRST
+    // Seeks on (connected_at, id) so each page is an index range scan
+    // ==========================================
+
+    /**
+     * Page through connections started in [from, to) (uses idx_network_connection_time)
+     */
+    @Query("SELECT nc FROM NetworkConnection nc LEFT JOIN FETCH nc.network " +
+            "WHERE nc.connectedAt >= :from AND nc.connectedAt < :to " +
+            "AND (nc.connectedAt < :cursorTime OR (nc.connectedAt = :cursorTime AND nc.id < :cursorId)) " +
+            "ORDER BY nc.connectedAt DESC, nc.id DESC")
+    List<NetworkConnection> findConnectionPage(@Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to,
+                                               @Param("cursorTime") LocalDateTime cursorTime,
+                                               @Param("cursorId") Long cursorId,
+                                               Pageable pageable);
+
+    /**
+     * Page through one device's connections (uses idx_network_connection_device_time)
+     */
+    @Query("SELECT nc FROM NetworkConnection nc LEFT JOIN FETCH nc.network WHERE nc.deviceMac = :deviceMac " +
+            "AND nc.connectedAt >= :from AND nc.connectedAt < :to " +
+            "AND (nc.connectedAt < :cursorTime OR (nc.connectedAt = :cursorTime AND nc.id < :cursorId)) " +
+            "ORDER BY nc.connectedAt DESC, nc.id DESC")
+    List<NetworkConnection> findConnectionPageByDevice(@Param("deviceMac") String deviceMac,
+                                                       @Param("from") LocalDateTime from,
+                                                       @Param("to") LocalDateTime to,
+                                                       @Param("cursorTime") LocalDateTime cursorTime,
+                                                       @Param("cursorId") Long cursorId,
+                                                       Pageable pageable);
+
+    // ==========================================
+    // EXPORT - FORWARD-ONLY CURSORS
+    // ==========================================
+
+    /**
+     * Stream connections started in [from, to), oldest first; the caller must hold a transaction
+     * and close the stream. Rows are fetched from a server-side cursor in batches of the fetch size.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT nc FROM NetworkConnection nc LEFT JOIN FETCH nc.network " +
+            "WHERE nc.connectedAt >= :from AND nc.connectedAt < :to ORDER BY nc.connectedAt, nc.id")
+    Stream<NetworkConnection> streamConnectionsBetween(@Param("from") LocalDateTime from,
+                                                       @Param("to") LocalDateTime to);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT nc FROM NetworkConnection nc LEFT JOIN FETCH nc.network WHERE nc.deviceMac = :deviceMac " +
+            "AND nc.connectedAt >= :from AND nc.connectedAt < :to ORDER BY nc.connectedAt, nc.id")
+    Stream<NetworkConnection> streamConnectionsBetweenForDevice(@Param("deviceMac") String deviceMac,
+                                                                @Param("from") LocalDateTime from,
+                                                                @Param("to") LocalDateTime to);
+
     /**
      * Find connections since a specific time
      */
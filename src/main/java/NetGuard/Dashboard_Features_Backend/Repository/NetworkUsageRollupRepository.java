@@ -0,0 +1,61 @@
+package NetGuard.Dashboard_Features_Backend.Repository;
+
+import NetGuard.Dashboard_Features_Backend.DTO.HourOfDayUsageTotal;
+import NetGuard.Dashboard_Features_Backend.Entity.NetworkUsageRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NetworkUsageRollupRepository extends JpaRepository<NetworkUsageRollup, Long> {
+
+    /**
+     * Add usage to a network's hour, creating the bucket on first use
+     */
+    @Modifying
+    @Query(value = "INSERT INTO network_usage_hourly " +
+            "(network_id, hour_start, bytes_used, connected_minutes, signal_sum, signal_samples) " +
+            "VALUES (:networkId, :hourStart, :bytesUsed, :connectedMinutes, :signalSum, :signalSamples) " +
+            "ON CONFLICT (network_id, hour_start) DO UPDATE SET " +
+            "bytes_used = network_usage_hourly.bytes_used + EXCLUDED.bytes_used, " +
+            "connected_minutes = network_usage_hourly.connected_minutes + EXCLUDED.connected_minutes, " +
+            "signal_sum = network_usage_hourly.signal_sum + EXCLUDED.signal_sum, " +
+            "signal_samples = network_usage_hourly.signal_samples + EXCLUDED.signal_samples",
+            nativeQuery = true)
+    int addUsage(@Param("networkId") Long networkId,
+                 @Param("hourStart") LocalDateTime hourStart,
+                 @Param("bytesUsed") long bytesUsed,
+                 @Param("connectedMinutes") long connectedMinutes,
+                 @Param("signalSum") long signalSum,
+                 @Param("signalSamples") long signalSamples);
+
+    /**
+     * Seed the rollup from existing connection rows, each attributed to the hour it started in
+     */
+    @Modifying
+    @Query(value = "INSERT INTO network_usage_hourly " +
+            "(network_id, hour_start, bytes_used, connected_minutes, signal_sum, signal_samples) " +
+            "SELECT nc.network_id, date_trunc('hour', nc.connected_at), " +
+            "SUM(COALESCE(nc.data_usage_bytes, 0)), SUM(COALESCE(nc.connection_duration_minutes, 0)), " +
+            "SUM(COALESCE(an.signal_strength, 0)), COUNT(an.signal_strength) " +
+            "FROM network_connections nc LEFT JOIN available_networks an ON an.id = nc.network_id " +
+            "GROUP BY nc.network_id, date_trunc('hour', nc.connected_at) " +
+            "ON CONFLICT (network_id, hour_start) DO NOTHING",
+            nativeQuery = true)
+    int backfillFromConnections();
+
+    @Query("SELECT COALESCE(SUM(r.bytesUsed), 0) FROM NetworkUsageRollup r " +
+            "WHERE r.hourStart >= :from AND r.hourStart < :to")
+    Long sumBytes(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT EXTRACT(HOUR FROM r.hourStart) AS hourOfDay, SUM(r.bytesUsed) AS bytesUsed, " +
+            "SUM(r.signalSum) AS signalSum, SUM(r.signalSamples) AS signalSamples " +
+            "FROM NetworkUsageRollup r WHERE r.hourStart >= :from AND r.hourStart < :to " +
+            "GROUP BY EXTRACT(HOUR FROM r.hourStart)")
+    List<HourOfDayUsageTotal> sumByHourOfDay(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,13 @@
+package NetGuard.Dashboard_Features_Backend.Repository;
+
+import NetGuard.Dashboard_Features_Backend.Entity.ScheduleRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ScheduleRuleRepository extends JpaRepository<ScheduleRule, Long> {
+
+    List<ScheduleRule> findByEnabledTrue();
+}
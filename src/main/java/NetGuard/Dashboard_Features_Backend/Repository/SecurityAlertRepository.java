@@ -0,0 +1,92 @@
+package NetGuard.Dashboard_Features_Backend.Repository;
+
+import NetGuard.Dashboard_Features_Backend.Entity.SecurityAlert;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SecurityAlertRepository extends JpaRepository<SecurityAlert, Long> {
+
+    // ==========================================
+    // KEYSET PAGINATION - NEWEST FIRST
+    // Every variant seeks on (created_at, id) so each page is an index range scan
+    // ==========================================
+
+    /**
+     * Page through all alerts in a time range
+     */
+    @Query("SELECT a FROM SecurityAlert a WHERE a.createdAt >= :from AND a.createdAt < :to " +
+            "AND (a.createdAt < :cursorTime OR (a.createdAt = :cursorTime AND a.id < :cursorId)) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<SecurityAlert> findPage(@Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to,
+                                 @Param("cursorTime") LocalDateTime cursorTime,
+                                 @Param("cursorId") Long cursorId,
+                                 Pageable pageable);
+
+    /**
+     * Page through alerts for one device (uses idx_security_alert_device_time)
+     */
+    @Query("SELECT a FROM SecurityAlert a WHERE a.deviceMac = :deviceMac " +
+            "AND a.createdAt >= :from AND a.createdAt < :to " +
+            "AND (a.createdAt < :cursorTime OR (a.createdAt = :cursorTime AND a.id < :cursorId)) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<SecurityAlert> findPageByDevice(@Param("deviceMac") String deviceMac,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to,
+                                         @Param("cursorTime") LocalDateTime cursorTime,
+                                         @Param("cursorId") Long cursorId,
+                                         Pageable pageable);
+
+    /**
+     * Page through alerts of one severity (uses idx_security_alert_severity_time)
+     */
+    @Query("SELECT a FROM SecurityAlert a WHERE a.severity = :severity " +
+            "AND a.createdAt >= :from AND a.createdAt < :to " +
+            "AND (a.createdAt < :cursorTime OR (a.createdAt = :cursorTime AND a.id < :cursorId)) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<SecurityAlert> findPageBySeverity(@Param("severity") String severity,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to,
+                                           @Param("cursorTime") LocalDateTime cursorTime,
+                                           @Param("cursorId") Long cursorId,
+                                           Pageable pageable);
+
+    /**
+     * Page through alerts for one device and severity
+     */
+    @Query("SELECT a FROM SecurityAlert a WHERE a.deviceMac = :deviceMac AND a.severity = :severity " +
+            "AND a.createdAt >= :from AND a.createdAt < :to " +
+            "AND (a.createdAt < :cursorTime OR (a.createdAt = :cursorTime AND a.id < :cursorId)) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<SecurityAlert> findPageByDeviceAndSeverity(@Param("deviceMac") String deviceMac,
+                                                    @Param("severity") String severity,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to,
+                                                    @Param("cursorTime") LocalDateTime cursorTime,
+                                                    @Param("cursorId") Long cursorId,
+                                                    Pageable pageable);
+
+    // ==========================================
+    // AGGREGATE UPDATES
+    // ==========================================
+
+    /**
+     * Fold repeats counted by the in-memory dedup window into the stored alert
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE SecurityAlert a SET a.occurrenceCount = :occurrenceCount, a.lastSeen = :lastSeen " +
+            "WHERE a.id = :id")
+    int updateOccurrences(@Param("id") Long id,
+                          @Param("occurrenceCount") Integer occurrenceCount,
+                          @Param("lastSeen") LocalDateTime lastSeen);
+}
@@ -25,7 +25,10 @@ import java.util.Collection;
 @RequiredArgsConstructor
 public class DashboardJwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String STREAM_PATH = "/api/monitoring/stream";
+
     private final JwtUtil jwtUtil;
+    private final StreamTicketStore streamTicketStore;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
@@ -47,19 +50,26 @@ public class DashboardJwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
+            // Browser EventSource cannot set headers, so the stream authenticates with a single-use ticket
+            if (request.getRequestURI().equals(STREAM_PATH) && StringUtils.hasText(request.getParameter("ticket"))) {
+                String email = streamTicketStore.redeem(request.getParameter("ticket"));
+                if (email != null) {
+                    authenticate(request, email);
+                    log.debug("Authenticated monitoring stream for {} with a stream ticket", email);
+                } else {
+                    log.debug("Rejected unknown or expired stream ticket");
+                }
+                filterChain.doFilter(request, response);
+                return;
+            }
+
             String jwt = getJwtFromRequest(request);
 
             if (StringUtils.hasText(jwt) && jwtUtil.isTokenValid(jwt)) {
                 String email = jwtUtil.getEmailFromToken(jwt);
 
                 if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    Collection<GrantedAuthority> authorities = createAuthoritiesForDashboard();
-
-                    UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(email, null, authorities);
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-
+                    authenticate(request, email);
                     log.debug("Successfully authenticated user: {} for dashboard access", email);
                 }
             } else {
@@ -82,6 +92,15 @@ public class DashboardJwtAuthenticationFilter extends OncePerRequestFilter {
         return null;
     }
 
+    private void authenticate(HttpServletRequest request, String email) {
+        Collection<GrantedAuthority> authorities = createAuthoritiesForDashboard();
+
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(email, null, authorities);
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
     private Collection<GrantedAuthority> createAuthoritiesForDashboard() {
         return Arrays.asList(
                 new SimpleGrantedAuthority("ROLE_USER"),
@@ -0,0 +1,72 @@
+package NetGuard.Dashboard_Features_Backend.Security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived, single-use tickets for opening the monitoring stream.
+ * Browser EventSource cannot send an Authorization header, so the client trades its JWT for a
+ * ticket over an authenticated request and puts only the ticket in the stream URL. A ticket is
+ * removed on first use and expires within seconds, so one that ends up in an access log,
+ * proxy or browser history is already worthless.
+ */
+@Component
+@Slf4j
+public class StreamTicketStore {
+
+    private static final SecureRandom secureRandom = new SecureRandom();
+    private static final int TICKET_BYTES = 32;
+
+    @Value("${app.dashboard.stream.ticket-ttl-seconds:30}")
+    private int ticketTtlSeconds;
+
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    private record Ticket(String parentEmail, long expiresAtMillis) {
+    }
+
+    /**
+     * Issue a ticket for an authenticated parent
+     */
+    public String issue(String parentEmail) {
+        byte[] bytes = new byte[TICKET_BYTES];
+        secureRandom.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        tickets.put(ticket, new Ticket(parentEmail, System.currentTimeMillis() + ticketTtlSeconds * 1000L));
+        return ticket;
+    }
+
+    /**
+     * Consume a ticket; returns the parent it was issued to, or null if unknown, used or expired
+     */
+    public String redeem(String ticket) {
+        if (ticket == null) {
+            return null;
+        }
+        Ticket issued = tickets.remove(ticket);
+        if (issued == null || issued.expiresAtMillis() < System.currentTimeMillis()) {
+            return null;
+        }
+        return issued.parentEmail();
+    }
+
+    public int getTicketTtlSeconds() {
+        return ticketTtlSeconds;
+    }
+
+    /**
+     * Drop tickets that were issued but never used
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        tickets.values().removeIf(ticket -> ticket.expiresAtMillis() < now);
+    }
+}
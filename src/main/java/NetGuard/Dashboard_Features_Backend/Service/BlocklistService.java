@@ -0,0 +1,192 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.Util.BlocklistCompiler;
+import NetGuard.Dashboard_Features_Backend.Util.BloomFilter;
+import NetGuard.Dashboard_Features_Backend.Util.CompiledBlocklist;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Serves compiled vendor blocklists, one {@code <profile>.ngbl} file per profile in
+ * {@code app.dashboard.blocklist.dir}. Files are memory-mapped rather than parsed, so multi-million
+ * domain lists cost no heap and no startup parse. A scheduled check remaps changed files and
+ * swaps the whole profile map atomically; lookups never wait on a reload.
+ * Each list gets a Bloom pre-check so benign hosts are rejected without touching mapped pages.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BlocklistService {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.dashboard.blocklist.dir:}")
+    private String blocklistDir;
+
+    // Profiles enforced for every lookup; empty means all loaded profiles
+    @Value("${app.dashboard.blocklist.active-profiles:}")
+    private List<String> activeProfiles;
+
+    // Bloom pre-check target false positive rate; 0 disables the filters
+    @Value("${app.dashboard.blocklist.filter.false-positive-rate:0.01}")
+    private double filterFalsePositiveRate;
+
+    private final AtomicReference<Map<String, LoadedList>> lists = new AtomicReference<>(Map.of());
+
+    // Filter counters outlive reloads so the exported metrics stay monotonic
+    private final Map<String, BloomFilter.Stats> filterStats = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        reloadChangedLists();
+    }
+
+    /**
+     * Remap blocklist files whose size or modification time changed
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.blocklist.reload-interval-ms:30000}")
+    public void reloadChangedLists() {
+        if (blocklistDir == null || blocklistDir.isBlank()) {
+            return;
+        }
+        Path directory = Paths.get(blocklistDir);
+        if (!Files.isDirectory(directory)) {
+            log.debug("Blocklist directory {} does not exist", directory);
+            return;
+        }
+
+        Map<String, LoadedList> current = lists.get();
+        Map<String, LoadedList> next = new HashMap<>();
+        boolean changed = false;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + BlocklistCompiler.FILE_EXTENSION)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                String profile = fileName.substring(0, fileName.length() - BlocklistCompiler.FILE_EXTENSION.length());
+                FileTime modified = Files.getLastModifiedTime(file);
+                long size = Files.size(file);
+
+                LoadedList existing = current.get(profile);
+                if (existing != null && existing.modified().equals(modified) && existing.size() == size) {
+                    next.put(profile, existing);
+                    continue;
+                }
+                try {
+                    CompiledBlocklist blocklist = CompiledBlocklist.open(file, filterFalsePositiveRate, statsFor(profile));
+                    next.put(profile, new LoadedList(blocklist, modified, size));
+                    changed = true;
+                    log.info("✅ Loaded blocklist profile '{}' with {} domains ({} filter bits)",
+                            profile, blocklist.size(), blocklist.getFilterBits());
+                } catch (IOException | IllegalArgumentException e) {
+                    log.error("❌ Could not load blocklist {}: {}", file, e.getMessage());
+                    if (existing != null) {
+                        next.put(profile, existing);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.error("❌ Could not scan blocklist directory {}: {}", directory, e.getMessage());
+            return;
+        }
+
+        if (changed || next.size() != current.size()) {
+            lists.set(Collections.unmodifiableMap(next));
+        }
+    }
+
+    /**
+     * True if the URL's host or a parent domain appears in any active profile
+     */
+    public boolean isBlocked(String url) {
+        if (url == null) return false;
+        Map<String, LoadedList> snapshot = lists.get();
+        if (snapshot.isEmpty()) return false;
+
+        if (activeProfiles == null || activeProfiles.isEmpty()) {
+            for (LoadedList list : snapshot.values()) {
+                if (list.blocklist().containsHostOf(url)) return true;
+            }
+            return false;
+        }
+        for (String profile : activeProfiles) {
+            if (isBlocked(profile, url, snapshot)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * True if the URL's host or a parent domain appears in the given profile
+     */
+    public boolean isBlocked(String profile, String url) {
+        return url != null && isBlocked(profile, url, lists.get());
+    }
+
+    public Map<String, Integer> getProfileSizes() {
+        Map<String, Integer> sizes = new TreeMap<>();
+        lists.get().forEach((profile, list) -> sizes.put(profile, list.blocklist().size()));
+        return sizes;
+    }
+
+    /**
+     * Bloom pre-check outcomes per profile
+     */
+    public Map<String, Map<String, Object>> getFilterStats() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        filterStats.forEach((profile, stats) -> {
+            Map<String, Object> profileStats = new LinkedHashMap<>();
+            profileStats.put("definiteMisses", stats.getDefiniteMisses());
+            profileStats.put("maybeHits", stats.getMaybeHits());
+            profileStats.put("falsePositives", stats.getFalsePositives());
+            profileStats.put("observedFalsePositiveRate", stats.getObservedFalsePositiveRate());
+            result.put(profile, profileStats);
+        });
+        return result;
+    }
+
+    private BloomFilter.Stats statsFor(String profile) {
+        return filterStats.computeIfAbsent(profile, name -> {
+            BloomFilter.Stats stats = new BloomFilter.Stats();
+            registerCounter(name, "definite_miss", stats, BloomFilter.Stats::getDefiniteMisses);
+            registerCounter(name, "maybe_hit", stats, BloomFilter.Stats::getMaybeHits);
+            registerCounter(name, "false_positive", stats, BloomFilter.Stats::getFalsePositives);
+            Gauge.builder("netguard.blocklist.filter.false.positive.rate", stats, BloomFilter.Stats::getObservedFalsePositiveRate)
+                    .tag("profile", name)
+                    .register(meterRegistry);
+            return stats;
+        });
+    }
+
+    private void registerCounter(String profile, String result, BloomFilter.Stats stats, ToDoubleFunction<BloomFilter.Stats> value) {
+        FunctionCounter.builder("netguard.blocklist.filter.lookups", stats, value)
+                .description("Blocklist Bloom pre-check outcomes")
+                .tag("profile", profile)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private boolean isBlocked(String profile, String url, Map<String, LoadedList> snapshot) {
+        LoadedList list = snapshot.get(profile);
+        return list != null && list.blocklist().containsHostOf(url);
+    }
+
+    private record LoadedList(CompiledBlocklist blocklist, FileTime modified, long size) {
+    }
+}
@@ -0,0 +1,275 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.Entity.BrowsingVisit;
+import NetGuard.Dashboard_Features_Backend.Repository.BrowsingVisitRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Folds per-device domain events into visits (domain, start, end, dwell).
+ * Only the open visit of each device lives in memory. A visit closes when the device moves to
+ * another domain or stays silent longer than the idle gap; closed visits are queued and written
+ * in JDBC batches, so browsing history is an indexed read instead of generated data.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BrowsingSessionizerService {
+
+    private static final int QUEUE_CAPACITY = 20_000;
+    private static final int MAX_HISTORY_SIZE = 500;
+    private static final int RECENT_DOMAINS = 10;
+    private static final int RECENT_LOOKBACK_DAYS = 7;
+
+    private final BrowsingVisitRepository visitRepository;
+    private final DomainClassifierService domainClassifier;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.dashboard.browsing.session.idle-gap-seconds:300}")
+    private long idleGapSeconds;
+
+    @Value("${app.dashboard.browsing.session.batch-size:500}")
+    private int batchSize;
+
+    private final Map<String, OpenVisit> openVisits = new ConcurrentHashMap<>();
+    // Distinct domains of each device's latest closed visits, newest first; seeded from the table on first read
+    private final Map<String, List<String>> recentDomains = new ConcurrentHashMap<>();
+    private final BlockingQueue<BrowsingVisit> closedVisits = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong droppedVisits = new AtomicLong();
+
+    /**
+     * Feed one observation of a device using a domain at the given time
+     */
+    public void onDomainEvent(String deviceMac, String domain, LocalDateTime timestamp) {
+        if (deviceMac == null || domain == null || domain.isBlank()) return;
+        String normalized = domain.toLowerCase();
+
+        openVisits.compute(deviceMac, (mac, open) -> {
+            if (open != null && open.domain.equals(normalized) && !isIdle(open, timestamp)) {
+                open.lastSeen = timestamp;
+                open.events++;
+                return open;
+            }
+            if (open != null) {
+                // Switching domains within the gap means the old visit lasted until now
+                close(mac, open, isIdle(open, timestamp) ? open.lastSeen : timestamp);
+            }
+            return new OpenVisit(normalized, domainClassifier.categorize(normalized),
+                    domainClassifier.isBlocked(normalized), timestamp);
+        });
+    }
+
+    /**
+     * Seconds spent so far in the device's open visit to {@code domain}, 0 if not on it
+     */
+    public int getCurrentDwellSeconds(String deviceMac, String domain) {
+        OpenVisit open = openVisits.get(deviceMac);
+        if (open == null || domain == null || !open.domain.equals(domain.toLowerCase())) return 0;
+        return (int) Duration.between(open.startedAt, LocalDateTime.now()).getSeconds();
+    }
+
+    /**
+     * Domain of the device's last closed visit, or null
+     */
+    public String getPreviousDomain(String deviceMac) {
+        List<String> recent = recentDomains.get(deviceMac);
+        return recent != null && !recent.isEmpty() ? recent.get(0) : null;
+    }
+
+    /**
+     * Domain the device is on right now, or null once its open visit has gone idle
+     */
+    public String getCurrentDomain(String deviceMac) {
+        OpenVisit open = openVisits.get(deviceMac);
+        return open != null && !isIdle(open, LocalDateTime.now()) ? open.domain : null;
+    }
+
+    /**
+     * Up to {@code limit} distinct domains the device visited most recently, the open visit first
+     */
+    public List<String> getRecentDomains(String deviceMac, int limit) {
+        List<String> recent = recentDomains.get(deviceMac);
+        if (recent == null) {
+            recent = loadRecentDomains(deviceMac);
+            List<String> raced = recentDomains.putIfAbsent(deviceMac, recent);
+            if (raced != null) {
+                recent = raced;
+            }
+        }
+
+        LinkedHashSet<String> domains = new LinkedHashSet<>();
+        String current = getCurrentDomain(deviceMac);
+        if (current != null) {
+            domains.add(current);
+        }
+        domains.addAll(recent);
+        return domains.stream().limit(limit).collect(Collectors.toList());
+    }
+
+    /**
+     * Visits started since {@code from}, newest first, including the one still open
+     */
+    @Transactional(readOnly = true)
+    public List<BrowsingVisit> getVisits(String deviceMac, LocalDateTime from, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY_SIZE));
+        List<BrowsingVisit> visits = new ArrayList<>(pageSize);
+
+        OpenVisit open = openVisits.get(deviceMac);
+        if (open != null && !open.startedAt.isBefore(from)) {
+            visits.add(toEntity(deviceMac, open, open.lastSeen));
+        }
+        visits.addAll(visitRepository.findByDeviceMacAndStartedAtGreaterThanEqualOrderByStartedAtDesc(
+                deviceMac, from, PageRequest.of(0, pageSize - visits.size())));
+        return visits;
+    }
+
+    /**
+     * Close visits whose device has gone quiet for longer than the idle gap
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.browsing.session.sweep-interval-ms:30000}")
+    public void closeIdleVisits() {
+        LocalDateTime now = LocalDateTime.now();
+        for (String deviceMac : openVisits.keySet()) {
+            openVisits.computeIfPresent(deviceMac, (mac, open) -> {
+                if (!isIdle(open, now)) return open;
+                close(mac, open, open.lastSeen);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Drain closed visits into the database, one transaction per batch.
+     * A batch that fails to commit goes back on the queue for the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.browsing.session.flush-interval-ms:5000}")
+    public void flushClosedVisits() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<BrowsingVisit> batch = new ArrayList<>();
+        while (closedVisits.drainTo(batch, batchSize) > 0) {
+            try {
+                transaction.executeWithoutResult(status -> visitRepository.saveAll(batch));
+                log.debug("Persisted {} browsing visits", batch.size());
+            } catch (Exception e) {
+                requeue(batch);
+                log.error("Error persisting {} browsing visits, retrying next run: ", batch.size(), e);
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        for (String deviceMac : openVisits.keySet()) {
+            openVisits.computeIfPresent(deviceMac, (mac, open) -> {
+                close(mac, open, open.lastSeen);
+                return null;
+            });
+        }
+        flushClosedVisits();
+    }
+
+    public long getDroppedVisits() {
+        return droppedVisits.get();
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private boolean isIdle(OpenVisit open, LocalDateTime now) {
+        return Duration.between(open.lastSeen, now).getSeconds() > idleGapSeconds;
+    }
+
+    private void close(String deviceMac, OpenVisit open, LocalDateTime endedAt) {
+        recentDomains.compute(deviceMac, (mac, recent) -> {
+            List<String> updated = new ArrayList<>(RECENT_DOMAINS);
+            updated.add(open.domain);
+            if (recent != null) {
+                recent.stream().filter(domain -> !domain.equals(open.domain))
+                        .limit(RECENT_DOMAINS - 1).forEach(updated::add);
+            }
+            return List.copyOf(updated);
+        });
+        if (!closedVisits.offer(toEntity(deviceMac, open, endedAt))) {
+            long dropped = droppedVisits.incrementAndGet();
+            log.warn("Browsing visit write queue full - dropped visit to {} ({} dropped so far)", open.domain, dropped);
+        }
+    }
+
+    private void requeue(List<BrowsingVisit> batch) {
+        for (BrowsingVisit visit : batch) {
+            // The rolled-back insert may have assigned an id; start over as a new row
+            visit.setId(null);
+            if (!closedVisits.offer(visit)) {
+                droppedVisits.incrementAndGet();
+            }
+        }
+    }
+
+    private List<String> loadRecentDomains(String deviceMac) {
+        try {
+            return visitRepository.findByDeviceMacAndStartedAtGreaterThanEqualOrderByStartedAtDesc(deviceMac,
+                            LocalDateTime.now().minusDays(RECENT_LOOKBACK_DAYS), PageRequest.of(0, RECENT_DOMAINS * 5))
+                    .stream()
+                    .map(BrowsingVisit::getDomain)
+                    .distinct()
+                    .limit(RECENT_DOMAINS)
+                    .collect(Collectors.toList());
+        } catch (Exception e) {
+            log.debug("Could not load recent domains for {}: {}", deviceMac, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private BrowsingVisit toEntity(String deviceMac, OpenVisit open, LocalDateTime endedAt) {
+        BrowsingVisit visit = new BrowsingVisit();
+        visit.setDeviceMac(deviceMac);
+        visit.setDomain(open.domain);
+        visit.setCategory(open.category);
+        visit.setBlocked(open.blocked);
+        visit.setStartedAt(open.startedAt);
+        visit.setEndedAt(endedAt);
+        visit.setDwellSeconds(Math.max(0, Duration.between(open.startedAt, endedAt).getSeconds()));
+        visit.setEventCount(open.events);
+        return visit;
+    }
+
+    private static final class OpenVisit {
+        private final String domain;
+        private final String category;
+        private final boolean blocked;
+        private final LocalDateTime startedAt;
+        private LocalDateTime lastSeen;
+        private int events = 1;
+
+        private OpenVisit(String domain, String category, boolean blocked, LocalDateTime startedAt) {
+            this.domain = domain;
+            this.category = category;
+            this.blocked = blocked;
+            this.startedAt = startedAt;
+            this.lastSeen = startedAt;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps network_connections range-partitioned by month of connected_at.
+ * On first start against an unpartitioned table (as created by Hibernate) the table is rebuilt
+ * as a partitioned one in a single transaction. A daily job then creates the coming months'
+ * partitions ahead of time and drops whole months once they fall out of retention, so cleanup
+ * is a metadata change instead of a row-by-row delete, and range queries on connected_at only
+ * touch the months they cover. Hourly usage rollups keep the totals of dropped months.
+ * Off by default: turning it on is a one-off migration of the existing table, best run against
+ * a backed-up database, and retention stays unlimited unless a number of months is configured.
+ */
+@Service
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class ConnectionPartitionService {
+
+    private static final String TABLE = "network_connections";
+    private static final String LEGACY_TABLE = "network_connections_unpartitioned";
+    private static final String DEFAULT_PARTITION = "network_connections_default";
+    private static final String ID_SEQUENCE = "network_connections_row_id_seq";
+    private static final Pattern PARTITION_NAME = Pattern.compile("network_connections_p(\\d{4})_(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.dashboard.connections.partitioning.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.dashboard.connections.partitions-ahead:3}")
+    private int partitionsAhead;
+
+    // Whole months kept before the current one; 0 keeps everything
+    @Value("${app.dashboard.connections.retention-months:0}")
+    private int retentionMonths;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("Connection table partitioning disabled");
+            return;
+        }
+        try {
+            if (!isPartitioned()) {
+                convertToPartitioned();
+            }
+            maintainPartitions();
+        } catch (Exception e) {
+            log.error("❌ Error preparing partitions for {}: ", TABLE, e);
+        }
+    }
+
+    /**
+     * Create upcoming partitions and drop the ones past retention
+     */
+    @Scheduled(cron = "${app.dashboard.connections.maintenance-cron:0 15 3 * * *}")
+    public void maintainPartitions() {
+        if (!enabled || !isPartitioned()) {
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= partitionsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+        if (retentionMonths > 0) {
+            dropExpiredPartitions(current.minusMonths(retentionMonths));
+        }
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private boolean isPartitioned() {
+        Boolean partitioned = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid " +
+                        "WHERE c.relname = ? AND pg_table_is_visible(c.oid))", Boolean.class, TABLE);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    /**
+     * Rebuild the plain table as a partitioned one; concurrent writers wait on the table lock
+     */
+    private void convertToPartitioned() {
+        long started = System.currentTimeMillis();
+        Long rows = new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.execute("LOCK TABLE " + TABLE + " IN ACCESS EXCLUSIVE MODE");
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + LEGACY_TABLE);
+            jdbcTemplate.execute("CREATE TABLE " + TABLE + " (LIKE " + LEGACY_TABLE + " INCLUDING DEFAULTS) " +
+                    "PARTITION BY RANGE (connected_at)");
+
+            // Identity columns need PostgreSQL 17 on partitioned tables; a sequence default works everywhere
+            jdbcTemplate.execute("CREATE SEQUENCE " + ID_SEQUENCE + " OWNED BY " + TABLE + ".id");
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ALTER COLUMN id SET DEFAULT nextval('" + ID_SEQUENCE + "')");
+
+            // Partitions for every month that has rows, then a catch-all for anything outside them
+            List<String> months = jdbcTemplate.queryForList(
+                    "SELECT DISTINCT to_char(date_trunc('month', connected_at), 'YYYY-MM') FROM " + LEGACY_TABLE,
+                    String.class);
+            TreeSet<YearMonth> needed = new TreeSet<>();
+            months.forEach(month -> needed.add(YearMonth.parse(month)));
+            needed.add(YearMonth.now());
+            for (YearMonth month : needed) {
+                createPartition(month);
+            }
+            jdbcTemplate.execute("CREATE TABLE " + DEFAULT_PARTITION + " PARTITION OF " + TABLE + " DEFAULT");
+
+            long copied = jdbcTemplate.update("INSERT INTO " + TABLE + " SELECT * FROM " + LEGACY_TABLE);
+            jdbcTemplate.execute("SELECT setval('" + ID_SEQUENCE + "', COALESCE((SELECT MAX(id) FROM " + TABLE + "), 0) + 1, false)");
+            jdbcTemplate.execute("DROP TABLE " + LEGACY_TABLE);
+
+            // Constraint and index names are free again now that the old table is gone
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD PRIMARY KEY (id, connected_at)");
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD CONSTRAINT fk_network_connections_network " +
+                    "FOREIGN KEY (network_id) REFERENCES available_networks (id)");
+            jdbcTemplate.execute("CREATE INDEX idx_network_connection_device_time ON " + TABLE + " (device_mac, connected_at)");
+            jdbcTemplate.execute("CREATE INDEX idx_network_connection_time ON " + TABLE + " (connected_at, id)");
+            jdbcTemplate.execute("CREATE INDEX idx_network_connection_current ON " + TABLE + " (connected_at) " +
+                    "WHERE is_currently_connected");
+            return copied;
+        });
+        log.info("✅ Converted {} to monthly partitions ({} rows moved in {} ms)",
+                TABLE, rows, System.currentTimeMillis() - started);
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        try {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + TABLE +
+                    " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+        } catch (Exception e) {
+            // Fails when the default partition already holds rows for this month
+            log.warn("⚠️ Could not create partition {}: {}", name, e.getMessage());
+        }
+    }
+
+    private void dropExpiredPartitions(YearMonth oldestKept) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "JOIN pg_class p ON p.oid = i.inhparent WHERE p.relname = ?", String.class, TABLE);
+
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (!month.isBefore(oldestKept)) {
+                continue;
+            }
+
+            // Served by the partial index, so this stays cheap however large the month is
+            Boolean hasOpenConnections = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM " + partition + " WHERE is_currently_connected)", Boolean.class);
+            if (Boolean.TRUE.equals(hasOpenConnections)) {
+                log.warn("⚠️ Keeping expired partition {}: it still holds open connections", partition);
+                continue;
+            }
+
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            log.info("🗑️ Dropped connection history partition {} (retention {} months)", partition, retentionMonths);
+        }
+    }
+
+    private String partitionName(YearMonth month) {
+        return String.format("%s_p%04d_%02d", TABLE, month.getYear(), month.getMonthValue());
+    }
+}
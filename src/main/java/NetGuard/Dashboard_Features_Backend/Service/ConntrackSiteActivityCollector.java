@@ -0,0 +1,130 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.Event.SiteActivityEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reports new web flows from the kernel connection tracking table.
+ * Reads {@code /proc/net/nf_conntrack} directly (no subprocess) and names each destination with
+ * the hostname the client resolved through the embedded DNS forwarder; flows to addresses the
+ * forwarder has not seen are skipped rather than reverse-resolved.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ConntrackSiteActivityCollector {
+
+    private final DnsForwarderService dnsForwarderService;
+    private final SiteActivityPipeline pipeline;
+
+    @Value("${app.dashboard.website.collectors.conntrack.path:/proc/net/nf_conntrack}")
+    private String conntrackPath;
+
+    @Value("${app.dashboard.website.collectors.conntrack.web-ports:80,443}")
+    private List<Integer> webPorts;
+
+    // Flows reported by the previous scan, so only new flows produce events
+    private Set<String> previousFlows = new HashSet<>();
+    private boolean unavailableLogged;
+
+    @Scheduled(fixedDelayString = "${app.dashboard.website.collectors.conntrack.interval-ms:5000}")
+    public void collect() {
+        Path path = Paths.get(conntrackPath);
+        if (!Files.isReadable(path)) {
+            if (!unavailableLogged) {
+                log.info("Conntrack collector idle: {} is not readable", path);
+                unavailableLogged = true;
+            }
+            return;
+        }
+
+        Set<String> currentFlows = new HashSet<>();
+        Instant now = Instant.now();
+        int published = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Flow flow = parseFlow(line);
+                if (flow == null || !webPorts.contains(flow.destinationPort())) continue;
+
+                String key = flow.source() + '|' + flow.sourcePort() + '|' + flow.destination();
+                currentFlows.add(key);
+                if (previousFlows.contains(key)) continue;
+
+                String hostname = dnsForwarderService.lookupQueriedName(canonicalAddress(flow.destination()));
+                if (hostname != null && pipeline.publish(
+                        new SiteActivityEvent(flow.source(), hostname, SiteActivityEvent.Source.CONNTRACK, now))) {
+                    published++;
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Could not read {}: {}", path, e.getMessage());
+            return;
+        }
+        previousFlows = currentFlows;
+        log.debug("Conntrack scan: {} web flows, {} new flows published", currentFlows.size(), published);
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    /**
+     * Original-direction tuple of a tracked flow; TCP flows must be ESTABLISHED
+     */
+    static Flow parseFlow(String line) {
+        if (line.contains(" tcp ") && !line.contains(" ESTABLISHED ")) {
+            return null;
+        }
+        String source = field(line, "src=");
+        String destination = field(line, "dst=");
+        String sourcePort = field(line, "sport=");
+        String destinationPort = field(line, "dport=");
+        if (source == null || destination == null || sourcePort == null || destinationPort == null) {
+            return null;
+        }
+        try {
+            return new Flow(source, Integer.parseInt(sourcePort), destination, Integer.parseInt(destinationPort));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // conntrack prints IPv6 uncompressed; match the forwarder's InetAddress formatting
+    private static String canonicalAddress(String address) {
+        if (address.indexOf(':') < 0) return address;
+        try {
+            return InetAddress.getByName(address).getHostAddress();
+        } catch (UnknownHostException e) {
+            return address;
+        }
+    }
+
+    private static String field(String line, String name) {
+        int start = line.indexOf(name);
+        if (start < 0) return null;
+        start += name.length();
+        int end = line.indexOf(' ', start);
+        return end < 0 ? line.substring(start) : line.substring(start, end);
+    }
+
+    record Flow(String source, int sourcePort, String destination, int destinationPort) {
+    }
+}
@@ -0,0 +1,111 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.DTO.DashboardAnalyticsDTO;
+import NetGuard.Dashboard_Features_Backend.Event.DeviceDataChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Materialized dashboard analytics shared by every page load.
+ * The snapshot is rebuilt when a device or usage event has arrived since it was computed, or
+ * when it is older than the maximum staleness (browsing activity changes without events).
+ * Concurrent requests that find it out of date wait on a single rebuild instead of each
+ * running the analytics queries.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardSnapshotService {
+
+    private final DeviceAnalyticsService analyticsService;
+
+    @Value("${app.dashboard.analytics.max-staleness-ms:15000}")
+    private long maxStalenessMs;
+
+    private final AtomicLong dataVersion = new AtomicLong();
+    private final AtomicReference<CompletableFuture<Snapshot>> inFlight = new AtomicReference<>();
+    private volatile Snapshot snapshot;
+
+    private record Snapshot(DashboardAnalyticsDTO analytics, long dataVersion, long computedAtNanos) {
+    }
+
+    public DashboardAnalyticsDTO getDashboardAnalytics() {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            return current.analytics();
+        }
+
+        CompletableFuture<Snapshot> rebuild = new CompletableFuture<>();
+        CompletableFuture<Snapshot> running = inFlight.compareAndExchange(null, rebuild);
+        if (running != null) {
+            return awaitRebuild(running);
+        }
+
+        try {
+            // Another rebuild may have finished between the freshness check and winning the slot
+            current = snapshot;
+            if (isFresh(current)) {
+                rebuild.complete(current);
+                return current.analytics();
+            }
+
+            // Capture the version first so an event that lands mid-rebuild still invalidates it
+            long version = dataVersion.get();
+            Snapshot fresh = new Snapshot(analyticsService.getDashboardAnalytics(), version, System.nanoTime());
+            snapshot = fresh;
+            rebuild.complete(fresh);
+            return fresh.analytics();
+        } catch (RuntimeException e) {
+            rebuild.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.set(null);
+        }
+    }
+
+    /**
+     * Drop the snapshot so the next page load rebuilds it
+     */
+    public void invalidate() {
+        dataVersion.incrementAndGet();
+    }
+
+    /**
+     * Runs after the publishing transaction commits, so a rebuild never reads the old rows
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceDataChanged(DeviceDataChangedEvent event) {
+        invalidate();
+        log.debug("Dashboard snapshot invalidated by {} ({})", event.type(), event.deviceMac());
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private boolean isFresh(Snapshot candidate) {
+        return candidate != null
+                && candidate.dataVersion() == dataVersion.get()
+                && System.nanoTime() - candidate.computedAtNanos() < TimeUnit.MILLISECONDS.toNanos(maxStalenessMs);
+    }
+
+    private DashboardAnalyticsDTO awaitRebuild(CompletableFuture<Snapshot> running) {
+        try {
+            return running.join().analytics();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -20,57 +20,45 @@ public class DeviceAnalyticsService {
 
     private final NetworkConnectionRepository connectionRepository;
     private final AvailableNetworkRepository networkRepository;
+    private final DomainClassifierService domainClassifier;
+    private final UsageRollupService usageRollupService;
 
     /**
      * 🔥 ENHANCED: Get device analytics for specified time range with real device data
+     * Totals come from the hourly rollups; only currently connected rows are read raw.
      */
     @Transactional(readOnly = true)
     public List<DeviceAnalyticsDTO> getDeviceAnalytics(String timeRange) {
         LocalDateTime startTime = calculateStartTime(timeRange);
 
-        // Get all connections since the specified time
-        List<NetworkConnection> connections = connectionRepository.findConnectionsSince(startTime);
+        List<DeviceUsageTotal> totals = usageRollupService.getDeviceTotals(startTime, LocalDateTime.now());
 
-        log.info("📊 Analyzing device data for {} connections over {} period", connections.size(), timeRange);
+        log.info("📊 Analyzing device data for {} devices over {} period", totals.size(), timeRange);
 
-        return connections.stream()
-                .collect(Collectors.groupingBy(NetworkConnection::getDeviceMac))
-                .entrySet()
-                .stream()
-                .map(entry -> {
-                    String deviceMac = entry.getKey();
-                    List<NetworkConnection> deviceConnections = entry.getValue();
-
-                    // Get most recent connection for device info
-                    NetworkConnection latestConnection = deviceConnections.stream()
-                            .max(Comparator.comparing(NetworkConnection::getConnectedAt))
-                            .orElse(deviceConnections.get(0));
+        Map<String, NetworkConnection> activeConnections = findActiveConnections(totals);
 
-                    // Calculate aggregated data
-                    Long totalDataUsage = deviceConnections.stream()
-                            .mapToLong(conn -> conn.getDataUsageBytes() != null ? conn.getDataUsageBytes() : 0L)
-                            .sum();
-
-                    Integer totalDuration = deviceConnections.stream()
-                            .mapToInt(conn -> conn.getConnectionDurationMinutes() != null ? conn.getConnectionDurationMinutes() : 0)
-                            .sum();
+        return totals.stream()
+                .map(total -> {
+                    String deviceMac = total.getDeviceMac();
+                    NetworkConnection activeConnection = activeConnections.get(deviceMac);
+                    String deviceName = activeConnection != null ? activeConnection.getDeviceName() : total.getDeviceName();
 
                     // Get current browsing activity
                     List<String> frequentSites = getCurrentBrowsingForDevice(deviceMac);
 
                     // Enhanced device type detection
-                    String deviceType = determineEnhancedDeviceType(latestConnection.getDeviceName(), deviceMac);
+                    String deviceType = determineEnhancedDeviceType(deviceName, deviceMac);
 
                     return new DeviceAnalyticsDTO(
-                            latestConnection.getDeviceName(),
+                            deviceName,
                             deviceMac,
                             deviceType,
-                            totalDataUsage,
-                            totalDuration,
-                            latestConnection.getNetwork() != null ?
-                                    latestConnection.getNetwork().getSignalStrength() : 0,
-                            latestConnection.getConnectionStatus(),
-                            latestConnection.getConnectedAt(),
+                            total.getBytesUsed() != null ? total.getBytesUsed() : 0L,
+                            total.getConnectedMinutes() != null ? total.getConnectedMinutes().intValue() : 0,
+                            activeConnection != null && activeConnection.getNetwork() != null ?
+                                    activeConnection.getNetwork().getSignalStrength() : 0,
+                            activeConnection != null ? activeConnection.getConnectionStatus() : "DISCONNECTED",
+                            total.getLastSeenAt(),
                             frequentSites,
                             false // TODO: Implement device blocking logic
                     );
@@ -129,14 +117,12 @@ public class DeviceAnalyticsService {
     @Transactional(readOnly = true)
     public NetworkUsageStatsDTO getNetworkUsage(String period) {
         LocalDateTime startTime = calculateStartTime(period);
-        List<NetworkConnection> connections = connectionRepository.findConnectionsSince(startTime);
+        LocalDateTime now = LocalDateTime.now();
 
-        log.info("📈 Calculating network usage stats for {} connections over {} period", connections.size(), period);
+        log.info("📈 Calculating network usage stats from hourly rollups over {} period", period);
 
-        // Calculate total usage from real data
-        Long totalBytes = connections.stream()
-                .mapToLong(conn -> conn.getDataUsageBytes() != null ? conn.getDataUsageBytes() : 0L)
-                .sum();
+        // Calculate total usage from the rollups
+        Long totalBytes = usageRollupService.getTotalBytes(startTime, now);
 
         // Simulate upload/download split (typically 20% upload, 80% download)
         Long uploadBytes = (long) (totalBytes * 0.2);
@@ -148,11 +134,11 @@ public class DeviceAnalyticsService {
         // Calculate average signal
         Double avgSignal = networkRepository.getAverageSignalStrength();
 
-        // Generate hourly breakdown from real data
-        List<HourlyUsageDTO> hourlyBreakdown = generateEnhancedHourlyBreakdown(connections);
+        // Hour-of-day breakdown for a day, calendar hours or days for longer periods
+        List<HourlyUsageDTO> hourlyBreakdown = usageRollupService.getUsageBreakdown(startTime, now);
 
-        // Generate device breakdown from real data
-        List<DeviceUsageDTO> deviceBreakdown = generateEnhancedDeviceBreakdown(connections, totalBytes);
+        // Device breakdown from the rollups
+        List<DeviceUsageDTO> deviceBreakdown = generateDeviceBreakdown(usageRollupService.getDeviceTotals(startTime, now), totalBytes);
 
         return new NetworkUsageStatsDTO(
                 totalBytes,
@@ -177,7 +163,7 @@ public class DeviceAnalyticsService {
         return activeConnections.stream()
                 .map(connection -> {
                     String currentSite = getCurrentBrowsingActivity(connection.getDeviceMac());
-                    String category = enhancedCategorizeSite(currentSite);
+                    String category = domainClassifier.categorize(currentSite);
                     String browserType = detectEnhancedBrowserType(connection.getDeviceName());
 
                     return new BrowsingDataDTO(
@@ -344,126 +330,32 @@ public class DeviceAnalyticsService {
     }
 
     /**
-     * Enhanced hourly breakdown with real data
-     */
-    private List<HourlyUsageDTO> generateEnhancedHourlyBreakdown(List<NetworkConnection> connections) {
-        Map<Integer, List<NetworkConnection>> hourlyConnections = connections.stream()
-                .collect(Collectors.groupingBy(
-                        conn -> conn.getConnectedAt().getHour()
-                ));
-
-        List<HourlyUsageDTO> hourlyBreakdown = new ArrayList<>();
-
-        for (int hour = 0; hour < 24; hour++) {
-            List<NetworkConnection> hourConnections = hourlyConnections.getOrDefault(hour, new ArrayList<>());
-
-            Long bytesUsed = hourConnections.stream()
-                    .mapToLong(conn -> conn.getDataUsageBytes() != null ? conn.getDataUsageBytes() : 0L)
-                    .sum();
-
-            Integer deviceCount = (int) hourConnections.stream()
-                    .map(NetworkConnection::getDeviceMac)
-                    .distinct()
-                    .count();
-
-            Double averageSignal = hourConnections.stream()
-                    .filter(conn -> conn.getNetwork() != null)
-                    .mapToInt(conn -> conn.getNetwork().getSignalStrength())
-                    .average()
-                    .orElse(0.0);
-
-            hourlyBreakdown.add(new HourlyUsageDTO(hour, bytesUsed, deviceCount, averageSignal));
-        }
-
-        return hourlyBreakdown;
-    }
-
-    /**
-     * Enhanced device breakdown with real data
+     * Device breakdown from rolled-up totals
      */
-    private List<DeviceUsageDTO> generateEnhancedDeviceBreakdown(List<NetworkConnection> connections, Long totalBytes) {
-        return connections.stream()
-                .collect(Collectors.groupingBy(NetworkConnection::getDeviceMac))
-                .entrySet()
-                .stream()
-                .map(entry -> {
-                    String deviceMac = entry.getKey();
-                    List<NetworkConnection> deviceConnections = entry.getValue();
-
-                    // Get most recent connection for device info
-                    NetworkConnection latestConnection = deviceConnections.stream()
-                            .max(Comparator.comparing(NetworkConnection::getConnectedAt))
-                            .orElse(deviceConnections.get(0));
-
-                    String deviceName = latestConnection.getDeviceName();
-
-                    Long deviceBytes = deviceConnections.stream()
-                            .mapToLong(conn -> conn.getDataUsageBytes() != null ? conn.getDataUsageBytes() : 0L)
-                            .sum();
-
-                    Integer connectionMinutes = deviceConnections.stream()
-                            .mapToInt(conn -> conn.getConnectionDurationMinutes() != null ? conn.getConnectionDurationMinutes() : 0)
-                            .sum();
-
+    private List<DeviceUsageDTO> generateDeviceBreakdown(List<DeviceUsageTotal> totals, Long totalBytes) {
+        return totals.stream()
+                .map(total -> {
+                    Long deviceBytes = total.getBytesUsed() != null ? total.getBytesUsed() : 0L;
+                    Integer connectionMinutes = total.getConnectedMinutes() != null ? total.getConnectedMinutes().intValue() : 0;
                     Double percentage = totalBytes > 0 ? (deviceBytes.doubleValue() / totalBytes * 100) : 0.0;
 
-                    return new DeviceUsageDTO(deviceName, deviceMac, deviceBytes, connectionMinutes, percentage);
+                    return new DeviceUsageDTO(total.getDeviceName(), total.getDeviceMac(), deviceBytes, connectionMinutes, percentage);
                 })
                 .sorted((a, b) -> b.getBytesUsed().compareTo(a.getBytesUsed()))
                 .collect(Collectors.toList());
     }
 
     /**
-     * Enhanced site categorization
+     * Currently connected rows for the given devices, keyed by MAC
      */
-    private String enhancedCategorizeSite(String site) {
-        if (site == null) return "Unknown";
-
-        site = site.toLowerCase();
-
-        // Streaming services
-        if (site.contains("youtube") || site.contains("netflix") || site.contains("hulu") ||
-                site.contains("disney") || site.contains("amazon prime") || site.contains("twitch")) {
-            return "Streaming";
-        }
-
-        // Social media
-        if (site.contains("facebook") || site.contains("instagram") || site.contains("twitter") ||
-                site.contains("linkedin") || site.contains("tiktok") || site.contains("snapchat")) {
-            return "Social Media";
-        }
-
-        // Development and work
-        if (site.contains("github") || site.contains("stackoverflow") || site.contains("documentation") ||
-                site.contains("atlassian") || site.contains("slack") || site.contains("teams")) {
-            return "Development";
-        }
-
-        // Shopping
-        if (site.contains("amazon") || site.contains("ebay") || site.contains("shop") ||
-                site.contains("store") || site.contains("buy")) {
-            return "Shopping";
-        }
-
-        // News and information
-        if (site.contains("news") || site.contains("cnn") || site.contains("bbc") ||
-                site.contains("wikipedia") || site.contains("reddit")) {
-            return "News & Information";
+    private Map<String, NetworkConnection> findActiveConnections(List<DeviceUsageTotal> totals) {
+        if (totals.isEmpty()) {
+            return Collections.emptyMap();
         }
-
-        // Search engines
-        if (site.contains("google") || site.contains("bing") || site.contains("yahoo") ||
-                site.contains("search")) {
-            return "Search";
-        }
-
-        // Education
-        if (site.contains("edu") || site.contains("coursera") || site.contains("udemy") ||
-                site.contains("khan") || site.contains("learning")) {
-            return "Education";
-        }
-
-        return "General";
+        List<String> deviceMacs = totals.stream().map(DeviceUsageTotal::getDeviceMac).collect(Collectors.toList());
+        return connectionRepository.findByDeviceMacInAndIsCurrentlyConnectedTrue(deviceMacs).stream()
+                .collect(Collectors.toMap(NetworkConnection::getDeviceMac, conn -> conn, (a, b) ->
+                        a.getConnectedAt().isAfter(b.getConnectedAt()) ? a : b));
     }
 
     /**
@@ -0,0 +1,236 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.Util.CommandRunner;
+import NetGuard.Dashboard_Features_Backend.Util.NetworkAddresses;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Applies device blocks to the kernel through an {@link EnforcementBackend}.
+ * Blocked MACs and addresses live in kernel hash sets, so a DHCP renewal does not lift a block
+ * and any number of changes land in one atomic update. A mirror of the kernel sets lets batches
+ * skip no-op entries; after a failed update the mirror is re-read and the batch retried once.
+ * Every MAC and address is validated before a batch is built, because the batch becomes a script
+ * run as root; malformed entries are logged and dropped without affecting the rest of the batch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeviceEnforcementService {
+
+    private final CommandRunner commandRunner;
+
+    // auto | nftables | ipset | none
+    @Value("${app.dashboard.enforcement.backend:auto}")
+    private String backendName;
+
+    @Value("${app.dashboard.enforcement.use-sudo:true}")
+    private boolean useSudo;
+
+    private EnforcementBackend backend;
+    private final Set<String> kernelMacs = new HashSet<>();
+    private final Set<String> kernelAddresses = new HashSet<>();
+
+    @PostConstruct
+    public void init() {
+        backend = selectBackend();
+        if (backend == null) {
+            log.warn("⚠️ No firewall backend available (app.dashboard.enforcement.backend={}) - blocks are tracked but not enforced",
+                    backendName);
+            return;
+        }
+        try {
+            backend.ensureInfrastructure();
+            log.info("✅ Device enforcement using {} sets", backend.name());
+        } catch (IOException e) {
+            log.error("❌ Could not prepare {} enforcement sets: {}", backend.name(), e.getMessage());
+        }
+    }
+
+    /**
+     * Make the kernel sets match the desired state exactly, in one transaction
+     */
+    public synchronized boolean reconcile(Set<String> desiredMacs, Set<String> desiredAddresses) {
+        Set<String> macs = normalizeMacs(desiredMacs);
+        Set<String> addresses = validAddresses(desiredAddresses);
+        if (backend == null) {
+            replaceMirror(macs, addresses);
+            return true;
+        }
+        try {
+            EnforcementBackend.KernelState state = backend.readState();
+            replaceMirror(state.macs(), state.addresses());
+
+            EnforcementBatch batch = new EnforcementBatch(
+                    difference(macs, kernelMacs), difference(kernelMacs, macs),
+                    difference(addresses, kernelAddresses), difference(kernelAddresses, addresses));
+            backend.apply(batch);
+            replaceMirror(macs, addresses);
+            log.info("Reconciled {} enforcement: +{} / -{} MACs, +{} / -{} addresses", backend.name(),
+                    batch.addMacs().size(), batch.removeMacs().size(),
+                    batch.addAddresses().size(), batch.removeAddresses().size());
+            return true;
+        } catch (IOException e) {
+            log.error("❌ Enforcement reconcile failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Block and unblock any number of devices in one kernel transaction
+     */
+    public synchronized boolean apply(Set<String> blockMacs, Set<String> blockAddresses,
+                                      Set<String> unblockMacs, Set<String> unblockAddresses) {
+        Set<String> addMacs = normalizeMacs(blockMacs);
+        Set<String> removeMacs = normalizeMacs(unblockMacs);
+        removeMacs.removeAll(addMacs);
+        Set<String> addAddresses = validAddresses(blockAddresses);
+        Set<String> removeAddresses = validAddresses(unblockAddresses);
+        removeAddresses.removeAll(addAddresses);
+
+        if (backend == null) {
+            updateMirror(addMacs, removeMacs, addAddresses, removeAddresses);
+            return true;
+        }
+        try {
+            applyAgainstMirror(addMacs, removeMacs, addAddresses, removeAddresses);
+            return true;
+        } catch (IOException first) {
+            log.warn("Enforcement update failed ({}), re-reading kernel state and retrying", first.getMessage());
+            try {
+                EnforcementBackend.KernelState state = backend.readState();
+                replaceMirror(state.macs(), state.addresses());
+                applyAgainstMirror(addMacs, removeMacs, addAddresses, removeAddresses);
+                return true;
+            } catch (IOException second) {
+                log.error("❌ Enforcement update failed: {}", second.getMessage());
+                return false;
+            }
+        }
+    }
+
+    public boolean block(String deviceMac, String ipAddress) {
+        return apply(Set.of(deviceMac), addressSet(ipAddress), Set.of(), Set.of());
+    }
+
+    public boolean unblock(String deviceMac, String ipAddress) {
+        return apply(Set.of(), Set.of(), Set.of(deviceMac), addressSet(ipAddress));
+    }
+
+    public synchronized boolean isMacBlocked(String deviceMac) {
+        String mac = NetworkAddresses.normalizeMac(deviceMac);
+        return mac != null && kernelMacs.contains(mac);
+    }
+
+    public String getBackendName() {
+        return backend != null ? backend.name() : "none";
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private EnforcementBackend selectBackend() {
+        List<String> prefix = useSudo ? List.of("sudo", "-n") : List.of();
+        EnforcementBackend nftables = new NftablesEnforcementBackend(commandRunner, prefix);
+        EnforcementBackend ipset = new IpsetEnforcementBackend(commandRunner, prefix);
+
+        switch (backendName.toLowerCase()) {
+            case "nftables":
+                return nftables;
+            case "ipset":
+                return ipset;
+            case "none":
+                return null;
+            default:
+                if (!System.getProperty("os.name").toLowerCase().contains("linux")) return null;
+                if (nftables.isAvailable()) return nftables;
+                if (ipset.isAvailable()) return ipset;
+                return null;
+        }
+    }
+
+    private void applyAgainstMirror(Set<String> addMacs, Set<String> removeMacs,
+                                    Set<String> addAddresses, Set<String> removeAddresses) throws IOException {
+        // Skip entries already in the wanted state; nft rejects deleting a missing element
+        EnforcementBatch batch = new EnforcementBatch(
+                difference(addMacs, kernelMacs), intersection(removeMacs, kernelMacs),
+                difference(addAddresses, kernelAddresses), intersection(removeAddresses, kernelAddresses));
+        backend.apply(batch);
+        updateMirror(batch.addMacs(), batch.removeMacs(), batch.addAddresses(), batch.removeAddresses());
+    }
+
+    private void updateMirror(Set<String> addMacs, Set<String> removeMacs,
+                              Set<String> addAddresses, Set<String> removeAddresses) {
+        kernelMacs.removeAll(removeMacs);
+        kernelMacs.addAll(addMacs);
+        kernelAddresses.removeAll(removeAddresses);
+        kernelAddresses.addAll(addAddresses);
+    }
+
+    private void replaceMirror(Set<String> macs, Set<String> addresses) {
+        kernelMacs.clear();
+        kernelMacs.addAll(macs);
+        kernelAddresses.clear();
+        kernelAddresses.addAll(addresses);
+    }
+
+    private static Set<String> addressSet(String ipAddress) {
+        return ipAddress != null && !ipAddress.isBlank() ? Set.of(ipAddress) : Set.of();
+    }
+
+    private static Set<String> normalizeMacs(Collection<String> macs) {
+        Set<String> normalized = new HashSet<>();
+        for (String mac : macs) {
+            if (mac == null || mac.isBlank()) {
+                continue;
+            }
+            String canonical = NetworkAddresses.normalizeMac(mac);
+            if (canonical != null) {
+                normalized.add(canonical);
+            } else {
+                log.warn("⚠️ Ignoring malformed MAC in enforcement batch: {}", printable(mac));
+            }
+        }
+        return normalized;
+    }
+
+    private static Set<String> validAddresses(Collection<String> addresses) {
+        Set<String> valid = new HashSet<>();
+        for (String address : addresses) {
+            if (address == null || address.isBlank()) {
+                continue;
+            }
+            String trimmed = address.trim();
+            if (NetworkAddresses.isIpLiteral(trimmed)) {
+                valid.add(trimmed);
+            } else {
+                log.warn("⚠️ Ignoring malformed address in enforcement batch: {}", printable(address));
+            }
+        }
+        return valid;
+    }
+
+    // Keep rejected input on one log line
+    private static String printable(String value) {
+        return value.replaceAll("\\p{Cntrl}", "?");
+    }
+
+    private static Set<String> difference(Set<String> a, Set<String> b) {
+        Set<String> result = new HashSet<>(a);
+        result.removeAll(b);
+        return result;
+    }
+
+    private static Set<String> intersection(Set<String> a, Set<String> b) {
+        Set<String> result = new HashSet<>(a);
+        result.retainAll(b);
+        return result;
+    }
+}
@@ -1,101 +1,164 @@
 package NetGuard.Dashboard_Features_Backend.Service;
 
 import NetGuard.Dashboard_Features_Backend.DTO.*;
+import NetGuard.Dashboard_Features_Backend.Entity.BrowsingVisit;
 import NetGuard.Dashboard_Features_Backend.Entity.NetworkConnection;
 import NetGuard.Dashboard_Features_Backend.Repository.NetworkConnectionRepository;
 import NetGuard.Dashboard_Features_Backend.Repository.AvailableNetworkRepository;
-import lombok.RequiredArgsConstructor;
+import NetGuard.Dashboard_Features_Backend.Util.KeysetCursor;
+import NetGuard.Dashboard_Features_Backend.Util.TimeBucketer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
-import java.io.IOException;
-import org.apache.commons.exec.CommandLine;
-import org.apache.commons.exec.DefaultExecutor;
-import org.apache.commons.exec.PumpStreamHandler;
-import java.io.ByteArrayOutputStream;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class DeviceManagementService {
 
     private final NetworkConnectionRepository connectionRepository;
     private final AvailableNetworkRepository networkRepository;
+    private final DomainClassifierService domainClassifier;
+    private final BrowsingSessionizerService sessionizer;
+    private final DeviceEnforcementService enforcementService;
+    private final DevicePolicyStore policyStore;
+    private final TimeLimitEnforcementService timeLimitService;
+    private final Executor deviceDetailsExecutor;
+
+    @Value("${app.dashboard.devices.details-timeout-ms:2000}")
+    private long deviceDetailsTimeoutMs;
+
+    @Value("${app.dashboard.analytics.zone:${app.dashboard.time-limits.zone:}}")
+    private String analyticsZone;
+
+    private static final int MAX_BROWSING_HISTORY = 200;
+    private static final int MAX_DEVICE_PAGE_SIZE = 500;
+    private static final int MAX_HISTORY_PAGE_SIZE = 200;
+    private static final LocalDateTime HISTORY_START = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final int MAX_BULK_DEVICES = 500;
+    private static final List<String> BULK_ACTIONS = List.of("BLOCK", "UNBLOCK", "SET_TIME_LIMIT");
+    // Time limits only enforce a daily allowance; allowed hours and days belong in schedule rules
+    private static final String TIME_WINDOW_UNSUPPORTED =
+            "startTime, endTime and allowedDays are not supported on time limits - use a schedule rule instead";
+
+    public DeviceManagementService(NetworkConnectionRepository connectionRepository,
+                                   AvailableNetworkRepository networkRepository,
+                                   DomainClassifierService domainClassifier,
+                                   BrowsingSessionizerService sessionizer,
+                                   DeviceEnforcementService enforcementService,
+                                   DevicePolicyStore policyStore,
+                                   TimeLimitEnforcementService timeLimitService,
+                                   @Qualifier("deviceDetailsExecutor") Executor deviceDetailsExecutor) {
+        this.connectionRepository = connectionRepository;
+        this.networkRepository = networkRepository;
+        this.domainClassifier = domainClassifier;
+        this.sessionizer = sessionizer;
+        this.enforcementService = enforcementService;
+        this.policyStore = policyStore;
+        this.timeLimitService = timeLimitService;
+        this.deviceDetailsExecutor = deviceDetailsExecutor;
+    }
 
-    // In-memory storage for device blocking (in production, use database)
-    private final Map<String, Boolean> blockedDevices = new HashMap<>();
-    private final Map<String, String> blockReasons = new HashMap<>();
-    private final Map<String, LocalDateTime> blockTimes = new HashMap<>();
-    private final Map<String, TimeLimitRequestDTO> deviceTimeLimits = new HashMap<>();
+    /**
+     * Bring kernel enforcement sets in line with the devices we consider blocked.
+     * Blocked devices that picked up a new lease while we were down have their recorded
+     * address moved to it first, so the stale address is released from the kernel set.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileEnforcement() {
+        try {
+            Map<String, String> changedLeases = new HashMap<>();
+            for (NetworkConnection connection : connectionRepository.findByIsCurrentlyConnectedTrue()) {
+                String deviceMac = connection.getDeviceMac();
+                String address = connection.getAssignedIp();
+                if (address != null && policyStore.isBlocked(deviceMac)
+                        && !address.equals(policyStore.getBlockedAddress(deviceMac))) {
+                    changedLeases.put(deviceMac, address);
+                }
+            }
+            if (!changedLeases.isEmpty()) {
+                policyStore.updateBlockedAddresses(changedLeases);
+                log.info("🔄 Refreshed blocked addresses of {} device(s) from current leases", changedLeases.size());
+            }
+        } catch (Exception e) {
+            log.error("❌ Could not refresh blocked addresses from current leases: {}", e.getMessage());
+        }
+        enforcementService.reconcile(policyStore.getBlockedMacs(), policyStore.getBlockedAddresses());
+    }
 
     /**
      * Get all managed devices with their current status
      */
+    @Transactional(readOnly = true)
     public List<ManagedDeviceDTO> getAllManagedDevices() {
-        List<NetworkConnection> allConnections = connectionRepository.findAll();
+        return connectionRepository.findAllManagedDevices("").stream()
+                .map(this::toManagedDevice)
+                .collect(Collectors.toList());
+    }
 
-        // Group by device MAC to get unique devices
-        Map<String, List<NetworkConnection>> deviceConnections = allConnections.stream()
-                .collect(Collectors.groupingBy(NetworkConnection::getDeviceMac));
+    /**
+     * Keyset-paginated managed devices in MAC order.
+     * The MAC never changes, so a device cannot move between pages while a client walks them.
+     */
+    @Transactional(readOnly = true)
+    public ManagedDevicePageDTO getManagedDevices(String cursor, int limit) {
+        int pageSize = KeysetCursor.pageSize(limit, MAX_DEVICE_PAGE_SIZE);
+        KeysetCursor position = KeysetCursor.decodeOrStart(cursor, KeysetCursor.ofKey(""));
+
+        // Fetch one extra row to learn whether another page exists
+        List<ManagedDeviceSummary> rows = connectionRepository.findManagedDevicePage(position.key(), pageSize + 1);
+        KeysetPage<ManagedDeviceDTO> result = KeysetPage.of(rows, pageSize,
+                row -> KeysetCursor.ofKey(row.getDeviceMac()), this::toManagedDevice);
+        return new ManagedDevicePageDTO(result.getItems(), result.getNextCursor(), result.getHasMore());
+    }
 
-        return deviceConnections.entrySet().stream()
-                .map(entry -> {
-                    String deviceMac = entry.getKey();
-                    List<NetworkConnection> connections = entry.getValue();
-
-                    // Get most recent connection for device info
-                    NetworkConnection latestConnection = connections.stream()
-                            .max(Comparator.comparing(NetworkConnection::getConnectedAt))
-                            .orElse(connections.get(0));
-
-                    // Calculate total usage
-                    Long totalDataUsage = connections.stream()
-                            .mapToLong(conn -> conn.getDataUsageBytes() != null ? conn.getDataUsageBytes() : 0L)
-                            .sum();
-
-                    Integer totalDuration = connections.stream()
-                            .mapToInt(conn -> conn.getConnectionDurationMinutes() != null ? conn.getConnectionDurationMinutes() : 0)
-                            .sum();
-
-                    // Get current activity
-                    String currentSite = getCurrentBrowsingActivity(deviceMac);
-                    String currentActivity = determineCurrentActivity(currentSite);
-
-                    // Get recent sites
-                    List<String> recentSites = getRecentSites(deviceMac);
-
-                    // Check time limits
-                    TimeLimitRequestDTO timeLimit = deviceTimeLimits.get(deviceMac);
-                    Integer timeUsedToday = calculateTimeUsedToday(deviceMac);
-
-                    return new ManagedDeviceDTO(
-                            latestConnection.getDeviceName(),
-                            deviceMac,
-                            determineDeviceType(latestConnection.getDeviceName()),
-                            latestConnection.getAssignedIp(),
-                            latestConnection.getNetwork() != null ? latestConnection.getNetwork().getSignalStrength() : 0,
-                            latestConnection.getConnectionStatus(),
-                            blockedDevices.getOrDefault(deviceMac, false),
-                            blockReasons.get(deviceMac),
-                            latestConnection.getConnectedAt(),
-                            totalDataUsage,
-                            totalDuration,
-                            currentSite,
-                            currentActivity,
-                            timeLimit != null,
-                            timeLimit != null ? timeLimit.getDailyLimitMinutes() : null,
-                            timeUsedToday,
-                            latestConnection.getConnectedAt(),
-                            blockTimes.get(deviceMac),
-                            recentSites
-                    );
-                })
-                .sorted((a, b) -> b.getLastActivity().compareTo(a.getLastActivity()))
-                .collect(Collectors.toList());
+    /**
+     * Keyset-paginated connection history, newest first, optionally for one device
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<ConnectionHistoryDTO> getConnectionHistoryPage(String deviceMac, LocalDateTime from,
+                                                                     LocalDateTime to, String cursor, int limit) {
+        int pageSize = KeysetCursor.pageSize(limit, MAX_HISTORY_PAGE_SIZE);
+        LocalDateTime rangeStart = from != null ? from : HISTORY_START;
+        LocalDateTime rangeEnd = to != null ? to : LocalDateTime.now().plusDays(1);
+        KeysetCursor position = KeysetCursor.decodeOrStart(cursor, KeysetCursor.of(rangeEnd, Long.MAX_VALUE));
+
+        // Fetch one extra row to learn whether another page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<NetworkConnection> rows = deviceMac != null
+                ? connectionRepository.findConnectionPageByDevice(deviceMac, rangeStart, rangeEnd, position.time(), position.idKey(), page)
+                : connectionRepository.findConnectionPage(rangeStart, rangeEnd, position.time(), position.idKey(), page);
+        return KeysetPage.of(rows, pageSize,
+                conn -> KeysetCursor.of(conn.getConnectedAt(), conn.getId()), this::toConnectionHistory);
+    }
+
+    /**
+     * Current status of a single managed device, or null if it was never seen
+     */
+    @Transactional(readOnly = true)
+    public ManagedDeviceDTO getManagedDevice(String deviceMac) {
+        return connectionRepository.findManagedDevice(deviceMac)
+                .map(this::toManagedDevice)
+                .orElse(null);
     }
 
     /**
@@ -124,16 +187,14 @@ public class DeviceManagementService {
 
             NetworkConnection connection = connectionOpt.get();
             String deviceName = connection.getDeviceName();
-            String previousStatus = blockedDevices.getOrDefault(deviceMac, false) ? "BLOCKED" : "ACTIVE";
+            String previousStatus = policyStore.isBlocked(deviceMac) ? "BLOCKED" : "ACTIVE";
 
             // Implement actual device blocking (firewall rules, router config, etc.)
             boolean blockSuccess = implementDeviceBlocking(deviceMac, connection.getAssignedIp());
 
             if (blockSuccess) {
-                // Update in-memory storage
-                blockedDevices.put(deviceMac, true);
-                blockReasons.put(deviceMac, reason != null ? reason : "Blocked by administrator");
-                blockTimes.put(deviceMac, LocalDateTime.now());
+                policyStore.markBlocked(deviceMac, reason != null ? reason : "Blocked by administrator",
+                        connection.getAssignedIp());
 
                 log.info("Device {} ({}) blocked successfully", deviceName, deviceMac);
 
@@ -188,9 +249,9 @@ public class DeviceManagementService {
                     .findByDeviceMacAndIsCurrentlyConnectedTrue(deviceMac);
 
             String deviceName = connectionOpt.map(NetworkConnection::getDeviceName).orElse("Unknown");
-            String previousStatus = blockedDevices.getOrDefault(deviceMac, false) ? "BLOCKED" : "ACTIVE";
+            String previousStatus = policyStore.isBlocked(deviceMac) ? "BLOCKED" : "ACTIVE";
 
-            if (!blockedDevices.getOrDefault(deviceMac, false)) {
+            if (!policyStore.isBlocked(deviceMac)) {
                 return new DeviceActionResultDTO(
                         false,
                         "Device is not currently blocked",
@@ -209,10 +270,7 @@ public class DeviceManagementService {
             boolean unblockSuccess = removeDeviceBlocking(deviceMac, ipAddress);
 
             if (unblockSuccess) {
-                // Update in-memory storage
-                blockedDevices.remove(deviceMac);
-                blockReasons.remove(deviceMac);
-                blockTimes.remove(deviceMac);
+                policyStore.clearBlock(deviceMac);
 
                 log.info("Device {} ({}) unblocked successfully", deviceName, deviceMac);
 
@@ -258,43 +316,66 @@ public class DeviceManagementService {
     }
 
     /**
-     * Get detailed information about a specific device
+     * Get detailed information about a specific device.
+     * Device info, connection rows and browsing visits load concurrently under one deadline, and
+     * the connection rows are fetched once and shared by every section built from them.
+     * Sections that fail or miss the deadline are left empty and named in unavailableSections.
      */
     public DeviceDetailsDTO getDeviceDetails(String deviceMac) {
-        // Get device info
-        List<ManagedDeviceDTO> devices = getAllManagedDevices();
-        ManagedDeviceDTO device = devices.stream()
-                .filter(d -> d.getDeviceMac().equals(deviceMac))
-                .findFirst()
-                .orElse(null);
-
-        if (device == null) {
-            return null;
-        }
-
-        // Get browsing history
-        List<BrowsingHistoryDTO> browsingHistory = getBrowsingHistory(deviceMac, "24h");
-
-        // Get connection history
-        List<ConnectionHistoryDTO> connectionHistory = getConnectionHistory(deviceMac);
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deviceDetailsTimeoutMs);
+
+        CompletableFuture<ManagedDeviceDTO> deviceFuture = CompletableFuture.supplyAsync(
+                () -> getManagedDevice(deviceMac), deviceDetailsExecutor);
+        CompletableFuture<List<NetworkConnection>> connectionsFuture = CompletableFuture.supplyAsync(
+                () -> connectionRepository.findByDeviceMacWithNetwork(deviceMac), deviceDetailsExecutor);
+        CompletableFuture<List<BrowsingVisit>> visitsFuture = CompletableFuture.supplyAsync(
+                () -> sessionizer.getVisits(deviceMac, calculateStartTime("24h"), MAX_BROWSING_HISTORY), deviceDetailsExecutor);
+
+        // Derived sections are built from the shared rows as soon as they arrive
+        CompletableFuture<List<ConnectionHistoryDTO>> connectionHistoryFuture =
+                connectionsFuture.thenApply(this::getConnectionHistory);
+        CompletableFuture<DeviceStatsDTO> statisticsFuture =
+                connectionsFuture.thenCombine(visitsFuture, this::calculateDeviceStatistics);
+        CompletableFuture<List<BrowsingHistoryDTO>> browsingFuture = visitsFuture.thenCombine(connectionsFuture,
+                (visits, connections) -> toBrowsingHistory(visits, connections.isEmpty()
+                        ? "Unknown Device" : connections.get(0).getDeviceName()));
+        CompletableFuture<List<SecurityAlertDTO>> alertsFuture =
+                browsingFuture.thenApply(history -> generateSecurityAlerts(deviceMac, history));
+
+        List<String> unavailable = new ArrayList<>();
+        try {
+            ManagedDeviceDTO device = awaitSection("deviceInfo", deviceFuture, deadlineNanos, unavailable);
+            if (device == null && unavailable.isEmpty()) {
+                return null;
+            }
 
-        // Calculate statistics
-        DeviceStatsDTO statistics = calculateDeviceStatistics(deviceMac);
+            List<BrowsingHistoryDTO> browsingHistory = awaitSection("recentBrowsingHistory", browsingFuture, deadlineNanos, unavailable);
+            List<ConnectionHistoryDTO> connectionHistory = awaitSection("connectionHistory", connectionHistoryFuture, deadlineNanos, unavailable);
+            DeviceStatsDTO statistics = awaitSection("statistics", statisticsFuture, deadlineNanos, unavailable);
+            List<SecurityAlertDTO> securityAlerts = awaitSection("securityAlerts", alertsFuture, deadlineNanos, unavailable);
 
-        // Get security alerts (simulated)
-        List<SecurityAlertDTO> securityAlerts = generateSecurityAlerts(deviceMac, browsingHistory);
+            // Settings come from the in-memory policy snapshot
+            DeviceSettingsDTO settings = getDeviceSettings(deviceMac);
 
-        // Get current settings
-        DeviceSettingsDTO settings = getDeviceSettings(deviceMac);
+            if (!unavailable.isEmpty()) {
+                log.warn("⚠️ Partial device details for {}: {} unavailable", deviceMac, unavailable);
+            }
 
-        return new DeviceDetailsDTO(
-                device,
-                browsingHistory,
-                connectionHistory,
-                statistics,
-                securityAlerts,
-                settings
-        );
+            return new DeviceDetailsDTO(
+                    device,
+                    browsingHistory != null ? browsingHistory : new ArrayList<>(),
+                    connectionHistory != null ? connectionHistory : new ArrayList<>(),
+                    statistics,
+                    securityAlerts != null ? securityAlerts : new ArrayList<>(),
+                    settings,
+                    unavailable
+            );
+        } finally {
+            // Nobody is waiting for stragglers any more
+            deviceFuture.cancel(true);
+            connectionsFuture.cancel(true);
+            visitsFuture.cancel(true);
+        }
     }
 
     /**
@@ -316,9 +397,23 @@ public class DeviceManagementService {
                         "Invalid time limit configuration"
                 );
             }
+            if (hasTimeWindow(request)) {
+                return new DeviceActionResultDTO(
+                        false,
+                        TIME_WINDOW_UNSUPPORTED,
+                        deviceMac,
+                        "Unknown",
+                        "SET_TIME_LIMIT",
+                        LocalDateTime.now(),
+                        "UNKNOWN",
+                        "ERROR",
+                        "Invalid time limit configuration"
+                );
+            }
 
-            // Store time limit settings
-            deviceTimeLimits.put(deviceMac, request);
+            // Persist time limit settings
+            policyStore.setTimeLimit(deviceMac, request);
+            timeLimitService.onTimeLimitChanged(deviceMac);
 
             String deviceName = getDeviceName(deviceMac);
 
@@ -353,6 +448,53 @@ public class DeviceManagementService {
         }
     }
 
+    /**
+     * Apply one action to many devices: one connection lookup, one enforcement batch and one
+     * policy transaction for the whole request, with a result per device
+     */
+    public BulkDeviceActionResultDTO bulkAction(BulkDeviceActionRequestDTO request) {
+        String action = request.getAction() != null ? request.getAction().trim().toUpperCase() : "";
+        if (!BULK_ACTIONS.contains(action)) {
+            throw new IllegalArgumentException("Action must be one of " + BULK_ACTIONS);
+        }
+        List<String> deviceMacs = request.getDeviceMacs() == null ? List.of() : request.getDeviceMacs().stream()
+                .filter(mac -> mac != null && !mac.isBlank())
+                .map(String::trim)
+                .distinct()
+                .collect(Collectors.toList());
+        if (deviceMacs.isEmpty()) {
+            throw new IllegalArgumentException("At least one device MAC is required");
+        }
+        if (deviceMacs.size() > MAX_BULK_DEVICES) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_DEVICES + " devices per request");
+        }
+
+        Map<String, NetworkConnection> connections = connectionRepository
+                .findByDeviceMacInAndIsCurrentlyConnectedTrue(deviceMacs).stream()
+                .collect(Collectors.toMap(NetworkConnection::getDeviceMac, conn -> conn, (first, second) -> first));
+
+        Map<String, DeviceActionResultDTO> results = new LinkedHashMap<>();
+        switch (action) {
+            case "BLOCK" -> bulkBlock(deviceMacs, request.getReason(), connections, results);
+            case "UNBLOCK" -> bulkUnblock(deviceMacs, connections, results);
+            default -> bulkSetTimeLimit(deviceMacs, request.getTimeLimit(), connections, results);
+        }
+
+        List<DeviceActionResultDTO> ordered = deviceMacs.stream().map(results::get).collect(Collectors.toList());
+        int succeeded = (int) ordered.stream().filter(DeviceActionResultDTO::getSuccess).count();
+        log.info("Bulk {} for {} devices: {} succeeded, {} failed",
+                action, ordered.size(), succeeded, ordered.size() - succeeded);
+
+        return new BulkDeviceActionResultDTO(
+                action,
+                ordered.size(),
+                succeeded,
+                ordered.size() - succeeded,
+                LocalDateTime.now(),
+                ordered
+        );
+    }
+
     /**
      * Get current device activity - Fixed return type
      */
@@ -388,127 +530,242 @@ public class DeviceManagementService {
      * Get browsing history for a device
      */
     public List<BrowsingHistoryDTO> getBrowsingHistory(String deviceMac, String period) {
-        List<BrowsingHistoryDTO> history = new ArrayList<>();
         LocalDateTime startTime = calculateStartTime(period);
 
-        // Generate simulated browsing data based on actual device connections
-        List<String> sampleSites = getSampleSites(deviceMac);
-        Random random = new Random(deviceMac.hashCode()); // Consistent randomization
-
-        for (int i = 0; i < Math.min(20, sampleSites.size() * 3); i++) {
-            String site = sampleSites.get(random.nextInt(sampleSites.size()));
-            LocalDateTime visitTime = startTime.plusMinutes(random.nextInt(1440)); // Random time within period
-
-            history.add(new BrowsingHistoryDTO(
-                    "https://" + site,
-                    extractDomain(site),
-                    getPageTitle(site),
-                    categorizeWebsite(site),
-                    visitTime,
-                    5 + random.nextInt(25), // 5-30 minutes
-                    isSecureUrl(site),
-                    false, // Not blocked for now
-                    getBrowserType(deviceMac),
-                    3 + random.nextInt(5), // 3-8 tabs
-                    getUserAgent(deviceMac)
-            ));
-        }
-
-        return history.stream()
-                .sorted((a, b) -> b.getVisitTime().compareTo(a.getVisitTime()))
-                .collect(Collectors.toList());
+        return toBrowsingHistory(sessionizer.getVisits(deviceMac, startTime, MAX_BROWSING_HISTORY), getDeviceName(deviceMac));
     }
 
     // ==========================================
     // PRIVATE HELPER METHODS
     // ==========================================
 
-    private boolean implementDeviceBlocking(String deviceMac, String ipAddress) {
+    private static boolean hasTimeWindow(TimeLimitRequestDTO request) {
+        return (request.getStartTime() != null && !request.getStartTime().isBlank())
+                || (request.getEndTime() != null && !request.getEndTime().isBlank())
+                || (request.getAllowedDays() != null && !request.getAllowedDays().isEmpty());
+    }
+
+    private List<BrowsingHistoryDTO> toBrowsingHistory(List<BrowsingVisit> visits, String deviceName) {
+        String deviceType = determineDeviceType(deviceName);
+
+        return visits.stream()
+                .map(visit -> {
+                    String browserType = getBrowserType(deviceType);
+                    return new BrowsingHistoryDTO(
+                            "https://" + visit.getDomain(),
+                            visit.getDomain(),
+                            getPageTitle(visit.getDomain()),
+                            visit.getCategory(),
+                            visit.getStartedAt(),
+                            (int) Math.round(visit.getDwellSeconds() / 60.0),
+                            isSecureUrl(visit.getDomain()),
+                            visit.getBlocked(),
+                            browserType,
+                            null, // Tab count is not observable from the network
+                            getUserAgent(browserType)
+                    );
+                })
+                .collect(Collectors.toList());
+    }
+
+    private <T> T awaitSection(String section, CompletableFuture<T> future, long deadlineNanos, List<String> unavailable) {
         try {
-            String os = System.getProperty("os.name").toLowerCase();
+            return future.get(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("⚠️ Device details section {} missed the {} ms deadline", section, deviceDetailsTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | CancellationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.warn("⚠️ Device details section {} failed: {}", section, cause.getMessage());
+        }
+        unavailable.add(section);
+        return null;
+    }
 
-            if (os.contains("linux") || os.contains("mac")) {
-                return blockDeviceWithIptables(deviceMac, ipAddress);
-            } else if (os.contains("win")) {
-                return blockDeviceWithWindowsFirewall(deviceMac, ipAddress);
+    private void bulkBlock(List<String> deviceMacs, String reason, Map<String, NetworkConnection> connections,
+                           Map<String, DeviceActionResultDTO> results) {
+        Set<String> blockMacs = new LinkedHashSet<>();
+        Set<String> newlyBlocked = new HashSet<>();
+        Map<String, String> addressByMac = new HashMap<>();
+        for (String deviceMac : deviceMacs) {
+            NetworkConnection connection = connections.get(deviceMac);
+            if (connection == null) {
+                results.put(deviceMac, actionResult(false, "Device not found or not currently connected", deviceMac,
+                        "Unknown", "BLOCK", "UNKNOWN", "UNKNOWN", "Device not found in active connections"));
+                continue;
             }
+            blockMacs.add(deviceMac);
+            if (!policyStore.isBlocked(deviceMac)) newlyBlocked.add(deviceMac);
+            if (connection.getAssignedIp() != null) addressByMac.put(deviceMac, connection.getAssignedIp());
+        }
+        if (blockMacs.isEmpty()) return;
+
+        Set<String> addresses = new HashSet<>(addressByMac.values());
+        // Re-blocking after a lease change releases the address recorded at the earlier block
+        Set<String> superseded = policyStore.getSupersededAddresses(blockMacs, addressByMac);
+        boolean applied = enforcementService.apply(blockMacs, addresses, Set.of(), superseded);
+        String failure = applied ? null : "Unable to apply blocking rules";
+        if (applied) {
+            try {
+                policyStore.markBlockedAll(blockMacs, reason != null ? reason : "Blocked by administrator", addressByMac);
+            } catch (Exception e) {
+                log.error("❌ Bulk block could not be saved - reverting enforcement: {}", e.getMessage());
+                enforcementService.apply(Set.of(), superseded, newlyBlocked, newlyBlocked.stream()
+                        .map(addressByMac::get).filter(Objects::nonNull).collect(Collectors.toSet()));
+                failure = "Unable to save device policy";
+            }
+        }
 
-            log.warn("Device blocking not fully implemented for OS: {} - simulating success", os);
-            return true; // Simulate success for development
-
-        } catch (Exception e) {
-            log.error("Error implementing device blocking: ", e);
-            return false;
+        for (String deviceMac : blockMacs) {
+            String deviceName = connections.get(deviceMac).getDeviceName();
+            String previousStatus = newlyBlocked.contains(deviceMac) ? "ACTIVE" : "BLOCKED";
+            results.put(deviceMac, failure == null
+                    ? actionResult(true, "Device blocked successfully", deviceMac, deviceName, "BLOCK",
+                            previousStatus, "BLOCKED", "Device access has been restricted")
+                    : actionResult(false, "Failed to block device - system error", deviceMac, deviceName, "BLOCK",
+                            previousStatus, previousStatus, failure));
         }
     }
 
-    private boolean removeDeviceBlocking(String deviceMac, String ipAddress) {
-        try {
-            String os = System.getProperty("os.name").toLowerCase();
-
-            if (os.contains("linux") || os.contains("mac")) {
-                return unblockDeviceWithIptables(deviceMac, ipAddress);
-            } else if (os.contains("win")) {
-                return unblockDeviceWithWindowsFirewall(deviceMac, ipAddress);
+    private void bulkUnblock(List<String> deviceMacs, Map<String, NetworkConnection> connections,
+                             Map<String, DeviceActionResultDTO> results) {
+        Set<String> unblockMacs = new LinkedHashSet<>();
+        Set<String> addresses = new HashSet<>();
+        for (String deviceMac : deviceMacs) {
+            NetworkConnection connection = connections.get(deviceMac);
+            String deviceName = connection != null ? connection.getDeviceName() : "Unknown";
+            if (!policyStore.isBlocked(deviceMac)) {
+                results.put(deviceMac, actionResult(false, "Device is not currently blocked", deviceMac, deviceName,
+                        "UNBLOCK", "ACTIVE", "ACTIVE", "Device was already active"));
+                continue;
             }
+            unblockMacs.add(deviceMac);
+            // Also lift the address recorded at block time in case the lease changed since
+            if (connection != null && connection.getAssignedIp() != null) addresses.add(connection.getAssignedIp());
+            String blockedAddress = policyStore.getBlockedAddress(deviceMac);
+            if (blockedAddress != null) addresses.add(blockedAddress);
+        }
+        if (unblockMacs.isEmpty()) return;
+
+        boolean applied = enforcementService.apply(Set.of(), Set.of(), unblockMacs, addresses);
+        String failure = applied ? null : "Unable to remove blocking rules";
+        if (applied) {
+            try {
+                policyStore.clearBlockAll(unblockMacs);
+            } catch (Exception e) {
+                log.error("❌ Bulk unblock could not be saved - reverting enforcement: {}", e.getMessage());
+                enforcementService.apply(unblockMacs, addresses, Set.of(), Set.of());
+                failure = "Unable to save device policy";
+            }
+        }
 
-            log.warn("Device unblocking not fully implemented for OS: {} - simulating success", os);
-            return true;
-
-        } catch (Exception e) {
-            log.error("Error removing device blocking: ", e);
-            return false;
+        for (String deviceMac : unblockMacs) {
+            NetworkConnection connection = connections.get(deviceMac);
+            String deviceName = connection != null ? connection.getDeviceName() : "Unknown";
+            results.put(deviceMac, failure == null
+                    ? actionResult(true, "Device unblocked successfully", deviceMac, deviceName, "UNBLOCK",
+                            "BLOCKED", "ACTIVE", "Device access has been restored")
+                    : actionResult(false, "Failed to unblock device - system error", deviceMac, deviceName, "UNBLOCK",
+                            "BLOCKED", "BLOCKED", failure));
         }
     }
 
-    private boolean blockDeviceWithIptables(String deviceMac, String ipAddress) throws IOException {
-        if (ipAddress == null) return false;
+    private void bulkSetTimeLimit(List<String> deviceMacs, TimeLimitRequestDTO timeLimit,
+                                  Map<String, NetworkConnection> connections, Map<String, DeviceActionResultDTO> results) {
+        if (timeLimit == null) {
+            throw new IllegalArgumentException("timeLimit is required for SET_TIME_LIMIT");
+        }
+        if (timeLimit.getDailyLimitMinutes() != null && timeLimit.getDailyLimitMinutes() < 0) {
+            throw new IllegalArgumentException("Daily limit cannot be negative");
+        }
+        if (hasTimeWindow(timeLimit)) {
+            throw new IllegalArgumentException(TIME_WINDOW_UNSUPPORTED);
+        }
 
+        String failure = null;
         try {
-            CommandLine cmdLine = CommandLine.parse("sudo iptables -A INPUT -s " + ipAddress + " -j DROP");
-            DefaultExecutor executor = new DefaultExecutor();
-
-            int exitCode = executor.execute(cmdLine);
-            if (exitCode == 0) {
-                CommandLine outboundCmd = CommandLine.parse("sudo iptables -A OUTPUT -d " + ipAddress + " -j DROP");
-                executor.execute(outboundCmd);
-            }
-            return exitCode == 0;
+            policyStore.setTimeLimitAll(deviceMacs, timeLimit);
+            deviceMacs.forEach(timeLimitService::onTimeLimitChanged);
         } catch (Exception e) {
-            log.debug("iptables command failed (development mode): {}", e.getMessage());
-            return true; // Return true for development/testing
+            log.error("❌ Bulk time limit could not be saved: {}", e.getMessage());
+            failure = e.getMessage();
+        }
+
+        for (String deviceMac : deviceMacs) {
+            NetworkConnection connection = connections.get(deviceMac);
+            String deviceName = connection != null ? connection.getDeviceName() : "Unknown";
+            results.put(deviceMac, failure == null
+                    ? actionResult(true, "Time limits configured successfully", deviceMac, deviceName,
+                            "SET_TIME_LIMIT", "ACTIVE", "TIME_LIMITED",
+                            String.format("Daily limit: %d minutes", timeLimit.getDailyLimitMinutes()))
+                    : actionResult(false, "Error setting time limits: " + failure, deviceMac, deviceName,
+                            "SET_TIME_LIMIT", "UNKNOWN", "ERROR", failure));
         }
     }
 
-    private boolean unblockDeviceWithIptables(String deviceMac, String ipAddress) throws IOException {
-        if (ipAddress == null) return false;
+    private DeviceActionResultDTO actionResult(boolean success, String message, String deviceMac, String deviceName,
+                                               String action, String previousStatus, String newStatus, String details) {
+        return new DeviceActionResultDTO(success, message, deviceMac, deviceName, action, LocalDateTime.now(),
+                previousStatus, newStatus, details);
+    }
 
-        try {
-            CommandLine cmdLine1 = CommandLine.parse("sudo iptables -D INPUT -s " + ipAddress + " -j DROP");
-            CommandLine cmdLine2 = CommandLine.parse("sudo iptables -D OUTPUT -d " + ipAddress + " -j DROP");
+    private ManagedDeviceDTO toManagedDevice(ManagedDeviceSummary summary) {
+        String deviceMac = summary.getDeviceMac();
 
-            DefaultExecutor executor = new DefaultExecutor();
-            executor.execute(cmdLine1);
-            executor.execute(cmdLine2);
+        // Get current activity
+        String currentSite = getCurrentBrowsingActivity(deviceMac);
+        String currentActivity = determineCurrentActivity(currentSite);
 
-            return true;
-        } catch (Exception e) {
-            log.debug("iptables unblock command failed (development mode): {}", e.getMessage());
-            return true; // Return true for development/testing
-        }
+        // Get recent sites
+        List<String> recentSites = getRecentSites(deviceMac);
+
+        // Check time limits
+        TimeLimitRequestDTO timeLimit = policyStore.getTimeLimit(deviceMac);
+        Integer timeUsedToday = calculateTimeUsedToday(deviceMac);
+
+        return new ManagedDeviceDTO(
+                summary.getDeviceName(),
+                deviceMac,
+                determineDeviceType(summary.getDeviceName()),
+                summary.getAssignedIp(),
+                summary.getSignalStrength() != null ? summary.getSignalStrength() : 0,
+                summary.getConnectionStatus(),
+                policyStore.isBlocked(deviceMac),
+                policyStore.getBlockReason(deviceMac),
+                summary.getLastConnectedAt(),
+                summary.getTotalDataUsageBytes() != null ? summary.getTotalDataUsageBytes() : 0L,
+                summary.getTotalDurationMinutes() != null ? summary.getTotalDurationMinutes().intValue() : 0,
+                currentSite,
+                currentActivity,
+                timeLimit != null,
+                timeLimit != null ? timeLimit.getDailyLimitMinutes() : null,
+                timeUsedToday,
+                summary.getLastConnectedAt(),
+                policyStore.getBlockedAt(deviceMac),
+                recentSites
+        );
     }
 
-    private boolean blockDeviceWithWindowsFirewall(String deviceMac, String ipAddress) {
-        log.info("Simulating Windows firewall block for IP: {}", ipAddress);
-        return true;
+    private boolean implementDeviceBlocking(String deviceMac, String ipAddress) {
+        // Re-blocking after a lease change releases the address recorded at the earlier block
+        Set<String> superseded = policyStore.getSupersededAddresses(Set.of(deviceMac),
+                Collections.singletonMap(deviceMac, ipAddress));
+        return enforcementService.apply(Set.of(deviceMac), ipAddress != null ? Set.of(ipAddress) : Set.of(),
+                Set.of(), superseded);
     }
 
-    private boolean unblockDeviceWithWindowsFirewall(String deviceMac, String ipAddress) {
-        log.info("Simulating Windows firewall unblock for IP: {}", ipAddress);
-        return true;
+    private boolean removeDeviceBlocking(String deviceMac, String ipAddress) {
+        // Also lift the address recorded at block time in case the lease changed since
+        String blockedAddress = policyStore.getBlockedAddress(deviceMac);
+        Set<String> addresses = new HashSet<>();
+        if (ipAddress != null) addresses.add(ipAddress);
+        if (blockedAddress != null) addresses.add(blockedAddress);
+
+        return enforcementService.apply(Set.of(), Set.of(), Set.of(deviceMac), addresses);
     }
 
-    private String determineDeviceType(String deviceName) {
+    static String determineDeviceType(String deviceName) {
         if (deviceName == null) return "unknown";
 
         String name = deviceName.toLowerCase();
@@ -521,11 +778,7 @@ public class DeviceManagementService {
     }
 
     private String getCurrentBrowsingActivity(String deviceMac) {
-        List<String> sites = getSampleSites(deviceMac);
-        if (!sites.isEmpty()) {
-            return sites.get(new Random(deviceMac.hashCode()).nextInt(sites.size()));
-        }
-        return null;
+        return sessionizer.getCurrentDomain(deviceMac);
     }
 
     private String determineCurrentActivity(String currentSite) {
@@ -541,23 +794,7 @@ public class DeviceManagementService {
     }
 
     private List<String> getRecentSites(String deviceMac) {
-        return getSampleSites(deviceMac).stream()
-                .limit(5)
-                .collect(Collectors.toList());
-    }
-
-    private List<String> getSampleSites(String deviceMac) {
-        if (deviceMac == null) return Arrays.asList("google.com", "example.com");
-
-        int variety = Math.abs(deviceMac.hashCode()) % 5;
-
-        switch (variety) {
-            case 0: return Arrays.asList("youtube.com", "netflix.com", "spotify.com", "twitch.tv");
-            case 1: return Arrays.asList("github.com", "stackoverflow.com", "docs.google.com", "medium.com");
-            case 2: return Arrays.asList("facebook.com", "instagram.com", "twitter.com", "linkedin.com");
-            case 3: return Arrays.asList("amazon.com", "ebay.com", "shopify.com", "etsy.com");
-            default: return Arrays.asList("news.com", "wikipedia.org", "reddit.com", "bbc.com");
-        }
+        return sessionizer.getRecentDomains(deviceMac, 5);
     }
 
     private Integer getBatteryLevel(String deviceMac) {
@@ -578,12 +815,7 @@ public class DeviceManagementService {
     }
 
     private Integer calculateTimeUsedToday(String deviceMac) {
-        LocalDateTime startOfDay = LocalDateTime.now().toLocalDate().atStartOfDay();
-
-        return connectionRepository.findByDeviceMac(deviceMac).stream()
-                .filter(conn -> conn.getConnectedAt().isAfter(startOfDay))
-                .mapToInt(conn -> conn.getConnectionDurationMinutes() != null ? conn.getConnectionDurationMinutes() : 0)
-                .sum();
+        return timeLimitService.getUsedMinutesToday(deviceMac);
     }
 
     private LocalDateTime calculateStartTime(String period) {
@@ -598,28 +830,30 @@ public class DeviceManagementService {
         }
     }
 
-    private List<ConnectionHistoryDTO> getConnectionHistory(String deviceMac) {
-        return connectionRepository.findByDeviceMac(deviceMac).stream()
-                .map(conn -> new ConnectionHistoryDTO(
-                        conn.getConnectedAt(),
-                        conn.getDisconnectedAt(),
-                        conn.getNetwork() != null ? conn.getNetwork().getSsid() : "Unknown",
-                        conn.getNetwork() != null ? conn.getNetwork().getBssid() : "Unknown",
-                        conn.getNetwork() != null ? conn.getNetwork().getSignalStrength() : 0,
-                        conn.getDataUsageBytes() != null ? conn.getDataUsageBytes() : 0L,
-                        conn.getConnectionDurationMinutes() != null ? conn.getConnectionDurationMinutes() : 0,
-                        "WIFI",
-                        conn.getAssignedIp(),
-                        conn.getDisconnectionReason()
-                ))
-                .sorted((a, b) -> b.getConnectedAt().compareTo(a.getConnectedAt()))
+    private List<ConnectionHistoryDTO> getConnectionHistory(List<NetworkConnection> connections) {
+        // Rows arrive newest first
+        return connections.stream()
                 .limit(10)
+                .map(this::toConnectionHistory)
                 .collect(Collectors.toList());
     }
 
-    private DeviceStatsDTO calculateDeviceStatistics(String deviceMac) {
-        List<NetworkConnection> connections = connectionRepository.findByDeviceMac(deviceMac);
+    private ConnectionHistoryDTO toConnectionHistory(NetworkConnection conn) {
+        return new ConnectionHistoryDTO(
+                conn.getConnectedAt(),
+                conn.getDisconnectedAt(),
+                conn.getNetwork() != null ? conn.getNetwork().getSsid() : "Unknown",
+                conn.getNetwork() != null ? conn.getNetwork().getBssid() : "Unknown",
+                conn.getNetwork() != null ? conn.getNetwork().getSignalStrength() : 0,
+                conn.getDataUsageBytes() != null ? conn.getDataUsageBytes() : 0L,
+                conn.getConnectionDurationMinutes() != null ? conn.getConnectionDurationMinutes() : 0,
+                "WIFI",
+                conn.getAssignedIp(),
+                conn.getDisconnectionReason()
+        );
+    }
 
+    private DeviceStatsDTO calculateDeviceStatistics(List<NetworkConnection> connections, List<BrowsingVisit> visits) {
         if (connections.isEmpty()) {
             return new DeviceStatsDTO(
                     0L, 0, 0, 0, "No data", "General", 0.0, 0,
@@ -654,16 +888,27 @@ public class DeviceManagementService {
                 .map(NetworkConnection::getConnectedAt)
                 .orElse(LocalDateTime.now());
 
-        List<CategoryUsageDTO> categoryBreakdown = generateCategoryBreakdown(deviceMac);
+        List<CategoryUsageDTO> categoryBreakdown = generateCategoryBreakdown(visits);
         List<HourlyActivityDTO> activityPattern = generateHourlyActivityPattern(connections);
 
+        // Site figures come from the sessionized visits, ranked by dwell time
+        Map<String, Long> dwellByDomain = new HashMap<>();
+        for (BrowsingVisit visit : visits) {
+            dwellByDomain.merge(visit.getDomain(), dwellSeconds(visit), Long::sum);
+        }
+        String mostVisitedSite = dwellByDomain.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse("No data");
+        String mostUsedCategory = categoryBreakdown.isEmpty() ? "General" : categoryBreakdown.get(0).getCategory();
+
         return new DeviceStatsDTO(
                 totalDataUsage,
                 totalTime,
                 avgSessionDuration,
-                getSampleSites(deviceMac).size() * 3,
-                getSampleSites(deviceMac).get(0),
-                "Entertainment",
+                dwellByDomain.size(),
+                mostVisitedSite,
+                mostUsedCategory,
                 avgSignal,
                 connections.size(),
                 firstSeen,
@@ -695,7 +940,7 @@ public class DeviceManagementService {
     }
 
     private DeviceSettingsDTO getDeviceSettings(String deviceMac) {
-        TimeLimitRequestDTO timeLimit = deviceTimeLimits.get(deviceMac);
+        TimeLimitRequestDTO timeLimit = policyStore.getTimeLimit(deviceMac);
 
         return new DeviceSettingsDTO(
                 true,
@@ -713,57 +958,80 @@ public class DeviceManagementService {
         );
     }
 
-    private List<CategoryUsageDTO> generateCategoryBreakdown(String deviceMac) {
-        List<String> sites = getSampleSites(deviceMac);
-        Map<String, List<String>> categorySites = new HashMap<>();
-
-        for (String site : sites) {
-            String category = categorizeWebsite(site);
-            categorySites.computeIfAbsent(category, k -> new ArrayList<>()).add(site);
+    /**
+     * Time per category across the visits, largest first, with each category's top sites by dwell
+     */
+    private List<CategoryUsageDTO> generateCategoryBreakdown(List<BrowsingVisit> visits) {
+        Map<String, Map<String, Long>> dwellByCategory = new HashMap<>();
+        long totalDwell = 0;
+        for (BrowsingVisit visit : visits) {
+            String category = visit.getCategory() != null ? visit.getCategory() : domainClassifier.categorize(visit.getDomain());
+            long dwell = dwellSeconds(visit);
+            dwellByCategory.computeIfAbsent(category, k -> new HashMap<>()).merge(visit.getDomain(), dwell, Long::sum);
+            totalDwell += dwell;
         }
 
-        return categorySites.entrySet().stream()
+        long total = totalDwell;
+        return dwellByCategory.entrySet().stream()
                 .map(entry -> {
-                    String category = entry.getKey();
-                    List<String> categorySiteList = entry.getValue();
+                    Map<String, Long> sites = entry.getValue();
+                    long categoryDwell = sites.values().stream().mapToLong(Long::longValue).sum();
+                    List<String> topSites = sites.entrySet().stream()
+                            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                            .limit(5)
+                            .map(Map.Entry::getKey)
+                            .collect(Collectors.toList());
                     return new CategoryUsageDTO(
-                            category,
-                            categorySiteList.size(),
-                            30 * categorySiteList.size(),
-                            (double) categorySiteList.size() / sites.size() * 100,
-                            categorySiteList
+                            entry.getKey(),
+                            sites.size(),
+                            (int) (categoryDwell / 60),
+                            total > 0 ? (double) categoryDwell / total * 100 : 0.0,
+                            topSites
                     );
                 })
+                .sorted(Comparator.comparing(CategoryUsageDTO::getTimeSpentMinutes).reversed()
+                        .thenComparing(CategoryUsageDTO::getSitesVisited, Comparator.reverseOrder()))
                 .collect(Collectors.toList());
     }
 
-    private List<HourlyActivityDTO> generateHourlyActivityPattern(List<NetworkConnection> connections) {
-        Map<Integer, List<NetworkConnection>> hourlyConnections = connections.stream()
-                .collect(Collectors.groupingBy(conn -> conn.getConnectedAt().getHour()));
-
-        List<HourlyActivityDTO> pattern = new ArrayList<>();
-
-        for (int hour = 0; hour < 24; hour++) {
-            List<NetworkConnection> hourConns = hourlyConnections.getOrDefault(hour, new ArrayList<>());
-
-            Long dataUsed = hourConns.stream()
-                    .mapToLong(conn -> conn.getDataUsageBytes() != null ? conn.getDataUsageBytes() : 0L)
-                    .sum();
-
-            Integer activeMinutes = hourConns.stream()
-                    .mapToInt(conn -> conn.getConnectionDurationMinutes() != null ? conn.getConnectionDurationMinutes() : 0)
-                    .sum();
+    private long dwellSeconds(BrowsingVisit visit) {
+        return visit.getDwellSeconds() != null ? visit.getDwellSeconds() : 0L;
+    }
 
-            pattern.add(new HourlyActivityDTO(
-                    hour,
-                    activeMinutes,
-                    dataUsed,
-                    hourConns.size(),
-                    activeMinutes > 30 ? "Active" : "Idle"
+    /**
+     * Activity over the last 24 clock hours, each session spread across the hours it overlaps
+     */
+    private List<HourlyActivityDTO> generateHourlyActivityPattern(List<NetworkConnection> connections) {
+        ZoneId zone = analyticsZone == null || analyticsZone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(analyticsZone);
+        LocalDateTime now = LocalDateTime.now();
+        Instant to = ZonedDateTime.now(zone).truncatedTo(ChronoUnit.HOURS).plusHours(1).toInstant();
+        Instant from = to.minus(Duration.ofHours(24));
+
+        // Connection times are recorded in the server's local time
+        List<TimeBucketer.Session> sessions = new ArrayList<>(connections.size());
+        for (NetworkConnection conn : connections) {
+            LocalDateTime end = conn.getDisconnectedAt();
+            if (end == null) {
+                end = Boolean.TRUE.equals(conn.getIsCurrentlyConnected()) ? now
+                        : conn.getConnectedAt().plusMinutes(conn.getConnectionDurationMinutes() != null ? conn.getConnectionDurationMinutes() : 0);
+            }
+            sessions.add(new TimeBucketer.Session(
+                    conn.getConnectedAt().atZone(ZoneId.systemDefault()).toInstant(),
+                    end.atZone(ZoneId.systemDefault()).toInstant(),
+                    conn.getDataUsageBytes() != null ? conn.getDataUsageBytes() : 0L
             ));
         }
 
-        return pattern;
+        return new TimeBucketer(TimeBucketer.Unit.HOUR, zone).bucket(sessions, from, to).stream()
+                .map(bucket -> new HourlyActivityDTO(
+                        bucket.start().getHour(),
+                        (int) bucket.activeMinutes(),
+                        bucket.bytes(),
+                        bucket.sessions(),
+                        bucket.activeMinutes() > 30 ? "Active" : "Idle",
+                        bucket.start().toLocalDateTime()
+                ))
+                .collect(Collectors.toList());
     }
 
     // Additional helper methods for data processing
@@ -780,18 +1048,6 @@ public class DeviceManagementService {
         return domain.substring(0, 1).toUpperCase() + domain.substring(1);
     }
 
-    private String categorizeWebsite(String url) {
-        if (url == null) return "General";
-
-        String site = url.toLowerCase();
-        if (site.contains("youtube") || site.contains("netflix") || site.contains("twitch")) return "Entertainment";
-        if (site.contains("facebook") || site.contains("instagram") || site.contains("twitter")) return "Social Media";
-        if (site.contains("github") || site.contains("stack") || site.contains("docs")) return "Development";
-        if (site.contains("amazon") || site.contains("shop") || site.contains("ebay")) return "Shopping";
-        if (site.contains("news") || site.contains("bbc") || site.contains("cnn")) return "News";
-        return "General";
-    }
-
     private Boolean isSecureUrl(String url) {
         if (url == null) return false;
 
@@ -799,8 +1055,7 @@ public class DeviceManagementService {
                 (url.contains("google") || url.contains("github") || url.contains("amazon"));
     }
 
-    private String getBrowserType(String deviceMac) {
-        String deviceType = determineDeviceType(getDeviceName(deviceMac));
+    private String getBrowserType(String deviceType) {
         switch (deviceType) {
             case "mobile": return new Random().nextBoolean() ? "Chrome Mobile" : "Safari Mobile";
             case "tablet": return "Safari";
@@ -808,8 +1063,7 @@ public class DeviceManagementService {
         }
     }
 
-    private String getUserAgent(String deviceMac) {
-        String browserType = getBrowserType(deviceMac);
+    private String getUserAgent(String browserType) {
         switch (browserType) {
             case "Chrome": return "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
             case "Safari": return "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36";
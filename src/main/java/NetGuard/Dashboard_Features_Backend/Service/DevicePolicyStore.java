@@ -0,0 +1,297 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.DTO.TimeLimitRequestDTO;
+import NetGuard.Dashboard_Features_Backend.Entity.DevicePolicy;
+import NetGuard.Dashboard_Features_Backend.Repository.DevicePolicyRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Per-device policy (block state and time limits) backed by the device_policy table.
+ * Reads are served from an immutable snapshot published through a volatile field, so request
+ * threads and enforcement checks never lock or touch the database. Writes are serialized,
+ * saved first and only then published as a fresh snapshot (copy-on-write).
+ * Policies handed out by the read methods are shared and must not be modified.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DevicePolicyStore {
+
+    private final DevicePolicyRepository policyRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private volatile Map<String, DevicePolicy> policies = Collections.emptyMap();
+
+    /**
+     * Load every policy before anything reads the snapshot. A failure aborts startup: running on an
+     * empty snapshot would make the startup reconcile lift every block from the kernel sets, and
+     * the first write to a device would replace its stored policy with defaults.
+     */
+    @PostConstruct
+    public void loadPolicies() {
+        try {
+            Map<String, DevicePolicy> loaded = new HashMap<>();
+            for (DevicePolicy policy : policyRepository.findAll()) {
+                loaded.put(policy.getDeviceMac(), policy);
+            }
+            policies = Collections.unmodifiableMap(loaded);
+            log.info("✅ Loaded {} device policies ({} blocked)", loaded.size(), getBlockedMacs().size());
+        } catch (Exception e) {
+            log.error("❌ Could not load device policies: {}", e.getMessage());
+            throw new IllegalStateException("Device policies could not be loaded; refusing to start without them", e);
+        }
+    }
+
+    // ==========================================
+    // READS - SNAPSHOT, NO LOCKING
+    // ==========================================
+
+    public DevicePolicy getPolicy(String deviceMac) {
+        return policies.get(deviceMac);
+    }
+
+    public boolean isBlocked(String deviceMac) {
+        DevicePolicy policy = policies.get(deviceMac);
+        return policy != null && Boolean.TRUE.equals(policy.getBlocked());
+    }
+
+    public String getBlockReason(String deviceMac) {
+        DevicePolicy policy = policies.get(deviceMac);
+        return policy != null && Boolean.TRUE.equals(policy.getBlocked()) ? policy.getBlockReason() : null;
+    }
+
+    public LocalDateTime getBlockedAt(String deviceMac) {
+        DevicePolicy policy = policies.get(deviceMac);
+        return policy != null && Boolean.TRUE.equals(policy.getBlocked()) ? policy.getBlockedAt() : null;
+    }
+
+    public String getBlockedAddress(String deviceMac) {
+        DevicePolicy policy = policies.get(deviceMac);
+        return policy != null ? policy.getBlockedAddress() : null;
+    }
+
+    /**
+     * Time limit configured for the device, or null if none is set
+     */
+    public TimeLimitRequestDTO getTimeLimit(String deviceMac) {
+        DevicePolicy policy = policies.get(deviceMac);
+        if (policy == null || !Boolean.TRUE.equals(policy.getTimeLimitEnabled())) {
+            return null;
+        }
+        return new TimeLimitRequestDTO(
+                policy.getDailyLimitMinutes(),
+                policy.getLimitStartTime(),
+                policy.getLimitEndTime(),
+                splitList(policy.getAllowedDays()),
+                true,
+                splitList(policy.getExemptSites())
+        );
+    }
+
+    public Set<String> getBlockedMacs() {
+        return policies.values().stream()
+                .filter(policy -> Boolean.TRUE.equals(policy.getBlocked()))
+                .map(DevicePolicy::getDeviceMac)
+                .collect(Collectors.toSet());
+    }
+
+    public Set<String> getBlockedAddresses() {
+        return policies.values().stream()
+                .filter(policy -> Boolean.TRUE.equals(policy.getBlocked()) && policy.getBlockedAddress() != null)
+                .map(DevicePolicy::getBlockedAddress)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Addresses recorded for blocked devices in {@code deviceMacs} that their new addresses replace.
+     * An address still recorded for another blocked device is kept, since it is that device's block.
+     */
+    public Set<String> getSupersededAddresses(Collection<String> deviceMacs, Map<String, String> newAddressByMac) {
+        Set<String> superseded = new HashSet<>();
+        for (String deviceMac : deviceMacs) {
+            String previous = isBlocked(deviceMac) ? getBlockedAddress(deviceMac) : null;
+            if (previous != null && !previous.equals(newAddressByMac.get(deviceMac))) {
+                superseded.add(previous);
+            }
+        }
+        if (!superseded.isEmpty()) {
+            for (DevicePolicy policy : policies.values()) {
+                if (Boolean.TRUE.equals(policy.getBlocked()) && !deviceMacs.contains(policy.getDeviceMac())) {
+                    superseded.remove(policy.getBlockedAddress());
+                }
+            }
+        }
+        return superseded;
+    }
+
+    public Map<String, DevicePolicy> getAllPolicies() {
+        return policies;
+    }
+
+    // ==========================================
+    // WRITES - WRITE-THROUGH, COPY-ON-WRITE
+    // ==========================================
+
+    public void markBlocked(String deviceMac, String reason, String ipAddress) {
+        update(deviceMac, policy -> {
+            policy.setBlocked(true);
+            policy.setBlockReason(reason);
+            policy.setBlockedAt(LocalDateTime.now());
+            policy.setBlockedAddress(ipAddress);
+        });
+    }
+
+    public void clearBlock(String deviceMac) {
+        update(deviceMac, policy -> {
+            policy.setBlocked(false);
+            policy.setBlockReason(null);
+            policy.setBlockedAt(null);
+            policy.setBlockedAddress(null);
+        });
+    }
+
+    public void setTimeLimit(String deviceMac, TimeLimitRequestDTO request) {
+        update(deviceMac, policy -> applyTimeLimit(policy, request));
+    }
+
+    /**
+     * Block many devices in one transaction; addresses are looked up per MAC
+     */
+    public void markBlockedAll(Collection<String> deviceMacs, String reason, Map<String, String> addressByMac) {
+        LocalDateTime now = LocalDateTime.now();
+        updateAll(deviceMacs, policy -> {
+            policy.setBlocked(true);
+            policy.setBlockReason(reason);
+            policy.setBlockedAt(now);
+            policy.setBlockedAddress(addressByMac.get(policy.getDeviceMac()));
+        });
+    }
+
+    /**
+     * Record the current lease of blocked devices whose address changed since they were blocked
+     */
+    public void updateBlockedAddresses(Map<String, String> addressByMac) {
+        updateAll(addressByMac.keySet(), policy -> policy.setBlockedAddress(addressByMac.get(policy.getDeviceMac())));
+    }
+
+    public void clearBlockAll(Collection<String> deviceMacs) {
+        updateAll(deviceMacs, policy -> {
+            policy.setBlocked(false);
+            policy.setBlockReason(null);
+            policy.setBlockedAt(null);
+            policy.setBlockedAddress(null);
+        });
+    }
+
+    public void setTimeLimitAll(Collection<String> deviceMacs, TimeLimitRequestDTO request) {
+        updateAll(deviceMacs, policy -> applyTimeLimit(policy, request));
+    }
+
+    /**
+     * Apply a change to a copy of the device's policy, persist it and publish a new snapshot.
+     * If the save fails the published snapshot is left untouched.
+     */
+    public synchronized DevicePolicy update(String deviceMac, Consumer<DevicePolicy> change) {
+        DevicePolicy current = policies.get(deviceMac);
+        DevicePolicy updated = new DevicePolicy(deviceMac);
+        if (current != null) {
+            BeanUtils.copyProperties(current, updated);
+        }
+        change.accept(updated);
+        updated.setUpdatedAt(LocalDateTime.now());
+
+        DevicePolicy saved = policyRepository.save(updated);
+
+        Map<String, DevicePolicy> next = new HashMap<>(policies);
+        next.put(deviceMac, saved);
+        policies = Collections.unmodifiableMap(next);
+        return saved;
+    }
+
+    /**
+     * Apply the same change to many devices: one select for the existing rows, one batched
+     * write, one commit, then one new snapshot. Nothing is published if the transaction fails.
+     */
+    public synchronized List<DevicePolicy> updateAll(Collection<String> deviceMacs, Consumer<DevicePolicy> change) {
+        if (deviceMacs.isEmpty()) {
+            return List.of();
+        }
+        List<DevicePolicy> saved = new TransactionTemplate(transactionManager).execute(status -> {
+            // Loading the rows first lets the merges below resolve in the persistence context
+            policyRepository.findAllById(deviceMacs);
+
+            List<DevicePolicy> updated = new ArrayList<>(deviceMacs.size());
+            LocalDateTime now = LocalDateTime.now();
+            for (String deviceMac : deviceMacs) {
+                DevicePolicy current = policies.get(deviceMac);
+                DevicePolicy policy = new DevicePolicy(deviceMac);
+                if (current != null) {
+                    BeanUtils.copyProperties(current, policy);
+                }
+                change.accept(policy);
+                policy.setUpdatedAt(now);
+                updated.add(policy);
+            }
+            return policyRepository.saveAll(updated);
+        });
+
+        Map<String, DevicePolicy> next = new HashMap<>(policies);
+        for (DevicePolicy policy : saved) {
+            next.put(policy.getDeviceMac(), policy);
+        }
+        policies = Collections.unmodifiableMap(next);
+        return saved;
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private void applyTimeLimit(DevicePolicy policy, TimeLimitRequestDTO request) {
+        policy.setTimeLimitEnabled(request != null && !Boolean.FALSE.equals(request.getEnabled()));
+        policy.setDailyLimitMinutes(request != null ? request.getDailyLimitMinutes() : null);
+        policy.setLimitStartTime(request != null ? request.getStartTime() : null);
+        policy.setLimitEndTime(request != null ? request.getEndTime() : null);
+        policy.setAllowedDays(request != null ? joinList(request.getAllowedDays()) : null);
+        policy.setExemptSites(request != null ? joinList(request.getExemptSites()) : null);
+    }
+
+    private List<String> splitList(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private String joinList(List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return values.stream()
+                .filter(item -> item != null && !item.isBlank())
+                .map(String::trim)
+                .collect(Collectors.joining(","));
+    }
+}
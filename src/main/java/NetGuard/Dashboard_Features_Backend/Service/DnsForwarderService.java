@@ -0,0 +1,439 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.Event.DnsQueryEvent;
+import NetGuard.Dashboard_Features_Backend.Util.DnsAnswerCache;
+import NetGuard.Dashboard_Features_Backend.Util.DnsMessage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.*;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Optional embedded DNS forwarder meant to be configured as the LAN resolver.
+ * Every query is forwarded upstream (or answered from a TTL-honoring cache) and recorded as a
+ * (client IP, qname, qtype, timestamp) event on a lock-free queue for the website monitors.
+ * TCP connections run on their own small pool and are closed after an idle limit or an overall
+ * deadline, so slow or stalled TCP clients can never take workers away from UDP queries.
+ */
+@Service
+@Slf4j
+public class DnsForwarderService {
+
+    private static final int MAX_UDP_MESSAGE = 4096;
+
+    @Value("${app.dashboard.dns.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.dashboard.dns.listen-address:0.0.0.0}")
+    private String listenAddress;
+
+    @Value("${app.dashboard.dns.listen-port:53}")
+    private int listenPort;
+
+    @Value("${app.dashboard.dns.upstream-host:1.1.1.1}")
+    private String upstreamHost;
+
+    @Value("${app.dashboard.dns.upstream-port:53}")
+    private int upstreamPort;
+
+    @Value("${app.dashboard.dns.upstream-timeout-ms:2000}")
+    private int upstreamTimeoutMs;
+
+    @Value("${app.dashboard.dns.cache-max-entries:50000}")
+    private int cacheMaxEntries;
+
+    @Value("${app.dashboard.dns.event-queue-capacity:100000}")
+    private int eventQueueCapacity;
+
+    @Value("${app.dashboard.dns.worker-threads:4}")
+    private int workerThreads;
+
+    // Concurrent TCP connections; further connections are refused until one closes
+    @Value("${app.dashboard.dns.tcp-max-connections:4}")
+    private int tcpMaxConnections;
+
+    // Longest wait for the next query (or the rest of one) on a TCP connection
+    @Value("${app.dashboard.dns.tcp-idle-timeout-ms:5000}")
+    private int tcpIdleTimeoutMs;
+
+    // Hard cap on a TCP connection's lifetime, however it trickles data
+    @Value("${app.dashboard.dns.tcp-max-connection-ms:30000}")
+    private int tcpMaxConnectionMs;
+
+    private final Queue<DnsQueryEvent> queryEvents = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedEvents = new AtomicInteger();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong forwardedQueries = new AtomicLong();
+    private final AtomicLong upstreamFailures = new AtomicLong();
+    private final AtomicLong malformedResponses = new AtomicLong();
+
+    // Address -> queried name, learned from answers; two generations keep it bounded without an LRU
+    private volatile Map<String, String> namesByAddress = new ConcurrentHashMap<>();
+    private volatile Map<String, String> previousNamesByAddress = new ConcurrentHashMap<>();
+
+    private volatile DnsAnswerCache answerCache;
+    private volatile boolean running;
+    private DatagramSocket udpSocket;
+    private ServerSocket tcpSocket;
+    private ExecutorService workers;
+    private ExecutorService tcpWorkers;
+    private ScheduledExecutorService tcpDeadlines;
+    private final Set<Socket> tcpClients = ConcurrentHashMap.newKeySet();
+    private Thread udpListener;
+    private Thread tcpListener;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("Embedded DNS forwarder disabled (app.dashboard.dns.enabled=false)");
+            return;
+        }
+        try {
+            start();
+        } catch (IOException e) {
+            log.error("❌ Could not start embedded DNS forwarder on {}:{}: {}", listenAddress, listenPort, e.getMessage());
+        }
+    }
+
+    /**
+     * Bind UDP and TCP listeners and start forwarding
+     */
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        answerCache = new DnsAnswerCache(cacheMaxEntries);
+        InetAddress bindAddress = InetAddress.getByName(listenAddress);
+
+        udpSocket = new DatagramSocket(new InetSocketAddress(bindAddress, listenPort));
+        // Share the UDP port for TCP so clients can retry truncated answers on the same port
+        tcpSocket = new ServerSocket(udpSocket.getLocalPort(), 50, bindAddress);
+        workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1024), daemonThreads("DNS-Worker"));
+        // No queue: a connection either gets a thread now or is refused
+        tcpWorkers = new ThreadPoolExecutor(tcpMaxConnections, tcpMaxConnections, 0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(), daemonThreads("DNS-TCP-Worker"));
+        tcpDeadlines = Executors.newSingleThreadScheduledExecutor(daemonThreads("DNS-TCP-Deadline"));
+        running = true;
+
+        udpListener = new Thread(this::runUdpListener, "DNS-UDP");
+        udpListener.setDaemon(true);
+        udpListener.start();
+
+        tcpListener = new Thread(this::runTcpListener, "DNS-TCP");
+        tcpListener.setDaemon(true);
+        tcpListener.start();
+
+        log.info("🌐 Embedded DNS forwarder listening on {}:{} (upstream {}:{})",
+                listenAddress, udpSocket.getLocalPort(), upstreamHost, upstreamPort);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        udpSocket.close();
+        try {
+            tcpSocket.close();
+        } catch (IOException e) {
+            log.debug("Error closing DNS TCP listener: {}", e.getMessage());
+        }
+        workers.shutdownNow();
+        tcpClients.forEach(DnsForwarderService::closeQuietly);
+        tcpWorkers.shutdownNow();
+        tcpDeadlines.shutdownNow();
+        log.info("Embedded DNS forwarder stopped");
+    }
+
+    /**
+     * Remove and hand every queued query event to the consumer
+     */
+    public int drainQueryEvents(Consumer<DnsQueryEvent> consumer) {
+        int drained = 0;
+        DnsQueryEvent event;
+        while ((event = queryEvents.poll()) != null) {
+            queuedEvents.decrementAndGet();
+            consumer.accept(event);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Name a LAN client most recently resolved to this address, or null if unknown
+     */
+    public String lookupQueriedName(String address) {
+        String name = namesByAddress.get(address);
+        return name != null ? name : previousNamesByAddress.get(address);
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void evictExpiredAnswers() {
+        DnsAnswerCache cache = answerCache;
+        if (running && cache != null) {
+            cache.evictExpired(System.nanoTime());
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getListenPort() {
+        return running ? udpSocket.getLocalPort() : -1;
+    }
+
+    public long getForwardedQueries() {
+        return forwardedQueries.get();
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    public long getUpstreamFailures() {
+        return upstreamFailures.get();
+    }
+
+    public long getMalformedResponses() {
+        return malformedResponses.get();
+    }
+
+    public DnsAnswerCache getAnswerCache() {
+        return answerCache;
+    }
+
+    // ==========================================
+    // LISTENERS
+    // ==========================================
+
+    private void runUdpListener() {
+        while (running) {
+            try {
+                byte[] buffer = new byte[MAX_UDP_MESSAGE];
+                DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                udpSocket.receive(packet);
+                workers.execute(() -> handleUdpQuery(packet));
+            } catch (RejectedExecutionException e) {
+                log.debug("DNS worker queue full - dropping query");
+            } catch (IOException e) {
+                if (running) {
+                    log.debug("DNS UDP receive failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void runTcpListener() {
+        while (running) {
+            try {
+                Socket client = tcpSocket.accept();
+                try {
+                    client.setSoTimeout(tcpIdleTimeoutMs);
+                    tcpWorkers.execute(() -> handleTcpConnection(client));
+                } catch (RejectedExecutionException e) {
+                    log.debug("DNS TCP connection limit reached - refusing {}", client.getInetAddress());
+                    closeQuietly(client);
+                }
+            } catch (IOException e) {
+                if (running) {
+                    log.debug("DNS TCP accept failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void handleUdpQuery(DatagramPacket packet) {
+        try {
+            byte[] query = Arrays.copyOf(packet.getData(), packet.getLength());
+            byte[] response = resolve(query, packet.getAddress(), false);
+            if (response == null) {
+                return;
+            }
+            // Larger than the client accepts over UDP: send TC so it retries over TCP
+            if (response.length > DnsMessage.udpPayloadLimit(query, query.length)) {
+                response = DnsMessage.truncate(response, response.length);
+            }
+            udpSocket.send(new DatagramPacket(response, response.length, packet.getSocketAddress()));
+        } catch (IOException e) {
+            log.debug("DNS UDP reply failed: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            log.debug("Dropping malformed DNS query from {}: {}", packet.getAddress(), e.toString());
+        }
+    }
+
+    private void handleTcpConnection(Socket client) {
+        tcpClients.add(client);
+        // The idle timeout applies per read; closing the socket also ends a connection that trickles bytes
+        ScheduledFuture<?> deadline = tcpDeadlines.schedule(() -> closeQuietly(client),
+                tcpMaxConnectionMs, TimeUnit.MILLISECONDS);
+        try (client;
+             DataInputStream in = new DataInputStream(client.getInputStream());
+             DataOutputStream out = new DataOutputStream(client.getOutputStream())) {
+            // RFC 7766: a client may pipeline several length-prefixed queries on one connection
+            while (running) {
+                int length;
+                try {
+                    length = in.readUnsignedShort();
+                } catch (IOException e) {
+                    return;
+                }
+                byte[] query = new byte[length];
+                in.readFully(query);
+
+                byte[] response = resolve(query, client.getInetAddress(), true);
+                if (response == null) {
+                    return;
+                }
+                out.writeShort(response.length);
+                out.write(response);
+                out.flush();
+            }
+        } catch (IOException e) {
+            log.debug("DNS TCP connection failed: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            log.debug("Dropping malformed DNS query from {}: {}", client.getInetAddress(), e.toString());
+        } finally {
+            deadline.cancel(false);
+            tcpClients.remove(client);
+        }
+    }
+
+    // ==========================================
+    // RESOLUTION
+    // ==========================================
+
+    private byte[] resolve(byte[] query, InetAddress client, boolean overTcp) {
+        DnsMessage.Question question = DnsMessage.readQuestion(query, query.length);
+        if (question == null || DnsMessage.isResponse(query)) {
+            return null;
+        }
+        recordQuery(client, question);
+
+        long now = System.nanoTime();
+        int transactionId = DnsMessage.getId(query);
+        byte[] cached = answerCache.get(question, transactionId, now);
+        if (cached != null) {
+            recordAddresses(question, cached);
+            return cached;
+        }
+
+        try {
+            byte[] response = overTcp ? forwardTcp(query) : forwardUdp(query);
+            forwardedQueries.incrementAndGet();
+            // Short, cut-off or mismatched replies are dropped; the client retries on its own
+            if (!DnsMessage.isWellFormed(response, response.length)
+                    || !DnsMessage.isResponse(response) || DnsMessage.getId(response) != transactionId) {
+                malformedResponses.incrementAndGet();
+                log.debug("Dropping malformed upstream DNS reply for {} ({} bytes)", question.name(), response.length);
+                return null;
+            }
+            answerCache.put(question, response, response.length, now);
+            recordAddresses(question, response);
+            return response;
+        } catch (IOException e) {
+            upstreamFailures.incrementAndGet();
+            log.debug("DNS upstream query for {} failed: {}", question.name(), e.getMessage());
+            return null;
+        }
+    }
+
+    private byte[] forwardUdp(byte[] query) throws IOException {
+        try (DatagramSocket upstream = new DatagramSocket()) {
+            upstream.setSoTimeout(upstreamTimeoutMs);
+            upstream.send(new DatagramPacket(query, query.length, InetAddress.getByName(upstreamHost), upstreamPort));
+
+            byte[] buffer = new byte[MAX_UDP_MESSAGE];
+            DatagramPacket reply = new DatagramPacket(buffer, buffer.length);
+            upstream.receive(reply);
+            return Arrays.copyOf(reply.getData(), reply.getLength());
+        }
+    }
+
+    private byte[] forwardTcp(byte[] query) throws IOException {
+        try (Socket upstream = new Socket()) {
+            upstream.connect(new InetSocketAddress(upstreamHost, upstreamPort), upstreamTimeoutMs);
+            upstream.setSoTimeout(upstreamTimeoutMs);
+
+            DataOutputStream out = new DataOutputStream(upstream.getOutputStream());
+            out.writeShort(query.length);
+            out.write(query);
+            out.flush();
+
+            DataInputStream in = new DataInputStream(upstream.getInputStream());
+            byte[] response = new byte[in.readUnsignedShort()];
+            in.readFully(response);
+            return response;
+        }
+    }
+
+    private void recordQuery(InetAddress client, DnsMessage.Question question) {
+        // Bounded without locks: reserve a slot first, give it back if the queue is full
+        if (queuedEvents.incrementAndGet() > eventQueueCapacity) {
+            queuedEvents.decrementAndGet();
+            droppedEvents.incrementAndGet();
+            return;
+        }
+        queryEvents.offer(new DnsQueryEvent(client.getHostAddress(), question.name(), question.type(), Instant.now()));
+    }
+
+    private void recordAddresses(DnsMessage.Question question, byte[] response) {
+        if (question.type() != DnsMessage.TYPE_A && question.type() != DnsMessage.TYPE_AAAA) {
+            return;
+        }
+        DnsMessage.forEachAddress(response, response.length, address -> {
+            Map<String, String> current = namesByAddress;
+            current.put(address, question.name());
+            if (current.size() > cacheMaxEntries) {
+                // Rotate generations; a racing writer may land in the retired map, which only costs a miss
+                previousNamesByAddress = current;
+                namesByAddress = new ConcurrentHashMap<>();
+            }
+        });
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.Event.DnsQueryEvent;
+import NetGuard.Dashboard_Features_Backend.Event.SiteActivityEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Moves address lookups recorded by the embedded DNS forwarder into the site activity pipeline
+ */
+@Service
+@RequiredArgsConstructor
+public class DnsSiteActivityCollector {
+
+    // A, AAAA and HTTPS lookups indicate the device is about to open a site
+    private static final int TYPE_A = 1;
+    private static final int TYPE_AAAA = 28;
+    private static final int TYPE_HTTPS = 65;
+
+    private final DnsForwarderService dnsForwarderService;
+    private final SiteActivityPipeline pipeline;
+
+    @Scheduled(fixedDelayString = "${app.dashboard.website.collectors.dns.drain-interval-ms:500}")
+    public void collect() {
+        dnsForwarderService.drainQueryEvents(this::forward);
+    }
+
+    private void forward(DnsQueryEvent event) {
+        int type = event.queryType();
+        if (type == TYPE_A || type == TYPE_AAAA || type == TYPE_HTTPS) {
+            pipeline.publish(new SiteActivityEvent(event.clientIp(), event.queryName(),
+                    SiteActivityEvent.Source.DNS, event.timestamp()));
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.Util.DomainClassifier;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Single source of truth for site categories and URL threat flags.
+ * Built-in lists cover the common sites; {@code app.dashboard.classifier.lists-dir} can add
+ * large lists as {@code <name>.domains} (one domain or hosts-file line per entry) and
+ * {@code <name>.keywords} files, where name is a category slug such as {@code social-media}
+ * or one of {@code suspicious}, {@code inappropriate}, {@code blocked}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DomainClassifierService {
+
+    // Index = category id; lower ids win when only keywords match
+    public static final List<String> CATEGORIES = List.of(
+            "General", "Streaming", "Social Media", "Development", "Shopping",
+            "News & Information", "Search", "Education");
+
+    private static final String UNKNOWN_CATEGORY = "Unknown";
+
+    private final BlocklistService blocklistService;
+
+    @Value("${app.dashboard.classifier.lists-dir:}")
+    private String listsDir;
+
+    private volatile DomainClassifier classifier = buildDefaults().build();
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    /**
+     * Recompile built-in and on-disk lists and swap them in atomically
+     */
+    public void reload() {
+        long startedAt = System.nanoTime();
+        DomainClassifier.Builder builder = buildDefaults();
+        if (listsDir != null && !listsDir.isBlank()) {
+            loadListsDirectory(builder, Paths.get(listsDir));
+        }
+        DomainClassifier compiled = builder.build();
+        classifier = compiled;
+        log.info("✅ Domain classifier compiled: {} domains, {} keyword states in {} ms",
+                compiled.domainCount(), compiled.keywordStates(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    public String categorize(String url) {
+        if (url == null) return UNKNOWN_CATEGORY;
+        return CATEGORIES.get(DomainClassifier.categoryOf(classifier.classify(url)));
+    }
+
+    public boolean isSuspicious(String url) {
+        return hasFlag(url, DomainClassifier.FLAG_SUSPICIOUS);
+    }
+
+    public boolean isInappropriate(String url) {
+        return hasFlag(url, DomainClassifier.FLAG_INAPPROPRIATE);
+    }
+
+    /**
+     * Blocked by a built-in pattern or by an active compiled vendor blocklist
+     */
+    public boolean isBlocked(String url) {
+        return hasFlag(url, DomainClassifier.FLAG_BLOCKED) || blocklistService.isBlocked(url);
+    }
+
+    /**
+     * Raw packed result for callers that need category and flags from a single lookup
+     */
+    public int classify(CharSequence url) {
+        return classifier.classify(url);
+    }
+
+    private boolean hasFlag(String url, int flag) {
+        return url != null && DomainClassifier.hasFlag(classifier.classify(url), flag);
+    }
+
+    // ==========================================
+    // LIST LOADING
+    // ==========================================
+
+    static DomainClassifier.Builder buildDefaults() {
+        DomainClassifier.Builder builder = DomainClassifier.builder();
+
+        category(builder, "Streaming",
+                new String[]{"youtube.com", "youtu.be", "netflix.com", "hulu.com", "disneyplus.com",
+                        "primevideo.com", "twitch.tv"},
+                new String[]{"youtube", "netflix", "hulu", "disney", "amazon prime", "twitch"});
+        category(builder, "Social Media",
+                new String[]{"facebook.com", "instagram.com", "twitter.com", "x.com", "linkedin.com",
+                        "tiktok.com", "snapchat.com"},
+                new String[]{"facebook", "instagram", "twitter", "linkedin", "tiktok", "snapchat"});
+        category(builder, "Development",
+                new String[]{"github.com", "stackoverflow.com", "atlassian.com", "atlassian.net",
+                        "slack.com", "teams.microsoft.com"},
+                new String[]{"github", "stackoverflow", "documentation", "atlassian", "slack", "teams"});
+        category(builder, "Shopping",
+                new String[]{"amazon.com", "ebay.com"},
+                new String[]{"amazon", "ebay", "shop", "store", "buy"});
+        category(builder, "News & Information",
+                new String[]{"cnn.com", "bbc.com", "bbc.co.uk", "wikipedia.org", "reddit.com"},
+                new String[]{"news", "cnn", "bbc", "wikipedia", "reddit"});
+        category(builder, "Search",
+                new String[]{"google.com", "bing.com", "yahoo.com", "duckduckgo.com"},
+                new String[]{"google", "bing", "yahoo", "search"});
+        category(builder, "Education",
+                new String[]{"coursera.org", "udemy.com", "khanacademy.org"},
+                new String[]{"edu", "coursera", "udemy", "khan", "learning"});
+
+        for (String keyword : new String[]{"malware", "phishing", "scam", "fake", "suspicious",
+                "click-here", "free-money", "virus", "trojan"}) {
+            builder.addKeyword(keyword, 0, DomainClassifier.FLAG_SUSPICIOUS);
+        }
+        for (String keyword : new String[]{"adult", "xxx", "porn", "gambling", "casino", "drugs"}) {
+            builder.addKeyword(keyword, 0, DomainClassifier.FLAG_INAPPROPRIATE);
+        }
+        for (String keyword : new String[]{"malware", "phishing", "adult", "gambling"}) {
+            builder.addKeyword(keyword, 0, DomainClassifier.FLAG_BLOCKED);
+        }
+        return builder;
+    }
+
+    private static void category(DomainClassifier.Builder builder, String name, String[] domains, String[] keywords) {
+        int id = CATEGORIES.indexOf(name);
+        for (String domain : domains) {
+            builder.addDomain(domain, id, 0);
+        }
+        for (String keyword : keywords) {
+            builder.addKeyword(keyword, id, 0);
+        }
+    }
+
+    private void loadListsDirectory(DomainClassifier.Builder builder, Path directory) {
+        if (!Files.isDirectory(directory)) {
+            log.warn("⚠️ Classifier lists directory {} not found, using built-in lists only", directory);
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.{domains,keywords}")) {
+            for (Path file : files) {
+                loadListFile(builder, file);
+            }
+        } catch (IOException e) {
+            log.error("❌ Could not read classifier lists directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private void loadListFile(DomainClassifier.Builder builder, Path file) {
+        String fileName = file.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        String name = fileName.substring(0, dot).toLowerCase(Locale.ROOT);
+        boolean keywords = fileName.endsWith(".keywords");
+
+        int category = 0;
+        int flags = switch (name) {
+            case "suspicious" -> DomainClassifier.FLAG_SUSPICIOUS;
+            case "inappropriate" -> DomainClassifier.FLAG_INAPPROPRIATE;
+            case "blocked" -> DomainClassifier.FLAG_BLOCKED;
+            default -> 0;
+        };
+        if (flags == 0) {
+            category = categoryIdForSlug(name);
+            if (category <= 0) {
+                log.warn("⚠️ Skipping classifier list {}: unknown category '{}'", file, name);
+                return;
+            }
+        }
+
+        int entries = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String entry = listEntry(line);
+                if (entry == null) continue;
+                if (keywords) {
+                    builder.addKeyword(entry, category, flags);
+                } else {
+                    builder.addDomain(entry, category, flags);
+                }
+                entries++;
+            }
+            log.info("Loaded {} entries from classifier list {}", entries, file);
+        } catch (IOException e) {
+            log.error("❌ Could not read classifier list {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static int categoryIdForSlug(String slug) {
+        for (int i = 0; i < CATEGORIES.size(); i++) {
+            String categorySlug = CATEGORIES.get(i).toLowerCase(Locale.ROOT)
+                    .replace(" & ", "-").replace(' ', '-');
+            if (categorySlug.equals(slug)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Accepts plain entries and hosts-file lines ("0.0.0.0 example.com"); '#' starts a comment
+     */
+    private static String listEntry(String line) {
+        int comment = line.indexOf('#');
+        String entry = (comment >= 0 ? line.substring(0, comment) : line).trim();
+        if (entry.isEmpty()) {
+            return null;
+        }
+        int space = entry.lastIndexOf(' ');
+        int tab = entry.lastIndexOf('\t');
+        int separator = Math.max(space, tab);
+        return separator >= 0 ? entry.substring(separator + 1) : entry;
+    }
+}
@@ -0,0 +1,36 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Kernel-side store of blocked devices. Implementations keep MACs and IP addresses in hash sets
+ * referenced by a fixed number of drop rules, so lookups stay O(1) however many devices are blocked.
+ */
+public interface EnforcementBackend {
+
+    String name();
+
+    /**
+     * Whether the backing tool is installed and usable
+     */
+    boolean isAvailable();
+
+    /**
+     * Create the sets and drop rules if missing. Must be idempotent.
+     */
+    void ensureInfrastructure() throws IOException;
+
+    /**
+     * Current kernel contents: blocked MACs and blocked addresses
+     */
+    KernelState readState() throws IOException;
+
+    /**
+     * Apply every change in the batch atomically
+     */
+    void apply(EnforcementBatch batch) throws IOException;
+
+    record KernelState(Set<String> macs, Set<String> addresses) {
+    }
+}
@@ -0,0 +1,15 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import java.util.Set;
+
+/**
+ * Set changes applied to the kernel in one transaction. Adds and removes of the same entry
+ * must not both appear; the enforcement service resolves that before handing a batch over.
+ */
+public record EnforcementBatch(Set<String> addMacs, Set<String> removeMacs,
+                               Set<String> addAddresses, Set<String> removeAddresses) {
+
+    public boolean isEmpty() {
+        return addMacs.isEmpty() && removeMacs.isEmpty() && addAddresses.isEmpty() && removeAddresses.isEmpty();
+    }
+}
@@ -0,0 +1,222 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.Entity.AvailableNetwork;
+import NetGuard.Dashboard_Features_Backend.Entity.BrowsingVisit;
+import NetGuard.Dashboard_Features_Backend.Entity.NetworkConnection;
+import NetGuard.Dashboard_Features_Backend.Repository.BrowsingVisitRepository;
+import NetGuard.Dashboard_Features_Backend.Repository.NetworkConnectionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Exports connection and browsing history as CSV or newline-delimited JSON.
+ * Rows come from a forward-only database cursor inside a read-only transaction and are written
+ * out one at a time, each detached from the persistence context once written, so an export of
+ * any length holds only the current fetch batch and the writer's buffer in memory.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HistoryExportService {
+
+    private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+
+    private static final List<String> CONNECTION_COLUMNS = List.of(
+            "id", "deviceMac", "deviceName", "assignedIp", "networkSsid", "networkBssid",
+            "connectedAt", "disconnectedAt", "durationMinutes", "dataUsageBytes",
+            "connectionStatus", "disconnectionReason");
+
+    private static final List<String> BROWSING_COLUMNS = List.of(
+            "id", "deviceMac", "domain", "category", "startedAt", "endedAt",
+            "dwellSeconds", "eventCount", "blocked");
+
+    private final NetworkConnectionRepository connectionRepository;
+    private final BrowsingVisitRepository visitRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value + " (use csv or ndjson)");
+            }
+        }
+    }
+
+    /**
+     * Write connections started in [from, to), optionally for one device; returns the row count
+     */
+    public long exportConnections(LocalDateTime from, LocalDateTime to, String deviceMac,
+                                  Format format, OutputStream out) {
+        return export("connections", CONNECTION_COLUMNS, this::toConnectionRow, format, out,
+                () -> deviceMac == null
+                        ? connectionRepository.streamConnectionsBetween(from, to)
+                        : connectionRepository.streamConnectionsBetweenForDevice(deviceMac, from, to));
+    }
+
+    /**
+     * Write browsing visits started in [from, to), optionally for one device; returns the row count
+     */
+    public long exportBrowsingVisits(LocalDateTime from, LocalDateTime to, String deviceMac,
+                                     Format format, OutputStream out) {
+        return export("browsing visits", BROWSING_COLUMNS, this::toVisitRow, format, out,
+                () -> deviceMac == null
+                        ? visitRepository.streamVisitsBetween(from, to)
+                        : visitRepository.streamVisitsBetweenForDevice(deviceMac, from, to));
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private <T> long export(String label, List<String> columns, Function<T, Map<String, Object>> toRow,
+                            Format format, OutputStream out, Supplier<Stream<T>> query) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        long started = System.currentTimeMillis();
+        Long count = transaction.execute(status -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_CHARS);
+            long rows = 0;
+            try (Stream<T> stream = query.get()) {
+                if (format == Format.CSV) {
+                    writeCsvLine(writer, columns);
+                }
+                Iterator<T> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    T entity = iterator.next();
+                    Map<String, Object> row = toRow.apply(entity);
+                    if (format == Format.CSV) {
+                        writeCsvLine(writer, row.values());
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(row));
+                        writer.write('\n');
+                    }
+                    // Written rows must not pile up in the persistence context
+                    entityManager.detach(entity);
+                    rows++;
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return rows;
+        });
+
+        log.info("✅ Exported {} {} as {} in {} ms", count, label, format, System.currentTimeMillis() - started);
+        return count != null ? count : 0;
+    }
+
+    private Map<String, Object> toConnectionRow(NetworkConnection connection) {
+        AvailableNetwork network = connection.getNetwork();
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", connection.getId());
+        row.put("deviceMac", connection.getDeviceMac());
+        row.put("deviceName", connection.getDeviceName());
+        row.put("assignedIp", connection.getAssignedIp());
+        row.put("networkSsid", network != null ? network.getSsid() : null);
+        row.put("networkBssid", network != null ? network.getBssid() : null);
+        row.put("connectedAt", connection.getConnectedAt());
+        row.put("disconnectedAt", connection.getDisconnectedAt());
+        row.put("durationMinutes", connection.getConnectionDurationMinutes());
+        row.put("dataUsageBytes", connection.getDataUsageBytes());
+        row.put("connectionStatus", connection.getConnectionStatus());
+        row.put("disconnectionReason", connection.getDisconnectionReason());
+        return row;
+    }
+
+    private Map<String, Object> toVisitRow(BrowsingVisit visit) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", visit.getId());
+        row.put("deviceMac", visit.getDeviceMac());
+        row.put("domain", visit.getDomain());
+        row.put("category", visit.getCategory());
+        row.put("startedAt", visit.getStartedAt());
+        row.put("endedAt", visit.getEndedAt());
+        row.put("dwellSeconds", visit.getDwellSeconds());
+        row.put("eventCount", visit.getEventCount());
+        row.put("blocked", visit.getBlocked());
+        return row;
+    }
+
+    private void writeCsvLine(Writer writer, Iterable<?> values) throws IOException {
+        boolean first = true;
+        for (Object value : values) {
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            if (value != null) {
+                writer.write(csvEscape(value.toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * RFC 4180 quoting; a leading formula character is prefixed so spreadsheets show it as text
+     */
+    private String csvEscape(String value) {
+        if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0 && !isNumber(value)) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    private boolean isNumber(String value) {
+        for (int i = 1; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && c != '.') {
+                return false;
+            }
+        }
+        return value.length() > 1;
+    }
+}
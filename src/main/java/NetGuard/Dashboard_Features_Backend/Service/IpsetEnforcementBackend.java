@@ -0,0 +1,129 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.Util.CommandRunner;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Fallback for hosts without nftables: {@code hash:mac} and {@code hash:ip} ipsets matched by
+ * a fixed set of iptables rules. Changes go through one {@code ipset restore} call; every line
+ * uses {@code -exist}, so replaying a batch is harmless.
+ */
+public class IpsetEnforcementBackend implements EnforcementBackend {
+
+    static final String MAC_SET = "netguard_macs";
+    static final String IPV4_SET = "netguard_ipv4";
+    static final String IPV6_SET = "netguard_ipv6";
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final CommandRunner runner;
+    private final List<String> commandPrefix;
+
+    public IpsetEnforcementBackend(CommandRunner runner, List<String> commandPrefix) {
+        this.runner = runner;
+        this.commandPrefix = commandPrefix;
+    }
+
+    @Override
+    public String name() {
+        return "ipset";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        try {
+            return runner.run(command("ipset", "--version"), null, TIMEOUT).isSuccess();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void ensureInfrastructure() throws IOException {
+        restore(String.join("\n",
+                "create " + MAC_SET + " hash:mac -exist",
+                "create " + IPV4_SET + " hash:ip family inet -exist",
+                "create " + IPV6_SET + " hash:ip family inet6 -exist",
+                ""));
+
+        ensureRule("iptables", "FORWARD", MAC_SET, "src");
+        ensureRule("iptables", "INPUT", MAC_SET, "src");
+        ensureRule("iptables", "FORWARD", IPV4_SET, "src");
+        ensureRule("iptables", "FORWARD", IPV4_SET, "dst");
+        ensureRule("iptables", "INPUT", IPV4_SET, "src");
+        ensureRule("ip6tables", "FORWARD", IPV6_SET, "src");
+        ensureRule("ip6tables", "FORWARD", IPV6_SET, "dst");
+        ensureRule("ip6tables", "INPUT", IPV6_SET, "src");
+    }
+
+    @Override
+    public KernelState readState() throws IOException {
+        Set<String> addresses = new HashSet<>(readSet(IPV4_SET));
+        addresses.addAll(readSet(IPV6_SET));
+        return new KernelState(readSet(MAC_SET), addresses);
+    }
+
+    @Override
+    public void apply(EnforcementBatch batch) throws IOException {
+        if (batch.isEmpty()) return;
+        StringBuilder script = new StringBuilder();
+        batch.removeMacs().forEach(mac -> script.append("del ").append(MAC_SET).append(' ').append(mac).append(" -exist\n"));
+        batch.removeAddresses().forEach(ip -> script.append("del ").append(setFor(ip)).append(' ').append(ip).append(" -exist\n"));
+        batch.addMacs().forEach(mac -> script.append("add ").append(MAC_SET).append(' ').append(mac).append(" -exist\n"));
+        batch.addAddresses().forEach(ip -> script.append("add ").append(setFor(ip)).append(' ').append(ip).append(" -exist\n"));
+        restore(script.toString());
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private static String setFor(String address) {
+        return address.indexOf(':') >= 0 ? IPV6_SET : IPV4_SET;
+    }
+
+    private void ensureRule(String tool, String chain, String set, String direction) throws IOException {
+        List<String> rule = List.of("-m", "set", "--match-set", set, direction, "-j", "DROP");
+        List<String> check = command(tool, "-C", chain);
+        check.addAll(rule);
+        if (runner.run(check, null, TIMEOUT).isSuccess()) return;
+
+        List<String> insert = command(tool, "-I", chain, "1");
+        insert.addAll(rule);
+        CommandRunner.Result result = runner.run(insert, null, TIMEOUT);
+        if (!result.isSuccess()) {
+            throw new IOException(tool + " rule for " + set + " failed: " + result.stderr().trim());
+        }
+    }
+
+    private Set<String> readSet(String set) throws IOException {
+        CommandRunner.Result result = runner.run(command("ipset", "save", set), null, TIMEOUT);
+        if (!result.isSuccess()) {
+            throw new IOException("ipset save " + set + " failed: " + result.stderr().trim());
+        }
+        Set<String> elements = new HashSet<>();
+        for (String line : result.stdout().split("\n")) {
+            String[] parts = line.trim().split("\\s+");
+            if (parts.length >= 3 && parts[0].equals("add") && parts[1].equals(set)) {
+                elements.add(parts[2].toLowerCase());
+            }
+        }
+        return elements;
+    }
+
+    private void restore(String script) throws IOException {
+        CommandRunner.Result result = runner.run(command("ipset", "restore"), script, TIMEOUT);
+        if (!result.isSuccess()) {
+            throw new IOException("ipset restore failed: " + result.stderr().trim());
+        }
+    }
+
+    private List<String> command(String... args) {
+        List<String> command = new ArrayList<>(commandPrefix);
+        command.addAll(Arrays.asList(args));
+        return command;
+    }
+}
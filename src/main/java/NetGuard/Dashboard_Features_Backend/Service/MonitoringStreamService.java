@@ -0,0 +1,273 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.DTO.SecurityAlertDTO;
+import NetGuard.Dashboard_Features_Backend.Event.MonitoringUpdateEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes live monitoring deltas to dashboard clients over Server-Sent Events.
+ * Updates are coalesced per client (latest value per device wins) and flushed at a fixed rate.
+ * A client whose previous flush is still being written is skipped, so slow consumers
+ * keep accumulating a bounded, coalesced backlog instead of tying up threads.
+ */
+@Service
+@Slf4j
+public class MonitoringStreamService {
+
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+    private static final int MAX_PENDING_ALERTS = 100;
+    private static final int MAX_SKIPPED_FLUSHES = 30;
+
+    private final RealTimeMonitoringService monitoringService;
+    private final Executor streamTaskExecutor;
+
+    @Value("${app.dashboard.stream.max-clients-per-parent:5}")
+    private int maxClientsPerParent;
+
+    private final Map<String, StreamClient> clients = new ConcurrentHashMap<>();
+    // Open streams per parent; reserved before a stream is created so concurrent connects respect the cap
+    private final Map<String, Integer> streamsByParent = new ConcurrentHashMap<>();
+    private final AtomicLong clientSequence = new AtomicLong();
+
+    public MonitoringStreamService(RealTimeMonitoringService monitoringService,
+                                   @Qualifier("streamTaskExecutor") Executor streamTaskExecutor) {
+        this.monitoringService = monitoringService;
+        this.streamTaskExecutor = streamTaskExecutor;
+    }
+
+    /**
+     * Register a new stream for an authenticated parent and send the current state as a snapshot
+     */
+    public SseEmitter subscribe(String parentEmail) {
+        boolean[] reserved = {false};
+        streamsByParent.compute(parentEmail, (parent, open) -> {
+            int count = open != null ? open : 0;
+            if (count >= maxClientsPerParent) {
+                return open;
+            }
+            reserved[0] = true;
+            return count + 1;
+        });
+        if (!reserved[0]) {
+            throw new IllegalStateException("Too many open monitoring streams for this account");
+        }
+
+        String clientId = parentEmail + "#" + clientSequence.incrementAndGet();
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        StreamClient client = new StreamClient(clientId, parentEmail, emitter);
+
+        emitter.onCompletion(() -> removeClient(clientId));
+        emitter.onTimeout(() -> removeClient(clientId));
+        emitter.onError(e -> removeClient(clientId));
+
+        // Registered before the snapshot so every way the emitter can end releases the slot;
+        // marked as sending so no delta or heartbeat overtakes the snapshot
+        client.sending.set(true);
+        clients.put(clientId, client);
+        try {
+            Map<String, Object> snapshot = new HashMap<>();
+            snapshot.put("performance", monitoringService.getCurrentNetworkPerformance());
+            snapshot.put("browsing", monitoringService.getCurrentBrowsingActivity());
+            snapshot.put("traffic", monitoringService.getCurrentNetworkTraffic());
+            snapshot.put("alerts", monitoringService.getRecentSecurityAlerts());
+            snapshot.put("timestamp", System.currentTimeMillis());
+            emitter.send(SseEmitter.event().name("snapshot").data(snapshot, MediaType.APPLICATION_JSON));
+        } catch (Exception e) {
+            log.debug("Failed to send initial snapshot to {}: {}", clientId, e.getMessage());
+            removeClient(clientId);
+            emitter.completeWithError(e);
+            return emitter;
+        } finally {
+            client.sending.set(false);
+        }
+
+        log.info("📡 Monitoring stream opened for {} ({} open streams)", parentEmail, clients.size());
+        return emitter;
+    }
+
+    /**
+     * Fold a monitoring change into every client's pending delta
+     */
+    @EventListener
+    public void onMonitoringUpdate(MonitoringUpdateEvent event) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        for (StreamClient client : clients.values()) {
+            client.enqueue(event);
+        }
+    }
+
+    /**
+     * Flush coalesced deltas to every client that has something pending
+     */
+    @Scheduled(fixedRateString = "${app.dashboard.stream.flush-interval-ms:1000}")
+    public void flushPendingDeltas() {
+        for (StreamClient client : clients.values()) {
+            if (!client.hasPending()) {
+                continue;
+            }
+            if (!client.sending.compareAndSet(false, true)) {
+                // Still writing the previous delta - keep coalescing
+                if (++client.skippedFlushes > MAX_SKIPPED_FLUSHES) {
+                    log.warn("Closing stalled monitoring stream {}", client.clientId);
+                    client.emitter.complete();
+                    removeClient(client.clientId);
+                }
+                continue;
+            }
+            client.skippedFlushes = 0;
+
+            try {
+                streamTaskExecutor.execute(() -> sendDelta(client));
+            } catch (RejectedExecutionException e) {
+                client.sending.set(false);
+            }
+        }
+    }
+
+    /**
+     * Keep idle connections alive through proxies and detect dead clients.
+     * Writes go through the stream executor like deltas, so a slow client never holds a scheduler thread.
+     */
+    @Scheduled(fixedRateString = "${app.dashboard.stream.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        for (StreamClient client : clients.values()) {
+            if (!client.sending.compareAndSet(false, true)) {
+                continue;
+            }
+            try {
+                streamTaskExecutor.execute(() -> sendHeartbeat(client));
+            } catch (RejectedExecutionException e) {
+                client.sending.set(false);
+            }
+        }
+    }
+
+    public int getOpenStreamCount() {
+        return clients.size();
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private void sendDelta(StreamClient client) {
+        try {
+            Map<String, Object> delta = client.drain();
+            client.emitter.send(SseEmitter.event().name("delta").data(delta, MediaType.APPLICATION_JSON));
+        } catch (Exception e) {
+            log.debug("Monitoring stream {} disconnected: {}", client.clientId, e.getMessage());
+            removeClient(client.clientId);
+        } finally {
+            client.sending.set(false);
+        }
+    }
+
+    private void sendHeartbeat(StreamClient client) {
+        try {
+            client.emitter.send(SseEmitter.event().comment("heartbeat"));
+        } catch (Exception e) {
+            removeClient(client.clientId);
+        } finally {
+            client.sending.set(false);
+        }
+    }
+
+    private void removeClient(String clientId) {
+        StreamClient removed = clients.remove(clientId);
+        if (removed != null) {
+            releaseSlot(removed.parentEmail);
+            log.info("📡 Monitoring stream closed: {} ({} open streams)", clientId, clients.size());
+        }
+    }
+
+    private void releaseSlot(String parentEmail) {
+        streamsByParent.computeIfPresent(parentEmail, (parent, open) -> open > 1 ? open - 1 : null);
+    }
+
+    private static class StreamClient {
+        private final String clientId;
+        private final String parentEmail;
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean(false);
+        private volatile int skippedFlushes;
+
+        // Latest value per key - repeated updates between flushes collapse into one entry
+        private final Map<String, Object> performance = new ConcurrentHashMap<>();
+        private final Map<String, Object> browsing = new ConcurrentHashMap<>();
+        private final Map<String, Object> traffic = new ConcurrentHashMap<>();
+        private final BlockingQueue<SecurityAlertDTO> alerts = new ArrayBlockingQueue<>(MAX_PENDING_ALERTS);
+        private final AtomicLong droppedAlerts = new AtomicLong();
+
+        private StreamClient(String clientId, String parentEmail, SseEmitter emitter) {
+            this.clientId = clientId;
+            this.parentEmail = parentEmail;
+            this.emitter = emitter;
+        }
+
+        private void enqueue(MonitoringUpdateEvent event) {
+            switch (event.type()) {
+                case PERFORMANCE -> performance.put(event.key(), event.payload());
+                case BROWSING -> browsing.put(event.key(), event.payload());
+                case TRAFFIC -> traffic.put(event.key(), event.payload());
+                case ALERT -> {
+                    // Bounded backlog: drop the oldest alert and tell the client it lagged
+                    while (!alerts.offer((SecurityAlertDTO) event.payload())) {
+                        alerts.poll();
+                        droppedAlerts.incrementAndGet();
+                    }
+                }
+            }
+        }
+
+        private boolean hasPending() {
+            return !performance.isEmpty() || !browsing.isEmpty() || !traffic.isEmpty() || !alerts.isEmpty();
+        }
+
+        private Map<String, Object> drain() {
+            Map<String, Object> delta = new HashMap<>();
+            delta.put("performance", drainMap(performance));
+            delta.put("browsing", drainMap(browsing));
+            delta.put("traffic", drainMap(traffic));
+
+            List<SecurityAlertDTO> newAlerts = new ArrayList<>();
+            alerts.drainTo(newAlerts);
+            delta.put("alerts", newAlerts);
+
+            long dropped = droppedAlerts.getAndSet(0);
+            if (dropped > 0) {
+                delta.put("droppedAlerts", dropped);
+            }
+            delta.put("timestamp", System.currentTimeMillis());
+            return delta;
+        }
+
+        private static Map<String, Object> drainMap(Map<String, Object> pending) {
+            Map<String, Object> drained = new HashMap<>();
+            for (String key : new ArrayList<>(pending.keySet())) {
+                Object value = pending.remove(key);
+                if (value != null) {
+                    drained.put(key, value);
+                }
+            }
+            return drained;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.Util.CommandRunner;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * nftables backend: an {@code inet netguard} table with {@code blocked_macs},
+ * {@code blocked_ipv4} and {@code blocked_ipv6} sets and a handful of drop rules that reference
+ * them. Every change is written as one {@code nft -f -} script, which the kernel applies as a
+ * single transaction.
+ */
+public class NftablesEnforcementBackend implements EnforcementBackend {
+
+    static final String TABLE = "netguard";
+    static final String MAC_SET = "blocked_macs";
+    static final String IPV4_SET = "blocked_ipv4";
+    static final String IPV6_SET = "blocked_ipv6";
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final CommandRunner runner;
+    private final List<String> commandPrefix;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public NftablesEnforcementBackend(CommandRunner runner, List<String> commandPrefix) {
+        this.runner = runner;
+        this.commandPrefix = commandPrefix;
+    }
+
+    @Override
+    public String name() {
+        return "nftables";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        try {
+            return runner.run(command("--version"), null, TIMEOUT).isSuccess();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void ensureInfrastructure() throws IOException {
+        // "add" is a no-op for existing objects; the chains are flushed so rules never duplicate
+        String script = String.join("\n",
+                "add table inet " + TABLE,
+                "add set inet " + TABLE + " " + MAC_SET + " { type ether_addr; }",
+                "add set inet " + TABLE + " " + IPV4_SET + " { type ipv4_addr; }",
+                "add set inet " + TABLE + " " + IPV6_SET + " { type ipv6_addr; }",
+                "add chain inet " + TABLE + " forward { type filter hook forward priority -10; policy accept; }",
+                "add chain inet " + TABLE + " input { type filter hook input priority -10; policy accept; }",
+                "flush chain inet " + TABLE + " forward",
+                "flush chain inet " + TABLE + " input",
+                "add rule inet " + TABLE + " forward ether saddr @" + MAC_SET + " drop",
+                "add rule inet " + TABLE + " forward ip saddr @" + IPV4_SET + " drop",
+                "add rule inet " + TABLE + " forward ip daddr @" + IPV4_SET + " drop",
+                "add rule inet " + TABLE + " forward ip6 saddr @" + IPV6_SET + " drop",
+                "add rule inet " + TABLE + " forward ip6 daddr @" + IPV6_SET + " drop",
+                "add rule inet " + TABLE + " input ether saddr @" + MAC_SET + " drop",
+                "add rule inet " + TABLE + " input ip saddr @" + IPV4_SET + " drop",
+                "add rule inet " + TABLE + " input ip6 saddr @" + IPV6_SET + " drop",
+                "");
+        runScript(script);
+    }
+
+    @Override
+    public KernelState readState() throws IOException {
+        Set<String> addresses = new HashSet<>(readSet(IPV4_SET));
+        addresses.addAll(readSet(IPV6_SET));
+        return new KernelState(readSet(MAC_SET), addresses);
+    }
+
+    @Override
+    public void apply(EnforcementBatch batch) throws IOException {
+        if (batch.isEmpty()) return;
+        runScript(buildScript(batch));
+    }
+
+    /**
+     * The nft script for a batch: deletes first, then adds, one line per set and operation
+     */
+    String buildScript(EnforcementBatch batch) {
+        StringBuilder script = new StringBuilder();
+        appendElements(script, "delete", MAC_SET, batch.removeMacs());
+        appendElements(script, "delete", IPV4_SET, byFamily(batch.removeAddresses(), true));
+        appendElements(script, "delete", IPV6_SET, byFamily(batch.removeAddresses(), false));
+        appendElements(script, "add", MAC_SET, batch.addMacs());
+        appendElements(script, "add", IPV4_SET, byFamily(batch.addAddresses(), true));
+        appendElements(script, "add", IPV6_SET, byFamily(batch.addAddresses(), false));
+        return script.toString();
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private void appendElements(StringBuilder script, String operation, String set, Collection<String> elements) {
+        if (elements.isEmpty()) return;
+        script.append(operation).append(" element inet ").append(TABLE).append(' ').append(set).append(" { ");
+        script.append(String.join(", ", new TreeSet<>(elements)));
+        script.append(" }\n");
+    }
+
+    private static Set<String> byFamily(Set<String> addresses, boolean ipv4) {
+        Set<String> filtered = new HashSet<>();
+        for (String address : addresses) {
+            if ((address.indexOf(':') < 0) == ipv4) {
+                filtered.add(address);
+            }
+        }
+        return filtered;
+    }
+
+    private Set<String> readSet(String set) throws IOException {
+        CommandRunner.Result result = runner.run(command("-j", "list", "set", "inet", TABLE, set), null, TIMEOUT);
+        if (!result.isSuccess()) {
+            throw new IOException("nft list set " + set + " failed: " + result.stderr().trim());
+        }
+        Set<String> elements = new HashSet<>();
+        for (JsonNode entry : objectMapper.readTree(result.stdout()).path("nftables")) {
+            for (JsonNode element : entry.path("set").path("elem")) {
+                // Plain sets list strings; sets with per-element options wrap them in {"elem": {"val": ...}}
+                JsonNode value = element.isTextual() ? element : element.path("elem").path("val");
+                if (value.isTextual()) {
+                    elements.add(value.asText().toLowerCase());
+                }
+            }
+        }
+        return elements;
+    }
+
+    private void runScript(String script) throws IOException {
+        CommandRunner.Result result = runner.run(command("-f", "-"), script, TIMEOUT);
+        if (!result.isSuccess()) {
+            throw new IOException("nft transaction failed: " + result.stderr().trim());
+        }
+    }
+
+    private List<String> command(String... args) {
+        List<String> command = new ArrayList<>(commandPrefix);
+        command.add("nft");
+        command.addAll(Arrays.asList(args));
+        return command;
+    }
+}
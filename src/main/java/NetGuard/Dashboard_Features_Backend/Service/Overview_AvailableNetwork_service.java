@@ -3,17 +3,23 @@ package NetGuard.Dashboard_Features_Backend.Service;
 import NetGuard.Dashboard_Features_Backend.DTO.*;
 import NetGuard.Dashboard_Features_Backend.Entity.AvailableNetwork;
 import NetGuard.Dashboard_Features_Backend.Entity.NetworkConnection;
+import NetGuard.Dashboard_Features_Backend.Event.DeviceDataChangedEvent;
 import NetGuard.Dashboard_Features_Backend.Repository.AvailableNetworkRepository;
 import NetGuard.Dashboard_Features_Backend.Repository.NetworkConnectionRepository;
+import NetGuard.Dashboard_Features_Backend.Util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.exec.CommandLine;
 import org.apache.commons.exec.DefaultExecutor;
 import org.apache.commons.exec.PumpStreamHandler;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -36,12 +42,17 @@ public class Overview_AvailableNetwork_service {
     private final NetworkConnectionRepository connectionRepository;
     private final EnhancedDeviceDiscoveryService deviceDiscoveryService;
     private final RealWebsiteMonitoringService websiteMonitoringService;
+    private final UsageRollupService usageRollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
 
     // Cache for device discovery to avoid duplicate scanning
     private volatile boolean isScanning = false;
     private volatile LocalDateTime lastScanTime = LocalDateTime.now().minusHours(1);
     private final Map<String, String> deviceNameCache = new HashMap<>();
 
+    private static final int MAX_NETWORK_PAGE_SIZE = 200;
+
     /**
      * 🔥 ENHANCED: Scan for available networks using system commands - REAL WiFi scanning
      */
@@ -72,6 +83,21 @@ public class Overview_AvailableNetwork_service {
         }
     }
 
+    /**
+     * Keyset-paginated history of every network ever seen, most recently discovered first
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<AvailableNetworkDTO> getNetworkHistory(String cursor, int limit) {
+        int pageSize = KeysetCursor.pageSize(limit, MAX_NETWORK_PAGE_SIZE);
+        KeysetCursor position = KeysetCursor.decodeOrStart(cursor, KeysetCursor.ofKey(Long.MAX_VALUE));
+
+        // Fetch one extra row to learn whether another page exists
+        List<AvailableNetwork> rows = networkRepository.findSeenPage(position.idKey(),
+                PageRequest.of(0, pageSize + 1));
+        return KeysetPage.of(rows, pageSize,
+                network -> KeysetCursor.ofKey(network.getId()), this::convertToDTO);
+    }
+
     /**
      * 🔥 ENHANCED: Get network overview data with current connection status and ALL devices
      */
@@ -366,7 +392,8 @@ public class Overview_AvailableNetwork_service {
      */
     private String getCurrentWebsiteForDevice(String mac, String ip) {
         try {
-            return websiteMonitoringService.getCurrentWebsiteForDevice(mac, ip);
+            // Non-blocking: the site activity pipeline keeps this up to date
+            return websiteMonitoringService.getDeviceCurrentWebsite(mac);
         } catch (Exception e) {
             log.debug("Error getting current website for device {} ({}): ", mac, ip, e.getMessage());
             return null;
@@ -587,6 +614,7 @@ public class Overview_AvailableNetwork_service {
             connection.setConnectionDurationMinutes(0);
 
             connectionRepository.save(connection);
+            eventPublisher.publishEvent(new DeviceDataChangedEvent(DeviceDataChangedEvent.Type.CONNECTED, connection.getDeviceMac()));
 
             log.info("💾 Saved ENHANCED device: {} ({}) at {} - Currently visiting: {}",
                     deviceName, mac, ip, currentWebsite != null ? currentWebsite : "Not browsing");
@@ -621,6 +649,7 @@ public class Overview_AvailableNetwork_service {
             connection.setConnectionDurationMinutes(0);
 
             NetworkConnection saved = connectionRepository.save(connection);
+            eventPublisher.publishEvent(new DeviceDataChangedEvent(DeviceDataChangedEvent.Type.CONNECTED, deviceMac));
             log.info("✅ Created enhanced connection record for: {}", deviceName);
 
             return saved;
@@ -788,6 +817,8 @@ public class Overview_AvailableNetwork_service {
                     connection.setDisconnectedAt(LocalDateTime.now());
                     connection.setConnectionStatus("DISCONNECTED");
                     connectionRepository.save(connection);
+                    eventPublisher.publishEvent(new DeviceDataChangedEvent(
+                            DeviceDataChangedEvent.Type.DISCONNECTED, connection.getDeviceMac()));
                 }
 
                 // Update network status
@@ -996,6 +1027,8 @@ public class Overview_AvailableNetwork_service {
                 conn.setDisconnectedAt(LocalDateTime.now());
                 conn.setConnectionStatus("DISCONNECTED");
                 connectionRepository.save(conn);
+                eventPublisher.publishEvent(new DeviceDataChangedEvent(
+                        DeviceDataChangedEvent.Type.DISCONNECTED, conn.getDeviceMac()));
             }
             log.info("🧹 Cleared {} old connections for network: {}", oldConnections.size(), network.getSsid());
         } catch (Exception e) {
@@ -1636,11 +1669,27 @@ public class Overview_AvailableNetwork_service {
         }
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Advance every open connection and add its growth to the hourly rollups in one transaction.
+     * If either write fails both roll back, and the next pass counts the growth from the last committed values.
+     */
     protected void updateConnectionStatuses() {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> accountConnections());
+        } catch (Exception e) {
+            log.error("❌ Connection accounting pass rolled back, retrying next pass: {}", e.getMessage());
+        }
+    }
+
+    private void accountConnections() {
+        LocalDateTime now = LocalDateTime.now();
         List<NetworkConnection> activeConnections = connectionRepository.findByIsCurrentlyConnectedTrue();
+        List<UsageRollupService.UsageDelta> deltas = new ArrayList<>();
         for (NetworkConnection connection : activeConnections) {
-            long minutes = java.time.Duration.between(connection.getConnectedAt(), LocalDateTime.now()).toMinutes();
+            long previousBytes = connection.getDataUsageBytes() != null ? connection.getDataUsageBytes() : 0L;
+            int previousMinutes = connection.getConnectionDurationMinutes() != null ? connection.getConnectionDurationMinutes() : 0;
+
+            long minutes = java.time.Duration.between(connection.getConnectedAt(), now).toMinutes();
             connection.setConnectionDurationMinutes((int) minutes);
 
             // Simulate data usage growth
@@ -1653,7 +1702,18 @@ public class Overview_AvailableNetwork_service {
             }
 
             connectionRepository.save(connection);
+
+            deltas.add(new UsageRollupService.UsageDelta(
+                    connection.getDeviceMac(),
+                    connection.getDeviceName(),
+                    connection.getNetwork() != null ? connection.getNetwork().getId() : null,
+                    Math.max(0L, connection.getDataUsageBytes() - previousBytes),
+                    Math.max(0L, minutes - previousMinutes)
+            ));
         }
+
+        // Keep the hourly rollups in step with the raw rows
+        usageRollupService.recordUsage(deltas, now);
     }
 
     // Statistics helper methods
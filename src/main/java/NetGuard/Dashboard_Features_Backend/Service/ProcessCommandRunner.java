@@ -0,0 +1,51 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.Util.CommandRunner;
+import org.apache.commons.exec.CommandLine;
+import org.apache.commons.exec.DefaultExecutor;
+import org.apache.commons.exec.ExecuteException;
+import org.apache.commons.exec.ExecuteWatchdog;
+import org.apache.commons.exec.PumpStreamHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * {@link CommandRunner} backed by commons-exec. Arguments are passed as-is, never through a shell.
+ */
+@Component
+public class ProcessCommandRunner implements CommandRunner {
+
+    @Override
+    public Result run(List<String> command, String stdin, Duration timeout) throws IOException {
+        CommandLine cmdLine = new CommandLine(command.get(0));
+        for (int i = 1; i < command.size(); i++) {
+            cmdLine.addArgument(command.get(i), false);
+        }
+
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        ByteArrayInputStream input = stdin != null
+                ? new ByteArrayInputStream(stdin.getBytes(StandardCharsets.UTF_8))
+                : null;
+
+        DefaultExecutor executor = new DefaultExecutor();
+        executor.setStreamHandler(new PumpStreamHandler(stdout, stderr, input));
+        executor.setWatchdog(new ExecuteWatchdog(timeout.toMillis()));
+        // Non-zero exits are reported through the result, not as exceptions
+        executor.setExitValues(null);
+
+        int exitCode;
+        try {
+            exitCode = executor.execute(cmdLine);
+        } catch (ExecuteException e) {
+            exitCode = e.getExitValue();
+        }
+        return new Result(exitCode, stdout.toString(StandardCharsets.UTF_8), stderr.toString(StandardCharsets.UTF_8));
+    }
+}
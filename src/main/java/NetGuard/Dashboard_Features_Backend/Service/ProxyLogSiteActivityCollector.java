@@ -0,0 +1,118 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.Event.SiteActivityEvent;
+import NetGuard.Dashboard_Features_Backend.Util.UrlHost;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tails proxy access logs in Squid's native format
+ * ({@code time elapsed client code/status bytes method URL ...}) and publishes each request.
+ * Only bytes appended since the previous read are parsed; a shrinking file is treated as rotated.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProxyLogSiteActivityCollector {
+
+    private static final int MAX_BYTES_PER_READ = 4 * 1024 * 1024;
+
+    private final SiteActivityPipeline pipeline;
+
+    @Value("${app.dashboard.website.collectors.proxy.log-files:/var/log/squid/access.log}")
+    private List<String> logFiles;
+
+    private final Map<Path, Long> readOffsets = new HashMap<>();
+
+    @Scheduled(fixedDelayString = "${app.dashboard.website.collectors.proxy.interval-ms:2000}")
+    public void collect() {
+        for (String logFile : logFiles) {
+            if (logFile.isBlank()) continue;
+            Path path = Paths.get(logFile.trim());
+            if (!Files.isReadable(path)) continue;
+            try {
+                tail(path);
+            } catch (IOException e) {
+                log.debug("Could not read proxy log {}: {}", path, e.getMessage());
+            }
+        }
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private void tail(Path path) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+            long length = file.length();
+            Long previous = readOffsets.get(path);
+            // Start at the end on first sight so old history is not replayed as live activity
+            long offset = previous == null ? length : (length < previous ? 0 : previous);
+            if (offset >= length) {
+                readOffsets.put(path, length);
+                return;
+            }
+
+            int toRead = (int) Math.min(length - offset, MAX_BYTES_PER_READ);
+            byte[] buffer = new byte[toRead];
+            file.seek(offset);
+            file.readFully(buffer);
+
+            // Only consume complete lines; a partial last line is read again next time
+            int lastNewline = toRead - 1;
+            while (lastNewline >= 0 && buffer[lastNewline] != '\n') {
+                lastNewline--;
+            }
+            if (lastNewline < 0) {
+                if (toRead == MAX_BYTES_PER_READ) {
+                    readOffsets.put(path, offset + toRead);
+                }
+                return;
+            }
+            String chunk = new String(buffer, 0, lastNewline, StandardCharsets.UTF_8);
+            readOffsets.put(path, offset + lastNewline + 1);
+
+            for (String line : chunk.split("\n")) {
+                SiteActivityEvent event = parseSquidLine(line);
+                if (event != null) {
+                    pipeline.publish(event);
+                }
+            }
+        }
+    }
+
+    static SiteActivityEvent parseSquidLine(String line) {
+        String[] fields = line.trim().split("\\s+");
+        if (fields.length < 7) return null;
+        try {
+            double epochSeconds = Double.parseDouble(fields[0]);
+            String host = host(fields[6]);
+            if (host == null) return null;
+            return new SiteActivityEvent(fields[2], host, SiteActivityEvent.Source.PROXY_LOG,
+                    Instant.ofEpochMilli((long) (epochSeconds * 1000)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // CONNECT requests log "host:443", everything else a full URL
+    private static String host(String url) {
+        int start = UrlHost.start(url);
+        int end = UrlHost.end(url, start);
+        return end > start ? url.substring(start, end).toLowerCase() : null;
+    }
+}
@@ -1,8 +1,11 @@
 package NetGuard.Dashboard_Features_Backend.Service;
 
 import NetGuard.Dashboard_Features_Backend.DTO.*;
+import NetGuard.Dashboard_Features_Backend.Event.MonitoringUpdateEvent;
+import NetGuard.Dashboard_Features_Backend.Util.BoundedRingBuffer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -11,7 +14,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.io.IOException;
 import org.apache.commons.exec.CommandLine;
 import org.apache.commons.exec.DefaultExecutor;
@@ -28,17 +30,25 @@ public class RealTimeMonitoringService {
     private final DeviceAnalyticsService analyticsService;
     private final DeviceManagementService deviceManagementService;
     private final Overview_AvailableNetwork_service networkService;
+    private final SecurityAlertStoreService alertStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DomainClassifierService domainClassifier;
+    private final BrowsingSessionizerService sessionizer;
 
     // Real-time monitoring data storage
     private final Map<String, NetworkPerformanceDTO> devicePerformance = new ConcurrentHashMap<>();
     private final Map<String, SiteMonitoringDTO> currentBrowsing = new ConcurrentHashMap<>();
-    private final List<SecurityAlertDTO> recentAlerts = new CopyOnWriteArrayList<>();
     private final Map<String, Integer> networkTraffic = new ConcurrentHashMap<>();
 
     // Configuration
     private static final int MONITORING_INTERVAL_SECONDS = 10;
     private static final int PERFORMANCE_TEST_INTERVAL_MINUTES = 5;
     private static final int MAX_RECENT_ALERTS = 50;
+    private static final int ALERT_DEDUP_WINDOW_MINUTES = 10;
+
+    // Alert feed: bounded ring buffer plus a dedup window that counts repeats instead of storing them
+    private final BoundedRingBuffer<SecurityAlertDTO> recentAlerts = new BoundedRingBuffer<>(MAX_RECENT_ALERTS);
+    private final Map<AlertKey, SecurityAlertDTO> activeAlerts = new ConcurrentHashMap<>();
 
     /**
      * Start real-time network monitoring for all connected devices
@@ -62,6 +72,9 @@ public class RealTimeMonitoringService {
             // Check for security threats
             performSecurityScanning();
 
+            // Let expired dedup entries raise fresh alerts again
+            expireAlertDedupEntries();
+
             log.debug("Real-time monitoring cycle completed");
 
         } catch (Exception e) {
@@ -81,7 +94,10 @@ public class RealTimeMonitoringService {
                 if (device.getIsActive()) {
                     NetworkPerformanceDTO performance = measureDevicePerformance(device.getDeviceMac(), device.getAssignedIp());
                     if (performance != null) {
-                        devicePerformance.put(device.getDeviceMac(), performance);
+                        NetworkPerformanceDTO previous = devicePerformance.put(device.getDeviceMac(), performance);
+                        if (isPerformanceChanged(previous, performance)) {
+                            publishUpdate(MonitoringUpdateEvent.Type.PERFORMANCE, device.getDeviceMac(), performance);
+                        }
                     }
                 }
             }
@@ -105,9 +121,9 @@ public class RealTimeMonitoringService {
                             device.getDeviceMac(),
                             device.getCurrentSite(),
                             extractPageTitle(device.getCurrentSite()),
-                            categorizeWebsite(device.getCurrentSite()),
+                            domainClassifier.categorize(device.getCurrentSite()),
                             isSecureUrl(device.getCurrentSite()),
-                            isBlockedUrl(device.getCurrentSite()),
+                            domainClassifier.isBlocked(device.getCurrentSite()),
                             LocalDateTime.now(),
                             calculateTimeOnSite(device.getDeviceMac(), device.getCurrentSite()),
                             getPreviousSite(device.getDeviceMac()),
@@ -115,7 +131,10 @@ public class RealTimeMonitoringService {
                             extractKeywords(device.getCurrentSite())
                     );
 
-                    currentBrowsing.put(device.getDeviceMac(), browsing);
+                    SiteMonitoringDTO previous = currentBrowsing.put(device.getDeviceMac(), browsing);
+                    if (isBrowsingChanged(previous, browsing)) {
+                        publishUpdate(MonitoringUpdateEvent.Type.BROWSING, device.getDeviceMac(), browsing);
+                    }
 
                     // Check for security concerns
                     checkSiteSecurity(browsing);
@@ -195,7 +214,7 @@ public class RealTimeMonitoringService {
         try {
             for (SiteMonitoringDTO browsing : currentBrowsing.values()) {
                 // Check for malicious URLs
-                if (isSuspiciousUrl(browsing.getCurrentUrl())) {
+                if (domainClassifier.isSuspicious(browsing.getCurrentUrl())) {
                     SecurityAlertDTO alert = new SecurityAlertDTO(
                             "SUSPICIOUS_URL",
                             "HIGH",
@@ -206,7 +225,7 @@ public class RealTimeMonitoringService {
                             false,
                             "URL matches known threat patterns"
                     );
-                    addSecurityAlert(alert);
+                    addSecurityAlert(browsing.getDeviceMac(), alert);
                 }
 
                 // Check for insecure connections
@@ -221,7 +240,7 @@ public class RealTimeMonitoringService {
                             false,
                             "Website is not using HTTPS encryption"
                     );
-                    addSecurityAlert(alert);
+                    addSecurityAlert(browsing.getDeviceMac(), alert);
                 }
             }
 
@@ -356,7 +375,7 @@ public class RealTimeMonitoringService {
                     String interfaceName = parts[0];
                     try {
                         Integer rxPackets = Integer.parseInt(parts[3]);
-                        networkTraffic.put(interfaceName + "_rx", rxPackets);
+                        updateTrafficCounter(interfaceName + "_rx", rxPackets);
                     } catch (NumberFormatException e) {
                         // Ignore parsing errors
                     }
@@ -377,7 +396,7 @@ public class RealTimeMonitoringService {
                 if (parts.length >= 2) {
                     try {
                         Integer bytes = Integer.parseInt(parts[1]);
-                        networkTraffic.put("total_bytes", bytes);
+                        updateTrafficCounter("total_bytes", bytes);
                     } catch (NumberFormatException e) {
                         // Ignore parsing errors
                     }
@@ -393,7 +412,7 @@ public class RealTimeMonitoringService {
         String url = browsing.getCurrentUrl().toLowerCase();
 
         // Check for known malicious patterns
-        if (isSuspiciousUrl(url)) {
+        if (domainClassifier.isSuspicious(url)) {
             SecurityAlertDTO alert = new SecurityAlertDTO(
                     "MALICIOUS_SITE",
                     "CRITICAL",
@@ -404,11 +423,11 @@ public class RealTimeMonitoringService {
                     false,
                     "Site matches threat intelligence patterns"
             );
-            addSecurityAlert(alert);
+            addSecurityAlert(browsing.getDeviceMac(), alert);
         }
 
         // Check for inappropriate content
-        if (containsInappropriateContent(url)) {
+        if (domainClassifier.isInappropriate(url)) {
             SecurityAlertDTO alert = new SecurityAlertDTO(
                     "INAPPROPRIATE_CONTENT",
                     "HIGH",
@@ -419,22 +438,94 @@ public class RealTimeMonitoringService {
                     false,
                     "Content filtering rules triggered"
             );
-            addSecurityAlert(alert);
+            addSecurityAlert(browsing.getDeviceMac(), alert);
+        }
+    }
+
+    /**
+     * Add security alert to the recent alerts feed.
+     * A repeat of the same (device, type, target) inside the dedup window only bumps the
+     * occurrence count of the alert already in the feed.
+     */
+    private void addSecurityAlert(String deviceMac, SecurityAlertDTO alert) {
+        AlertKey key = new AlertKey(deviceMac, alert.getAlertType(),
+                alert.getUrl() != null ? alert.getUrl().toLowerCase() : null);
+        LocalDateTime now = alert.getTimestamp() != null ? alert.getTimestamp() : LocalDateTime.now();
+
+        alert.setDeviceMac(deviceMac);
+        alert.setOccurrenceCount(1);
+        alert.setLastSeen(now);
+
+        boolean[] isNew = {false};
+        activeAlerts.compute(key, (k, existing) -> {
+            if (existing != null && existing.getTimestamp().plusMinutes(ALERT_DEDUP_WINDOW_MINUTES).isAfter(now)) {
+                existing.setOccurrenceCount(existing.getOccurrenceCount() + 1);
+                existing.setLastSeen(now);
+                return existing;
+            }
+            isNew[0] = true;
+            return alert;
+        });
+
+        if (isNew[0]) {
+            recentAlerts.add(alert);
+            alertStore.record(alert);
+            publishUpdate(MonitoringUpdateEvent.Type.ALERT, deviceMac, alert);
+            log.warn("Security alert: {} - {}", alert.getAlertType(), alert.getDescription());
         }
     }
 
     /**
-     * Add security alert to recent alerts list
+     * Drop dedup entries whose window has closed, persisting their final repeat counts
      */
-    private void addSecurityAlert(SecurityAlertDTO alert) {
-        recentAlerts.add(0, alert); // Add to beginning
+    private void expireAlertDedupEntries() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(ALERT_DEDUP_WINDOW_MINUTES);
+        activeAlerts.values().removeIf(alert -> {
+            if (!alert.getTimestamp().isBefore(cutoff)) {
+                return false;
+            }
+            if (alert.getOccurrenceCount() > 1) {
+                alertStore.recordOccurrences(alert);
+            }
+            return true;
+        });
+    }
 
-        // Keep only recent alerts
-        while (recentAlerts.size() > MAX_RECENT_ALERTS) {
-            recentAlerts.remove(recentAlerts.size() - 1);
+    /**
+     * Store a traffic counter and publish it only when the value moved
+     */
+    private void updateTrafficCounter(String counter, Integer value) {
+        Integer previous = networkTraffic.put(counter, value);
+        if (!value.equals(previous)) {
+            publishUpdate(MonitoringUpdateEvent.Type.TRAFFIC, counter, value);
         }
+    }
 
-        log.warn("Security alert: {} - {}", alert.getAlertType(), alert.getDescription());
+    /**
+     * Performance samples carry a fresh timestamp every cycle, so only quality or latency count as a change
+     */
+    private boolean isPerformanceChanged(NetworkPerformanceDTO previous, NetworkPerformanceDTO current) {
+        return previous == null
+                || !Objects.equals(previous.getQuality(), current.getQuality())
+                || !Objects.equals(previous.getPingLatency(), current.getPingLatency());
+    }
+
+    /**
+     * Browsing samples change when the device moves to another site or its verdict changes
+     */
+    private boolean isBrowsingChanged(SiteMonitoringDTO previous, SiteMonitoringDTO current) {
+        return previous == null
+                || !Objects.equals(previous.getCurrentUrl(), current.getCurrentUrl())
+                || !Objects.equals(previous.getCategory(), current.getCategory())
+                || !Objects.equals(previous.getIsBlocked(), current.getIsBlocked());
+    }
+
+    private void publishUpdate(MonitoringUpdateEvent.Type type, String key, Object payload) {
+        try {
+            eventPublisher.publishEvent(new MonitoringUpdateEvent(type, key, payload));
+        } catch (Exception e) {
+            log.debug("Error publishing monitoring update for {}: ", key, e);
+        }
     }
 
     // ==========================================
@@ -459,7 +550,7 @@ public class RealTimeMonitoringService {
      * Get recent security alerts
      */
     public List<SecurityAlertDTO> getRecentSecurityAlerts() {
-        return new ArrayList<>(recentAlerts);
+        return recentAlerts.newestFirst();
     }
 
     /**
@@ -502,48 +593,18 @@ public class RealTimeMonitoringService {
         return url;
     }
 
-    private String categorizeWebsite(String url) {
-        String site = url.toLowerCase();
-        if (site.contains("youtube") || site.contains("netflix")) return "Entertainment";
-        if (site.contains("facebook") || site.contains("twitter")) return "Social Media";
-        if (site.contains("github") || site.contains("stackoverflow")) return "Development";
-        if (site.contains("amazon") || site.contains("shop")) return "Shopping";
-        if (site.contains("news") || site.contains("cnn")) return "News";
-        return "General";
-    }
-
     private Boolean isSecureUrl(String url) {
         return url.startsWith("https://") ||
                 (!url.startsWith("http://") &&
                         (url.contains("google") || url.contains("github") || url.contains("amazon")));
     }
 
-    private Boolean isBlockedUrl(String url) {
-        // Check against blocked URL patterns
-        String[] blockedPatterns = {"malware", "phishing", "adult", "gambling"};
-        String urlLower = url.toLowerCase();
-
-        for (String pattern : blockedPatterns) {
-            if (urlLower.contains(pattern)) {
-                return true;
-            }
-        }
-
-        return false;
-    }
-
     private Integer calculateTimeOnSite(String deviceMac, String currentSite) {
-        // Calculate time spent on current site
-        SiteMonitoringDTO previous = currentBrowsing.get(deviceMac);
-        if (previous != null && previous.getCurrentUrl().equals(currentSite)) {
-            return (int) java.time.Duration.between(previous.getAccessTime(), LocalDateTime.now()).getSeconds();
-        }
-        return 0;
+        return sessionizer.getCurrentDwellSeconds(deviceMac, currentSite);
     }
 
     private String getPreviousSite(String deviceMac) {
-        // This would track navigation history
-        return "google.com"; // Simplified
+        return sessionizer.getPreviousDomain(deviceMac);
     }
 
     private String getUserAgent(String deviceType) {
@@ -568,34 +629,6 @@ public class RealTimeMonitoringService {
         return keywords;
     }
 
-    private Boolean isSuspiciousUrl(String url) {
-        String[] suspiciousPatterns = {
-                "malware", "phishing", "scam", "fake", "suspicious",
-                "click-here", "free-money", "virus", "trojan"
-        };
-
-        String urlLower = url.toLowerCase();
-        for (String pattern : suspiciousPatterns) {
-            if (urlLower.contains(pattern)) {
-                return true;
-            }
-        }
-
-        return false;
-    }
-
-    private Boolean containsInappropriateContent(String url) {
-        String[] inappropriatePatterns = {
-                "adult", "xxx", "porn", "gambling", "casino", "drugs"
-        };
-
-        String urlLower = url.toLowerCase();
-        for (String pattern : inappropriatePatterns) {
-            if (urlLower.contains(pattern)) {
-                return true;
-            }
-        }
-
-        return false;
+    private record AlertKey(String deviceMac, String alertType, String target) {
     }
-}
\ No newline at end of file
+}
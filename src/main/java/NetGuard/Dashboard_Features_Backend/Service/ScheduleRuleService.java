@@ -0,0 +1,417 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.DTO.ScheduleRuleRequestDTO;
+import NetGuard.Dashboard_Features_Backend.DTO.ScheduleStatusDTO;
+import NetGuard.Dashboard_Features_Backend.Entity.DevicePolicy;
+import NetGuard.Dashboard_Features_Backend.Entity.NetworkConnection;
+import NetGuard.Dashboard_Features_Backend.Entity.ScheduleRule;
+import NetGuard.Dashboard_Features_Backend.Repository.NetworkConnectionRepository;
+import NetGuard.Dashboard_Features_Backend.Repository.ScheduleRuleRepository;
+import NetGuard.Dashboard_Features_Backend.Util.NetworkAddresses;
+import NetGuard.Dashboard_Features_Backend.Util.WeeklyIntervalIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Recurring schedule rules (bedtime, school hours) targeting a device or a device type.
+ * Enabled rules are compiled into one {@link WeeklyIntervalIndex} per device, so "is this
+ * device allowed now" and "when does that change" are binary searches. Every device's next
+ * transition sits in one priority queue drained by a single per-second tick, and all devices
+ * that flip on the same tick are applied as one enforcement batch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduleRuleService {
+
+    public static final String SCHEDULE_BLOCK_REASON = "Scheduled downtime";
+
+    private static final Set<String> DEVICE_TYPES = Set.of("mobile", "tablet", "tv", "laptop", "desktop", "unknown");
+
+    private final ScheduleRuleRepository ruleRepository;
+    private final NetworkConnectionRepository connectionRepository;
+    private final DevicePolicyStore policyStore;
+    private final DeviceEnforcementService enforcementService;
+
+    @Value("${app.dashboard.schedules.zone:${app.dashboard.time-limits.zone:}}")
+    private String zoneName;
+
+    private Clock clock = Clock.systemUTC();
+
+    private volatile Map<String, WeeklyIntervalIndex> indexByDevice = Map.of();
+    private volatile Map<String, WeeklyIntervalIndex> indexByMacRule = Map.of();
+    private volatile Map<String, String> typeByDevice = Map.of();
+    private volatile Map<String, String> addressByDevice = Map.of();
+    private volatile boolean hasRules;
+
+    private final PriorityQueue<Transition> transitions = new PriorityQueue<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        restoreDeviceTypes();
+        refreshDevices();
+        compileRules();
+    }
+
+    // ==========================================
+    // RULE MANAGEMENT
+    // ==========================================
+
+    public List<ScheduleRule> getRules() {
+        return ruleRepository.findAll();
+    }
+
+    /**
+     * Validate and store a rule, then recompile; throws IllegalArgumentException on bad input
+     */
+    public ScheduleRule createRule(ScheduleRuleRequestDTO request) {
+        if (request.getName() == null || request.getName().isBlank()) {
+            throw new IllegalArgumentException("Rule name is required");
+        }
+        boolean hasMac = request.getDeviceMac() != null && !request.getDeviceMac().isBlank();
+        boolean hasType = request.getDeviceType() != null && !request.getDeviceType().isBlank();
+        if (hasMac == hasType) {
+            throw new IllegalArgumentException("Specify exactly one of deviceMac or deviceType");
+        }
+        String deviceMac = hasMac ? NetworkAddresses.normalizeMac(request.getDeviceMac()) : null;
+        if (hasMac && deviceMac == null) {
+            throw new IllegalArgumentException("Invalid device MAC address");
+        }
+        if (hasType && !DEVICE_TYPES.contains(request.getDeviceType().toLowerCase())) {
+            throw new IllegalArgumentException("Unknown device type: " + request.getDeviceType());
+        }
+        if (request.getDaysOfWeek() == null || request.getDaysOfWeek().isEmpty()) {
+            throw new IllegalArgumentException("At least one day of week is required");
+        }
+        List<DayOfWeek> days = parseDays(String.join(",", request.getDaysOfWeek()));
+        parseTime(request.getStartTime());
+        parseTime(request.getEndTime());
+
+        ScheduleRule rule = new ScheduleRule();
+        rule.setName(request.getName().trim());
+        rule.setDeviceMac(deviceMac);
+        rule.setDeviceType(hasType ? request.getDeviceType().toLowerCase() : null);
+        rule.setDaysOfWeek(days.stream().map(DayOfWeek::name).collect(Collectors.joining(",")));
+        rule.setStartTime(request.getStartTime());
+        rule.setEndTime(request.getEndTime());
+        rule.setEnabled(request.getEnabled() == null || request.getEnabled());
+        rule.setCreatedAt(LocalDateTime.now());
+
+        ScheduleRule saved = ruleRepository.save(rule);
+        log.info("✅ Schedule rule '{}' created for {}", saved.getName(),
+                hasMac ? saved.getDeviceMac() : "all " + saved.getDeviceType() + " devices");
+        compileRules();
+        return saved;
+    }
+
+    public boolean deleteRule(Long ruleId) {
+        if (!ruleRepository.existsById(ruleId)) {
+            return false;
+        }
+        ruleRepository.deleteById(ruleId);
+        compileRules();
+        return true;
+    }
+
+    // ==========================================
+    // QUERIES - O(log n) ON THE COMPILED INDEX
+    // ==========================================
+
+    public boolean isAllowedNow(String deviceMac) {
+        return !indexFor(deviceMac).contains(WeeklyIntervalIndex.minuteOfWeek(LocalDateTime.now(zonedClock())));
+    }
+
+    /**
+     * Turn an existing block into a schedule block when the device is inside a scheduled window,
+     * so whoever placed it can hand it over instead of lifting it mid-window
+     */
+    public boolean adoptBlock(String deviceMac, String blockedAddress) {
+        ZonedDateTime now = ZonedDateTime.now(zonedClock());
+        int minute = WeeklyIntervalIndex.minuteOfWeek(now.toLocalDateTime());
+        WeeklyIntervalIndex index = indexFor(deviceMac);
+        if (!index.contains(minute)) {
+            return false;
+        }
+        policyStore.markBlocked(deviceMac, SCHEDULE_BLOCK_REASON, blockedAddress);
+        int minutes = index.minutesUntilTransition(minute);
+        if (minutes >= 0) {
+            synchronized (transitions) {
+                transitions.add(new Transition(now.truncatedTo(ChronoUnit.MINUTES).toInstant().toEpochMilli()
+                        + minutes * 60_000L, deviceMac));
+            }
+        }
+        log.info("⏰ Device {} stays blocked for scheduled downtime", deviceMac);
+        return true;
+    }
+
+    public ScheduleStatusDTO getScheduleStatus(String deviceMac) {
+        WeeklyIntervalIndex index = indexFor(deviceMac);
+        ZonedDateTime now = ZonedDateTime.now(zonedClock());
+        int minute = WeeklyIntervalIndex.minuteOfWeek(now.toLocalDateTime());
+        int minutes = index.minutesUntilTransition(minute);
+        LocalDateTime nextTransition = minutes < 0 ? null
+                : now.truncatedTo(ChronoUnit.MINUTES).plusMinutes(minutes).toLocalDateTime();
+
+        return new ScheduleStatusDTO(
+                deviceMac,
+                !index.contains(minute),
+                nextTransition,
+                minutes < 0 ? null : minutes,
+                index.intervalCount()
+        );
+    }
+
+    // ==========================================
+    // SCHEDULER
+    // ==========================================
+
+    /**
+     * Single scheduler for every rule: apply the transitions that came due
+     */
+    @Scheduled(fixedRate = 1000)
+    public synchronized void fireDueTransitions() {
+        long now = clock.millis();
+        Set<String> due = new HashSet<>();
+        synchronized (transitions) {
+            while (!transitions.isEmpty() && transitions.peek().atMillis() <= now) {
+                due.add(transitions.poll().deviceMac());
+            }
+        }
+        if (!due.isEmpty()) {
+            evaluate(due);
+        }
+    }
+
+    /**
+     * Pick up devices that joined the network or were renamed into another type
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.schedules.device-refresh-ms:60000}")
+    public void refreshDevices() {
+        try {
+            // Devices that left keep their last known type, so type rules keep covering them
+            Map<String, String> types = new HashMap<>(typeByDevice);
+            Map<String, String> addresses = new HashMap<>();
+            for (NetworkConnection connection : connectionRepository.findByIsCurrentlyConnectedTrue()) {
+                if (connection.getDeviceMac() == null) continue;
+                types.put(connection.getDeviceMac(), DeviceManagementService.determineDeviceType(connection.getDeviceName()));
+                addresses.put(connection.getDeviceMac(), connection.getAssignedIp());
+            }
+            addressByDevice = addresses;
+            if (!types.equals(typeByDevice)) {
+                typeByDevice = types;
+                if (hasRules) {
+                    compileRules();
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error refreshing devices for schedule rules: ", e);
+        }
+    }
+
+    /**
+     * Rebuild every device's interval index from the enabled rules and re-plan all transitions
+     */
+    public synchronized void compileRules() {
+        try {
+            Map<String, WeeklyIntervalIndex.Builder> macBuilders = new HashMap<>();
+            Map<String, WeeklyIntervalIndex.Builder> typeBuilders = new HashMap<>();
+            for (ScheduleRule rule : ruleRepository.findByEnabledTrue()) {
+                // Rules stored before MACs were validated may hold anything; never let them reach enforcement
+                String ruleMac = rule.getDeviceMac() != null ? NetworkAddresses.normalizeMac(rule.getDeviceMac()) : null;
+                if (rule.getDeviceMac() != null && ruleMac == null) {
+                    log.warn("⚠️ Skipping schedule rule {} with malformed device MAC", rule.getId());
+                    continue;
+                }
+                WeeklyIntervalIndex.Builder builder = ruleMac != null
+                        ? macBuilders.computeIfAbsent(ruleMac, mac -> WeeklyIntervalIndex.builder())
+                        : typeBuilders.computeIfAbsent(rule.getDeviceType(), type -> WeeklyIntervalIndex.builder());
+                addRule(builder, rule);
+            }
+
+            Map<String, WeeklyIntervalIndex> byMac = new HashMap<>();
+            macBuilders.forEach((mac, builder) -> byMac.put(mac, builder.build()));
+            Map<String, WeeklyIntervalIndex> byType = new HashMap<>();
+            typeBuilders.forEach((type, builder) -> byType.put(type, builder.build()));
+
+            // Every known device gets the union of its own rules and its type's rules
+            Set<String> devices = new HashSet<>(typeByDevice.keySet());
+            devices.addAll(byMac.keySet());
+            Map<String, WeeklyIntervalIndex> byDevice = new HashMap<>();
+            for (String mac : devices) {
+                WeeklyIntervalIndex own = byMac.getOrDefault(mac, WeeklyIntervalIndex.EMPTY);
+                WeeklyIntervalIndex typed = byType.getOrDefault(typeByDevice.get(mac), WeeklyIntervalIndex.EMPTY);
+                WeeklyIntervalIndex index = typed.isEmpty() ? own
+                        : own.isEmpty() ? typed
+                        : WeeklyIntervalIndex.builder().addAll(own).addAll(typed).build();
+                if (!index.isEmpty()) {
+                    byDevice.put(mac, index);
+                }
+            }
+            hasRules = !byMac.isEmpty() || !byType.isEmpty();
+            indexByMacRule = byMac;
+            indexByDevice = byDevice;
+
+            synchronized (transitions) {
+                transitions.clear();
+            }
+            // Also revisit devices still carrying a schedule block from a rule that no longer exists
+            Set<String> toEvaluate = new HashSet<>(byDevice.keySet());
+            for (DevicePolicy policy : policyStore.getAllPolicies().values()) {
+                if (isScheduleBlock(policy)) toEvaluate.add(policy.getDeviceMac());
+            }
+            evaluate(toEvaluate);
+            log.info("✅ Compiled schedule rules for {} device(s)", byDevice.size());
+        } catch (Exception e) {
+            log.error("❌ Error compiling schedule rules: ", e);
+        }
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private void evaluate(Set<String> deviceMacs) {
+        ZonedDateTime now = ZonedDateTime.now(zonedClock());
+        int minute = WeeklyIntervalIndex.minuteOfWeek(now.toLocalDateTime());
+        long minuteStart = now.truncatedTo(ChronoUnit.MINUTES).toInstant().toEpochMilli();
+
+        Set<String> blockMacs = new HashSet<>();
+        Set<String> blockAddresses = new HashSet<>();
+        Set<String> unblockMacs = new HashSet<>();
+        Set<String> unblockAddresses = new HashSet<>();
+        List<Transition> next = new ArrayList<>();
+
+        for (String mac : deviceMacs) {
+            WeeklyIntervalIndex index = indexFor(mac);
+            boolean inWindow = index.contains(minute);
+            DevicePolicy policy = policyStore.getPolicy(mac);
+            String address = addressByDevice.get(mac);
+
+            // A device blocked for another reason keeps that block; the time-limit service hands it
+            // over via adoptBlock if it would otherwise lift it inside a window
+            if (inWindow && !policyStore.isBlocked(mac)) {
+                blockMacs.add(mac);
+                if (address != null) blockAddresses.add(address);
+            } else if (!inWindow && isScheduleBlock(policy)) {
+                unblockMacs.add(mac);
+                if (policy.getBlockedAddress() != null) unblockAddresses.add(policy.getBlockedAddress());
+                if (address != null) unblockAddresses.add(address);
+            }
+
+            int minutes = index.minutesUntilTransition(minute);
+            if (minutes >= 0) {
+                next.add(new Transition(minuteStart + minutes * 60_000L, mac));
+            }
+        }
+
+        if (!blockMacs.isEmpty() || !unblockMacs.isEmpty()) {
+            if (enforcementService.apply(blockMacs, blockAddresses, unblockMacs, unblockAddresses)) {
+                for (String mac : blockMacs) {
+                    policyStore.markBlocked(mac, SCHEDULE_BLOCK_REASON, addressByDevice.get(mac));
+                }
+                for (String mac : unblockMacs) {
+                    policyStore.clearBlock(mac);
+                }
+                log.info("⏰ Schedule transitions applied: {} blocked, {} unblocked", blockMacs.size(), unblockMacs.size());
+            } else {
+                log.error("❌ Failed to apply schedule transitions for {} device(s); retrying next minute",
+                        blockMacs.size() + unblockMacs.size());
+                for (String mac : blockMacs) next.add(new Transition(minuteStart + 60_000L, mac));
+                for (String mac : unblockMacs) next.add(new Transition(minuteStart + 60_000L, mac));
+            }
+        }
+
+        synchronized (transitions) {
+            transitions.addAll(next);
+        }
+    }
+
+    /**
+     * Types of schedule-blocked devices that are offline at startup, so their type rules still apply
+     */
+    private void restoreDeviceTypes() {
+        try {
+            Map<String, String> types = new HashMap<>(typeByDevice);
+            for (DevicePolicy policy : policyStore.getAllPolicies().values()) {
+                if (isScheduleBlock(policy) && !types.containsKey(policy.getDeviceMac())) {
+                    connectionRepository.findManagedDevice(policy.getDeviceMac()).ifPresent(device ->
+                            types.put(policy.getDeviceMac(), DeviceManagementService.determineDeviceType(device.getDeviceName())));
+                }
+            }
+            typeByDevice = types;
+        } catch (Exception e) {
+            log.error("Error restoring device types for schedule rules: ", e);
+        }
+    }
+
+    private WeeklyIntervalIndex indexFor(String deviceMac) {
+        WeeklyIntervalIndex index = indexByDevice.get(deviceMac);
+        if (index != null) return index;
+        return indexByMacRule.getOrDefault(deviceMac, WeeklyIntervalIndex.EMPTY);
+    }
+
+    private void addRule(WeeklyIntervalIndex.Builder builder, ScheduleRule rule) {
+        try {
+            LocalTime start = parseTime(rule.getStartTime());
+            LocalTime end = parseTime(rule.getEndTime());
+            for (DayOfWeek day : parseDays(rule.getDaysOfWeek())) {
+                builder.addWindow(day, start, end);
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("⚠️ Skipping schedule rule {} ({}): {}", rule.getId(), rule.getName(), e.getMessage());
+        }
+    }
+
+    private List<DayOfWeek> parseDays(String days) {
+        List<DayOfWeek> parsed = new ArrayList<>();
+        for (String day : days.split(",")) {
+            if (day.isBlank()) continue;
+            try {
+                parsed.add(DayOfWeek.valueOf(day.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown day of week: " + day.trim());
+            }
+        }
+        return parsed;
+    }
+
+    private LocalTime parseTime(String time) {
+        try {
+            return LocalTime.parse(time);
+        } catch (DateTimeParseException | NullPointerException e) {
+            throw new IllegalArgumentException("Time must be HH:mm, got: " + time);
+        }
+    }
+
+    private boolean isScheduleBlock(DevicePolicy policy) {
+        return policy != null && Boolean.TRUE.equals(policy.getBlocked())
+                && SCHEDULE_BLOCK_REASON.equals(policy.getBlockReason());
+    }
+
+    private Clock zonedClock() {
+        return zoneName == null || zoneName.isBlank() ? clock.withZone(ZoneId.systemDefault()) : clock.withZone(ZoneId.of(zoneName));
+    }
+
+    private record Transition(long atMillis, String deviceMac) implements Comparable<Transition> {
+        @Override
+        public int compareTo(Transition other) {
+            return Long.compare(atMillis, other.atMillis);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.DTO.KeysetPage;
+import NetGuard.Dashboard_Features_Backend.DTO.SecurityAlertDTO;
+import NetGuard.Dashboard_Features_Backend.DTO.SecurityAlertPageDTO;
+import NetGuard.Dashboard_Features_Backend.Entity.SecurityAlert;
+import NetGuard.Dashboard_Features_Backend.Repository.SecurityAlertRepository;
+import NetGuard.Dashboard_Features_Backend.Util.KeysetCursor;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Durable security alert store.
+ * Detection only enqueues; a scheduled writer drains the queue and inserts in JDBC batches,
+ * so the monitoring cycle never waits on the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SecurityAlertStoreService {
+
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private final SecurityAlertRepository alertRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.dashboard.alerts.writer.batch-size:500}")
+    private int batchSize;
+
+    private final BlockingQueue<SecurityAlertDTO> pendingInserts = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final BlockingQueue<SecurityAlertDTO> pendingOccurrenceUpdates = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong droppedAlerts = new AtomicLong();
+
+    /**
+     * Queue a newly raised alert for persistence. Never blocks the caller.
+     */
+    public void record(SecurityAlertDTO alert) {
+        if (!pendingInserts.offer(alert)) {
+            long dropped = droppedAlerts.incrementAndGet();
+            log.warn("Security alert write queue full - dropped alert {} ({} dropped so far)",
+                    alert.getAlertType(), dropped);
+        }
+    }
+
+    /**
+     * Queue the final occurrence count of a deduplicated alert once its window closes
+     */
+    public void recordOccurrences(SecurityAlertDTO alert) {
+        if (!pendingOccurrenceUpdates.offer(alert)) {
+            droppedAlerts.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drain queued alerts into the database, one transaction per batch.
+     * A batch that fails to commit goes back on the queue for the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.alerts.writer.flush-interval-ms:2000}")
+    public void flushPendingAlerts() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        List<SecurityAlertDTO> inserts = new ArrayList<>();
+        while (pendingInserts.drainTo(inserts, batchSize) > 0) {
+            try {
+                List<SecurityAlert> saved = transaction.execute(status ->
+                        alertRepository.saveAll(inserts.stream().map(this::toEntity).collect(Collectors.toList())));
+                // Ids only become visible once the batch has committed
+                for (int i = 0; i < inserts.size(); i++) {
+                    inserts.get(i).setId(saved.get(i).getId());
+                }
+                log.debug("Persisted {} security alerts", inserts.size());
+            } catch (Exception e) {
+                requeue(pendingInserts, inserts);
+                log.error("Error persisting {} security alerts, retrying next run: ", inserts.size(), e);
+                break;
+            }
+            inserts.clear();
+        }
+
+        List<SecurityAlertDTO> updates = new ArrayList<>();
+        while (pendingOccurrenceUpdates.drainTo(updates, batchSize) > 0) {
+            try {
+                transaction.executeWithoutResult(status -> {
+                    for (SecurityAlertDTO alert : updates) {
+                        // Not stored yet: the queued insert will carry the final count itself
+                        if (alert.getId() != null) {
+                            alertRepository.updateOccurrences(alert.getId(), alert.getOccurrenceCount(), alert.getLastSeen());
+                        }
+                    }
+                });
+            } catch (Exception e) {
+                requeue(pendingOccurrenceUpdates, updates);
+                log.error("Error updating {} security alert counts, retrying next run: ", updates.size(), e);
+                break;
+            }
+            updates.clear();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushPendingAlerts();
+    }
+
+    /**
+     * Keyset-paginated alert history, newest first
+     */
+    @Transactional(readOnly = true)
+    public SecurityAlertPageDTO findAlerts(String deviceMac, String severity, LocalDateTime from,
+                                           LocalDateTime to, String cursor, int limit) {
+        int pageSize = KeysetCursor.pageSize(limit, MAX_PAGE_SIZE);
+        LocalDateTime rangeStart = from != null ? from : EARLIEST;
+        LocalDateTime rangeEnd = to != null ? to : LocalDateTime.now().plusDays(1);
+
+        // Start from the top of the range unless a cursor says otherwise
+        KeysetCursor position = KeysetCursor.decodeOrStart(cursor, KeysetCursor.of(rangeEnd, Long.MAX_VALUE));
+        LocalDateTime cursorTime = position.time();
+        long cursorId = position.idKey();
+
+        // Fetch one extra row to learn whether another page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        String severityFilter = severity != null ? severity.toUpperCase() : null;
+
+        List<SecurityAlert> rows;
+        if (deviceMac != null && severityFilter != null) {
+            rows = alertRepository.findPageByDeviceAndSeverity(deviceMac, severityFilter, rangeStart, rangeEnd, cursorTime, cursorId, page);
+        } else if (deviceMac != null) {
+            rows = alertRepository.findPageByDevice(deviceMac, rangeStart, rangeEnd, cursorTime, cursorId, page);
+        } else if (severityFilter != null) {
+            rows = alertRepository.findPageBySeverity(severityFilter, rangeStart, rangeEnd, cursorTime, cursorId, page);
+        } else {
+            rows = alertRepository.findPage(rangeStart, rangeEnd, cursorTime, cursorId, page);
+        }
+
+        KeysetPage<SecurityAlertDTO> result = KeysetPage.of(rows, pageSize,
+                alert -> KeysetCursor.of(alert.getCreatedAt(), alert.getId()), this::toDTO);
+        return new SecurityAlertPageDTO(result.getItems(), result.getNextCursor(), result.getHasMore());
+    }
+
+    public long getDroppedAlertCount() {
+        return droppedAlerts.get();
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private void requeue(BlockingQueue<SecurityAlertDTO> queue, List<SecurityAlertDTO> alerts) {
+        for (SecurityAlertDTO alert : alerts) {
+            if (!queue.offer(alert)) {
+                droppedAlerts.incrementAndGet();
+            }
+        }
+    }
+
+    private SecurityAlert toEntity(SecurityAlertDTO dto) {
+        SecurityAlert alert = new SecurityAlert();
+        alert.setDeviceMac(dto.getDeviceMac());
+        alert.setAlertType(dto.getAlertType());
+        alert.setSeverity(dto.getSeverity());
+        alert.setDescription(dto.getDescription());
+        alert.setUrl(dto.getUrl());
+        alert.setStatus(dto.getStatus());
+        alert.setResolved(dto.getResolved() != null ? dto.getResolved() : false);
+        alert.setDetails(dto.getDetails());
+        alert.setOccurrenceCount(dto.getOccurrenceCount() != null ? dto.getOccurrenceCount() : 1);
+        alert.setCreatedAt(dto.getTimestamp() != null ? dto.getTimestamp() : LocalDateTime.now());
+        alert.setLastSeen(dto.getLastSeen());
+        return alert;
+    }
+
+    private SecurityAlertDTO toDTO(SecurityAlert alert) {
+        return new SecurityAlertDTO(
+                alert.getAlertType(),
+                alert.getSeverity(),
+                alert.getDescription(),
+                alert.getUrl(),
+                alert.getCreatedAt(),
+                alert.getStatus(),
+                alert.getResolved(),
+                alert.getDetails(),
+                alert.getDeviceMac(),
+                alert.getOccurrenceCount(),
+                alert.getLastSeen(),
+                alert.getId()
+        );
+    }
+}
@@ -0,0 +1,140 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.Entity.NetworkConnection;
+import NetGuard.Dashboard_Features_Backend.Event.SiteActivityEvent;
+import NetGuard.Dashboard_Features_Backend.Repository.NetworkConnectionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Website activity pipeline: collectors publish {@link SiteActivityEvent}s onto one bounded
+ * queue and a single consumer thread attributes them to devices and updates the website
+ * monitor. Publishing never blocks; when the consumer falls behind, new events are dropped
+ * and counted rather than piling up work.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SiteActivityPipeline {
+
+    private final RealWebsiteMonitoringService websiteMonitoringService;
+    private final NetworkConnectionRepository connectionRepository;
+    private final TimeLimitEnforcementService timeLimitService;
+
+    @Value("${app.dashboard.website.pipeline.queue-capacity:50000}")
+    private int queueCapacity;
+
+    private BlockingQueue<SiteActivityEvent> events;
+    private volatile Map<String, String> deviceMacByIp = Map.of();
+    private volatile boolean running;
+    private Thread consumer;
+
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong unattributedEvents = new AtomicLong();
+    private final Map<SiteActivityEvent.Source, AtomicLong> processedBySource = new EnumMap<>(SiteActivityEvent.Source.class);
+
+    @PostConstruct
+    public void start() {
+        events = new ArrayBlockingQueue<>(queueCapacity);
+        for (SiteActivityEvent.Source source : SiteActivityEvent.Source.values()) {
+            processedBySource.put(source, new AtomicLong());
+        }
+        running = true;
+        consumer = new Thread(this::consume, "SiteActivity-Consumer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (consumer != null) {
+            consumer.interrupt();
+        }
+    }
+
+    /**
+     * Offer an event to the pipeline. Never blocks; returns false if it was dropped.
+     */
+    public boolean publish(SiteActivityEvent event) {
+        if (events.offer(event)) {
+            return true;
+        }
+        long dropped = droppedEvents.incrementAndGet();
+        if (dropped % 10_000 == 1) {
+            log.warn("Site activity queue full - {} events dropped so far", dropped);
+        }
+        return false;
+    }
+
+    /**
+     * Rebuild the IP -> MAC attribution map from currently connected devices
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.website.pipeline.device-refresh-ms:15000}")
+    public void refreshDeviceAddresses() {
+        try {
+            Map<String, String> byIp = new HashMap<>();
+            for (NetworkConnection connection : connectionRepository.findByIsCurrentlyConnectedTrue()) {
+                if (connection.getAssignedIp() != null && connection.getDeviceMac() != null) {
+                    byIp.put(connection.getAssignedIp(), connection.getDeviceMac());
+                }
+            }
+            deviceMacByIp = Map.copyOf(byIp);
+        } catch (Exception e) {
+            log.error("Error refreshing device addresses for site activity: ", e);
+        }
+    }
+
+    public Map<String, Object> getPipelineStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("queued", events.size());
+        stats.put("dropped", droppedEvents.get());
+        stats.put("unattributed", unattributedEvents.get());
+        processedBySource.forEach((source, count) -> stats.put("processed" + source, count.get()));
+        return stats;
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private void consume() {
+        while (running) {
+            try {
+                SiteActivityEvent event = events.poll(1, TimeUnit.SECONDS);
+                if (event != null) {
+                    handle(event);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error handling site activity event: ", e);
+            }
+        }
+    }
+
+    private void handle(SiteActivityEvent event) {
+        String deviceMac = deviceMacByIp.get(event.clientIp());
+        if (deviceMac == null) {
+            unattributedEvents.incrementAndGet();
+            return;
+        }
+        websiteMonitoringService.recordSiteActivity(deviceMac, event.domain(), event.timestamp());
+        timeLimitService.onTrafficActivity(deviceMac, event.domain(), event.timestamp());
+        processedBySource.get(event.source()).incrementAndGet();
+    }
+}
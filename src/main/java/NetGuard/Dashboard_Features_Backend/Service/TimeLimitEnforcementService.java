@@ -0,0 +1,548 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.DTO.SecurityAlertDTO;
+import NetGuard.Dashboard_Features_Backend.DTO.TimeLimitRequestDTO;
+import NetGuard.Dashboard_Features_Backend.Entity.DevicePolicy;
+import NetGuard.Dashboard_Features_Backend.Entity.DeviceScreenTime;
+import NetGuard.Dashboard_Features_Backend.Entity.NetworkConnection;
+import NetGuard.Dashboard_Features_Backend.Repository.DeviceScreenTimeRepository;
+import NetGuard.Dashboard_Features_Backend.Repository.NetworkConnectionRepository;
+import NetGuard.Dashboard_Features_Backend.Util.HashedTimerWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Enforces daily time limits.
+ * Active time accrues per device as segments: traffic events from the site activity pipeline
+ * open and extend a segment, and a segment closes once the device goes quiet for the active
+ * gap or drops off the network. Warn and block deadlines are computed for an open segment
+ * assuming it stays active, and are filed on a timer wheel so each one fires on its exact
+ * second; closing the segment cancels them. Counters reset at local midnight, which also lifts
+ * blocks this service placed. Closed segments and each day's final totals feed the usage sketches.
+ * Today's totals are written to device_screen_time every minute and reloaded at startup, so a
+ * restart does not hand every device a fresh allowance.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TimeLimitEnforcementService {
+
+    public static final String TIME_LIMIT_BLOCK_REASON = "Daily time limit reached";
+
+    private static final long TICK_MILLIS = 1000;
+    // Retry interval for a block that failed or that another block is currently covering
+    private static final long BLOCK_RETRY_MILLIS = 30_000;
+
+    private final DevicePolicyStore policyStore;
+    private final DeviceEnforcementService enforcementService;
+    private final SecurityAlertStoreService alertStore;
+    private final NetworkConnectionRepository connectionRepository;
+    private final UsageSketchService usageSketchService;
+    private final ScheduleRuleService scheduleRuleService;
+    private final DeviceScreenTimeRepository screenTimeRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.dashboard.time-limits.zone:}")
+    private String zoneName;
+
+    @Value("${app.dashboard.time-limits.active-gap-seconds:120}")
+    private long activeGapSeconds;
+
+    @Value("${app.dashboard.time-limits.warn-before-minutes:5}")
+    private long warnBeforeMinutes;
+
+    private Clock clock = Clock.systemUTC();
+    private ZoneId zone;
+    private HashedTimerWheel<Deadline> timerWheel;
+
+    private final Map<String, DeviceUsage> usageByDevice = new ConcurrentHashMap<>();
+    private volatile Map<String, String> addressByDevice = Map.of();
+    // Held while day totals are snapshotted or reset, so a flush never files one day's total under the other
+    private final Object dayLock = new Object();
+
+    @PostConstruct
+    public void init() {
+        zone = zoneName == null || zoneName.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zoneName);
+        timerWheel = new HashedTimerWheel<>(TICK_MILLIS, clock.millis());
+        scheduleNextMidnight();
+        restoreUsage();
+        restoreTimeLimitBlocks();
+        log.info("✅ Time limit enforcement started (zone {}, active gap {}s)", zone, activeGapSeconds);
+    }
+
+    /**
+     * Record traffic from a device; called by the site activity pipeline
+     */
+    public void onTrafficActivity(String deviceMac, String domain, Instant timestamp) {
+        TimeLimitRequestDTO limit = policyStore.getTimeLimit(deviceMac);
+        if (limit != null && isExempt(domain, limit.getExemptSites())) {
+            return;
+        }
+        long now = clock.millis();
+        // Collector timestamps can lag; never let them reach into the future or behind the wheel
+        long at = Math.min(timestamp != null ? timestamp.toEpochMilli() : now, now);
+
+        DeviceUsage usage = usageByDevice.computeIfAbsent(deviceMac, DeviceUsage::new);
+        synchronized (usage) {
+            usage.present = true;
+            usage.dirty = true;
+            if (usage.segmentStart < 0) {
+                usage.segmentStart = Math.max(at, usage.lastActivity);
+                usage.lastActivity = usage.segmentStart;
+                armDeadlines(usage, limit, now);
+            } else {
+                usage.lastActivity = Math.max(usage.lastActivity, at);
+            }
+            if (usage.idleTimer == null) {
+                usage.idleTimer = timerWheel.schedule(new Deadline(deviceMac, DeadlineKind.IDLE),
+                        usage.lastActivity + activeGapSeconds * 1000);
+            }
+        }
+    }
+
+    /**
+     * Re-plan deadlines after the device's time limit changed
+     */
+    public void onTimeLimitChanged(String deviceMac) {
+        TimeLimitRequestDTO limit = policyStore.getTimeLimit(deviceMac);
+        DeviceUsage usage = usageByDevice.computeIfAbsent(deviceMac, DeviceUsage::new);
+        boolean lift;
+        synchronized (usage) {
+            long now = clock.millis();
+            lift = usage.limitBlocked && (limit == null || limit.getDailyLimitMinutes() == null
+                    || usedMillis(usage, now) < limit.getDailyLimitMinutes() * 60_000L);
+            if (lift) {
+                usage.limitBlocked = false;
+                usage.warned = false;
+            }
+            armDeadlines(usage, limit, now);
+        }
+        if (lift) {
+            liftTimeLimitBlock(deviceMac);
+        }
+    }
+
+    /**
+     * Minutes of active time accrued since local midnight
+     */
+    public int getUsedMinutesToday(String deviceMac) {
+        DeviceUsage usage = usageByDevice.get(deviceMac);
+        if (usage == null) {
+            return 0;
+        }
+        synchronized (usage) {
+            long open = usage.segmentStart >= 0 ? usage.lastActivity - usage.segmentStart : 0;
+            return (int) ((usage.committedMillis + open) / 60_000);
+        }
+    }
+
+    public int getPendingDeadlineCount() {
+        return timerWheel.size();
+    }
+
+    /**
+     * Advance the timer wheel and act on every deadline that came due
+     */
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void tick() {
+        List<Deadline> due = timerWheel.advance(clock.millis());
+        for (Deadline deadline : due) {
+            try {
+                switch (deadline.kind()) {
+                    case IDLE -> onIdleCheck(deadline.deviceMac());
+                    case WARN -> onWarnDeadline(deadline.deviceMac());
+                    case BLOCK -> onBlockDeadline(deadline.deviceMac());
+                    case MIDNIGHT -> onMidnight();
+                }
+            } catch (Exception e) {
+                log.error("Error handling {} deadline for {}: ", deadline.kind(), deadline.deviceMac(), e);
+            }
+        }
+    }
+
+    /**
+     * Close segments of devices that left the network and remember current addresses for blocking
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.time-limits.presence-refresh-ms:15000}")
+    public void refreshPresence() {
+        try {
+            Map<String, String> connected = new HashMap<>();
+            for (NetworkConnection connection : connectionRepository.findByIsCurrentlyConnectedTrue()) {
+                if (connection.getDeviceMac() != null) {
+                    connected.put(connection.getDeviceMac(), connection.getAssignedIp());
+                }
+            }
+            addressByDevice = connected;
+
+            for (DeviceUsage usage : usageByDevice.values()) {
+                synchronized (usage) {
+                    boolean present = connected.containsKey(usage.deviceMac);
+                    if (usage.present && !present) {
+                        closeSegment(usage);
+                    }
+                    usage.present = present;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error refreshing device presence for time limits: ", e);
+        }
+    }
+
+    /**
+     * Write today's totals of devices that accrued time since the last flush
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.time-limits.usage-flush-ms:60000}")
+    public void flushUsage() {
+        LocalDate day;
+        Map<String, Long> totals = new HashMap<>();
+        synchronized (dayLock) {
+            day = LocalDate.now(clock.withZone(zone));
+            for (DeviceUsage usage : usageByDevice.values()) {
+                synchronized (usage) {
+                    if (!usage.dirty) continue;
+                    usage.dirty = false;
+                    long open = usage.segmentStart >= 0 ? usage.lastActivity - usage.segmentStart : 0;
+                    totals.put(usage.deviceMac, usage.committedMillis + open);
+                }
+            }
+        }
+        if (totals.isEmpty()) {
+            return;
+        }
+
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                Map<String, DeviceScreenTime> rows = screenTimeRepository.findByUsageDayAndDeviceMacIn(day, totals.keySet())
+                        .stream().collect(Collectors.toMap(DeviceScreenTime::getDeviceMac, Function.identity()));
+                LocalDateTime updatedAt = LocalDateTime.now();
+                totals.forEach((deviceMac, activeMillis) -> {
+                    DeviceScreenTime row = rows.get(deviceMac);
+                    if (row == null) {
+                        row = new DeviceScreenTime();
+                        row.setDeviceMac(deviceMac);
+                        row.setUsageDay(day);
+                        rows.put(deviceMac, row);
+                    }
+                    row.setActiveMillis(activeMillis);
+                    row.setUpdatedAt(updatedAt);
+                });
+                screenTimeRepository.saveAll(rows.values());
+            });
+            log.debug("Persisted screen time for {} device(s)", totals.size());
+        } catch (Exception e) {
+            // Totals are absolute, so the next flush simply writes the newer value
+            for (String deviceMac : totals.keySet()) {
+                DeviceUsage usage = usageByDevice.get(deviceMac);
+                if (usage != null) {
+                    synchronized (usage) {
+                        usage.dirty = true;
+                    }
+                }
+            }
+            log.error("❌ Error persisting screen time for {} device(s): ", totals.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushUsage();
+    }
+
+    // ==========================================
+    // DEADLINE HANDLERS
+    // ==========================================
+
+    private void onIdleCheck(String deviceMac) {
+        DeviceUsage usage = usageByDevice.get(deviceMac);
+        if (usage == null) return;
+        synchronized (usage) {
+            usage.idleTimer = null;
+            if (usage.segmentStart < 0) return;
+
+            long quietUntil = usage.lastActivity + activeGapSeconds * 1000;
+            if (clock.millis() >= quietUntil) {
+                closeSegment(usage);
+            } else {
+                // Activity arrived since this check was filed; look again when the new gap expires
+                usage.idleTimer = timerWheel.schedule(new Deadline(deviceMac, DeadlineKind.IDLE), quietUntil);
+            }
+        }
+    }
+
+    private void onWarnDeadline(String deviceMac) {
+        TimeLimitRequestDTO limit = policyStore.getTimeLimit(deviceMac);
+        DeviceUsage usage = usageByDevice.get(deviceMac);
+        if (usage == null || limit == null || limit.getDailyLimitMinutes() == null) return;
+
+        int remainingMinutes;
+        synchronized (usage) {
+            usage.warnTimer = null;
+            if (usage.warned || usage.limitBlocked) return;
+            usage.warned = true;
+            long remaining = limit.getDailyLimitMinutes() * 60_000L - usedMillis(usage, clock.millis());
+            remainingMinutes = (int) Math.max(0, (remaining + 59_999) / 60_000);
+        }
+
+        log.info("⚠️ Device {} has {} minute(s) of screen time left today", deviceMac, remainingMinutes);
+        alertStore.record(new SecurityAlertDTO("TIME_LIMIT_WARNING", "LOW",
+                "Daily time limit almost reached", null, LocalDateTime.now(), "ACTIVE", false,
+                String.format("%d minute(s) remaining of %d", remainingMinutes, limit.getDailyLimitMinutes()),
+                deviceMac, 1, null, null));
+    }
+
+    private void onBlockDeadline(String deviceMac) {
+        TimeLimitRequestDTO limit = policyStore.getTimeLimit(deviceMac);
+        DeviceUsage usage = usageByDevice.get(deviceMac);
+        if (usage == null || limit == null || limit.getDailyLimitMinutes() == null) return;
+
+        synchronized (usage) {
+            usage.blockTimer = null;
+            if (usage.limitBlocked) return;
+            long now = clock.millis();
+            long limitMillis = limit.getDailyLimitMinutes() * 60_000L;
+            if (usage.segmentStart < 0 || usedMillis(usage, now) + TICK_MILLIS < limitMillis) {
+                armDeadlines(usage, limit, now);
+                return;
+            }
+        }
+
+        if (policyStore.isBlocked(deviceMac)) {
+            // Blocked by the parent or a schedule for now; take over once that block is lifted
+            log.debug("Device {} reached its daily time limit but is already blocked", deviceMac);
+            retryBlock(usage);
+            return;
+        }
+        String address = addressByDevice.get(deviceMac);
+        if (enforcementService.block(deviceMac, address)) {
+            synchronized (usage) {
+                usage.limitBlocked = true;
+                cancelDeadlines(usage);
+            }
+            policyStore.markBlocked(deviceMac, TIME_LIMIT_BLOCK_REASON, address);
+            log.info("⏰ Device {} blocked: daily limit of {} minutes reached", deviceMac, limit.getDailyLimitMinutes());
+            alertStore.record(new SecurityAlertDTO("TIME_LIMIT_REACHED", "MEDIUM",
+                    "Daily time limit reached - device blocked", null, LocalDateTime.now(),
+                    "ACTIVE", false, String.format("Limit: %d minutes", limit.getDailyLimitMinutes()),
+                    deviceMac, 1, null, null));
+        } else {
+            log.error("❌ Failed to block device {} after it reached its daily time limit; retrying in {}s",
+                    deviceMac, BLOCK_RETRY_MILLIS / 1000);
+            retryBlock(usage);
+        }
+    }
+
+    private void onMidnight() {
+        long now = clock.millis();
+        LocalDate endedDay = Instant.ofEpochMilli(now).atZone(zone).toLocalDate().minusDays(1);
+        Map<String, Long> screenTime = new HashMap<>();
+        synchronized (dayLock) {
+            for (DeviceUsage usage : usageByDevice.values()) {
+                synchronized (usage) {
+                    long open = usage.segmentStart >= 0 ? usage.lastActivity - usage.segmentStart : 0;
+                    if (usage.committedMillis + open > 0) {
+                        screenTime.put(usage.deviceMac, usage.committedMillis + open);
+                    }
+                    usage.committedMillis = 0;
+                    if (usage.segmentStart >= 0) {
+                        // Split the open segment at midnight; only today's part counts
+                        usage.segmentStart = now;
+                        usage.lastActivity = now;
+                    }
+                    usage.dirty = false;
+                    usage.warned = false;
+                    usage.limitBlocked = false;
+                    armDeadlines(usage, policyStore.getTimeLimit(usage.deviceMac), now);
+                }
+            }
+        }
+        usageSketchService.recordDailyScreenTime(endedDay, screenTime);
+        try {
+            // Only today's totals are ever read back
+            screenTimeRepository.deleteBefore(endedDay.plusDays(1));
+        } catch (Exception e) {
+            log.warn("⚠️ Could not prune screen time history: {}", e.getMessage());
+        }
+
+        int lifted = 0;
+        for (DevicePolicy policy : policyStore.getAllPolicies().values()) {
+            if (!isTimeLimitBlock(policy)) continue;
+            // Inside scheduled downtime the block stays and the schedule lifts it when the window ends
+            if (scheduleRuleService.adoptBlock(policy.getDeviceMac(), policy.getBlockedAddress())) continue;
+            if (liftTimeLimitBlock(policy.getDeviceMac())) {
+                lifted++;
+            }
+        }
+        log.info("🌙 Daily time counters reset; {} time-limit block(s) lifted", lifted);
+        scheduleNextMidnight();
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private void armDeadlines(DeviceUsage usage, TimeLimitRequestDTO limit, long now) {
+        cancelDeadlines(usage);
+        if (limit == null || limit.getDailyLimitMinutes() == null || usage.segmentStart < 0 || usage.limitBlocked) {
+            return;
+        }
+        // Assume the open segment stays active: the limit is hit exactly this long after it started
+        long blockAt = usage.segmentStart + limit.getDailyLimitMinutes() * 60_000L - usage.committedMillis;
+        long warnAt = blockAt - warnBeforeMinutes * 60_000L;
+
+        if (!usage.warned && warnBeforeMinutes > 0 && blockAt > now) {
+            usage.warnTimer = timerWheel.schedule(new Deadline(usage.deviceMac, DeadlineKind.WARN), warnAt);
+        }
+        usage.blockTimer = timerWheel.schedule(new Deadline(usage.deviceMac, DeadlineKind.BLOCK), blockAt);
+    }
+
+    private void retryBlock(DeviceUsage usage) {
+        synchronized (usage) {
+            if (!usage.limitBlocked && usage.blockTimer == null) {
+                usage.blockTimer = timerWheel.schedule(new Deadline(usage.deviceMac, DeadlineKind.BLOCK),
+                        clock.millis() + BLOCK_RETRY_MILLIS);
+            }
+        }
+    }
+
+    private void closeSegment(DeviceUsage usage) {
+        if (usage.segmentStart >= 0) {
+            usage.committedMillis += usage.lastActivity - usage.segmentStart;
+            usage.dirty = true;
+            usageSketchService.recordSession(usage.lastActivity - usage.segmentStart, Instant.ofEpochMilli(usage.lastActivity));
+            usage.segmentStart = -1;
+        }
+        cancelDeadlines(usage);
+        if (usage.idleTimer != null) {
+            usage.idleTimer.cancel();
+            usage.idleTimer = null;
+        }
+    }
+
+    private void cancelDeadlines(DeviceUsage usage) {
+        if (usage.warnTimer != null) {
+            usage.warnTimer.cancel();
+            usage.warnTimer = null;
+        }
+        if (usage.blockTimer != null) {
+            usage.blockTimer.cancel();
+            usage.blockTimer = null;
+        }
+    }
+
+    private long usedMillis(DeviceUsage usage, long now) {
+        // An open segment counts up to now: the device is active until the gap says otherwise
+        return usage.committedMillis + (usage.segmentStart >= 0 ? Math.max(0, now - usage.segmentStart) : 0);
+    }
+
+    private boolean liftTimeLimitBlock(String deviceMac) {
+        DevicePolicy policy = policyStore.getPolicy(deviceMac);
+        if (!isTimeLimitBlock(policy)) {
+            return false;
+        }
+        Set<String> addresses = new HashSet<>();
+        if (policy.getBlockedAddress() != null) addresses.add(policy.getBlockedAddress());
+        String current = addressByDevice.get(deviceMac);
+        if (current != null) addresses.add(current);
+
+        if (!enforcementService.apply(Set.of(), Set.of(), Set.of(deviceMac), addresses)) {
+            log.error("❌ Failed to lift time-limit block for device {}", deviceMac);
+            return false;
+        }
+        policyStore.clearBlock(deviceMac);
+        return true;
+    }
+
+    /**
+     * Reload today's accrued time written before the last shutdown
+     */
+    private void restoreUsage() {
+        try {
+            List<DeviceScreenTime> rows = screenTimeRepository.findByUsageDay(LocalDate.now(clock.withZone(zone)));
+            for (DeviceScreenTime row : rows) {
+                usageByDevice.computeIfAbsent(row.getDeviceMac(), DeviceUsage::new).committedMillis = row.getActiveMillis();
+            }
+            log.info("Restored today's screen time for {} device(s)", rows.size());
+        } catch (Exception e) {
+            log.error("❌ Error restoring today's screen time; counting from zero: ", e);
+        }
+    }
+
+    private void restoreTimeLimitBlocks() {
+        LocalDateTime midnight = LocalDate.now(clock.withZone(zone)).atStartOfDay();
+        for (DevicePolicy policy : policyStore.getAllPolicies().values()) {
+            if (!isTimeLimitBlock(policy)) continue;
+            if (policy.getBlockedAt() == null || policy.getBlockedAt().isBefore(midnight)) {
+                // Blocked on an earlier day; kernel state follows the policy at startup reconciliation
+                policyStore.clearBlock(policy.getDeviceMac());
+            } else {
+                usageByDevice.computeIfAbsent(policy.getDeviceMac(), DeviceUsage::new).limitBlocked = true;
+            }
+        }
+    }
+
+    private void scheduleNextMidnight() {
+        long nextMidnight = LocalDate.now(clock.withZone(zone)).plusDays(1)
+                .atStartOfDay(zone).toInstant().toEpochMilli();
+        timerWheel.schedule(new Deadline(null, DeadlineKind.MIDNIGHT), nextMidnight);
+    }
+
+    private boolean isTimeLimitBlock(DevicePolicy policy) {
+        return policy != null && Boolean.TRUE.equals(policy.getBlocked())
+                && TIME_LIMIT_BLOCK_REASON.equals(policy.getBlockReason());
+    }
+
+    private boolean isExempt(String domain, List<String> exemptSites) {
+        if (domain == null || exemptSites == null) return false;
+        String host = domain.toLowerCase();
+        for (String site : exemptSites) {
+            String exempt = site.toLowerCase();
+            if (host.equals(exempt) || host.endsWith("." + exempt)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private enum DeadlineKind { IDLE, WARN, BLOCK, MIDNIGHT }
+
+    private record Deadline(String deviceMac, DeadlineKind kind) {}
+
+    private static final class DeviceUsage {
+        private final String deviceMac;
+        private long committedMillis;
+        private long segmentStart = -1;
+        private long lastActivity;
+        private boolean present;
+        private boolean dirty;
+        private boolean warned;
+        private boolean limitBlocked;
+        private HashedTimerWheel.Timeout<Deadline> idleTimer;
+        private HashedTimerWheel.Timeout<Deadline> warnTimer;
+        private HashedTimerWheel.Timeout<Deadline> blockTimer;
+
+        private DeviceUsage(String deviceMac) {
+            this.deviceMac = deviceMac;
+        }
+    }
+}
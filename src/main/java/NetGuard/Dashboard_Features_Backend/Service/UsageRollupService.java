@@ -0,0 +1,364 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.DTO.DeviceUsageTotal;
+import NetGuard.Dashboard_Features_Backend.DTO.HourOfDayUsageTotal;
+import NetGuard.Dashboard_Features_Backend.DTO.HourlyUsageDTO;
+import NetGuard.Dashboard_Features_Backend.Entity.AvailableNetwork;
+import NetGuard.Dashboard_Features_Backend.Entity.DeviceUsageRollup;
+import NetGuard.Dashboard_Features_Backend.Event.DeviceDataChangedEvent;
+import NetGuard.Dashboard_Features_Backend.Repository.AvailableNetworkRepository;
+import NetGuard.Dashboard_Features_Backend.Repository.DeviceUsageRollupRepository;
+import NetGuard.Dashboard_Features_Backend.Repository.NetworkUsageRollupRepository;
+import NetGuard.Dashboard_Features_Backend.Util.TimeBucketer;
+import NetGuard.Dashboard_Features_Backend.Util.UsageColumnStore;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Hourly usage rollups per device and per network.
+ * The connection accounting job reports how much each connection grew since its last pass and
+ * those deltas are added to the bucket of the hour they were observed in, so analytics over any
+ * range read a few hundred buckets instead of every raw connection row.
+ * The most recent window of device buckets is also held in a {@link UsageColumnStore}, and
+ * ranges inside it are aggregated in memory without touching the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UsageRollupService {
+
+    private final DeviceUsageRollupRepository deviceRollupRepository;
+    private final NetworkUsageRollupRepository networkRollupRepository;
+    private final AvailableNetworkRepository networkRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UsageSketchService usageSketchService;
+
+    private static final long HOURLY_BREAKDOWN_MAX_HOURS = 7 * 24;
+
+    @Value("${app.dashboard.rollups.memory-window-days:30}")
+    private int memoryWindowDays;
+
+    @Value("${app.dashboard.rollups.parallel-scan-rows:500000}")
+    private int parallelScanRows;
+
+    private UsageColumnStore columnStore;
+
+    /**
+     * Growth of one connection since the previous accounting pass
+     */
+    public record UsageDelta(String deviceMac, String deviceName, Long networkId, long bytes, long minutes) {
+    }
+
+    /**
+     * Runs before the scheduled accounting job starts, so no delta is counted twice
+     */
+    @PostConstruct
+    public void initialize() {
+        columnStore = new UsageColumnStore(memoryWindowDays);
+        backfillIfEmpty();
+        loadColumnStore();
+    }
+
+    // ==========================================
+    // INGEST
+    // ==========================================
+
+    /**
+     * Add one accounting pass worth of deltas to the current hour, in a single transaction.
+     * Joins the caller's transaction when there is one, so the rollups commit or roll back together
+     * with the connection rows the deltas came from; the in-memory copies only change after commit.
+     */
+    public synchronized void recordUsage(Collection<UsageDelta> deltas, LocalDateTime observedAt) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        LocalDateTime hourStart = observedAt.truncatedTo(ChronoUnit.HOURS);
+
+        // One signal sample per connection this pass
+        Set<Long> networkIds = deltas.stream()
+                .map(UsageDelta::networkId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Integer> signalByNetwork = new HashMap<>();
+        for (AvailableNetwork network : networkRepository.findAllById(networkIds)) {
+            if (network.getSignalStrength() != null) {
+                signalByNetwork.put(network.getId(), network.getSignalStrength());
+            }
+        }
+
+        Map<String, UsageTotals> byDevice = new HashMap<>();
+        Map<Long, UsageTotals> byNetwork = new HashMap<>();
+        for (UsageDelta delta : deltas) {
+            Integer signal = delta.networkId() != null ? signalByNetwork.get(delta.networkId()) : null;
+            UsageTotals device = byDevice.computeIfAbsent(delta.deviceMac(), mac -> new UsageTotals());
+            device.add(delta, signal);
+            if (delta.networkId() != null) {
+                byNetwork.computeIfAbsent(delta.networkId(), id -> new UsageTotals()).add(delta, signal);
+            }
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (Map.Entry<String, UsageTotals> entry : byDevice.entrySet()) {
+                UsageTotals totals = entry.getValue();
+                deviceRollupRepository.addUsage(entry.getKey(), totals.deviceName, hourStart,
+                        totals.bytes, totals.minutes, observedAt, totals.signalSum, totals.signalSamples);
+            }
+            for (Map.Entry<Long, UsageTotals> entry : byNetwork.entrySet()) {
+                UsageTotals totals = entry.getValue();
+                networkRollupRepository.addUsage(entry.getKey(), hourStart, totals.bytes, totals.minutes,
+                        totals.signalSum, totals.signalSamples);
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyCommitted(byDevice, hourStart, observedAt);
+                }
+            });
+        });
+    }
+
+    private void applyCommitted(Map<String, UsageTotals> byDevice, LocalDateTime hourStart, LocalDateTime observedAt) {
+        for (Map.Entry<String, UsageTotals> entry : byDevice.entrySet()) {
+            UsageTotals totals = entry.getValue();
+            columnStore.add(hourStart, entry.getKey(), totals.deviceName, totals.bytes, totals.minutes,
+                    totals.signalSum, totals.signalSamples, observedAt);
+        }
+        usageSketchService.recordDevices(byDevice.keySet(), observedAt);
+        eventPublisher.publishEvent(new DeviceDataChangedEvent(DeviceDataChangedEvent.Type.USAGE, null));
+    }
+
+    // ==========================================
+    // QUERIES - BUCKETS COVERING [from, to)
+    // ==========================================
+
+    public List<DeviceUsageTotal> getDeviceTotals(LocalDateTime from, LocalDateTime to) {
+        if (!columnStore.covers(from)) {
+            return deviceRollupRepository.sumByDevice(bucketStart(from), to);
+        }
+
+        UsageColumnStore.DeviceTotals totals = columnStore.deviceTotals(from, to, useParallelScan());
+        List<DeviceUsageTotal> devices = new ArrayList<>();
+        for (int id = 0; id < totals.capacity(); id++) {
+            if (totals.isPresent(id)) {
+                devices.add(new CachedDeviceUsage(totals.deviceMac(id), totals.deviceName(id),
+                        totals.bytes(id), totals.minutes(id), totals.lastSeenAt(id)));
+            }
+        }
+        return devices;
+    }
+
+    public long getTotalBytes(LocalDateTime from, LocalDateTime to) {
+        if (columnStore.covers(from)) {
+            return columnStore.hourOfDayTotals(from, to, useParallelScan()).totalBytes();
+        }
+        Long total = networkRollupRepository.sumBytes(bucketStart(from), to);
+        return total != null ? total : 0L;
+    }
+
+    /**
+     * Usage over the range: one entry per hour of the day for up to 24 hours, calendar hours for up
+     * to a week and calendar days beyond that, so a longer range never folds different days together
+     */
+    public List<HourlyUsageDTO> getUsageBreakdown(LocalDateTime from, LocalDateTime to) {
+        long hours = Duration.between(from, to).toHours();
+        if (hours <= 24) {
+            return getHourOfDayBreakdown(from, to);
+        }
+        return getCalendarBreakdown(from, to, hours <= HOURLY_BREAKDOWN_MAX_HOURS ? TimeBucketer.Unit.HOUR : TimeBucketer.Unit.DAY);
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    /**
+     * Usage for each hour of the day (0-23); within 24 hours each one is a single calendar hour
+     */
+    private List<HourlyUsageDTO> getHourOfDayBreakdown(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = bucketStart(from);
+        if (columnStore.covers(from)) {
+            UsageColumnStore.HourOfDayTotals totals = columnStore.hourOfDayTotals(from, to, useParallelScan());
+            List<HourlyUsageDTO> breakdown = new ArrayList<>(24);
+            for (int hour = 0; hour < 24; hour++) {
+                breakdown.add(new HourlyUsageDTO(hour, totals.bytes(hour), totals.deviceCount(hour),
+                        totals.averageSignal(hour), calendarHour(start, hour)));
+            }
+            return breakdown;
+        }
+
+        Map<Integer, HourOfDayUsageTotal> usageByHour = networkRollupRepository.sumByHourOfDay(start, to).stream()
+                .collect(Collectors.toMap(HourOfDayUsageTotal::getHourOfDay, total -> total));
+        Map<Integer, Integer> devicesByHour = new HashMap<>();
+        for (Object[] row : deviceRollupRepository.countDevicesByHourOfDay(start, to)) {
+            devicesByHour.put(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+        }
+
+        List<HourlyUsageDTO> breakdown = new ArrayList<>(24);
+        for (int hour = 0; hour < 24; hour++) {
+            HourOfDayUsageTotal usage = usageByHour.get(hour);
+            long bytes = usage != null && usage.getBytesUsed() != null ? usage.getBytesUsed() : 0L;
+            long samples = usage != null && usage.getSignalSamples() != null ? usage.getSignalSamples() : 0L;
+            double averageSignal = samples > 0 ? usage.getSignalSum().doubleValue() / samples : 0.0;
+            breakdown.add(new HourlyUsageDTO(hour, bytes, devicesByHour.getOrDefault(hour, 0), averageSignal,
+                    calendarHour(start, hour)));
+        }
+        return breakdown;
+    }
+
+    /**
+     * Hourly rows spread over calendar buckets of the server zone, which the rollup hours are recorded in
+     */
+    private List<HourlyUsageDTO> getCalendarBreakdown(LocalDateTime from, LocalDateTime to, TimeBucketer.Unit unit) {
+        ZoneId zone = ZoneId.systemDefault();
+        TimeBucketer bucketer = new TimeBucketer(unit, zone);
+        List<TimeBucketer.Session> sessions = new ArrayList<>();
+        Map<ZonedDateTime, Set<String>> devicesByBucket = new HashMap<>();
+        Map<ZonedDateTime, long[]> signalByBucket = new HashMap<>();
+
+        UsageColumnStore.RowVisitor visitor = (hourStart, deviceMac, bytes, signalSum, signalSamples) -> {
+            Instant start = hourStart.atZone(zone).toInstant();
+            sessions.add(new TimeBucketer.Session(start, start.plus(Duration.ofHours(1)), bytes));
+            ZonedDateTime bucket = bucketer.floor(start);
+            devicesByBucket.computeIfAbsent(bucket, key -> new HashSet<>()).add(deviceMac);
+            long[] signal = signalByBucket.computeIfAbsent(bucket, key -> new long[2]);
+            signal[0] += signalSum;
+            signal[1] += signalSamples;
+        };
+        if (columnStore.covers(from)) {
+            columnStore.forEachRow(from, to, visitor);
+        } else {
+            for (DeviceUsageRollup row : deviceRollupRepository.findByHourStartGreaterThanEqualAndHourStartLessThan(bucketStart(from), to)) {
+                visitor.visit(row.getHourStart(), row.getDeviceMac(), valueOf(row.getBytesUsed()),
+                        valueOf(row.getSignalSum()), valueOf(row.getSignalSamples()));
+            }
+        }
+
+        // Whole hours on both ends, so the first and the current hour are not prorated away
+        Instant rangeStart = bucketStart(from).atZone(zone).toInstant();
+        Instant rangeEnd = bucketStart(to).plusHours(to.equals(bucketStart(to)) ? 0 : 1).atZone(zone).toInstant();
+        List<HourlyUsageDTO> breakdown = new ArrayList<>();
+        for (TimeBucketer.Bucket bucket : bucketer.bucket(sessions, rangeStart, rangeEnd)) {
+            long[] signal = signalByBucket.get(bucket.start());
+            double averageSignal = signal != null && signal[1] > 0 ? (double) signal[0] / signal[1] : 0.0;
+            breakdown.add(new HourlyUsageDTO(bucket.start().getHour(), bucket.bytes(),
+                    devicesByBucket.getOrDefault(bucket.start(), Set.of()).size(), averageSignal,
+                    bucket.start().toLocalDateTime()));
+        }
+        return breakdown;
+    }
+
+    private LocalDateTime calendarHour(LocalDateTime start, int hourOfDay) {
+        return start.plusHours(Math.floorMod(hourOfDay - start.getHour(), 24));
+    }
+
+    /**
+     * Seed empty rollup tables from the connection rows already on disk
+     */
+    private void backfillIfEmpty() {
+        try {
+            if (deviceRollupRepository.count() > 0 || networkRollupRepository.count() > 0) {
+                return;
+            }
+            int[] seeded = new TransactionTemplate(transactionManager).execute(status -> new int[]{
+                    deviceRollupRepository.backfillFromConnections(),
+                    networkRollupRepository.backfillFromConnections()
+            });
+            log.info("✅ Seeded usage rollups: {} device hours, {} network hours", seeded[0], seeded[1]);
+        } catch (Exception e) {
+            log.error("❌ Could not seed usage rollups: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Warm the column store with the window's device buckets; until this succeeds every query
+     * falls back to the rollup tables
+     */
+    private void loadColumnStore() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime from = now.minusDays(memoryWindowDays).truncatedTo(ChronoUnit.HOURS);
+            List<DeviceUsageRollup> rows = deviceRollupRepository.findByHourStartGreaterThanEqualOrderByHourStartAsc(from);
+            for (DeviceUsageRollup row : rows) {
+                columnStore.add(row.getHourStart(), row.getDeviceMac(), row.getDeviceName(),
+                        valueOf(row.getBytesUsed()), valueOf(row.getConnectedMinutes()),
+                        valueOf(row.getSignalSum()), valueOf(row.getSignalSamples()), row.getLastSeenAt());
+            }
+            columnStore.markLoaded(now);
+            log.info("✅ Loaded {} hourly usage rows ({} days) into memory", rows.size(), memoryWindowDays);
+        } catch (Exception e) {
+            log.error("❌ Could not load usage rollups into memory: {}", e.getMessage());
+        }
+    }
+
+    private boolean useParallelScan() {
+        return columnStore.rowCount() >= parallelScanRows;
+    }
+
+    private LocalDateTime bucketStart(LocalDateTime from) {
+        return from.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static long valueOf(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    /**
+     * Running sums for one device or network within an accounting pass
+     */
+    private static final class UsageTotals {
+        String deviceName;
+        long bytes;
+        long minutes;
+        long signalSum;
+        long signalSamples;
+
+        void add(UsageDelta delta, Integer signal) {
+            if (delta.deviceName() != null) {
+                deviceName = delta.deviceName();
+            }
+            bytes += delta.bytes();
+            minutes += delta.minutes();
+            if (signal != null) {
+                signalSum += signal;
+                signalSamples++;
+            }
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static final class CachedDeviceUsage implements DeviceUsageTotal {
+        private final String deviceMac;
+        private final String deviceName;
+        private final Long bytesUsed;
+        private final Long connectedMinutes;
+        private final LocalDateTime lastSeenAt;
+    }
+}
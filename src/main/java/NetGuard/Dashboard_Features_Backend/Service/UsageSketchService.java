@@ -0,0 +1,231 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.DTO.UsageSketchSummaryDTO;
+import NetGuard.Dashboard_Features_Backend.Entity.DailyUsageSketch;
+import NetGuard.Dashboard_Features_Backend.Repository.DailyUsageSketchRepository;
+import NetGuard.Dashboard_Features_Backend.Util.HyperLogLog;
+import NetGuard.Dashboard_Features_Backend.Util.TDigest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Daily usage sketches: per-device screen time and active session lengths go into t-digests,
+ * and every device seen by the accounting job into a HyperLogLog, one set per calendar day.
+ * Recorded values accumulate in memory and are merged into the stored day on each flush;
+ * a range query merges one fixed-size sketch per day, so its cost does not grow with the
+ * number of sessions or devices behind it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UsageSketchService {
+
+    public static final int MAX_RANGE_DAYS = 400;
+
+    private final DailyUsageSketchRepository sketchRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.dashboard.analytics.zone:${app.dashboard.time-limits.zone:}}")
+    private String zoneName;
+
+    private ZoneId zone;
+
+    // Values recorded since the last flush, by day; guarded by this
+    private Map<LocalDate, DaySketches> pending = new HashMap<>();
+
+    // Held across a whole flush or query so a query never sees a day both stored and pending
+    private final Object flushLock = new Object();
+
+    private static final class DaySketches {
+        private final TDigest screenTime = new TDigest();
+        private final TDigest sessions = new TDigest();
+        private final HyperLogLog devices = new HyperLogLog();
+
+        private void merge(DaySketches other) {
+            screenTime.merge(other.screenTime);
+            sessions.merge(other.sessions);
+            devices.merge(other.devices);
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        zone = zoneName == null || zoneName.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zoneName);
+    }
+
+    // ==========================================
+    // INGEST
+    // ==========================================
+
+    /**
+     * An active-use session that ended at {@code endedAt}
+     */
+    public synchronized void recordSession(long lengthMillis, Instant endedAt) {
+        if (lengthMillis <= 0) {
+            return;
+        }
+        day(LocalDate.ofInstant(endedAt, zone)).sessions.add(lengthMillis / 60_000.0);
+    }
+
+    /**
+     * Final screen time of each device that was active on {@code day}
+     */
+    public synchronized void recordDailyScreenTime(LocalDate day, Map<String, Long> millisByDevice) {
+        DaySketches sketches = day(day);
+        for (long millis : millisByDevice.values()) {
+            if (millis > 0) {
+                sketches.screenTime.add(millis / 60_000.0);
+            }
+        }
+    }
+
+    /**
+     * Devices seen by an accounting pass; {@code observedAt} is server local time
+     */
+    public synchronized void recordDevices(Collection<String> deviceMacs, LocalDateTime observedAt) {
+        LocalDate day = observedAt.atZone(ZoneId.systemDefault()).withZoneSameInstant(zone).toLocalDate();
+        HyperLogLog devices = day(day).devices;
+        for (String deviceMac : deviceMacs) {
+            devices.add(deviceMac);
+        }
+    }
+
+    /**
+     * Merge pending values into the stored sketches
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.sketches.flush-interval-ms:60000}")
+    public void flush() {
+        synchronized (flushLock) {
+            Map<LocalDate, DaySketches> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new HashMap<>();
+            }
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    for (Map.Entry<LocalDate, DaySketches> entry : batch.entrySet()) {
+                        DailyUsageSketch row = sketchRepository.findById(entry.getKey()).orElse(null);
+                        DaySketches merged = new DaySketches();
+                        if (row == null) {
+                            row = new DailyUsageSketch();
+                            row.setSketchDay(entry.getKey());
+                        } else {
+                            merged = fromRow(row);
+                        }
+                        merged.merge(entry.getValue());
+                        row.setScreenTimeDigest(merged.screenTime.toBytes());
+                        row.setSessionDigest(merged.sessions.toBytes());
+                        row.setDeviceSketch(merged.devices.toBytes());
+                        row.setUpdatedAt(LocalDateTime.now());
+                        sketchRepository.save(row);
+                    }
+                });
+                log.debug("Flushed usage sketches for {} day(s)", batch.size());
+            } catch (Exception e) {
+                // Keep the values for the next attempt; sketches merge in any order
+                synchronized (this) {
+                    batch.forEach((day, sketches) -> day(day).merge(sketches));
+                }
+                log.error("❌ Error persisting usage sketches: ", e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // ==========================================
+    // QUERIES
+    // ==========================================
+
+    /**
+     * Screen time and session length quantiles and distinct devices for the days [from, to]
+     */
+    public UsageSketchSummaryDTO getSummary(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+
+        DaySketches total = new DaySketches();
+        Set<LocalDate> days = new HashSet<>();
+        synchronized (flushLock) {
+            for (DailyUsageSketch row : sketchRepository.findBySketchDayBetween(from, to)) {
+                total.merge(fromRow(row));
+                days.add(row.getSketchDay());
+            }
+            synchronized (this) {
+                for (Map.Entry<LocalDate, DaySketches> entry : pending.entrySet()) {
+                    if (!entry.getKey().isBefore(from) && !entry.getKey().isAfter(to)) {
+                        total.merge(entry.getValue());
+                        days.add(entry.getKey());
+                    }
+                }
+            }
+        }
+
+        return new UsageSketchSummaryDTO(from, to, days.size(),
+                total.screenTime.size(), quantile(total.screenTime, 0.5), quantile(total.screenTime, 0.95),
+                total.sessions.size(), quantile(total.sessions, 0.5), quantile(total.sessions, 0.95),
+                total.devices.cardinality());
+    }
+
+    /**
+     * Today in the analytics zone
+     */
+    public LocalDate today() {
+        return LocalDate.now(zone);
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private DaySketches day(LocalDate day) {
+        return pending.computeIfAbsent(day, d -> new DaySketches());
+    }
+
+    private DaySketches fromRow(DailyUsageSketch row) {
+        DaySketches sketches = new DaySketches();
+        if (row.getScreenTimeDigest() != null) {
+            sketches.screenTime.merge(TDigest.fromBytes(row.getScreenTimeDigest()));
+        }
+        if (row.getSessionDigest() != null) {
+            sketches.sessions.merge(TDigest.fromBytes(row.getSessionDigest()));
+        }
+        if (row.getDeviceSketch() != null) {
+            sketches.devices.merge(HyperLogLog.fromBytes(row.getDeviceSketch()));
+        }
+        return sketches;
+    }
+
+    private Double quantile(TDigest digest, double q) {
+        double value = digest.quantile(q);
+        return Double.isNaN(value) ? null : Math.round(value * 10) / 10.0;
+    }
+}
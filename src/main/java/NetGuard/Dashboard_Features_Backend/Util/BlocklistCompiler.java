@@ -0,0 +1,175 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Offline compiler from plain domain lists to the {@link CompiledBlocklist} binary format.
+ * Accepts one domain per line, hosts-file lines ("0.0.0.0 ads.example.com"), '#' comments and
+ * "*." wildcard prefixes. Output is written to a temp file and atomically moved into place so
+ * a running server never maps a half-written list.
+ * <pre>
+ * java -cp netguard.jar NetGuard.Dashboard_Features_Backend.Util.BlocklistCompiler \
+ *     out/kids.ngbl lists/adult.txt lists/gambling.txt
+ * </pre>
+ */
+public final class BlocklistCompiler {
+
+    public static final String FILE_EXTENSION = ".ngbl";
+
+    // Aim for ~16 hashes per bucket so lookups finish in four comparisons
+    private static final int TARGET_BUCKET_SIZE = 16;
+    private static final int MAX_BUCKET_BITS = 24;
+
+    private BlocklistCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BlocklistCompiler <output" + FILE_EXTENSION + "> <domain-list>...");
+            System.exit(2);
+        }
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            inputs.add(Paths.get(args[i]));
+        }
+        long startedAt = System.nanoTime();
+        int count = compile(inputs, Paths.get(args[0]));
+        System.out.printf("Compiled %d unique domains into %s in %d ms%n",
+                count, args[0], (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /**
+     * Compile the given lists into one blocklist file and return the number of unique domains
+     */
+    public static int compile(List<Path> inputs, Path output) throws IOException {
+        long[] hashes = new long[1 << 16];
+        int count = 0;
+        for (Path input : inputs) {
+            try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String domain = normalize(line);
+                    if (domain == null) continue;
+                    if (count == hashes.length) {
+                        hashes = Arrays.copyOf(hashes, hashes.length * 2);
+                    }
+                    hashes[count++] = CompiledBlocklist.hashDomain(domain);
+                }
+            }
+        }
+        int unique = sortUniqueUnsigned(hashes, count);
+        write(hashes, unique, output);
+        return unique;
+    }
+
+    /**
+     * Lowercase domain from a list line, or null for blanks, comments and non-domain entries
+     */
+    static String normalize(String line) {
+        int comment = line.indexOf('#');
+        String entry = (comment >= 0 ? line.substring(0, comment) : line).trim();
+        if (entry.isEmpty()) {
+            return null;
+        }
+        int separator = Math.max(entry.lastIndexOf(' '), entry.lastIndexOf('\t'));
+        if (separator >= 0) {
+            entry = entry.substring(separator + 1);
+        }
+        if (entry.startsWith("*.")) {
+            entry = entry.substring(2);
+        } else if (entry.startsWith(".")) {
+            entry = entry.substring(1);
+        }
+        while (entry.endsWith(".")) {
+            entry = entry.substring(0, entry.length() - 1);
+        }
+        if (entry.isEmpty() || entry.equals("localhost") || entry.indexOf('/') >= 0) {
+            return null;
+        }
+        return entry.toLowerCase(Locale.ROOT);
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private static int sortUniqueUnsigned(long[] hashes, int count) {
+        // Flipping the sign bit makes signed order match unsigned order
+        for (int i = 0; i < count; i++) {
+            hashes[i] ^= Long.MIN_VALUE;
+        }
+        Arrays.sort(hashes, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || hashes[i] != hashes[unique - 1]) {
+                hashes[unique++] = hashes[i];
+            }
+        }
+        for (int i = 0; i < unique; i++) {
+            hashes[i] ^= Long.MIN_VALUE;
+        }
+        return unique;
+    }
+
+    private static void write(long[] hashes, int count, Path output) throws IOException {
+        int bucketBits = bucketBits(count);
+        int buckets = 1 << bucketBits;
+        int[] bucketStarts = new int[buckets + 1];
+        int position = 0;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            bucketStarts[bucket] = position;
+            while (position < count && bucketOf(hashes[position], bucketBits) == bucket) {
+                position++;
+            }
+        }
+        bucketStarts[buckets] = count;
+
+        Path absolute = output.toAbsolutePath();
+        if (absolute.getParent() != null) {
+            Files.createDirectories(absolute.getParent());
+        }
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(CompiledBlocklist.MAGIC);
+                out.writeInt(CompiledBlocklist.VERSION);
+                out.writeInt(count);
+                out.writeInt(bucketBits);
+                for (int start : bucketStarts) {
+                    out.writeInt(start);
+                }
+                for (int i = 0; i < count; i++) {
+                    out.writeLong(hashes[i]);
+                }
+            }
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static int bucketBits(int count) {
+        int bits = 0;
+        while (bits < MAX_BUCKET_BITS && ((long) TARGET_BUCKET_SIZE << bits) < count) {
+            bits++;
+        }
+        return bits;
+    }
+
+    private static int bucketOf(long hash, int bucketBits) {
+        return bucketBits == 0 ? 0 : (int) (hash >>> (64 - bucketBits));
+    }
+}
@@ -0,0 +1,126 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache-line blocked Bloom filter over pre-mixed 64-bit hashes.
+ * The top hash bits choose one 512-bit block and every probe for a key stays inside it, so a
+ * "definitely not listed" answer costs a single cache miss. Sized from the expected cardinality
+ * with a little headroom for the accuracy lost to blocking.
+ */
+public final class BloomFilter {
+
+    private static final int BLOCK_LONGS = 8;          // 512 bits = one cache line
+    private static final int BLOCK_BITS = BLOCK_LONGS * Long.SIZE;
+    private static final double BLOCKING_OVERHEAD = 1.2;
+    private static final int MAX_BLOCK_SHIFT = 26;
+
+    private final long[] words;
+    private final int blockShift;
+    private final int hashCount;
+
+    private BloomFilter(int blockShift, int hashCount) {
+        this.blockShift = blockShift;
+        this.hashCount = hashCount;
+        this.words = new long[(1 << blockShift) * BLOCK_LONGS];
+    }
+
+    /**
+     * Filter sized for {@code expectedEntries} at roughly {@code falsePositiveRate}
+     */
+    public static BloomFilter forCardinality(long expectedEntries, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be in (0, 1): " + falsePositiveRate);
+        }
+        long entries = Math.max(1, expectedEntries);
+        double bitsPerEntry = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)) * BLOCKING_OVERHEAD;
+        long bits = (long) Math.ceil(entries * bitsPerEntry);
+        int blockShift = 0;
+        while (blockShift < MAX_BLOCK_SHIFT && ((long) BLOCK_BITS << blockShift) < bits) {
+            blockShift++;
+        }
+        int hashCount = (int) Math.max(1, Math.min(16, Math.round(bitsPerEntry / BLOCKING_OVERHEAD * Math.log(2))));
+        return new BloomFilter(blockShift, hashCount);
+    }
+
+    public void put(long hash) {
+        int base = block(hash);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (h1 + i * h2) & (BLOCK_BITS - 1);
+            words[base + (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * False means the hash was never added; true means it probably was
+     */
+    public boolean mightContain(long hash) {
+        int base = block(hash);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (h1 + i * h2) & (BLOCK_BITS - 1);
+            if ((words[base + (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return (long) words.length * Long.SIZE;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    private int block(long hash) {
+        // Top bits pick the block; the low 64 bits drive the in-block probes
+        return blockShift == 0 ? 0 : (int) (hash >>> (64 - blockShift)) * BLOCK_LONGS;
+    }
+
+    /**
+     * Outcome counters for a filter placed in front of an exact lookup
+     */
+    public static final class Stats {
+
+        private final LongAdder definiteMisses = new LongAdder();
+        private final LongAdder maybeHits = new LongAdder();
+        private final LongAdder falsePositives = new LongAdder();
+
+        public void recordDefiniteMiss() {
+            definiteMisses.increment();
+        }
+
+        public void recordMaybeHit(boolean confirmed) {
+            maybeHits.increment();
+            if (!confirmed) {
+                falsePositives.increment();
+            }
+        }
+
+        public long getDefiniteMisses() {
+            return definiteMisses.sum();
+        }
+
+        public long getMaybeHits() {
+            return maybeHits.sum();
+        }
+
+        public long getFalsePositives() {
+            return falsePositives.sum();
+        }
+
+        /**
+         * Observed share of unlisted keys that still passed the filter
+         */
+        public double getObservedFalsePositiveRate() {
+            long falsePositiveCount = getFalsePositives();
+            long negatives = getDefiniteMisses() + falsePositiveCount;
+            return negatives == 0 ? 0.0 : (double) falsePositiveCount / negatives;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-capacity, lock-free ring buffer that keeps the most recent items.
+ * Writers claim a sequence number and overwrite the oldest slot, so adding is O(1)
+ * and never copies the backing array. Readers take a best-effort newest-first snapshot.
+ */
+public class BoundedRingBuffer<T> {
+
+    private final AtomicReferenceArray<Slot<T>> slots;
+    private final AtomicLong sequence = new AtomicLong();
+    private final int capacity;
+
+    public BoundedRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ring buffer capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Add an item, overwriting the oldest one when the buffer is full
+     */
+    public void add(T item) {
+        long seq = sequence.getAndIncrement();
+        slots.set((int) (seq % capacity), new Slot<>(seq, item));
+    }
+
+    /**
+     * Snapshot of up to {@code limit} items, newest first
+     */
+    public List<T> newestFirst(int limit) {
+        long end = sequence.get();
+        long start = Math.max(0, end - Math.min(limit, capacity));
+        List<T> items = new ArrayList<>((int) (end - start));
+
+        for (long seq = end - 1; seq >= start; seq--) {
+            Slot<T> slot = slots.get((int) (seq % capacity));
+            // Skip slots a writer has claimed but not yet published, or already lapped
+            if (slot != null && slot.sequence == seq) {
+                items.add(slot.item);
+            }
+        }
+        return items;
+    }
+
+    public List<T> newestFirst() {
+        return newestFirst(capacity);
+    }
+
+    /**
+     * Total number of items ever added
+     */
+    public long totalAdded() {
+        return sequence.get();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private record Slot<T>(long sequence, T item) {
+    }
+}
@@ -0,0 +1,24 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Runs an external command. Kept behind an interface so enforcement code can be exercised
+ * against a fake in tests instead of a real kernel.
+ */
+public interface CommandRunner {
+
+    /**
+     * Run {@code command} (no shell), optionally feeding {@code stdin}, and wait up to {@code timeout}
+     */
+    Result run(List<String> command, String stdin, Duration timeout) throws IOException;
+
+    record Result(int exitCode, String stdout, String stderr) {
+
+        public boolean isSuccess() {
+            return exitCode == 0;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view of a blocklist produced by {@link BlocklistCompiler}.
+ * <p>
+ * File layout (big-endian):
+ * <pre>
+ * int    magic "NGBL"
+ * int    format version
+ * int    domain count N
+ * int    bucket bits B
+ * int[2^B + 1] bucket start offsets into the hash array
+ * long[N] 64-bit domain hashes, sorted unsigned
+ * </pre>
+ * Domains are hashed right to left so one backwards pass over a host yields the hash of every
+ * suffix ("a.b.example.com", "b.example.com", "example.com", "com") without allocation.
+ * The top B hash bits pick a bucket and a short binary search finishes the lookup.
+ * An optional on-heap {@link BloomFilter} answers most misses before the mapped pages are touched.
+ */
+public final class CompiledBlocklist {
+
+    public static final int MAGIC = 0x4E47424C; // "NGBL"
+    public static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private final Path source;
+    private final ByteBuffer buffer;
+    private final int domainCount;
+    private final int bucketBits;
+    private final int hashesOffset;
+    private final BloomFilter filter;
+    private final BloomFilter.Stats filterStats;
+
+    private CompiledBlocklist(Path source, ByteBuffer buffer, double filterFalsePositiveRate, BloomFilter.Stats filterStats) {
+        this.source = source;
+        this.buffer = buffer;
+        this.filterStats = filterStats;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a compiled blocklist: " + source);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported blocklist version " + buffer.getInt(4) + " in " + source);
+        }
+        this.domainCount = buffer.getInt(8);
+        this.bucketBits = buffer.getInt(12);
+        this.hashesOffset = HEADER_BYTES + ((1 << bucketBits) + 1) * Integer.BYTES;
+        if (bucketBits < 0 || bucketBits > 30 || hashesOffset + (long) domainCount * Long.BYTES != buffer.capacity()) {
+            throw new IllegalArgumentException("Corrupt blocklist header in " + source);
+        }
+        this.filter = filterFalsePositiveRate > 0 ? buildFilter(filterFalsePositiveRate) : null;
+    }
+
+    /**
+     * Map a compiled blocklist file read-only. The mapping stays valid after the channel closes.
+     */
+    public static CompiledBlocklist open(Path file) throws IOException {
+        return open(file, 0, new BloomFilter.Stats());
+    }
+
+    /**
+     * Map a compiled blocklist and build a Bloom pre-check sized from its domain count.
+     * A non-positive false positive rate disables the filter.
+     */
+    public static CompiledBlocklist open(Path file, double filterFalsePositiveRate, BloomFilter.Stats filterStats) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new CompiledBlocklist(file, mapped, filterFalsePositiveRate, filterStats);
+        }
+    }
+
+    /**
+     * True if the host of {@code url}, or any parent domain of it, is listed
+     */
+    public boolean containsHostOf(CharSequence url) {
+        int start = UrlHost.start(url);
+        return containsSuffix(url, start, UrlHost.end(url, start));
+    }
+
+    /**
+     * True if host[start, end) or any parent domain of it is listed. Case-insensitive.
+     */
+    public boolean containsSuffix(CharSequence host, int start, int end) {
+        while (end > start && host.charAt(end - 1) == '.') {
+            end--;
+        }
+        long hash = FNV_OFFSET;
+        for (int i = end - 1; i >= start; i--) {
+            char c = host.charAt(i);
+            if (c == '.') {
+                continue;
+            }
+            hash = step(hash, c);
+            if ((i == start || host.charAt(i - 1) == '.') && probe(finish(hash))) {
+                return true;
+            }
+            // Keep the separator in the hash so "ab.c" and "a.bc" differ
+            if (i > start && host.charAt(i - 1) == '.') {
+                hash = step(hash, '.');
+            }
+        }
+        return false;
+    }
+
+    public boolean containsHash(long hash) {
+        int bucket = bucketBits == 0 ? 0 : (int) (hash >>> (64 - bucketBits));
+        int low = buffer.getInt(HEADER_BYTES + bucket * Integer.BYTES);
+        int high = buffer.getInt(HEADER_BYTES + (bucket + 1) * Integer.BYTES) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Long.compareUnsigned(buffer.getLong(hashesOffset + mid * Long.BYTES), hash);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return domainCount;
+    }
+
+    public boolean hasFilter() {
+        return filter != null;
+    }
+
+    public long getFilterBits() {
+        return filter == null ? 0 : filter.bitSize();
+    }
+
+    public Path getSource() {
+        return source;
+    }
+
+    /**
+     * Hash a normalized domain exactly as {@link #containsSuffix} hashes its suffixes
+     */
+    public static long hashDomain(CharSequence domain) {
+        long hash = FNV_OFFSET;
+        for (int i = domain.length() - 1; i >= 0; i--) {
+            hash = step(hash, domain.charAt(i));
+        }
+        return finish(hash);
+    }
+
+    private boolean probe(long hash) {
+        if (filter == null) {
+            return containsHash(hash);
+        }
+        if (!filter.mightContain(hash)) {
+            filterStats.recordDefiniteMiss();
+            return false;
+        }
+        boolean listed = containsHash(hash);
+        filterStats.recordMaybeHit(listed);
+        return listed;
+    }
+
+    private BloomFilter buildFilter(double falsePositiveRate) {
+        BloomFilter bloom = BloomFilter.forCardinality(domainCount, falsePositiveRate);
+        for (int i = 0; i < domainCount; i++) {
+            bloom.put(buffer.getLong(hashesOffset + i * Long.BYTES));
+        }
+        return bloom;
+    }
+
+    private static long step(long hash, char c) {
+        char lower = c >= 'A' && c <= 'Z' ? (char) (c + 32) : c;
+        return (hash ^ lower) * FNV_PRIME;
+    }
+
+    // Spread FNV output so the top bits make good bucket indexes
+    private static long finish(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,137 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Space-Saving heavy-hitter sketch with forward exponential decay.
+ * <p>
+ * Keeps at most {@code capacity} counters, so memory is fixed no matter how many distinct keys
+ * are offered. When full, a new key takes over the smallest counter and inherits its count as
+ * the error bound. Each hit adds {@code 2^((now - landmark) / halfLife)} instead of 1, which
+ * weighs recent hits more while leaving relative order untouched as time passes; the landmark
+ * moves forward and all counters are rescaled before the weights can overflow. Counters stay
+ * sorted by weight, so reading the top K is O(K).
+ */
+public final class DecayingTopK {
+
+    // Rescale well before 2^x overflows a double
+    private static final double RESCALE_THRESHOLD = Math.pow(2, 512);
+
+    private final int capacity;
+    private final double halfLifeMillis;
+    private final String[] keys;
+    private final double[] weights;
+    private final double[] errors;
+    private int size;
+    private long landmarkMillis;
+
+    public DecayingTopK(int capacity, long halfLifeMillis, long nowMillis) {
+        if (capacity <= 0 || halfLifeMillis <= 0) {
+            throw new IllegalArgumentException("Capacity and half-life must be positive");
+        }
+        this.capacity = capacity;
+        this.halfLifeMillis = halfLifeMillis;
+        this.keys = new String[capacity];
+        this.weights = new double[capacity];
+        this.errors = new double[capacity];
+        this.landmarkMillis = nowMillis;
+    }
+
+    /**
+     * Record one occurrence of {@code key} at {@code nowMillis}
+     */
+    public synchronized void offer(String key, long nowMillis) {
+        double weight = weightAt(nowMillis);
+        if (weight > RESCALE_THRESHOLD) {
+            rescale(nowMillis);
+            weight = weightAt(nowMillis);
+        }
+
+        int index = indexOf(key);
+        if (index < 0) {
+            if (size < capacity) {
+                index = size++;
+                keys[index] = key;
+                weights[index] = 0;
+                errors[index] = 0;
+            } else {
+                // Evict the smallest counter; its count becomes the newcomer's overestimate
+                index = size - 1;
+                keys[index] = key;
+                errors[index] = weights[index];
+            }
+        }
+        weights[index] += weight;
+        moveUp(index);
+    }
+
+    /**
+     * Up to {@code limit} keys, heaviest first
+     */
+    public synchronized List<String> topKeys(int limit) {
+        int count = Math.min(limit, size);
+        List<String> top = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            top.add(keys[i]);
+        }
+        return top;
+    }
+
+    /**
+     * Decayed count estimate for {@code key} as of {@code nowMillis}, or 0 if not tracked
+     */
+    public synchronized double estimate(String key, long nowMillis) {
+        int index = indexOf(key);
+        return index < 0 ? 0 : weights[index] / weightAt(nowMillis);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private int indexOf(String key) {
+        for (int i = 0; i < size; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void moveUp(int index) {
+        String key = keys[index];
+        double weight = weights[index];
+        double error = errors[index];
+        while (index > 0 && weights[index - 1] < weight) {
+            keys[index] = keys[index - 1];
+            weights[index] = weights[index - 1];
+            errors[index] = errors[index - 1];
+            index--;
+        }
+        keys[index] = key;
+        weights[index] = weight;
+        errors[index] = error;
+    }
+
+    private double weightAt(long nowMillis) {
+        return Math.pow(2, (nowMillis - landmarkMillis) / halfLifeMillis);
+    }
+
+    private void rescale(long nowMillis) {
+        double factor = weightAt(nowMillis);
+        for (int i = 0; i < size; i++) {
+            weights[i] /= factor;
+            errors[i] /= factor;
+        }
+        landmarkMillis = nowMillis;
+    }
+}
@@ -0,0 +1,91 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TTL-honoring cache of raw upstream DNS responses keyed by question.
+ * Served copies carry the caller's transaction ID and TTLs reduced by the time spent in cache.
+ */
+public class DnsAnswerCache {
+
+    private static final long MAX_TTL_SECONDS = 86_400;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public DnsAnswerCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Cached response for the question, or null when absent or expired
+     */
+    public byte[] get(DnsMessage.Question question, int transactionId, long nowNanos) {
+        Key key = new Key(question.name(), question.type(), question.dnsClass());
+        Entry entry = entries.get(key);
+        if (entry == null || nowNanos >= entry.expiresAtNanos) {
+            if (entry != null) {
+                entries.remove(key, entry);
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+
+        byte[] response = Arrays.copyOf(entry.response, entry.response.length);
+        DnsMessage.setId(response, transactionId);
+        DnsMessage.decrementTtls(response, response.length, (nowNanos - entry.storedAtNanos) / 1_000_000_000L);
+        hits.incrementAndGet();
+        return response;
+    }
+
+    /**
+     * Store an upstream response if it is cacheable (NOERROR/NXDOMAIN, not truncated, positive TTL)
+     */
+    public void put(DnsMessage.Question question, byte[] response, int length, long nowNanos) {
+        int rcode = DnsMessage.getRcode(response);
+        if (DnsMessage.isTruncated(response)
+                || (rcode != DnsMessage.RCODE_NOERROR && rcode != DnsMessage.RCODE_NXDOMAIN)) {
+            return;
+        }
+        long ttl = Math.min(DnsMessage.minimumTtl(response, length), MAX_TTL_SECONDS);
+        if (ttl <= 0) {
+            return;
+        }
+
+        if (entries.size() >= maxEntries) {
+            evictExpired(nowNanos);
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        entries.put(new Key(question.name(), question.type(), question.dnsClass()),
+                new Entry(Arrays.copyOf(response, length), nowNanos, nowNanos + ttl * 1_000_000_000L));
+    }
+
+    public void evictExpired(long nowNanos) {
+        entries.values().removeIf(entry -> nowNanos >= entry.expiresAtNanos);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private record Key(String name, int type, int dnsClass) {
+    }
+
+    private record Entry(byte[] response, long storedAtNanos, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,273 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Minimal DNS wire-format helpers (RFC 1035) used by the embedded forwarder.
+ * Only what forwarding needs: read the question, find the cacheable TTL,
+ * patch transaction IDs and TTLs in place, and list answered addresses.
+ */
+public final class DnsMessage {
+
+    public static final int HEADER_LENGTH = 12;
+    public static final int DEFAULT_UDP_PAYLOAD = 512;
+    public static final int TYPE_A = 1;
+    public static final int TYPE_SOA = 6;
+    public static final int TYPE_AAAA = 28;
+    public static final int TYPE_OPT = 41;
+    public static final int RCODE_NOERROR = 0;
+    public static final int RCODE_NXDOMAIN = 3;
+
+    private DnsMessage() {
+    }
+
+    public record Question(String name, int type, int dnsClass, int endOffset) {
+    }
+
+    public static int getId(byte[] msg) {
+        return readUnsignedShort(msg, 0);
+    }
+
+    public static void setId(byte[] msg, int id) {
+        writeShort(msg, 0, id);
+    }
+
+    public static boolean isResponse(byte[] msg) {
+        return (msg[2] & 0x80) != 0;
+    }
+
+    public static boolean isTruncated(byte[] msg) {
+        return (msg[2] & 0x02) != 0;
+    }
+
+    public static int getRcode(byte[] msg) {
+        return msg[3] & 0x0F;
+    }
+
+    /**
+     * Parse the first question; returns null when the message is malformed or has no question
+     */
+    public static Question readQuestion(byte[] msg, int length) {
+        if (length < HEADER_LENGTH || readUnsignedShort(msg, 4) == 0) {
+            return null;
+        }
+        StringBuilder name = new StringBuilder();
+        int offset = readName(msg, length, HEADER_LENGTH, name);
+        if (offset < 0 || offset + 4 > length) {
+            return null;
+        }
+        return new Question(name.toString(), readUnsignedShort(msg, offset), readUnsignedShort(msg, offset + 2), offset + 4);
+    }
+
+    /**
+     * True when the header and every question and record fit inside {@code length} bytes
+     */
+    public static boolean isWellFormed(byte[] msg, int length) {
+        return length >= HEADER_LENGTH && length <= msg.length && walkRecords(msg, length, (type, ttlOffset) -> { });
+    }
+
+    /**
+     * Largest UDP response the sender of this query accepts: its EDNS0 OPT payload size, at least 512
+     */
+    public static int udpPayloadLimit(byte[] query, int length) {
+        if (length < HEADER_LENGTH) {
+            return DEFAULT_UDP_PAYLOAD;
+        }
+        int questions = readUnsignedShort(query, 4);
+        int records = readUnsignedShort(query, 6) + readUnsignedShort(query, 8) + readUnsignedShort(query, 10);
+        int offset = HEADER_LENGTH;
+        for (int i = 0; i < questions; i++) {
+            offset = skipName(query, length, offset);
+            if (offset < 0 || offset + 4 > length) {
+                return DEFAULT_UDP_PAYLOAD;
+            }
+            offset += 4;
+        }
+        for (int i = 0; i < records; i++) {
+            offset = skipName(query, length, offset);
+            if (offset < 0 || offset + 10 > length) {
+                return DEFAULT_UDP_PAYLOAD;
+            }
+            // An OPT record carries the requester's UDP payload size in its CLASS field
+            if (readUnsignedShort(query, offset) == TYPE_OPT) {
+                return Math.max(DEFAULT_UDP_PAYLOAD, readUnsignedShort(query, offset + 2));
+            }
+            offset += 10 + readUnsignedShort(query, offset + 8);
+        }
+        return DEFAULT_UDP_PAYLOAD;
+    }
+
+    /**
+     * Header and question of a response with TC set and no records, telling the client to retry over TCP
+     */
+    public static byte[] truncate(byte[] msg, int length) {
+        Question question = readQuestion(msg, length);
+        byte[] truncated = Arrays.copyOf(msg, question != null ? question.endOffset() : HEADER_LENGTH);
+        truncated[2] |= 0x02;
+        writeShort(truncated, 4, question != null ? 1 : 0);
+        writeShort(truncated, 6, 0);
+        writeShort(truncated, 8, 0);
+        writeShort(truncated, 10, 0);
+        return truncated;
+    }
+
+    /**
+     * Smallest TTL across the answer, authority and additional sections (OPT excluded),
+     * i.e. how long the whole response may be cached. Returns -1 if there is nothing to cache by.
+     */
+    public static long minimumTtl(byte[] msg, int length) {
+        long[] min = {Long.MAX_VALUE};
+        boolean ok = walkRecords(msg, length, (type, ttlOffset) -> {
+            long ttl = readUnsignedInt(msg, ttlOffset);
+            if (ttl < min[0]) {
+                min[0] = ttl;
+            }
+        });
+        return ok && min[0] != Long.MAX_VALUE ? min[0] : -1;
+    }
+
+    /**
+     * Subtract elapsed seconds from every record TTL (never below zero)
+     */
+    public static void decrementTtls(byte[] msg, int length, long elapsedSeconds) {
+        if (elapsedSeconds <= 0) {
+            return;
+        }
+        walkRecords(msg, length, (type, ttlOffset) -> {
+            long ttl = readUnsignedInt(msg, ttlOffset);
+            writeInt(msg, ttlOffset, Math.max(0, ttl - elapsedSeconds));
+        });
+    }
+
+    /**
+     * Hand the textual form of every A and AAAA record address to the consumer
+     */
+    public static void forEachAddress(byte[] msg, int length, Consumer<String> consumer) {
+        walkRecords(msg, length, (type, ttlOffset) -> {
+            int rdLength = readUnsignedShort(msg, ttlOffset + 4);
+            int rdOffset = ttlOffset + 6;
+            if (rdOffset + rdLength > length) {
+                return;
+            }
+            if ((type == TYPE_A && rdLength == 4) || (type == TYPE_AAAA && rdLength == 16)) {
+                try {
+                    consumer.accept(InetAddress.getByAddress(Arrays.copyOfRange(msg, rdOffset, rdOffset + rdLength))
+                            .getHostAddress());
+                } catch (UnknownHostException e) {
+                    // Unreachable for 4 or 16 byte addresses
+                }
+            }
+        });
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private interface RecordVisitor {
+        void visit(int type, int ttlOffset);
+    }
+
+    private static boolean walkRecords(byte[] msg, int length, RecordVisitor visitor) {
+        if (length < HEADER_LENGTH) {
+            return false;
+        }
+        int questions = readUnsignedShort(msg, 4);
+        int records = readUnsignedShort(msg, 6) + readUnsignedShort(msg, 8) + readUnsignedShort(msg, 10);
+
+        int offset = HEADER_LENGTH;
+        for (int i = 0; i < questions; i++) {
+            offset = skipName(msg, length, offset);
+            if (offset < 0 || offset + 4 > length) {
+                return false;
+            }
+            offset += 4;
+        }
+        for (int i = 0; i < records; i++) {
+            offset = skipName(msg, length, offset);
+            if (offset < 0 || offset + 10 > length) {
+                return false;
+            }
+            int type = readUnsignedShort(msg, offset);
+            int rdLength = readUnsignedShort(msg, offset + 8);
+            if (type != TYPE_OPT) {
+                visitor.visit(type, offset + 4);
+            }
+            offset += 10 + rdLength;
+            if (offset > length) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int readName(byte[] msg, int length, int offset, StringBuilder out) {
+        int jumps = 0;
+        int end = -1;
+        while (offset < length) {
+            int len = msg[offset] & 0xFF;
+            if (len == 0) {
+                return end >= 0 ? end : offset + 1;
+            }
+            if ((len & 0xC0) == 0xC0) {
+                if (offset + 1 >= length || ++jumps > 16) {
+                    return -1;
+                }
+                if (end < 0) {
+                    end = offset + 2;
+                }
+                offset = ((len & 0x3F) << 8) | (msg[offset + 1] & 0xFF);
+                continue;
+            }
+            if (offset + 1 + len > length) {
+                return -1;
+            }
+            if (out.length() > 0) {
+                out.append('.');
+            }
+            for (int i = offset + 1; i <= offset + len; i++) {
+                out.append(Character.toLowerCase((char) (msg[i] & 0xFF)));
+            }
+            offset += 1 + len;
+        }
+        return -1;
+    }
+
+    private static int skipName(byte[] msg, int length, int offset) {
+        while (offset < length) {
+            int len = msg[offset] & 0xFF;
+            if (len == 0) {
+                return offset + 1;
+            }
+            if ((len & 0xC0) == 0xC0) {
+                return offset + 2 <= length ? offset + 2 : -1;
+            }
+            offset += 1 + len;
+        }
+        return -1;
+    }
+
+    private static int readUnsignedShort(byte[] msg, int offset) {
+        return ((msg[offset] & 0xFF) << 8) | (msg[offset + 1] & 0xFF);
+    }
+
+    private static long readUnsignedInt(byte[] msg, int offset) {
+        return ((long) (msg[offset] & 0xFF) << 24) | ((msg[offset + 1] & 0xFF) << 16)
+                | ((msg[offset + 2] & 0xFF) << 8) | (msg[offset + 3] & 0xFF);
+    }
+
+    private static void writeShort(byte[] msg, int offset, int value) {
+        msg[offset] = (byte) (value >>> 8);
+        msg[offset + 1] = (byte) value;
+    }
+
+    private static void writeInt(byte[] msg, int offset, long value) {
+        msg[offset] = (byte) (value >>> 24);
+        msg[offset + 1] = (byte) (value >>> 16);
+        msg[offset + 2] = (byte) (value >>> 8);
+        msg[offset + 3] = (byte) value;
+    }
+}
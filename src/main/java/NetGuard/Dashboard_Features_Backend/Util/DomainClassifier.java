@@ -0,0 +1,104 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+/**
+ * Immutable classifier combining a domain suffix trie with a keyword automaton.
+ * A result packs the category id in the low 8 bits and flag bits above it. Listed domains
+ * decide the category first; keyword hits only apply when no domain list matched, and the
+ * lowest keyword category id wins. Flags from both sources are always combined.
+ */
+public final class DomainClassifier {
+
+    public static final int FLAG_SUSPICIOUS = 1;
+    public static final int FLAG_INAPPROPRIATE = 1 << 1;
+    public static final int FLAG_BLOCKED = 1 << 2;
+
+    private static final int CATEGORY_BITS = 8;
+    private static final int CATEGORY_MASK = (1 << CATEGORY_BITS) - 1;
+
+    private final DomainSuffixTrie domains;
+    private final KeywordAutomaton keywords;
+
+    private DomainClassifier(DomainSuffixTrie domains, KeywordAutomaton keywords) {
+        this.domains = domains;
+        this.keywords = keywords;
+    }
+
+    /**
+     * Classify a bare host or a full URL. Category 0 means no list matched.
+     */
+    public int classify(CharSequence url) {
+        int length = url.length();
+        int hostStart = UrlHost.start(url);
+        int hostEnd = UrlHost.end(url, hostStart);
+
+        int domainValue = domains.longestSuffixMatch(url, hostStart, hostEnd);
+        long keywordHits = keywords.scan(url, 0, length);
+
+        int category = domainValue & CATEGORY_MASK;
+        if (category == 0) {
+            int keywordCategories = KeywordAutomaton.categoryMask(keywordHits);
+            if (keywordCategories != 0) {
+                category = Integer.numberOfTrailingZeros(keywordCategories);
+            }
+        }
+        int flags = (domainValue >>> CATEGORY_BITS) | KeywordAutomaton.flagMask(keywordHits);
+        return category | (flags << CATEGORY_BITS);
+    }
+
+    public int domainCount() {
+        return domains.size();
+    }
+
+    public int keywordStates() {
+        return keywords.stateCount();
+    }
+
+    public static int categoryOf(int result) {
+        return result & CATEGORY_MASK;
+    }
+
+    public static boolean hasFlag(int result, int flag) {
+        return ((result >>> CATEGORY_BITS) & flag) != 0;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private final DomainSuffixTrie domains = new DomainSuffixTrie();
+        private final KeywordAutomaton.Builder keywords = KeywordAutomaton.builder();
+
+        /**
+         * Add a domain (and all of its subdomains). {@code category} 0 contributes flags only.
+         */
+        public Builder addDomain(CharSequence domain, int category, int flags) {
+            checkCategory(category);
+            int value = category | (flags << CATEGORY_BITS);
+            if (value != 0) {
+                domains.add(domain, value);
+            }
+            return this;
+        }
+
+        /**
+         * Add a keyword matched anywhere in the URL. {@code category} 0 contributes flags only.
+         */
+        public Builder addKeyword(CharSequence keyword, int category, int flags) {
+            checkCategory(category);
+            keywords.add(keyword, category == 0 ? -1 : category, flags);
+            return this;
+        }
+
+        public DomainClassifier build() {
+            return new DomainClassifier(domains, keywords.build());
+        }
+
+        private static void checkCategory(int category) {
+            if (category < 0 || category > 31) {
+                throw new IllegalArgumentException("Category id must be in [0, 31]: " + category);
+            }
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import java.util.Arrays;
+
+/**
+ * Compiled reversed-label suffix trie for domain lists.
+ * "www.youtube.com" is stored as com -> youtube -> www; a lookup walks the host right to left
+ * and returns the value of the longest listed suffix, so listing "youtube.com" also covers
+ * "m.youtube.com". Labels are interned into one char pool and edges live in a single
+ * open-addressing table, so millions of domains need no per-node objects and lookups
+ * over a CharSequence range allocate nothing.
+ */
+public final class DomainSuffixTrie {
+
+    private static final int ROOT = 0;
+    private static final long EMPTY = -1L;
+
+    // Label dictionary: label id -> chars in pool
+    private char[] labelPool = new char[1 << 12];
+    private int labelPoolSize;
+    private int[] labelOffsets = new int[1 << 10];
+    private int[] labelLengths = new int[1 << 10];
+    private int labelCount;
+    private int[] labelTable = newTable(1 << 10);   // open addressing: hash -> label id + 1
+
+    // Edges: (parent node, label id) -> child node
+    private long[] edgeKeys = newLongTable(1 << 10);
+    private int[] edgeChildren = new int[1 << 10];
+    private int edgeCount;
+
+    // Node values: 0 = not a listed domain
+    private int[] nodeValues = new int[1 << 10];
+    private int nodeCount = 1;
+    private int domainCount;
+
+    /**
+     * Add a domain with a non-zero value. Values for the same domain are OR-ed together.
+     */
+    public void add(CharSequence domain, int value) {
+        if (value == 0) {
+            throw new IllegalArgumentException("Trie values must be non-zero");
+        }
+        int end = trimEnd(domain, 0, domain.length());
+        int node = ROOT;
+        int labelEnd = end;
+        while (labelEnd > 0) {
+            int labelStart = labelEnd - 1;
+            while (labelStart >= 0 && domain.charAt(labelStart) != '.') {
+                labelStart--;
+            }
+            labelStart++;
+            if (labelStart < labelEnd) {
+                int labelId = internLabel(domain, labelStart, labelEnd);
+                node = childOrCreate(node, labelId);
+            }
+            labelEnd = labelStart - 1;
+        }
+        if (node == ROOT) {
+            return;
+        }
+        if (nodeValues[node] == 0) {
+            domainCount++;
+        }
+        nodeValues[node] |= value;
+    }
+
+    /**
+     * Value of the longest listed suffix of host[start, end), or 0 if none. Case-insensitive.
+     */
+    public int longestSuffixMatch(CharSequence host, int start, int end) {
+        end = trimEnd(host, start, end);
+        int node = ROOT;
+        int best = 0;
+        int labelEnd = end;
+        while (labelEnd > start) {
+            int labelStart = labelEnd - 1;
+            while (labelStart >= start && host.charAt(labelStart) != '.') {
+                labelStart--;
+            }
+            labelStart++;
+            int labelId = findLabel(host, labelStart, labelEnd);
+            if (labelId < 0) {
+                return best;
+            }
+            node = child(node, labelId);
+            if (node < 0) {
+                return best;
+            }
+            if (nodeValues[node] != 0) {
+                best = nodeValues[node];
+            }
+            labelEnd = labelStart - 1;
+        }
+        return best;
+    }
+
+    public int longestSuffixMatch(CharSequence host) {
+        return longestSuffixMatch(host, 0, host.length());
+    }
+
+    public int size() {
+        return domainCount;
+    }
+
+    // ==========================================
+    // LABEL DICTIONARY
+    // ==========================================
+
+    private int internLabel(CharSequence s, int start, int end) {
+        int existing = findLabel(s, start, end);
+        if (existing >= 0) {
+            return existing;
+        }
+        if ((labelCount + 1) * 2 > labelTable.length) {
+            rehashLabels();
+        }
+        int length = end - start;
+        ensureLabelCapacity(length);
+        int id = labelCount++;
+        labelOffsets[id] = labelPoolSize;
+        labelLengths[id] = length;
+        for (int i = start; i < end; i++) {
+            labelPool[labelPoolSize++] = lower(s.charAt(i));
+        }
+        insertLabelSlot(id, hashLabel(s, start, end));
+        return id;
+    }
+
+    private int findLabel(CharSequence s, int start, int end) {
+        int mask = labelTable.length - 1;
+        int slot = hashLabel(s, start, end) & mask;
+        while (true) {
+            int entry = labelTable[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            int id = entry - 1;
+            if (labelEquals(id, s, start, end)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean labelEquals(int id, CharSequence s, int start, int end) {
+        int length = labelLengths[id];
+        if (length != end - start) {
+            return false;
+        }
+        int offset = labelOffsets[id];
+        for (int i = 0; i < length; i++) {
+            if (labelPool[offset + i] != lower(s.charAt(start + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void insertLabelSlot(int id, int hash) {
+        int mask = labelTable.length - 1;
+        int slot = hash & mask;
+        while (labelTable[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        labelTable[slot] = id + 1;
+    }
+
+    private void rehashLabels() {
+        labelTable = newTable(labelTable.length * 2);
+        for (int id = 0; id < labelCount; id++) {
+            insertLabelSlot(id, hashPooledLabel(id));
+        }
+    }
+
+    private void ensureLabelCapacity(int length) {
+        if (labelCount == labelOffsets.length) {
+            labelOffsets = Arrays.copyOf(labelOffsets, labelOffsets.length * 2);
+            labelLengths = Arrays.copyOf(labelLengths, labelLengths.length * 2);
+        }
+        if (labelPoolSize + length > labelPool.length) {
+            labelPool = Arrays.copyOf(labelPool, Math.max(labelPool.length * 2, labelPoolSize + length));
+        }
+    }
+
+    private int hashLabel(CharSequence s, int start, int end) {
+        int h = 0x811C9DC5;
+        for (int i = start; i < end; i++) {
+            h = (h ^ lower(s.charAt(i))) * 0x01000193;
+        }
+        return mix(h);
+    }
+
+    private int hashPooledLabel(int id) {
+        int h = 0x811C9DC5;
+        int offset = labelOffsets[id];
+        for (int i = 0; i < labelLengths[id]; i++) {
+            h = (h ^ labelPool[offset + i]) * 0x01000193;
+        }
+        return mix(h);
+    }
+
+    // ==========================================
+    // EDGES
+    // ==========================================
+
+    private int child(int parent, int labelId) {
+        long key = edgeKey(parent, labelId);
+        int mask = edgeKeys.length - 1;
+        int slot = mix(Long.hashCode(key)) & mask;
+        while (true) {
+            long existing = edgeKeys[slot];
+            if (existing == EMPTY) {
+                return -1;
+            }
+            if (existing == key) {
+                return edgeChildren[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private int childOrCreate(int parent, int labelId) {
+        int existing = child(parent, labelId);
+        if (existing >= 0) {
+            return existing;
+        }
+        if ((edgeCount + 1) * 2 > edgeKeys.length) {
+            rehashEdges();
+        }
+        if (nodeCount == nodeValues.length) {
+            nodeValues = Arrays.copyOf(nodeValues, nodeValues.length * 2);
+        }
+        int node = nodeCount++;
+        insertEdge(edgeKey(parent, labelId), node);
+        edgeCount++;
+        return node;
+    }
+
+    private void insertEdge(long key, int node) {
+        int mask = edgeKeys.length - 1;
+        int slot = mix(Long.hashCode(key)) & mask;
+        while (edgeKeys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        edgeKeys[slot] = key;
+        edgeChildren[slot] = node;
+    }
+
+    private void rehashEdges() {
+        long[] oldKeys = edgeKeys;
+        int[] oldChildren = edgeChildren;
+        edgeKeys = newLongTable(oldKeys.length * 2);
+        edgeChildren = new int[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                insertEdge(oldKeys[i], oldChildren[i]);
+            }
+        }
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private static long edgeKey(int parent, int labelId) {
+        return ((long) parent << 32) | (labelId & 0xFFFFFFFFL);
+    }
+
+    private static int trimEnd(CharSequence s, int start, int end) {
+        // Ignore a trailing root dot ("example.com.")
+        while (end > start && s.charAt(end - 1) == '.') {
+            end--;
+        }
+        return end;
+    }
+
+    private static char lower(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + 32) : c;
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    private static int[] newTable(int size) {
+        return new int[size];
+    }
+
+    private static long[] newLongTable(int size) {
+        long[] table = new long[size];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+}
@@ -0,0 +1,187 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical hashed timer wheel.
+ * Four wheels of 64 slots each, so with a one-second tick deadlines up to ~194 days land
+ * directly in a slot; anything further is parked in the top wheel and re-filed as time passes.
+ * Timeouts sit on intrusive doubly-linked lists, which makes schedule and cancel O(1).
+ * A timeout is filed in the lowest wheel whose range still contains its deadline and is
+ * cascaded one wheel down each time the wheel below wraps onto its slot, so every timeout
+ * moves at most three times before it fires.
+ * All methods are synchronized; expired payloads are returned to the caller rather than run
+ * under the lock.
+ */
+public class HashedTimerWheel<T> {
+
+    private static final int LEVELS = 4;
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final long MAX_SPAN = 1L << (BITS * LEVELS);
+
+    private final long tickMillis;
+    private final Timeout<T>[][] wheels;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(long tickMillis, long nowMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        this.wheels = new Timeout[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                Timeout<T> head = new Timeout<>(this, null, 0);
+                head.prev = head;
+                head.next = head;
+                wheels[level][slot] = head;
+            }
+        }
+    }
+
+    /**
+     * Schedule a payload to expire at the given wall-clock time. Deadlines already in the past
+     * expire on the next tick.
+     */
+    public synchronized Timeout<T> schedule(T payload, long deadlineMillis) {
+        long deadlineTick = Math.max(ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        Timeout<T> timeout = new Timeout<>(this, payload, deadlineTick);
+        file(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Move the wheel forward to {@code nowMillis} and return every payload that expired,
+     * ordered by tick
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<T> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            if (size == 0) {
+                currentTick = targetTick;
+                break;
+            }
+            currentTick++;
+            cascade();
+
+            Timeout<T> head = wheels[0][(int) (currentTick & MASK)];
+            while (head.next != head) {
+                Timeout<T> timeout = head.next;
+                unlink(timeout);
+                if (timeout.deadlineTick <= currentTick) {
+                    timeout.expired = true;
+                    size--;
+                    expired.add(timeout.payload);
+                } else {
+                    // Only reachable for deadlines beyond the top wheel's span
+                    file(timeout);
+                }
+            }
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private void cascade() {
+        // Higher wheels first so their timeouts can fall into a lower slot that is cascaded next
+        int topLevel = 0;
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (BITS * level)) - 1)) != 0) break;
+            topLevel = level;
+        }
+        for (int level = topLevel; level >= 1; level--) {
+            Timeout<T> head = wheels[level][(int) ((currentTick >>> (BITS * level)) & MASK)];
+            while (head.next != head) {
+                Timeout<T> timeout = head.next;
+                unlink(timeout);
+                file(timeout);
+            }
+        }
+    }
+
+    private void file(Timeout<T> timeout) {
+        long tick = Math.min(timeout.deadlineTick, currentTick + MAX_SPAN - 1);
+        int level = 0;
+        while (level < LEVELS - 1 && (tick >>> (BITS * (level + 1))) != (currentTick >>> (BITS * (level + 1)))) {
+            level++;
+        }
+        Timeout<T> head = wheels[level][(int) ((tick >>> (BITS * level)) & MASK)];
+        timeout.prev = head.prev;
+        timeout.next = head;
+        head.prev.next = timeout;
+        head.prev = timeout;
+    }
+
+    private synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.expired || timeout.next == null) {
+            return false;
+        }
+        unlink(timeout);
+        timeout.expired = true;
+        size--;
+        return true;
+    }
+
+    private static <T> void unlink(Timeout<T> timeout) {
+        timeout.prev.next = timeout.next;
+        timeout.next.prev = timeout.prev;
+        timeout.prev = null;
+        timeout.next = null;
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    /**
+     * Handle to a scheduled payload
+     */
+    public static final class Timeout<T> {
+        private final HashedTimerWheel<T> wheel;
+        private final T payload;
+        private final long deadlineTick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private boolean expired;
+
+        private Timeout(HashedTimerWheel<T> wheel, T payload, long deadlineTick) {
+            this.wheel = wheel;
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        /**
+         * Remove the timeout from its wheel; returns false if it already fired or was cancelled
+         */
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        public long getDeadlineMillis() {
+            return deadlineTick * wheel.tickMillis;
+        }
+    }
+}
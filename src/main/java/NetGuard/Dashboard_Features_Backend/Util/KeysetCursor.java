@@ -0,0 +1,68 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in a newest-first listing ordered by (timestamp, tie-breaker key), carried between
+ * requests as an opaque URL-safe token.
+ * Queries seek past it with {@code time < :cursorTime OR (time = :cursorTime AND key < :cursorKey)}
+ * over an index on (time, key), so every page costs one index range scan however deep it is.
+ */
+public record KeysetCursor(LocalDateTime time, String key) {
+
+    // Placeholder time for listings ordered by an immutable key alone
+    private static final LocalDateTime KEY_ONLY = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public static KeysetCursor of(LocalDateTime time, Object key) {
+        return new KeysetCursor(time, String.valueOf(key));
+    }
+
+    /**
+     * Position in a listing ordered by an immutable key alone, seeking past {@code :cursorKey}
+     */
+    public static KeysetCursor ofKey(Object key) {
+        return of(KEY_ONLY, key);
+    }
+
+    /**
+     * Decode a client token, or return {@code start} when there is none (first page)
+     */
+    public static KeysetCursor decodeOrStart(String token, KeysetCursor start) {
+        return token == null || token.isBlank() ? start : decode(token);
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+            return new KeysetCursor(LocalDateTime.parse(parts[0]), parts[1]);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor", e);
+        }
+    }
+
+    /**
+     * Clamp a requested page size to [1, max]
+     */
+    public static int pageSize(int requested, int max) {
+        return Math.max(1, Math.min(requested, max));
+    }
+
+    public String encode() {
+        String raw = time + "|" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The tie-breaker as a numeric row id
+     */
+    public long idKey() {
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor", e);
+        }
+    }
+}
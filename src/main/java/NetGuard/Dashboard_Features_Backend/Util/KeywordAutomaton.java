@@ -0,0 +1,163 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Aho-Corasick automaton for keyword patterns, compiled into a full DFA transition table.
+ * One left-to-right pass over the input reports every keyword it contains, so adding more
+ * patterns does not add more passes. Matching is case-insensitive and allocation-free.
+ */
+public final class KeywordAutomaton {
+
+    // a-z, 0-9, '-', '.', everything else folds into symbol 0
+    private static final int ALPHABET = 39;
+    private static final byte[] SYMBOLS = new byte[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            SYMBOLS[c] = (byte) (1 + c - 'a');
+            SYMBOLS[Character.toUpperCase(c)] = (byte) (1 + c - 'a');
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            SYMBOLS[c] = (byte) (27 + c - '0');
+        }
+        SYMBOLS['-'] = 37;
+        SYMBOLS['.'] = 38;
+    }
+
+    private final int[] transitions;
+    private final int[] categoryMasks;
+    private final int[] flagMasks;
+
+    private KeywordAutomaton(int[] transitions, int[] categoryMasks, int[] flagMasks) {
+        this.transitions = transitions;
+        this.categoryMasks = categoryMasks;
+        this.flagMasks = flagMasks;
+    }
+
+    /**
+     * Scan input[start, end) and return every matched keyword's bits packed as
+     * {@code (flagMask << 32) | categoryMask}.
+     */
+    public long scan(CharSequence input, int start, int end) {
+        int state = 0;
+        int categories = 0;
+        int flags = 0;
+        for (int i = start; i < end; i++) {
+            state = transitions[state * ALPHABET + symbol(input.charAt(i))];
+            categories |= categoryMasks[state];
+            flags |= flagMasks[state];
+        }
+        return ((long) flags << 32) | (categories & 0xFFFFFFFFL);
+    }
+
+    public long scan(CharSequence input) {
+        return scan(input, 0, input.length());
+    }
+
+    public int stateCount() {
+        return categoryMasks.length;
+    }
+
+    public static int categoryMask(long scanResult) {
+        return (int) scanResult;
+    }
+
+    public static int flagMask(long scanResult) {
+        return (int) (scanResult >>> 32);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static int symbol(char c) {
+        return c < 128 ? SYMBOLS[c] : 0;
+    }
+
+    public static final class Builder {
+
+        private int[] gotoTable = newGotoTable(64);
+        private int[] categoryMasks = new int[64];
+        private int[] flagMasks = new int[64];
+        private int stateCount = 1;
+
+        /**
+         * Add a keyword. {@code categoryBit} in [0, 31] or -1 for none; {@code flags} is OR-ed into matches.
+         */
+        public Builder add(CharSequence keyword, int categoryBit, int flags) {
+            if (keyword.length() == 0) {
+                return this;
+            }
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                int index = state * ALPHABET + symbol(keyword.charAt(i));
+                if (gotoTable[index] < 0) {
+                    ensureCapacity();
+                    gotoTable[index] = stateCount++;
+                }
+                state = gotoTable[index];
+            }
+            if (categoryBit >= 0) {
+                categoryMasks[state] |= 1 << categoryBit;
+            }
+            flagMasks[state] |= flags;
+            return this;
+        }
+
+        public KeywordAutomaton build() {
+            int[] transitions = Arrays.copyOf(gotoTable, stateCount * ALPHABET);
+            int[] categories = Arrays.copyOf(categoryMasks, stateCount);
+            int[] flags = Arrays.copyOf(flagMasks, stateCount);
+            int[] failure = new int[stateCount];
+
+            // Breadth-first: each state's failure target is finished before its children need it
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int child = transitions[symbol];
+                if (child < 0) {
+                    transitions[symbol] = 0;
+                } else {
+                    failure[child] = 0;
+                    queue.add(child);
+                }
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                categories[state] |= categories[failure[state]];
+                flags[state] |= flags[failure[state]];
+                for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                    int index = state * ALPHABET + symbol;
+                    int child = transitions[index];
+                    int fallback = transitions[failure[state] * ALPHABET + symbol];
+                    if (child < 0) {
+                        transitions[index] = fallback;
+                    } else {
+                        failure[child] = fallback;
+                        queue.add(child);
+                    }
+                }
+            }
+            return new KeywordAutomaton(transitions, categories, flags);
+        }
+
+        private void ensureCapacity() {
+            if (stateCount < categoryMasks.length) {
+                return;
+            }
+            int newSize = categoryMasks.length * 2;
+            int oldLength = gotoTable.length;
+            gotoTable = Arrays.copyOf(gotoTable, newSize * ALPHABET);
+            Arrays.fill(gotoTable, oldLength, gotoTable.length, -1);
+            categoryMasks = Arrays.copyOf(categoryMasks, newSize);
+            flagMasks = Arrays.copyOf(flagMasks, newSize);
+        }
+
+        private static int[] newGotoTable(int states) {
+            int[] table = new int[states * ALPHABET];
+            Arrays.fill(table, -1);
+            return table;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Strict parsing of device identifiers before they reach firewall scripts or storage.
+ * MACs are canonicalised to the lowercase colon form used by discovery and the policy store;
+ * addresses must be plain IPv4 or IPv6 literals, so no host name ever triggers a DNS lookup.
+ */
+public final class NetworkAddresses {
+
+    private static final Pattern MAC = Pattern.compile("^([0-9a-f]{2}:){5}[0-9a-f]{2}$");
+    private static final Pattern IPV4 = Pattern.compile(
+            "^((25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)\\.){3}(25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)$");
+    private static final Pattern IPV6_CHARACTERS = Pattern.compile("^[0-9a-fA-F:.]+$");
+
+    private NetworkAddresses() {
+    }
+
+    /**
+     * Canonical form of a MAC ({@code aa:bb:cc:dd:ee:ff}), or null if it is not a MAC address
+     */
+    public static String normalizeMac(String mac) {
+        if (mac == null) {
+            return null;
+        }
+        String canonical = mac.trim().toLowerCase(Locale.ROOT).replace('-', ':');
+        return MAC.matcher(canonical).matches() ? canonical : null;
+    }
+
+    /**
+     * Whether the value is a dotted-quad IPv4 or an IPv6 literal (no zone id, no host names)
+     */
+    public static boolean isIpLiteral(String address) {
+        if (address == null) {
+            return false;
+        }
+        if (IPV4.matcher(address).matches()) {
+            return true;
+        }
+        if (address.indexOf(':') < 0 || !IPV6_CHARACTERS.matcher(address).matches()) {
+            return false;
+        }
+        try {
+            // A value containing ':' is parsed as a literal and never resolved
+            InetAddress.getByName(address);
+            return true;
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Merging t-digest for streaming quantiles.
+ * Values are buffered and periodically folded into a sorted list of weighted centroids whose
+ * size is bounded by the compression; centroids are kept small near the tails (arcsine scale)
+ * so extreme quantiles like p95/p99 stay accurate. Digests merge by re-compressing their
+ * centroids together, so per-day digests combine into any range without the raw values.
+ * Not thread-safe.
+ */
+public final class TDigest {
+
+    public static final double DEFAULT_COMPRESSION = 100;
+    private static final byte FORMAT_VERSION = 1;
+
+    private final double compression;
+
+    private double[] means;
+    private double[] weights;
+    private int centroidCount;
+
+    private final double[] bufferValues;
+    private final double[] bufferWeights;
+    private int buffered;
+
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    public TDigest(double compression) {
+        this.compression = compression;
+        int capacity = (int) Math.ceil(compression * 2) + 10;
+        this.means = new double[capacity];
+        this.weights = new double[capacity];
+        this.bufferValues = new double[capacity * 5];
+        this.bufferWeights = new double[capacity * 5];
+    }
+
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    public void add(double value, double weight) {
+        if (Double.isNaN(value) || weight <= 0) {
+            return;
+        }
+        if (buffered == bufferValues.length) {
+            compress();
+        }
+        bufferValues[buffered] = value;
+        bufferWeights[buffered] = weight;
+        buffered++;
+        totalWeight += weight;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Fold another digest into this one
+     */
+    public void merge(TDigest other) {
+        other.compress();
+        for (int i = 0; i < other.centroidCount; i++) {
+            add(other.means[i], other.weights[i]);
+        }
+        if (other.totalWeight > 0) {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+    }
+
+    /**
+     * Estimated value at quantile {@code q} in [0, 1], or NaN when empty
+     */
+    public double quantile(double q) {
+        compress();
+        if (centroidCount == 0) {
+            return Double.NaN;
+        }
+        if (centroidCount == 1) {
+            return means[0];
+        }
+        double index = Math.max(0, Math.min(1, q)) * totalWeight;
+
+        // Left tail: between min and the first centroid's centre
+        if (index < weights[0] / 2) {
+            return min + (means[0] - min) * (index / (weights[0] / 2));
+        }
+        double cumulative = weights[0] / 2;
+        for (int i = 0; i < centroidCount - 1; i++) {
+            double step = (weights[i] + weights[i + 1]) / 2;
+            if (index < cumulative + step) {
+                double fraction = (index - cumulative) / step;
+                return means[i] + (means[i + 1] - means[i]) * fraction;
+            }
+            cumulative += step;
+        }
+        // Right tail: between the last centroid's centre and max
+        double lastHalf = weights[centroidCount - 1] / 2;
+        double fraction = lastHalf > 0 ? Math.min(1, (index - cumulative) / lastHalf) : 1;
+        return means[centroidCount - 1] + (max - means[centroidCount - 1]) * fraction;
+    }
+
+    public long size() {
+        return Math.round(totalWeight);
+    }
+
+    public byte[] toBytes() {
+        compress();
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 8 + 4 + 8 + 8 + centroidCount * 16);
+        buffer.put(FORMAT_VERSION);
+        buffer.putDouble(compression);
+        buffer.putInt(centroidCount);
+        buffer.putDouble(min);
+        buffer.putDouble(max);
+        for (int i = 0; i < centroidCount; i++) {
+            buffer.putDouble(means[i]);
+            buffer.putDouble(weights[i]);
+        }
+        return buffer.array();
+    }
+
+    public static TDigest fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.get() != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported t-digest format");
+        }
+        TDigest digest = new TDigest(buffer.getDouble());
+        int count = buffer.getInt();
+        double min = buffer.getDouble();
+        double max = buffer.getDouble();
+        for (int i = 0; i < count; i++) {
+            digest.add(buffer.getDouble(), buffer.getDouble());
+        }
+        if (count > 0) {
+            digest.min = min;
+            digest.max = max;
+        }
+        return digest;
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private void compress() {
+        if (buffered == 0) {
+            return;
+        }
+        int total = centroidCount + buffered;
+        double[] allMeans = Arrays.copyOf(means, total);
+        double[] allWeights = Arrays.copyOf(weights, total);
+        System.arraycopy(bufferValues, 0, allMeans, centroidCount, buffered);
+        System.arraycopy(bufferWeights, 0, allWeights, centroidCount, buffered);
+        buffered = 0;
+
+        Integer[] order = new Integer[total];
+        for (int i = 0; i < total; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(allMeans[a], allMeans[b]));
+
+        int count = 0;
+        double weightSoFar = 0;
+        double limit = totalWeight * quantileLimit(0);
+        double mean = allMeans[order[0]];
+        double weight = allWeights[order[0]];
+        for (int i = 1; i < total; i++) {
+            double nextMean = allMeans[order[i]];
+            double nextWeight = allWeights[order[i]];
+            if (weightSoFar + weight + nextWeight <= limit) {
+                // Weighted running mean keeps the centroid exact
+                weight += nextWeight;
+                mean += (nextMean - mean) * nextWeight / weight;
+            } else {
+                count = emit(count, mean, weight);
+                weightSoFar += weight;
+                limit = totalWeight * quantileLimit(weightSoFar / totalWeight);
+                mean = nextMean;
+                weight = nextWeight;
+            }
+        }
+        centroidCount = emit(count, mean, weight);
+    }
+
+    private int emit(int index, double mean, double weight) {
+        if (index == means.length) {
+            means = Arrays.copyOf(means, index * 2);
+            weights = Arrays.copyOf(weights, index * 2);
+        }
+        means[index] = mean;
+        weights[index] = weight;
+        return index + 1;
+    }
+
+    /**
+     * Largest quantile the centroid starting at {@code q} may reach (k1 scale function)
+     */
+    private double quantileLimit(double q) {
+        double k = compression / (2 * Math.PI) * Math.asin(2 * q - 1) + 1;
+        double next = Math.sin(Math.min(Math.PI / 2, k * 2 * Math.PI / compression));
+        return (next + 1) / 2;
+    }
+}
@@ -0,0 +1,196 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spreads sessions over calendar buckets (hour, day or week in a given zone) in proportion
+ * to how much of each session falls inside each bucket.
+ * Sessions become start/end events carrying a bytes-per-millisecond rate; one sort and one
+ * sweep across events and bucket boundaries together give every bucket its active time,
+ * bytes and overlapping session count in O(n log n + buckets), independent of session length.
+ * Day and week buckets follow the zone's calendar, so DST days are 23 or 25 hours long.
+ */
+public final class TimeBucketer {
+
+    public static final int MAX_BUCKETS = 100_000;
+
+    public enum Unit {
+        HOUR,
+        DAY,
+        WEEK
+    }
+
+    /**
+     * A span of activity; a session with {@code end <= start} is a point and lands wholly in one bucket
+     */
+    public record Session(Instant start, Instant end, long bytes) {
+    }
+
+    public record Bucket(ZonedDateTime start, ZonedDateTime end, long activeMillis, long bytes, int sessions) {
+
+        public long activeMinutes() {
+            return activeMillis / 60_000L;
+        }
+    }
+
+    private final Unit unit;
+    private final ZoneId zone;
+    private final DayOfWeek firstDayOfWeek;
+
+    public TimeBucketer(Unit unit, ZoneId zone) {
+        this(unit, zone, DayOfWeek.MONDAY);
+    }
+
+    public TimeBucketer(Unit unit, ZoneId zone, DayOfWeek firstDayOfWeek) {
+        this.unit = unit;
+        this.zone = zone;
+        this.firstDayOfWeek = firstDayOfWeek;
+    }
+
+    /**
+     * Every bucket overlapping [from, to), with sessions clipped to that range
+     */
+    public List<Bucket> bucket(Collection<Session> sessions, Instant from, Instant to) {
+        if (!to.isAfter(from)) {
+            return List.of();
+        }
+
+        List<ZonedDateTime> bounds = boundaries(from, to);
+        int bucketCount = bounds.size() - 1;
+        long[] boundMillis = new long[bounds.size()];
+        for (int i = 0; i < bounds.size(); i++) {
+            boundMillis[i] = bounds.get(i).toInstant().toEpochMilli();
+        }
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+
+        double[] bytes = new double[bucketCount];
+        long[] activeMillis = new long[bucketCount];
+        int[] sessionCounts = new int[bucketCount];
+
+        // Events: time, rate delta, count delta. Points are booked directly.
+        List<Event> events = new ArrayList<>(sessions.size() * 2);
+        for (Session session : sessions) {
+            long start = session.start().toEpochMilli();
+            long end = session.end() != null ? session.end().toEpochMilli() : start;
+            if (end <= start) {
+                if (start >= fromMillis && start < toMillis) {
+                    int index = bucketIndex(boundMillis, start);
+                    bytes[index] += session.bytes();
+                    sessionCounts[index]++;
+                }
+                continue;
+            }
+            long clippedStart = Math.max(start, fromMillis);
+            long clippedEnd = Math.min(end, toMillis);
+            if (clippedEnd <= clippedStart) {
+                continue;
+            }
+            double rate = (double) session.bytes() / (end - start);
+            events.add(new Event(clippedStart, rate, 1));
+            events.add(new Event(clippedEnd, -rate, -1));
+        }
+        // Ends sort before starts at the same instant so back-to-back sessions never overlap
+        events.sort((a, b) -> a.time != b.time ? Long.compare(a.time, b.time) : Integer.compare(a.count, b.count));
+
+        double activeRate = 0.0;
+        int activeCount = 0;
+        int next = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            long bucketStart = boundMillis[i];
+            long bucketEnd = boundMillis[i + 1];
+
+            // Everything up to the boundary has already been swept
+            while (next < events.size() && events.get(next).time <= bucketStart) {
+                activeRate += events.get(next).rate;
+                activeCount += events.get(next).count;
+                next++;
+            }
+            sessionCounts[i] += activeCount;
+
+            long cursor = bucketStart;
+            while (next < events.size() && events.get(next).time < bucketEnd) {
+                Event event = events.get(next++);
+                long span = event.time - cursor;
+                bytes[i] += activeRate * span;
+                activeMillis[i] += activeCount * span;
+                activeRate += event.rate;
+                activeCount += event.count;
+                if (event.count > 0) {
+                    sessionCounts[i]++;
+                }
+                cursor = event.time;
+            }
+            long span = bucketEnd - cursor;
+            bytes[i] += activeRate * span;
+            activeMillis[i] += activeCount * span;
+
+            if (activeCount == 0) {
+                activeRate = 0.0; // Drop accumulated rounding error between sessions
+            }
+        }
+
+        List<Bucket> buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(new Bucket(bounds.get(i), bounds.get(i + 1), activeMillis[i], Math.round(bytes[i]), sessionCounts[i]));
+        }
+        return buckets;
+    }
+
+    /**
+     * Start of the bucket containing {@code instant}
+     */
+    public ZonedDateTime floor(Instant instant) {
+        ZonedDateTime time = instant.atZone(zone);
+        return switch (unit) {
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.toLocalDate().atStartOfDay(zone);
+            case WEEK -> time.toLocalDate().with(TemporalAdjusters.previousOrSame(firstDayOfWeek)).atStartOfDay(zone);
+        };
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private ZonedDateTime nextBoundary(ZonedDateTime bucketStart) {
+        LocalDate date = bucketStart.toLocalDate();
+        return switch (unit) {
+            case HOUR -> bucketStart.plusHours(1);
+            case DAY -> date.plusDays(1).atStartOfDay(zone);
+            case WEEK -> date.plusWeeks(1).atStartOfDay(zone);
+        };
+    }
+
+    private List<ZonedDateTime> boundaries(Instant from, Instant to) {
+        List<ZonedDateTime> bounds = new ArrayList<>();
+        ZonedDateTime bound = floor(from);
+        bounds.add(bound);
+        while (bound.toInstant().isBefore(to)) {
+            bound = nextBoundary(bound);
+            bounds.add(bound);
+            if (bounds.size() > MAX_BUCKETS + 1) {
+                throw new IllegalArgumentException("Range spans more than " + MAX_BUCKETS + " buckets");
+            }
+        }
+        return bounds;
+    }
+
+    private static int bucketIndex(long[] boundMillis, long time) {
+        int index = Arrays.binarySearch(boundMillis, time);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private record Event(long time, double rate, int count) {
+    }
+}
@@ -0,0 +1,53 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+/**
+ * Allocation-free location of the host part inside a bare host or a full URL
+ * ("https://user@www.example.com:8443/path" -> "www.example.com").
+ */
+public final class UrlHost {
+
+    private UrlHost() {
+    }
+
+    /**
+     * Index of the first host character, skipping "scheme://" and any "user@" prefix
+     */
+    public static int start(CharSequence url) {
+        int length = url.length();
+        int start = 0;
+        for (int i = 0; i + 2 < length; i++) {
+            char c = url.charAt(i);
+            if (c == ':' && url.charAt(i + 1) == '/' && url.charAt(i + 2) == '/') {
+                start = i + 3;
+                break;
+            }
+            if (c == '/' || c == '.') {
+                break;
+            }
+        }
+        for (int i = start; i < length; i++) {
+            char c = url.charAt(i);
+            if (c == '@') {
+                return i + 1;
+            }
+            if (c == '/' || c == '?' || c == '#') {
+                break;
+            }
+        }
+        return start;
+    }
+
+    /**
+     * Index one past the last host character, excluding port, path, query and fragment
+     */
+    public static int end(CharSequence url, int start) {
+        int length = url.length();
+        for (int i = start; i < length; i++) {
+            char c = url.charAt(i);
+            if (c == '/' || c == ':' || c == '?' || c == '#') {
+                return i;
+            }
+        }
+        return length;
+    }
+}
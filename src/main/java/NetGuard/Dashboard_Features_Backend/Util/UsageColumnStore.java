@@ -0,0 +1,532 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Column-oriented, append-only cache of hourly per-device usage for a sliding window.
+ * Each row is one device's usage during one clock hour, stored across primitive arrays (hour,
+ * device id, bytes, minutes, signal sum/samples, last seen) in fixed-size chunks; MACs are
+ * dictionary-encoded to dense int ids. The hour still in progress accumulates in per-device
+ * arrays and is appended as rows once the next hour starts, so rows arrive in time order and
+ * whole chunks can be dropped as they age out of the window.
+ *
+ * <p>Times are LocalDateTime values encoded as minutes since 1970-01-01T00:00 of the same
+ * wall clock, so hour-of-day is plain arithmetic. Writes are synchronized. A query pins the
+ * chunk sizes and copies the open hour under the lock, then scans outside it, so appends
+ * are never blocked by a scan. Scans do not allocate per row, only per query in proportion
+ * to the number of devices.
+ */
+public final class UsageColumnStore {
+
+    public static final int CHUNK_SIZE = 4096;
+    private static final int NO_HOUR = Integer.MIN_VALUE;
+
+    private final long windowMinutes;
+
+    // Sealed hours
+    private Chunk[] chunks = new Chunk[0];
+    private volatile int coverageStartMinute = Integer.MAX_VALUE;
+
+    // Dictionary: MAC <-> dense id
+    private final Map<String, Integer> idByMac = new HashMap<>();
+    private String[] macById = new String[16];
+    private String[] nameById = new String[16];
+    private int deviceCount;
+
+    // Hour in progress, indexed by device id; only touched under the lock
+    private int openHour = NO_HOUR;
+    private long[] openBytes = new long[16];
+    private long[] openMinutes = new long[16];
+    private long[] openSignalSum = new long[16];
+    private long[] openSignalSamples = new long[16];
+    private int[] openLastSeen = new int[16];
+    private boolean[] openTouched = new boolean[16];
+
+    public UsageColumnStore(int windowDays) {
+        this.windowMinutes = windowDays * 24L * 60L;
+    }
+
+    public static int toMinute(LocalDateTime time) {
+        return (int) (time.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+
+    public static LocalDateTime fromMinute(int minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60L, 0, ZoneOffset.UTC);
+    }
+
+    // ==========================================
+    // WRITES
+    // ==========================================
+
+    /**
+     * Add usage for a device in the hour starting at {@code hourStart}.
+     * Hours must arrive in order per store; an older hour than the one in progress is ignored.
+     */
+    public synchronized void add(LocalDateTime hourStart, String deviceMac, String deviceName, long bytes,
+                                 long minutes, long signalSum, long signalSamples, LocalDateTime seenAt) {
+        int hour = toMinute(hourStart.withMinute(0).withSecond(0).withNano(0));
+        if (openHour != NO_HOUR && hour < openHour) {
+            return;
+        }
+        if (hour > openHour) {
+            sealOpenHour();
+            openHour = hour;
+            if (coverageStartMinute == Integer.MAX_VALUE) {
+                coverageStartMinute = hour;
+            }
+        }
+
+        int id = deviceId(deviceMac);
+        if (deviceName != null) {
+            nameById[id] = deviceName;
+        }
+        openBytes[id] += bytes;
+        openMinutes[id] += minutes;
+        openSignalSum[id] += signalSum;
+        openSignalSamples[id] += signalSamples;
+        openLastSeen[id] = Math.max(openLastSeen[id], seenAt != null ? toMinute(seenAt) : hour);
+        openTouched[id] = true;
+    }
+
+    /**
+     * Claim the whole window ending at {@code now} once history has been loaded,
+     * and drop chunks that no longer overlap it
+     */
+    public synchronized void markLoaded(LocalDateTime now) {
+        coverageStartMinute = toMinute(now) - (int) windowMinutes;
+        evict();
+    }
+
+    // ==========================================
+    // READS
+    // ==========================================
+
+    /**
+     * Whether ranges starting at {@code from} can be answered from memory
+     */
+    public boolean covers(LocalDateTime from) {
+        return toMinute(from) >= coverageStartMinute;
+    }
+
+    public synchronized int rowCount() {
+        int rows = 0;
+        for (Chunk chunk : chunks) {
+            rows += chunk.size;
+        }
+        return rows;
+    }
+
+    /**
+     * Per-device totals over hours starting in [from, to)
+     */
+    public DeviceTotals deviceTotals(LocalDateTime from, LocalDateTime to, boolean parallel) {
+        int fromHour = hourOf(toMinute(from));
+        int toMinute = toMinute(to);
+
+        Chunk[] snapshot;
+        int[] sizes;
+        DeviceTotals totals;
+        synchronized (this) {
+            snapshot = chunks;
+            sizes = sizesOf(snapshot);
+            totals = new DeviceTotals(deviceCount, macById, nameById);
+            addOpenHour(fromHour, toMinute, totals, null);
+        }
+
+        if (parallel && snapshot.length > 1) {
+            int devices = totals.capacity();
+            IntStream.range(0, snapshot.length).parallel()
+                    .mapToObj(i -> {
+                        DeviceTotals partial = new DeviceTotals(devices, null, null);
+                        snapshot[i].sumByDevice(sizes[i], fromHour, toMinute, partial);
+                        return partial;
+                    })
+                    .reduce(DeviceTotals::merge)
+                    .ifPresent(totals::merge);
+        } else {
+            for (int i = 0; i < snapshot.length; i++) {
+                snapshot[i].sumByDevice(sizes[i], fromHour, toMinute, totals);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Usage per hour of the day over hours starting in [from, to)
+     */
+    public HourOfDayTotals hourOfDayTotals(LocalDateTime from, LocalDateTime to, boolean parallel) {
+        int fromHour = hourOf(toMinute(from));
+        int toMinute = toMinute(to);
+
+        Chunk[] snapshot;
+        int[] sizes;
+        HourOfDayTotals totals;
+        synchronized (this) {
+            snapshot = chunks;
+            sizes = sizesOf(snapshot);
+            totals = new HourOfDayTotals(deviceCount);
+            addOpenHour(fromHour, toMinute, null, totals);
+        }
+
+        if (parallel && snapshot.length > 1) {
+            int devices = totals.deviceLimit;
+            IntStream.range(0, snapshot.length).parallel()
+                    .mapToObj(i -> {
+                        HourOfDayTotals partial = new HourOfDayTotals(devices);
+                        snapshot[i].sumByHourOfDay(sizes[i], fromHour, toMinute, partial);
+                        return partial;
+                    })
+                    .reduce(HourOfDayTotals::merge)
+                    .ifPresent(totals::merge);
+        } else {
+            for (int i = 0; i < snapshot.length; i++) {
+                snapshot[i].sumByHourOfDay(sizes[i], fromHour, toMinute, totals);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Visit every device row of the hours starting in [from, to), oldest first
+     */
+    public void forEachRow(LocalDateTime from, LocalDateTime to, RowVisitor visitor) {
+        int fromHour = hourOf(toMinute(from));
+        int toMinute = toMinute(to);
+
+        Chunk[] snapshot;
+        int[] sizes;
+        String[] macs;
+        // The open hour is copied with the snapshot, so a seal in between cannot drop or repeat it
+        List<Chunk> open = new ArrayList<>();
+        synchronized (this) {
+            snapshot = chunks;
+            sizes = sizesOf(snapshot);
+            macs = Arrays.copyOf(macById, deviceCount);
+            if (openHour != NO_HOUR) {
+                for (int id = 0; id < deviceCount; id++) {
+                    if (!openTouched[id]) {
+                        continue;
+                    }
+                    if (open.isEmpty() || open.get(open.size() - 1).size == CHUNK_SIZE) {
+                        open.add(new Chunk());
+                    }
+                    open.get(open.size() - 1).append(openHour, id, openBytes[id], openMinutes[id],
+                            openSignalSum[id], openSignalSamples[id], openLastSeen[id]);
+                }
+            }
+        }
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i].visit(sizes[i], fromHour, toMinute, macs, visitor);
+        }
+        for (Chunk chunk : open) {
+            chunk.visit(chunk.size, fromHour, toMinute, macs, visitor);
+        }
+    }
+
+    @FunctionalInterface
+    public interface RowVisitor {
+        void visit(LocalDateTime hourStart, String deviceMac, long bytes, long signalSum, long signalSamples);
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private static int[] sizesOf(Chunk[] snapshot) {
+        int[] sizes = new int[snapshot.length];
+        for (int i = 0; i < snapshot.length; i++) {
+            sizes[i] = snapshot[i].size;
+        }
+        return sizes;
+    }
+
+    private static int hourOf(int minute) {
+        return Math.floorDiv(minute, 60) * 60;
+    }
+
+    private int deviceId(String deviceMac) {
+        Integer id = idByMac.get(deviceMac);
+        if (id != null) {
+            return id;
+        }
+        int next = deviceCount;
+        if (next == macById.length) {
+            int capacity = next * 2;
+            macById = Arrays.copyOf(macById, capacity);
+            nameById = Arrays.copyOf(nameById, capacity);
+            openBytes = Arrays.copyOf(openBytes, capacity);
+            openMinutes = Arrays.copyOf(openMinutes, capacity);
+            openSignalSum = Arrays.copyOf(openSignalSum, capacity);
+            openSignalSamples = Arrays.copyOf(openSignalSamples, capacity);
+            openLastSeen = Arrays.copyOf(openLastSeen, capacity);
+            openTouched = Arrays.copyOf(openTouched, capacity);
+        }
+        macById[next] = deviceMac;
+        idByMac.put(deviceMac, next);
+        deviceCount = next + 1;
+        return next;
+    }
+
+    private void sealOpenHour() {
+        if (openHour == NO_HOUR) {
+            return;
+        }
+        for (int id = 0; id < deviceCount; id++) {
+            if (!openTouched[id]) {
+                continue;
+            }
+            Chunk tail = chunks.length > 0 ? chunks[chunks.length - 1] : null;
+            if (tail == null || tail.size == CHUNK_SIZE) {
+                tail = new Chunk();
+                Chunk[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+                grown[grown.length - 1] = tail;
+                chunks = grown;
+            }
+            tail.append(openHour, id, openBytes[id], openMinutes[id], openSignalSum[id],
+                    openSignalSamples[id], openLastSeen[id]);
+
+            openBytes[id] = 0;
+            openMinutes[id] = 0;
+            openSignalSum[id] = 0;
+            openSignalSamples[id] = 0;
+            openLastSeen[id] = 0;
+            openTouched[id] = false;
+        }
+        evict();
+    }
+
+    private void evict() {
+        if (openHour == NO_HOUR) {
+            return;
+        }
+        int cutoff = Math.max(coverageStartMinute == Integer.MAX_VALUE ? Integer.MIN_VALUE : coverageStartMinute,
+                openHour - (int) windowMinutes);
+        // Keep the whole hour the cutoff falls in, since queries start on an hour boundary
+        int keepHour = hourOf(cutoff);
+        int keepFrom = 0;
+        while (keepFrom < chunks.length && chunks[keepFrom].size > 0
+                && chunks[keepFrom].hours[chunks[keepFrom].size - 1] < keepHour) {
+            keepFrom++;
+        }
+        if (keepFrom > 0) {
+            chunks = Arrays.copyOfRange(chunks, keepFrom, chunks.length);
+        }
+        if (coverageStartMinute != Integer.MAX_VALUE) {
+            coverageStartMinute = cutoff;
+        }
+    }
+
+    private void addOpenHour(int fromHour, int toMinute, DeviceTotals deviceTotals,
+                                          HourOfDayTotals hourTotals) {
+        if (openHour == NO_HOUR || openHour < fromHour || openHour >= toMinute) {
+            return;
+        }
+        for (int id = 0; id < deviceCount; id++) {
+            if (!openTouched[id]) {
+                continue;
+            }
+            if (deviceTotals != null) {
+                deviceTotals.add(id, openBytes[id], openMinutes[id], openLastSeen[id]);
+            }
+            if (hourTotals != null) {
+                hourTotals.add(openHour, id, openBytes[id], openSignalSum[id], openSignalSamples[id]);
+            }
+        }
+    }
+
+    /**
+     * Fixed-capacity block of rows, filled once and never rewritten
+     */
+    private static final class Chunk {
+        final int[] hours = new int[CHUNK_SIZE];
+        final int[] deviceIds = new int[CHUNK_SIZE];
+        final long[] bytes = new long[CHUNK_SIZE];
+        final long[] minutes = new long[CHUNK_SIZE];
+        final long[] signalSums = new long[CHUNK_SIZE];
+        final long[] signalSamples = new long[CHUNK_SIZE];
+        final int[] lastSeen = new int[CHUNK_SIZE];
+        int size;
+
+        void append(int hour, int deviceId, long rowBytes, long rowMinutes, long signalSum, long samples, int seen) {
+            int row = size;
+            hours[row] = hour;
+            deviceIds[row] = deviceId;
+            bytes[row] = rowBytes;
+            minutes[row] = rowMinutes;
+            signalSums[row] = signalSum;
+            signalSamples[row] = samples;
+            lastSeen[row] = seen;
+            size = row + 1;
+        }
+
+        void sumByDevice(int rows, int fromHour, int toMinute, DeviceTotals totals) {
+            if (rows == 0 || hours[rows - 1] < fromHour || hours[0] >= toMinute) {
+                return;
+            }
+            for (int row = 0; row < rows; row++) {
+                int hour = hours[row];
+                if (hour >= fromHour && hour < toMinute) {
+                    totals.add(deviceIds[row], bytes[row], minutes[row], lastSeen[row]);
+                }
+            }
+        }
+
+        void visit(int rows, int fromHour, int toMinute, String[] macs, RowVisitor visitor) {
+            if (rows == 0 || hours[rows - 1] < fromHour || hours[0] >= toMinute) {
+                return;
+            }
+            for (int row = 0; row < rows; row++) {
+                int hour = hours[row];
+                if (hour >= fromHour && hour < toMinute) {
+                    visitor.visit(fromMinute(hour), macs[deviceIds[row]], bytes[row], signalSums[row], signalSamples[row]);
+                }
+            }
+        }
+
+        void sumByHourOfDay(int rows, int fromHour, int toMinute, HourOfDayTotals totals) {
+            if (rows == 0 || hours[rows - 1] < fromHour || hours[0] >= toMinute) {
+                return;
+            }
+            for (int row = 0; row < rows; row++) {
+                int hour = hours[row];
+                if (hour >= fromHour && hour < toMinute) {
+                    totals.add(hour, deviceIds[row], bytes[row], signalSums[row], signalSamples[row]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Per-device sums indexed by device id
+     */
+    public static final class DeviceTotals {
+        private final long[] bytes;
+        private final long[] minutes;
+        private final int[] lastSeen;
+        private final boolean[] present;
+        private final String[] macs;
+        private final String[] names;
+
+        DeviceTotals(int devices, String[] macs, String[] names) {
+            bytes = new long[devices];
+            minutes = new long[devices];
+            lastSeen = new int[devices];
+            present = new boolean[devices];
+            this.macs = macs;
+            this.names = names;
+        }
+
+        void add(int id, long rowBytes, long rowMinutes, int seen) {
+            bytes[id] += rowBytes;
+            minutes[id] += rowMinutes;
+            if (!present[id] || seen > lastSeen[id]) {
+                lastSeen[id] = seen;
+            }
+            present[id] = true;
+        }
+
+        DeviceTotals merge(DeviceTotals other) {
+            for (int id = 0; id < bytes.length; id++) {
+                if (other.present[id]) {
+                    add(id, other.bytes[id], other.minutes[id], other.lastSeen[id]);
+                }
+            }
+            return this;
+        }
+
+        public int capacity() {
+            return bytes.length;
+        }
+
+        public boolean isPresent(int id) {
+            return present[id];
+        }
+
+        public String deviceMac(int id) {
+            return macs[id];
+        }
+
+        public String deviceName(int id) {
+            return names[id];
+        }
+
+        public long bytes(int id) {
+            return bytes[id];
+        }
+
+        public long minutes(int id) {
+            return minutes[id];
+        }
+
+        public LocalDateTime lastSeenAt(int id) {
+            return fromMinute(lastSeen[id]);
+        }
+    }
+
+    /**
+     * Sums per hour of the day (0-23), with distinct devices tracked in one bitset per hour
+     */
+    public static final class HourOfDayTotals {
+        private final long[] bytes = new long[24];
+        private final long[] signalSums = new long[24];
+        private final long[] signalSamples = new long[24];
+        private final long[][] devices;
+        private final int deviceLimit;
+
+        HourOfDayTotals(int deviceCount) {
+            deviceLimit = deviceCount;
+            devices = new long[24][(deviceCount + 63) >>> 6];
+        }
+
+        void add(int hourMinute, int id, long rowBytes, long signalSum, long samples) {
+            int hourOfDay = Math.floorMod(hourMinute / 60, 24);
+            bytes[hourOfDay] += rowBytes;
+            signalSums[hourOfDay] += signalSum;
+            signalSamples[hourOfDay] += samples;
+            devices[hourOfDay][id >>> 6] |= 1L << id;
+        }
+
+        HourOfDayTotals merge(HourOfDayTotals other) {
+            for (int hour = 0; hour < 24; hour++) {
+                bytes[hour] += other.bytes[hour];
+                signalSums[hour] += other.signalSums[hour];
+                signalSamples[hour] += other.signalSamples[hour];
+                for (int word = 0; word < devices[hour].length; word++) {
+                    devices[hour][word] |= other.devices[hour][word];
+                }
+            }
+            return this;
+        }
+
+        public long bytes(int hourOfDay) {
+            return bytes[hourOfDay];
+        }
+
+        public int deviceCount(int hourOfDay) {
+            int count = 0;
+            for (long word : devices[hourOfDay]) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+
+        public double averageSignal(int hourOfDay) {
+            return signalSamples[hourOfDay] > 0 ? (double) signalSums[hourOfDay] / signalSamples[hourOfDay] : 0.0;
+        }
+
+        public long totalBytes() {
+            long total = 0;
+            for (long hourBytes : bytes) {
+                total += hourBytes;
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Recurring weekly windows compiled into sorted, disjoint minute-of-week intervals.
+ * Windows may run past midnight (21:00-07:00) and past the end of the week; they are split
+ * at the week boundary and merged, so membership and the next open/close transition are a
+ * binary search over two int arrays.
+ */
+public final class WeeklyIntervalIndex {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    public static final WeeklyIntervalIndex EMPTY = new WeeklyIntervalIndex(new int[0], new int[0]);
+
+    private final int[] starts;
+    private final int[] ends;
+
+    private WeeklyIntervalIndex(int[] starts, int[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static int minuteOfWeek(LocalDateTime time) {
+        return (time.getDayOfWeek().getValue() - 1) * MINUTES_PER_DAY + time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * Whether the minute falls inside any window
+     */
+    public boolean contains(int minuteOfWeek) {
+        int index = floorIndex(minuteOfWeek);
+        return index >= 0 && minuteOfWeek < ends[index];
+    }
+
+    /**
+     * Minutes from {@code minuteOfWeek} until membership next changes, or -1 if it never does
+     */
+    public int minutesUntilTransition(int minuteOfWeek) {
+        if (starts.length == 0 || coversWholeWeek()) {
+            return -1;
+        }
+        int index = floorIndex(minuteOfWeek);
+        if (index >= 0 && minuteOfWeek < ends[index]) {
+            int end = ends[index];
+            // A window ending at the week boundary continues into the one starting at minute 0
+            if (end == MINUTES_PER_WEEK && starts[0] == 0) {
+                end = MINUTES_PER_WEEK + ends[0];
+            }
+            return end - minuteOfWeek;
+        }
+        int next = index + 1 < starts.length ? starts[index + 1] : starts[0] + MINUTES_PER_WEEK;
+        return next - minuteOfWeek;
+    }
+
+    public boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    public int intervalCount() {
+        return starts.length;
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private boolean coversWholeWeek() {
+        return starts.length == 1 && starts[0] == 0 && ends[0] == MINUTES_PER_WEEK;
+    }
+
+    private int floorIndex(int minuteOfWeek) {
+        int index = Arrays.binarySearch(starts, minuteOfWeek);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    public static final class Builder {
+        private final List<int[]> intervals = new ArrayList<>();
+
+        /**
+         * Add a window that opens on {@code day} at {@code start} and closes at {@code end},
+         * on the following day if {@code end} is not after {@code start}
+         */
+        public Builder addWindow(DayOfWeek day, LocalTime start, LocalTime end) {
+            int startMinute = (day.getValue() - 1) * MINUTES_PER_DAY + start.getHour() * 60 + start.getMinute();
+            int startOfDay = start.getHour() * 60 + start.getMinute();
+            int endOfDay = end.getHour() * 60 + end.getMinute();
+            int length = endOfDay > startOfDay ? endOfDay - startOfDay : MINUTES_PER_DAY - startOfDay + endOfDay;
+            return add(startMinute, startMinute + length);
+        }
+
+        /**
+         * Add every interval of an already compiled index
+         */
+        public Builder addAll(WeeklyIntervalIndex index) {
+            for (int i = 0; i < index.starts.length; i++) {
+                intervals.add(new int[]{index.starts[i], index.ends[i]});
+            }
+            return this;
+        }
+
+        public WeeklyIntervalIndex build() {
+            if (intervals.isEmpty()) {
+                return EMPTY;
+            }
+            intervals.sort((a, b) -> Integer.compare(a[0], b[0]));
+            int[] starts = new int[intervals.size()];
+            int[] ends = new int[intervals.size()];
+            int count = 0;
+            for (int[] interval : intervals) {
+                if (count > 0 && interval[0] <= ends[count - 1]) {
+                    ends[count - 1] = Math.max(ends[count - 1], interval[1]);
+                } else {
+                    starts[count] = interval[0];
+                    ends[count] = interval[1];
+                    count++;
+                }
+            }
+            return new WeeklyIntervalIndex(Arrays.copyOf(starts, count), Arrays.copyOf(ends, count));
+        }
+
+        private Builder add(int start, int end) {
+            if (end > MINUTES_PER_WEEK) {
+                intervals.add(new int[]{start, MINUTES_PER_WEEK});
+                intervals.add(new int[]{0, end - MINUTES_PER_WEEK});
+            } else {
+                intervals.add(new int[]{start, end});
+            }
+            return this;
+        }
+    }
+}
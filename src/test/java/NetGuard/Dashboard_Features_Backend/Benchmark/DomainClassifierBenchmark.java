@@ -0,0 +1,85 @@
+package NetGuard.Dashboard_Features_Backend.Benchmark;
+
+import NetGuard.Dashboard_Features_Backend.Util.DomainClassifier;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-thread lookup throughput of the compiled domain classifier against a list of one
+ * million synthetic domains. Run with:
+ * <pre>
+ * mvn -B test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=NetGuard.Dashboard_Features_Backend.Benchmark.DomainClassifierBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DomainClassifierBenchmark {
+
+    private static final int LISTED_DOMAINS = 1_000_000;
+    private static final int LOOKUP_SET = 4096;
+
+    private DomainClassifier classifier;
+    private String[] listedUrls;
+    private String[] unlistedUrls;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        DomainClassifier.Builder builder = DomainClassifier.builder();
+        String[] domains = new String[LISTED_DOMAINS];
+        for (int i = 0; i < LISTED_DOMAINS; i++) {
+            domains[i] = randomLabel(random) + "." + randomLabel(random) + (i % 3 == 0 ? ".com" : ".net");
+            builder.addDomain(domains[i], 1 + (i % 7), i % 50 == 0 ? DomainClassifier.FLAG_BLOCKED : 0);
+        }
+        for (String keyword : new String[]{"youtube", "netflix", "news", "shop", "malware", "phishing",
+                "casino", "porn", "click-here", "free-money"}) {
+            builder.addKeyword(keyword, 2, DomainClassifier.FLAG_SUSPICIOUS);
+        }
+        classifier = builder.build();
+
+        listedUrls = new String[LOOKUP_SET];
+        unlistedUrls = new String[LOOKUP_SET];
+        for (int i = 0; i < LOOKUP_SET; i++) {
+            listedUrls[i] = "https://www." + domains[random.nextInt(LISTED_DOMAINS)] + "/watch?v=" + i;
+            unlistedUrls[i] = "https://cdn-" + i + "." + randomLabel(random) + ".org/assets/app.js";
+        }
+    }
+
+    @Benchmark
+    public int classifyListedDomain() {
+        return classifier.classify(listedUrls[cursor++ & (LOOKUP_SET - 1)]);
+    }
+
+    @Benchmark
+    public int classifyUnlistedDomain() {
+        return classifier.classify(unlistedUrls[cursor++ & (LOOKUP_SET - 1)]);
+    }
+
+    private static String randomLabel(SplittableRandom random) {
+        int length = 4 + random.nextInt(9);
+        StringBuilder label = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            label.append((char) ('a' + random.nextInt(26)));
+        }
+        return label.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DomainClassifierBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
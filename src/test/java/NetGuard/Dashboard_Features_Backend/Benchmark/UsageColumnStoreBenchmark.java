@@ -0,0 +1,77 @@
+package NetGuard.Dashboard_Features_Backend.Benchmark;
+
+import NetGuard.Dashboard_Features_Backend.Util.UsageColumnStore;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the 30-day device and hour-of-day breakdowns over the in-memory usage columns,
+ * for a busy network of 200 devices active two hours in three. Run with:
+ * <pre>
+ * mvn -B test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=NetGuard.Dashboard_Features_Backend.Benchmark.UsageColumnStoreBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsageColumnStoreBenchmark {
+
+    private static final int DEVICES = 200;
+    private static final int DAYS = 30;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private UsageColumnStore store;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        store = new UsageColumnStore(DAYS);
+        for (int hour = 0; hour < DAYS * 24; hour++) {
+            LocalDateTime hourStart = start.plusHours(hour);
+            for (int device = 0; device < DEVICES; device++) {
+                if (random.nextInt(3) == 0) {
+                    continue;
+                }
+                store.add(hourStart, "02:00:00:00:" + String.format("%02X:%02X", device >> 8, device & 0xFF),
+                        "Device " + device, random.nextInt(50_000_000), random.nextInt(61),
+                        random.nextInt(100) * 120L, 120, hourStart.plusMinutes(random.nextInt(60)));
+            }
+        }
+        to = start.plusDays(DAYS);
+        from = to.minusDays(DAYS);
+        store.markLoaded(to);
+    }
+
+    @Benchmark
+    public UsageColumnStore.DeviceTotals deviceBreakdown() {
+        return store.deviceTotals(from, to, parallel);
+    }
+
+    @Benchmark
+    public UsageColumnStore.HourOfDayTotals hourOfDayBreakdown() {
+        return store.hourOfDayTotals(from, to, parallel);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(UsageColumnStoreBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
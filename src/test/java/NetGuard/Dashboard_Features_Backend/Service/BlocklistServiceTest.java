@@ -0,0 +1,124 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.Util.BlocklistCompiler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlocklistServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BlocklistService blocklists;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        blocklists = new BlocklistService(meterRegistry);
+        ReflectionTestUtils.setField(blocklists, "blocklistDir", dir.toString());
+        ReflectionTestUtils.setField(blocklists, "activeProfiles", List.of());
+        ReflectionTestUtils.setField(blocklists, "filterFalsePositiveRate", 0.01);
+    }
+
+    @Test
+    void reloadSwapsInTheRecompiledList() throws IOException {
+        compile("kids", "old.example");
+        blocklists.init();
+        assertTrue(blocklists.isBlocked("https://www.old.example/"));
+
+        compile("kids", "new.example", "other.example");
+        blocklists.reloadChangedLists();
+
+        assertFalse(blocklists.isBlocked("https://www.old.example/"));
+        assertTrue(blocklists.isBlocked("https://www.new.example/"));
+        assertEquals(Map.of("kids", 2), blocklists.getProfileSizes());
+    }
+
+    @Test
+    void unreadableReplacementKeepsTheLoadedList() throws IOException {
+        compile("kids", "casino.example");
+        blocklists.init();
+
+        // Replaced by a move like the compiler does; rewriting a mapped file in place would corrupt the live mapping
+        Path garbage = Files.writeString(dir.resolve("kids.partial"), "half-written garbage");
+        Files.move(garbage, dir.resolve("kids" + BlocklistCompiler.FILE_EXTENSION),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        blocklists.reloadChangedLists();
+
+        assertTrue(blocklists.isBlocked("casino.example"), "a bad file never replaces a good mapping");
+        assertEquals(Map.of("kids", 1), blocklists.getProfileSizes());
+    }
+
+    @Test
+    void profilesAppearAndDisappearWithTheirFiles() throws IOException {
+        compile("kids", "casino.example");
+        blocklists.init();
+
+        compile("teens", "ads.example");
+        blocklists.reloadChangedLists();
+        assertEquals(Map.of("kids", 1, "teens", 1), blocklists.getProfileSizes());
+        assertTrue(blocklists.isBlocked("teens", "ads.example"));
+        assertFalse(blocklists.isBlocked("kids", "ads.example"));
+
+        Files.delete(dir.resolve("teens" + BlocklistCompiler.FILE_EXTENSION));
+        blocklists.reloadChangedLists();
+        assertEquals(Map.of("kids", 1), blocklists.getProfileSizes());
+        assertFalse(blocklists.isBlocked("ads.example"));
+    }
+
+    @Test
+    void activeProfilesLimitWhichListsApply() throws IOException {
+        compile("kids", "casino.example");
+        compile("teens", "ads.example");
+        ReflectionTestUtils.setField(blocklists, "activeProfiles", List.of("teens"));
+        blocklists.init();
+
+        assertTrue(blocklists.isBlocked("ads.example"));
+        assertFalse(blocklists.isBlocked("casino.example"));
+    }
+
+    @Test
+    void filterCountersSurviveReloads() throws IOException {
+        compile("kids", "casino.example");
+        blocklists.init();
+        blocklists.isBlocked("https://library.example/");
+        long before = lookups(blocklists.getFilterStats().get("kids"));
+
+        compile("kids", "casino.example", "poker.example");
+        blocklists.reloadChangedLists();
+        blocklists.isBlocked("https://school.example/");
+
+        Map<String, Object> stats = blocklists.getFilterStats().get("kids");
+        assertTrue(before > 0);
+        assertTrue(lookups(stats) > before, "counters accumulate across the swap");
+        double exported = meterRegistry.get("netguard.blocklist.filter.lookups")
+                .tag("profile", "kids").tag("result", "definite_miss").functionCounter().count();
+        assertEquals((long) stats.get("definiteMisses"), (long) exported);
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private static long lookups(Map<String, Object> stats) {
+        return (long) stats.get("definiteMisses") + (long) stats.get("maybeHits");
+    }
+
+    private void compile(String profile, String... domains) throws IOException {
+        Path source = Files.write(Files.createTempFile(dir, profile, ".txt"), List.of(domains));
+        BlocklistCompiler.compile(List.of(source), dir.resolve(profile + BlocklistCompiler.FILE_EXTENSION));
+    }
+}
@@ -0,0 +1,142 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.Util.CommandRunner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeviceEnforcementServiceTest {
+
+    private FakeNft nft;
+    private DeviceEnforcementService enforcement;
+
+    @BeforeEach
+    void setUp() {
+        nft = new FakeNft();
+        enforcement = new DeviceEnforcementService(nft);
+        ReflectionTestUtils.setField(enforcement, "backendName", "nftables");
+        ReflectionTestUtils.setField(enforcement, "useSudo", false);
+        enforcement.init();
+        nft.scripts.clear();
+    }
+
+    @Test
+    void reconcileAppliesOnlyTheDifferenceInOneTransaction() {
+        nft.sets.get("blocked_macs").addAll(List.of("aa:aa:aa:aa:aa:aa", "bb:bb:bb:bb:bb:bb"));
+        nft.sets.get("blocked_ipv4").add("192.168.1.50");
+
+        assertTrue(enforcement.reconcile(Set.of("BB-BB-BB-BB-BB-BB", "cc:cc:cc:cc:cc:cc"), Set.of("192.168.1.60")));
+
+        assertEquals(1, nft.scripts.size());
+        String script = nft.scripts.get(0);
+        assertTrue(script.contains("delete element inet netguard blocked_macs { aa:aa:aa:aa:aa:aa }"));
+        assertTrue(script.contains("add element inet netguard blocked_macs { cc:cc:cc:cc:cc:cc }"));
+        assertTrue(script.contains("delete element inet netguard blocked_ipv4 { 192.168.1.50 }"));
+        assertTrue(script.contains("add element inet netguard blocked_ipv4 { 192.168.1.60 }"));
+        assertFalse(script.contains("bb:bb"), "entries already in place must not be touched");
+    }
+
+    @Test
+    void batchOfManyDevicesIsOneNftCallAndSkipsNoOps() {
+        enforcement.reconcile(Set.of("aa:aa:aa:aa:aa:aa"), Set.of());
+        nft.scripts.clear();
+
+        assertTrue(enforcement.apply(
+                Set.of("aa:aa:aa:aa:aa:aa", "bb:bb:bb:bb:bb:bb", "cc:cc:cc:cc:cc:cc"),
+                Set.of("10.0.0.2", "fd00::2"),
+                Set.of("dd:dd:dd:dd:dd:dd"),
+                Set.of()));
+
+        assertEquals(1, nft.scripts.size());
+        String script = nft.scripts.get(0);
+        assertTrue(script.contains("add element inet netguard blocked_macs { bb:bb:bb:bb:bb:bb, cc:cc:cc:cc:cc:cc }"));
+        assertTrue(script.contains("add element inet netguard blocked_ipv4 { 10.0.0.2 }"));
+        assertTrue(script.contains("add element inet netguard blocked_ipv6 { fd00::2 }"));
+        assertFalse(script.contains("delete"), "unblocking a device that is not in the set is a no-op");
+        assertTrue(enforcement.isMacBlocked("BB:BB:BB:BB:BB:BB"));
+    }
+
+    @Test
+    void failedUpdateRereadsKernelStateAndRetriesOnce() {
+        enforcement.reconcile(Set.of(), Set.of());
+        // Someone else added the MAC behind our back, so our add fails the first time
+        nft.sets.get("blocked_macs").add("aa:aa:aa:aa:aa:aa");
+        nft.failNextScript = true;
+
+        assertTrue(enforcement.block("aa:aa:aa:aa:aa:aa", "192.168.1.7"));
+
+        String retry = nft.scripts.get(nft.scripts.size() - 1);
+        assertFalse(retry.contains("blocked_macs"), "retry must be computed from the re-read kernel state");
+        assertTrue(retry.contains("add element inet netguard blocked_ipv4 { 192.168.1.7 }"));
+    }
+
+    @Test
+    void malformedEntriesAreDroppedWithoutFailingTheBatch() {
+        assertTrue(enforcement.apply(
+                Set.of("aa:aa:aa:aa:aa:aa", "bb:bb:bb:bb:bb:bb }\nflush ruleset", "cc:cc:cc:cc:cc", "dd:dd:dd:dd:dd:zz"),
+                Set.of("10.0.0.2", "10.0.0.3; flush ruleset", "256.1.1.1", "fd00::3", "fd00::4#x", "example.com"),
+                Set.of("ee:ee:ee:ee:ee:ee # comment"),
+                Set.of("fe80::1%eth0")));
+
+        assertEquals(1, nft.scripts.size());
+        String script = nft.scripts.get(0);
+        assertTrue(script.contains("add element inet netguard blocked_macs { aa:aa:aa:aa:aa:aa }\n"));
+        assertTrue(script.contains("add element inet netguard blocked_ipv4 { 10.0.0.2 }\n"));
+        assertTrue(script.contains("add element inet netguard blocked_ipv6 { fd00::3 }\n"));
+        assertFalse(script.contains("flush"));
+        assertFalse(script.contains("#"));
+        assertFalse(script.contains("example.com"));
+        assertEquals(3, script.lines().count());
+    }
+
+    @Test
+    void reconcileIgnoresMalformedDesiredEntries() {
+        nft.sets.get("blocked_macs").add("aa:aa:aa:aa:aa:aa");
+
+        assertTrue(enforcement.reconcile(Set.of("AA-AA-AA-AA-AA-AA", "not-a-mac"), Set.of("192.168.1.1\n")));
+
+        assertEquals(1, nft.scripts.size());
+        assertEquals("add element inet netguard blocked_ipv4 { 192.168.1.1 }\n", nft.scripts.get(0));
+        assertTrue(enforcement.isMacBlocked("aa-aa-aa-aa-aa-aa"));
+    }
+
+    /**
+     * Stand-in for the nft binary: serves set listings and records transaction scripts
+     */
+    private static class FakeNft implements CommandRunner {
+
+        final Map<String, Set<String>> sets = new HashMap<>(Map.of(
+                "blocked_macs", new TreeSet<>(), "blocked_ipv4", new TreeSet<>(), "blocked_ipv6", new TreeSet<>()));
+        final List<String> scripts = new ArrayList<>();
+        boolean failNextScript;
+
+        @Override
+        public Result run(List<String> command, String stdin, Duration timeout) {
+            assertEquals("nft", command.get(0));
+            if (command.contains("--version")) {
+                return new Result(0, "nftables v1.0.9", "");
+            }
+            if (command.contains("list")) {
+                String set = command.get(command.size() - 1);
+                StringBuilder elements = new StringBuilder();
+                for (String element : sets.get(set)) {
+                    if (elements.length() > 0) elements.append(',');
+                    elements.append('"').append(element).append('"');
+                }
+                return new Result(0, "{\"nftables\": [{\"metainfo\": {}}, {\"set\": {\"name\": \"" + set
+                        + "\", \"elem\": [" + elements + "]}}]}", "");
+            }
+            scripts.add(stdin);
+            if (failNextScript) {
+                failNextScript = false;
+                return new Result(1, "", "Error: Could not process rule: File exists");
+            }
+            return new Result(0, "", "");
+        }
+    }
+}
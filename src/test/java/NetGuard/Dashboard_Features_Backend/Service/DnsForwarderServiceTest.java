@@ -0,0 +1,344 @@
+package NetGuard.Dashboard_Features_Backend.Service;
+
+import NetGuard.Dashboard_Features_Backend.Event.DnsQueryEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DnsForwarderServiceTest {
+
+    private static final int STUB_TTL = 300;
+
+    private DatagramSocket stubUpstream;
+    private Thread stubThread;
+    private final AtomicInteger upstreamQueries = new AtomicInteger();
+    // How the stub answers: number of A records, or a malformed reply
+    private volatile int stubAnswerCount = 1;
+    private volatile byte[] stubRawReply;
+    private DnsForwarderService forwarder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stubUpstream = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+        stubThread = new Thread(this::runStubUpstream);
+        stubThread.setDaemon(true);
+        stubThread.start();
+
+        forwarder = new DnsForwarderService();
+        ReflectionTestUtils.setField(forwarder, "listenAddress", "127.0.0.1");
+        ReflectionTestUtils.setField(forwarder, "listenPort", 0);
+        ReflectionTestUtils.setField(forwarder, "upstreamHost", "127.0.0.1");
+        ReflectionTestUtils.setField(forwarder, "upstreamPort", stubUpstream.getLocalPort());
+        ReflectionTestUtils.setField(forwarder, "upstreamTimeoutMs", 2000);
+        ReflectionTestUtils.setField(forwarder, "cacheMaxEntries", 100);
+        ReflectionTestUtils.setField(forwarder, "eventQueueCapacity", 100);
+        ReflectionTestUtils.setField(forwarder, "workerThreads", 2);
+        ReflectionTestUtils.setField(forwarder, "tcpMaxConnections", 2);
+        ReflectionTestUtils.setField(forwarder, "tcpIdleTimeoutMs", 1000);
+        ReflectionTestUtils.setField(forwarder, "tcpMaxConnectionMs", 1500);
+        forwarder.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        forwarder.stop();
+        stubUpstream.close();
+    }
+
+    @Test
+    void forwardsQueryAndServesRepeatFromCache() throws Exception {
+        byte[] first = queryUdp(buildQuery(0x1234, "www.Example.com", 1));
+        assertEquals(0x1234, readShort(first, 0));
+        assertEquals(1, readShort(first, 6), "one answer record");
+        assertEquals(1, upstreamQueries.get());
+
+        byte[] second = queryUdp(buildQuery(0x4321, "www.example.com", 1));
+        assertEquals(0x4321, readShort(second, 0), "cached answer carries the new transaction id");
+        assertEquals(1, upstreamQueries.get(), "repeat answered from cache");
+        assertTrue(readAnswerTtl(second) <= STUB_TTL);
+
+        List<DnsQueryEvent> events = new ArrayList<>();
+        forwarder.drainQueryEvents(events::add);
+        assertEquals(2, events.size());
+        assertEquals("127.0.0.1", events.get(0).clientIp());
+        assertEquals("www.example.com", events.get(0).queryName());
+        assertEquals(1, events.get(0).queryType());
+    }
+
+    @Test
+    void differentQueryTypesAreCachedSeparately() throws Exception {
+        queryUdp(buildQuery(1, "example.org", 1));
+        queryUdp(buildQuery(2, "example.org", 28));
+        assertEquals(2, upstreamQueries.get());
+    }
+
+    @Test
+    void answersOverTcp() throws Exception {
+        queryUdp(buildQuery(7, "tcp.example.net", 1));
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), forwarder.getListenPort())) {
+            byte[] query = buildQuery(8, "tcp.example.net", 1);
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.writeShort(query.length);
+            out.write(query);
+            out.flush();
+
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            byte[] response = new byte[in.readUnsignedShort()];
+            in.readFully(response);
+            assertEquals(8, readShort(response, 0));
+        }
+        assertEquals(1, upstreamQueries.get(), "TCP query served from the shared cache");
+    }
+
+    @Test
+    void oversizedUdpAnswerIsTruncatedAndServedInFullOverTcp() throws Exception {
+        stubAnswerCount = 40; // 40 A records push the reply well past 512 bytes
+
+        byte[] udp = queryUdp(buildQuery(21, "big.example.com", 1));
+        assertEquals(21, readShort(udp, 0));
+        assertTrue(udp.length <= 512);
+        assertTrue((udp[2] & 0x02) != 0, "TC bit set");
+        assertEquals(0, readShort(udp, 6), "no partial answer section");
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), forwarder.getListenPort())) {
+            byte[] query = buildQuery(22, "big.example.com", 1);
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.writeShort(query.length);
+            out.write(query);
+            out.flush();
+
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            byte[] response = new byte[in.readUnsignedShort()];
+            in.readFully(response);
+            assertTrue(response.length > 512);
+            assertEquals(40, readShort(response, 6), "full answer over TCP");
+        }
+    }
+
+    @Test
+    void answerWithinClientEdnsSizeIsNotTruncated() throws Exception {
+        stubAnswerCount = 40;
+
+        byte[] udp = queryUdp(buildQuery(23, "edns.example.com", 1, 4096));
+        assertEquals(0, udp[2] & 0x02, "TC bit clear");
+        assertEquals(40, readShort(udp, 6));
+        assertTrue(udp.length > 512);
+    }
+
+    @Test
+    void malformedUpstreamRepliesAreDroppedAndListenerKeepsServing() throws Exception {
+        // Shorter than the 12-byte header
+        stubRawReply = new byte[]{0, 31, (byte) 0x81, (byte) 0x80, 0};
+        assertNull(queryUdp(buildQuery(31, "short.example.com", 1), 500));
+
+        // Valid header and question, but the answer record is cut off partway
+        byte[] full = buildAnswer(buildQuery(32, "cut.example.com", 1), 1);
+        stubRawReply = Arrays.copyOf(full, full.length - 3);
+        assertNull(queryUdp(buildQuery(32, "cut.example.com", 1), 500));
+
+        assertEquals(2, forwarder.getMalformedResponses());
+        assertEquals(0, forwarder.getAnswerCache().size(), "malformed replies are never cached");
+
+        stubRawReply = null;
+        byte[] good = queryUdp(buildQuery(33, "ok.example.com", 1));
+        assertEquals(33, readShort(good, 0));
+        assertEquals(1, readShort(good, 6));
+    }
+
+    @Test
+    void stalledTcpConnectionsDoNotStarveUdpAndExtraOnesAreRefused() throws Exception {
+        List<Socket> stalled = new ArrayList<>();
+        try {
+            // More idle TCP clients than there are TCP slots and workers combined
+            for (int i = 0; i < 4; i++) {
+                Socket socket = new Socket(InetAddress.getLoopbackAddress(), forwarder.getListenPort());
+                socket.getOutputStream().write(0);
+                stalled.add(socket);
+            }
+
+            byte[] reply = queryUdp(buildQuery(41, "udp.example.com", 1));
+            assertEquals(41, readShort(reply, 0), "UDP keeps resolving while TCP clients stall");
+
+            Socket refused = stalled.get(3);
+            refused.setSoTimeout(500);
+            assertEquals(-1, refused.getInputStream().read(), "connection beyond the TCP limit is closed at once");
+        } finally {
+            for (Socket socket : stalled) {
+                socket.close();
+            }
+        }
+    }
+
+    @Test
+    void tcpConnectionTricklingBytesIsClosedAtTheDeadline() throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), forwarder.getListenPort())) {
+            byte[] query = buildQuery(51, "slow.example.com", 1);
+            Thread trickle = new Thread(() -> {
+                try {
+                    // Each byte arrives well inside the idle timeout, so only the overall deadline can end this
+                    DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                    out.writeShort(query.length);
+                    for (byte b : query) {
+                        out.write(b);
+                        out.flush();
+                        Thread.sleep(300);
+                    }
+                } catch (Exception e) {
+                    // Closed by the forwarder
+                }
+            });
+            trickle.setDaemon(true);
+            trickle.start();
+
+            long started = System.nanoTime();
+            socket.setSoTimeout(5000);
+            int read;
+            try {
+                read = socket.getInputStream().read();
+            } catch (SocketException e) {
+                read = -1;
+            }
+            long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+            assertEquals(-1, read);
+            assertTrue(elapsedMs >= 1000 && elapsedMs < 4000, "closed after the deadline, took " + elapsedMs + " ms");
+        }
+    }
+
+    // ==========================================
+    // STUB UPSTREAM AND MESSAGE HELPERS
+    // ==========================================
+
+    private void runStubUpstream() {
+        byte[] buffer = new byte[4096];
+        while (!stubUpstream.isClosed()) {
+            try {
+                DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                stubUpstream.receive(packet);
+                upstreamQueries.incrementAndGet();
+                byte[] raw = stubRawReply;
+                byte[] reply = raw != null ? raw : buildAnswer(Arrays.copyOf(packet.getData(), packet.getLength()), stubAnswerCount);
+                stubUpstream.send(new DatagramPacket(reply, reply.length, packet.getSocketAddress()));
+            } catch (Exception e) {
+                return;
+            }
+        }
+    }
+
+    private byte[] queryUdp(byte[] query) throws Exception {
+        byte[] reply = queryUdp(query, 3000);
+        assertNotNull(reply, "no reply from forwarder");
+        return reply;
+    }
+
+    /**
+     * Send over UDP and return the reply, or null if none arrives within the timeout
+     */
+    private byte[] queryUdp(byte[] query, int timeoutMs) throws Exception {
+        try (DatagramSocket client = new DatagramSocket()) {
+            client.setSoTimeout(timeoutMs);
+            client.send(new DatagramPacket(query, query.length, InetAddress.getLoopbackAddress(), forwarder.getListenPort()));
+            byte[] buffer = new byte[4096];
+            DatagramPacket reply = new DatagramPacket(buffer, buffer.length);
+            try {
+                client.receive(reply);
+            } catch (SocketTimeoutException e) {
+                return null;
+            }
+            return Arrays.copyOf(reply.getData(), reply.getLength());
+        }
+    }
+
+    private static byte[] buildQuery(int id, String name, int type) throws Exception {
+        return buildQuery(id, name, type, 0);
+    }
+
+    /**
+     * A query, with an EDNS0 OPT record advertising {@code udpPayload} bytes when it is positive
+     */
+    private static byte[] buildQuery(int id, String name, int type, int udpPayload) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeShort(id);
+        out.writeShort(0x0100); // RD
+        out.writeShort(1);
+        out.writeShort(0);
+        out.writeShort(0);
+        out.writeShort(udpPayload > 0 ? 1 : 0);
+        for (String label : name.split("\\.")) {
+            out.writeByte(label.length());
+            out.writeBytes(label);
+        }
+        out.writeByte(0);
+        out.writeShort(type);
+        out.writeShort(1);
+        if (udpPayload > 0) {
+            out.writeByte(0);      // root name
+            out.writeShort(41);    // OPT
+            out.writeShort(udpPayload);
+            out.writeInt(0);
+            out.writeShort(0);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] buildAnswer(byte[] query, int answerCount) throws Exception {
+        int questionEnd = 12;
+        while (query[questionEnd] != 0) {
+            questionEnd += 1 + query[questionEnd];
+        }
+        questionEnd += 1 + 4;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.write(query, 0, 2);
+        out.writeShort(0x8180); // response, RD, RA, NOERROR
+        out.writeShort(1);
+        out.writeShort(answerCount);
+        out.writeShort(0);
+        out.writeShort(0);
+        out.write(query, 12, questionEnd - 12);
+        for (int i = 0; i < answerCount; i++) {
+            out.writeShort(0xC00C); // pointer to the question name
+            out.writeShort(1);
+            out.writeShort(1);
+            out.writeInt(STUB_TTL);
+            out.writeShort(4);
+            out.write(new byte[]{93, (byte) 184, (byte) 216, (byte) (34 + i)});
+        }
+        return bytes.toByteArray();
+    }
+
+    private static int readShort(byte[] msg, int offset) {
+        return ByteBuffer.wrap(msg, offset, 2).getShort() & 0xFFFF;
+    }
+
+    private static long readAnswerTtl(byte[] msg) {
+        int offset = 12;
+        while (msg[offset] != 0) {
+            offset += 1 + msg[offset];
+        }
+        offset += 1 + 4; // root label, qtype, qclass
+        offset += 2 + 4; // compressed name, type, class
+        return ByteBuffer.wrap(msg, offset, 4).getInt() & 0xFFFFFFFFL;
+    }
+}
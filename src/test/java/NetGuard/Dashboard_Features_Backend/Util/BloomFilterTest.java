@@ -0,0 +1,91 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void neverReportsAnAddedHashAsMissing() {
+        for (int entries : new int[]{1, 100, 10_000, 300_000}) {
+            BloomFilter filter = BloomFilter.forCardinality(entries, 0.01);
+            SplittableRandom random = new SplittableRandom(entries);
+            long[] hashes = new long[entries];
+            for (int i = 0; i < entries; i++) {
+                hashes[i] = random.nextLong();
+                filter.put(hashes[i]);
+            }
+            for (long hash : hashes) {
+                assertTrue(filter.mightContain(hash), "false negative with " + entries + " entries");
+            }
+        }
+    }
+
+    @Test
+    void overfilledFilterStillHasNoFalseNegatives() {
+        // Ten times the planned cardinality: accuracy degrades, correctness must not
+        BloomFilter filter = BloomFilter.forCardinality(1_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(CompiledBlocklist.hashDomain("host" + i + ".example"));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(CompiledBlocklist.hashDomain("host" + i + ".example")));
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTarget() {
+        int entries = 100_000;
+        BloomFilter filter = BloomFilter.forCardinality(entries, 0.01);
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < entries; i++) {
+            filter.put(random.nextLong());
+        }
+
+        int probes = 200_000;
+        int falsePositives = 0;
+        SplittableRandom unseen = new SplittableRandom(8);
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(unseen.nextLong())) {
+                falsePositives++;
+            }
+        }
+        assertTrue((double) falsePositives / probes < 0.02, "false positive rate " + (double) falsePositives / probes);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = BloomFilter.forCardinality(0, 0.01);
+
+        assertFalse(filter.mightContain(CompiledBlocklist.hashDomain("example.com")));
+        assertEquals(512, filter.bitSize());
+        assertTrue(filter.hashCount() >= 1);
+    }
+
+    @Test
+    void rejectsRatesOutsideTheOpenUnitInterval() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.forCardinality(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.forCardinality(10, 1));
+    }
+
+    @Test
+    void statsReportTheObservedFalsePositiveRate() {
+        BloomFilter.Stats stats = new BloomFilter.Stats();
+        assertEquals(0.0, stats.getObservedFalsePositiveRate());
+
+        for (int i = 0; i < 97; i++) {
+            stats.recordDefiniteMiss();
+        }
+        stats.recordMaybeHit(false);
+        stats.recordMaybeHit(false);
+        stats.recordMaybeHit(false);
+        stats.recordMaybeHit(true);
+
+        assertEquals(4, stats.getMaybeHits());
+        assertEquals(3, stats.getFalsePositives());
+        assertEquals(0.03, stats.getObservedFalsePositiveRate(), 1e-9);
+    }
+}
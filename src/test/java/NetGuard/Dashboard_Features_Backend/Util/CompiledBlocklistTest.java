@@ -0,0 +1,201 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledBlocklistTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void compiledListRoundTripsThroughTheMappedFile() throws IOException {
+        Path list = writeList("sources.txt",
+                "# vendor list",
+                "ads.example.com",
+                "0.0.0.0 tracker.example.net   # hosts-file form",
+                "127.0.0.1\tpixel.example.org",
+                "*.casino.example",
+                ".wildcard.example",
+                "Mixed.Case.Example.",
+                "ads.example.com",
+                "",
+                "localhost",
+                "https://not-a-domain.example/path");
+
+        int unique = BlocklistCompiler.compile(List.of(list), dir.resolve("kids.ngbl"));
+        CompiledBlocklist blocklist = CompiledBlocklist.open(dir.resolve("kids.ngbl"));
+
+        assertEquals(6, unique);
+        assertEquals(6, blocklist.size());
+        assertTrue(blocklist.containsHostOf("ads.example.com"));
+        assertTrue(blocklist.containsHostOf("https://cdn.ads.example.com/banner.js"));
+        assertTrue(blocklist.containsHostOf("tracker.example.net"));
+        assertTrue(blocklist.containsHostOf("http://user@pixel.example.org:8080/p.gif"));
+        assertTrue(blocklist.containsHostOf("www.casino.example"));
+        assertTrue(blocklist.containsHostOf("a.wildcard.example"));
+        assertTrue(blocklist.containsHostOf("MIXED.case.example."));
+
+        assertFalse(blocklist.containsHostOf("example.com"), "parents of listed domains are not listed");
+        assertFalse(blocklist.containsHostOf("notads.example.com"));
+        assertFalse(blocklist.containsHostOf("ads.example.com.evil.net"));
+        assertFalse(blocklist.containsHostOf("localhost"));
+    }
+
+    @Test
+    void fileLayoutMatchesTheDocumentedFormat() throws IOException {
+        List<String> domains = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            domains.add("d" + i + ".example");
+        }
+        Path file = dir.resolve("layout.ngbl");
+        BlocklistCompiler.compile(List.of(writeList("layout.txt", domains.toArray(new String[0]))), file);
+
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            assertEquals(CompiledBlocklist.MAGIC, in.readInt());
+            assertEquals(CompiledBlocklist.VERSION, in.readInt());
+            int count = in.readInt();
+            int bucketBits = in.readInt();
+            assertEquals(5_000, count);
+            assertTrue(bucketBits > 0);
+
+            int[] starts = new int[(1 << bucketBits) + 1];
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = in.readInt();
+            }
+            assertEquals(0, starts[0]);
+            assertEquals(count, starts[starts.length - 1]);
+
+            long previous = 0;
+            for (int bucket = 0; bucket < starts.length - 1; bucket++) {
+                assertTrue(starts[bucket] <= starts[bucket + 1]);
+                for (int i = starts[bucket]; i < starts[bucket + 1]; i++) {
+                    long hash = in.readLong();
+                    assertEquals(bucket, (int) (hash >>> (64 - bucketBits)), "hash sits in its bucket");
+                    if (i > 0) {
+                        assertTrue(Long.compareUnsigned(previous, hash) < 0, "hashes sorted unsigned and unique");
+                    }
+                    previous = hash;
+                }
+            }
+            assertEquals(-1, in.read(), "no trailing bytes");
+        }
+    }
+
+    @Test
+    void largeListFindsEveryDomainWithAndWithoutTheFilter() throws IOException {
+        List<String> domains = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            domains.add("host" + i + ".zone" + (i % 13) + ".example");
+        }
+        Path file = dir.resolve("large.ngbl");
+        BlocklistCompiler.compile(List.of(writeList("large.txt", domains.toArray(new String[0]))), file);
+
+        BloomFilter.Stats stats = new BloomFilter.Stats();
+        CompiledBlocklist plain = CompiledBlocklist.open(file);
+        CompiledBlocklist filtered = CompiledBlocklist.open(file, 0.01, stats);
+        assertFalse(plain.hasFilter());
+        assertTrue(filtered.hasFilter());
+
+        for (String domain : domains) {
+            assertTrue(plain.containsHostOf("https://www." + domain + "/"), domain);
+            assertTrue(filtered.containsHostOf("https://www." + domain + "/"), domain);
+        }
+        for (int i = 100_000; i < 110_000; i++) {
+            assertFalse(plain.containsHostOf("host" + i + ".zone0.example"));
+            assertFalse(filtered.containsHostOf("host" + i + ".zone0.example"));
+        }
+        assertTrue(stats.getDefiniteMisses() > 0, "the filter answers misses before the mapped pages");
+        assertTrue(stats.getObservedFalsePositiveRate() < 0.05);
+    }
+
+    @Test
+    void labelSeparatorsArePartOfTheHash() throws IOException {
+        Path file = dir.resolve("sep.ngbl");
+        BlocklistCompiler.compile(List.of(writeList("sep.txt", "ab.c")), file);
+        CompiledBlocklist blocklist = CompiledBlocklist.open(file);
+
+        assertTrue(blocklist.containsHostOf("x.ab.c"));
+        assertFalse(blocklist.containsHostOf("a.bc"));
+        assertFalse(blocklist.containsHostOf("abc"));
+    }
+
+    @Test
+    void emptyListCompilesToAValidFile() throws IOException {
+        Path file = dir.resolve("empty.ngbl");
+        assertEquals(0, BlocklistCompiler.compile(List.of(writeList("empty.txt", "# nothing here")), file));
+
+        CompiledBlocklist blocklist = CompiledBlocklist.open(file, 0.01, new BloomFilter.Stats());
+        assertEquals(0, blocklist.size());
+        assertFalse(blocklist.containsHostOf("example.com"));
+    }
+
+    @Test
+    void recompilingSwapsTheFileWhileOpenMappingsKeepTheirContents() throws IOException {
+        Path file = dir.resolve("profile.ngbl");
+        BlocklistCompiler.compile(List.of(writeList("v1.txt", "old.example")), file);
+        CompiledBlocklist before = CompiledBlocklist.open(file);
+
+        BlocklistCompiler.compile(List.of(writeList("v2.txt", "new.example", "other.example")), file);
+        CompiledBlocklist after = CompiledBlocklist.open(file);
+
+        // The atomic move replaces the directory entry; the old mapping still sees the old file
+        assertTrue(before.containsHostOf("old.example"));
+        assertFalse(before.containsHostOf("new.example"));
+        assertFalse(after.containsHostOf("old.example"));
+        assertTrue(after.containsHostOf("new.example"));
+        assertEquals(2, after.size());
+        try (var leftovers = Files.list(dir)) {
+            assertTrue(leftovers.noneMatch(path -> path.toString().endsWith(".tmp")), "temp file cleaned up");
+        }
+    }
+
+    @Test
+    void rejectsFilesThatAreNotCompiledBlocklists() throws IOException {
+        Path garbage = dir.resolve("garbage.ngbl");
+        Files.writeString(garbage, "this is not a blocklist");
+        assertThrows(IllegalArgumentException.class, () -> CompiledBlocklist.open(garbage));
+
+        Path valid = dir.resolve("valid.ngbl");
+        BlocklistCompiler.compile(List.of(writeList("valid.txt", "a.example", "b.example")), valid);
+        byte[] bytes = Files.readAllBytes(valid);
+
+        byte[] wrongVersion = bytes.clone();
+        ByteBuffer.wrap(wrongVersion).putInt(4, CompiledBlocklist.VERSION + 1);
+        Path future = Files.write(dir.resolve("future.ngbl"), wrongVersion);
+        assertThrows(IllegalArgumentException.class, () -> CompiledBlocklist.open(future));
+
+        Path truncated = Files.write(dir.resolve("truncated.ngbl"), Arrays.copyOf(bytes, bytes.length - 8));
+        assertThrows(IllegalArgumentException.class, () -> CompiledBlocklist.open(truncated));
+    }
+
+    @Test
+    void normalizeHandlesListSyntax() {
+        assertEquals("ads.example.com", BlocklistCompiler.normalize("  ADS.Example.com.  "));
+        assertEquals("ads.example.com", BlocklistCompiler.normalize("0.0.0.0 ads.example.com # comment"));
+        assertEquals("example.com", BlocklistCompiler.normalize("*.example.com"));
+        assertNull(BlocklistCompiler.normalize("# only a comment"));
+        assertNull(BlocklistCompiler.normalize("   "));
+        assertNull(BlocklistCompiler.normalize("127.0.0.1 localhost"));
+        assertNull(BlocklistCompiler.normalize("http://example.com/path"));
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private Path writeList(String name, String... lines) throws IOException {
+        return Files.write(dir.resolve(name), List.of(lines));
+    }
+}
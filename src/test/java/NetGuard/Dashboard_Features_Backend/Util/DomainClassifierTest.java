@@ -0,0 +1,95 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DomainClassifierTest {
+
+    private static final int VIDEO = 3;
+    private static final int SOCIAL = 4;
+    private static final int GAMBLING = 6;
+
+    @Test
+    void listedDomainCoversSubdomainsButNotLookalikes() {
+        DomainClassifier classifier = DomainClassifier.builder()
+                .addDomain("youtube.com", VIDEO, 0)
+                .build();
+
+        assertEquals(VIDEO, DomainClassifier.categoryOf(classifier.classify("https://m.youtube.com/watch?v=1")));
+        assertEquals(VIDEO, DomainClassifier.categoryOf(classifier.classify("youtube.com")));
+        assertEquals(0, DomainClassifier.categoryOf(classifier.classify("https://notyoutube.com/")));
+        assertEquals(0, DomainClassifier.categoryOf(classifier.classify("https://youtube.com.phish.example/")));
+    }
+
+    @Test
+    void onlyTheHostIsMatchedAgainstDomainLists() {
+        DomainClassifier classifier = DomainClassifier.builder()
+                .addDomain("facebook.com", SOCIAL, 0)
+                .build();
+
+        assertEquals(0, classifier.classify("https://example.org/share?u=facebook.com"));
+        assertEquals(0, classifier.classify("https://facebook.com@evil.example/"));
+        assertEquals(SOCIAL, DomainClassifier.categoryOf(classifier.classify("https://user@www.facebook.com:443/feed")));
+    }
+
+    @Test
+    void domainCategoryBeatsKeywordsButFlagsCombine() {
+        DomainClassifier classifier = DomainClassifier.builder()
+                .addDomain("youtube.com", VIDEO, 0)
+                .addKeyword("casino", GAMBLING, DomainClassifier.FLAG_INAPPROPRIATE)
+                .build();
+
+        int result = classifier.classify("https://www.youtube.com/results?q=casino");
+        assertEquals(VIDEO, DomainClassifier.categoryOf(result));
+        assertTrue(DomainClassifier.hasFlag(result, DomainClassifier.FLAG_INAPPROPRIATE));
+    }
+
+    @Test
+    void keywordsClassifyUnlistedHostsAndLowestCategoryWins() {
+        DomainClassifier classifier = DomainClassifier.builder()
+                .addKeyword("casino", GAMBLING, 0)
+                .addKeyword("stream", VIDEO, 0)
+                .build();
+
+        assertEquals(GAMBLING, DomainClassifier.categoryOf(classifier.classify("https://royal-casino.example/")));
+        assertEquals(VIDEO, DomainClassifier.categoryOf(classifier.classify("https://casino-stream.example/")));
+        assertEquals(0, classifier.classify("https://library.example/"));
+    }
+
+    @Test
+    void flagOnlyEntriesLeaveTheCategoryAlone() {
+        DomainClassifier classifier = DomainClassifier.builder()
+                .addDomain("youtube.com", VIDEO, 0)
+                .addDomain("ads.youtube.com", 0, DomainClassifier.FLAG_BLOCKED)
+                .addKeyword("phishing", 0, DomainClassifier.FLAG_SUSPICIOUS)
+                .build();
+
+        int ads = classifier.classify("https://ads.youtube.com/");
+        assertEquals(0, DomainClassifier.categoryOf(ads), "the longest listed suffix decides");
+        assertTrue(DomainClassifier.hasFlag(ads, DomainClassifier.FLAG_BLOCKED));
+
+        int flagged = classifier.classify("https://phishing-test.example/");
+        assertEquals(0, DomainClassifier.categoryOf(flagged));
+        assertTrue(DomainClassifier.hasFlag(flagged, DomainClassifier.FLAG_SUSPICIOUS));
+        assertFalse(DomainClassifier.hasFlag(flagged, DomainClassifier.FLAG_BLOCKED));
+    }
+
+    @Test
+    void punycodeHostsMatchTheirListedForm() {
+        DomainClassifier classifier = DomainClassifier.builder()
+                .addDomain("xn--bcher-kva.example", SOCIAL, 0)
+                .build();
+
+        assertEquals(SOCIAL, DomainClassifier.categoryOf(classifier.classify("https://shop.xn--bcher-kva.example:8080/")));
+        assertEquals(0, classifier.classify("https://xn--bcher-kva.example.other/"));
+    }
+
+    @Test
+    void rejectsCategoriesOutsideTheMask() {
+        DomainClassifier.Builder builder = DomainClassifier.builder();
+
+        assertThrows(IllegalArgumentException.class, () -> builder.addDomain("example.com", 32, 0));
+        assertThrows(IllegalArgumentException.class, () -> builder.addKeyword("example", -1, 0));
+    }
+}
@@ -0,0 +1,79 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DomainSuffixTrieTest {
+
+    @Test
+    void matchesOnlyOnLabelBoundaries() {
+        DomainSuffixTrie trie = new DomainSuffixTrie();
+        trie.add("youtube.com", 1);
+
+        assertEquals(1, trie.longestSuffixMatch("youtube.com"));
+        assertEquals(1, trie.longestSuffixMatch("m.youtube.com"));
+        assertEquals(1, trie.longestSuffixMatch("a.b.youtube.com"));
+        assertEquals(0, trie.longestSuffixMatch("notyoutube.com"));
+        assertEquals(0, trie.longestSuffixMatch("youtube.com.evil.net"));
+        assertEquals(0, trie.longestSuffixMatch("youtube.co"));
+        assertEquals(0, trie.longestSuffixMatch("com"), "a parent of a listed domain is not listed");
+    }
+
+    @Test
+    void longestListedSuffixWins() {
+        DomainSuffixTrie trie = new DomainSuffixTrie();
+        trie.add("google.com", 1);
+        trie.add("mail.google.com", 2);
+
+        assertEquals(2, trie.longestSuffixMatch("inbox.mail.google.com"));
+        assertEquals(2, trie.longestSuffixMatch("mail.google.com"));
+        assertEquals(1, trie.longestSuffixMatch("docs.google.com"));
+        assertEquals(1, trie.longestSuffixMatch("notmail.google.com"));
+    }
+
+    @Test
+    void isCaseInsensitiveAndIgnoresTheRootDot() {
+        DomainSuffixTrie trie = new DomainSuffixTrie();
+        trie.add("Example.ORG.", 4);
+
+        assertEquals(4, trie.longestSuffixMatch("WWW.example.org"));
+        assertEquals(4, trie.longestSuffixMatch("www.example.org."));
+        assertEquals(1, trie.size());
+    }
+
+    @Test
+    void valuesForTheSameDomainAreCombined() {
+        DomainSuffixTrie trie = new DomainSuffixTrie();
+        trie.add("ads.example.net", 1);
+        trie.add("ads.example.net", 4);
+
+        assertEquals(5, trie.longestSuffixMatch("cdn.ads.example.net"));
+        assertEquals(1, trie.size());
+        assertThrows(IllegalArgumentException.class, () -> trie.add("example.net", 0));
+    }
+
+    @Test
+    void looksUpAHostInsideALargerString() {
+        DomainSuffixTrie trie = new DomainSuffixTrie();
+        trie.add("example.com", 3);
+        String url = "https://www.example.com/path";
+
+        assertEquals(3, trie.longestSuffixMatch(url, 8, 23));
+        assertEquals(0, trie.longestSuffixMatch(url, 8, 22), "range ends inside the last label");
+    }
+
+    @Test
+    void findsEveryDomainAfterTheTablesGrow() {
+        DomainSuffixTrie trie = new DomainSuffixTrie();
+        for (int i = 0; i < 20_000; i++) {
+            trie.add("site" + i + ".zone" + (i % 97) + ".test", 1 + (i % 5));
+        }
+
+        assertEquals(20_000, trie.size());
+        for (int i = 0; i < 20_000; i++) {
+            assertEquals(1 + (i % 5), trie.longestSuffixMatch("www.site" + i + ".zone" + (i % 97) + ".test"));
+        }
+        assertEquals(0, trie.longestSuffixMatch("site20000.zone0.test"));
+    }
+}
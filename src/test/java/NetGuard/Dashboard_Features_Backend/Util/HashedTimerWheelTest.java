@@ -0,0 +1,126 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimerWheelTest {
+
+    private static final long TICK = 1000;
+    // Deliberately not aligned to any wheel boundary
+    private static final long START_TICK = 12_345;
+
+    private HashedTimerWheel<String> wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new HashedTimerWheel<>(TICK, START_TICK * TICK);
+    }
+
+    @Test
+    void deadlinesFireOnTheirExactTickAfterCascading() {
+        // One per wheel level and on both sides of each level boundary
+        long[] offsets = {1, 63, 64, 65, 4_095, 4_096, 4_097, 262_143, 262_144, 300_000};
+        for (long offset : offsets) {
+            wheel.schedule("t+" + offset, (START_TICK + offset) * TICK);
+        }
+
+        Map<String, Long> firedAt = advanceTickByTick(300_000);
+
+        assertEquals(offsets.length, firedAt.size());
+        for (long offset : offsets) {
+            assertEquals(START_TICK + offset, firedAt.get("t+" + offset), "deadline t+" + offset);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void deadlineBetweenTicksRoundsUp() {
+        wheel.schedule("late", (START_TICK + 10) * TICK + 1);
+
+        Map<String, Long> firedAt = advanceTickByTick(20);
+
+        assertEquals(START_TICK + 11, firedAt.get("late"));
+    }
+
+    @Test
+    void pastDeadlineFiresOnNextTick() {
+        HashedTimerWheel.Timeout<String> timeout = wheel.schedule("overdue", (START_TICK - 500) * TICK);
+
+        assertEquals(List.of("overdue"), wheel.advance((START_TICK + 1) * TICK));
+        assertFalse(timeout.cancel());
+    }
+
+    @Test
+    void singleLargeAdvanceReturnsExpiredInDeadlineOrder() {
+        wheel.schedule("c", (START_TICK + 5_000) * TICK);
+        wheel.schedule("a", (START_TICK + 3) * TICK);
+        wheel.schedule("b", (START_TICK + 70) * TICK);
+        wheel.schedule("later", (START_TICK + 6_000) * TICK);
+
+        assertEquals(List.of("a", "b", "c"), wheel.advance((START_TICK + 5_500) * TICK));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void cancelledTimeoutNeverFires() {
+        wheel.schedule("kept", (START_TICK + 100) * TICK);
+        HashedTimerWheel.Timeout<String> cancelled = wheel.schedule("cancelled", (START_TICK + 5_000) * TICK);
+        assertEquals(2, wheel.size());
+
+        // Let it cascade out of the second wheel before cancelling
+        advanceTickByTick(4_200);
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+        assertEquals(0, wheel.size());
+
+        Map<String, Long> firedAt = advanceTickByTick(1_000);
+        assertFalse(firedAt.containsKey("cancelled"));
+    }
+
+    @Test
+    void rearmAfterCancelFiresOnlyAtTheNewDeadline() {
+        HashedTimerWheel.Timeout<String> first = wheel.schedule("block", (START_TICK + 70) * TICK);
+        advanceTickByTick(10);
+
+        assertTrue(first.cancel());
+        HashedTimerWheel.Timeout<String> second = wheel.schedule("block", (START_TICK + 4_200) * TICK);
+        assertEquals(1, wheel.size());
+
+        List<Long> fired = new ArrayList<>();
+        for (long tick = START_TICK + 11; tick <= START_TICK + 5_000; tick++) {
+            for (String payload : wheel.advance(tick * TICK)) {
+                assertEquals("block", payload);
+                fired.add(tick);
+            }
+        }
+        assertEquals(List.of(START_TICK + 4_200), fired);
+        assertFalse(second.cancel());
+        assertEquals((START_TICK + 4_200) * TICK, second.getDeadlineMillis());
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private long ticksAdvanced;
+
+    /**
+     * Advance one tick at a time, as the scheduler does, and record the tick each payload fired on
+     */
+    private Map<String, Long> advanceTickByTick(long ticks) {
+        Map<String, Long> firedAt = new HashMap<>();
+        long end = ticksAdvanced + ticks;
+        while (ticksAdvanced < end) {
+            ticksAdvanced++;
+            long tick = START_TICK + ticksAdvanced;
+            for (String payload : wheel.advance(tick * TICK)) {
+                assertNull(firedAt.put(payload, tick), "fired twice: " + payload);
+            }
+        }
+        return firedAt;
+    }
+}
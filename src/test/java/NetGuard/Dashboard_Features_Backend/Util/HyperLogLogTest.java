@@ -0,0 +1,89 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    @Test
+    void smallCardinalitiesAreNearlyExact() {
+        for (int count : new int[]{1, 10, 50, 200}) {
+            HyperLogLog sketch = sketchOf(0, count);
+            assertEquals(count, sketch.cardinality(), Math.max(1, count * 0.01), "count=" + count);
+        }
+    }
+
+    @Test
+    void emptySketchCountsZero() {
+        HyperLogLog sketch = new HyperLogLog();
+        sketch.add(null);
+
+        assertTrue(sketch.isEmpty());
+        assertEquals(0, sketch.cardinality());
+    }
+
+    @Test
+    void duplicatesAreCountedOnce() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int round = 0; round < 100; round++) {
+            for (int i = 0; i < 30; i++) {
+                sketch.add(mac(i));
+            }
+        }
+
+        assertEquals(30, sketch.cardinality(), 1);
+    }
+
+    @Test
+    void largeCardinalitiesStayWithinThreeStandardErrors() {
+        // Precision 12 has a standard error of about 1.6%
+        for (int count : new int[]{10_000, 100_000, 1_000_000}) {
+            HyperLogLog sketch = sketchOf(0, count);
+            assertEquals(count, sketch.cardinality(), count * 0.05, "count=" + count);
+        }
+    }
+
+    @Test
+    void mergeIsTheUnionOfOverlappingSketches() {
+        HyperLogLog morning = sketchOf(0, 60_000);
+        HyperLogLog evening = sketchOf(40_000, 100_000);
+
+        morning.merge(evening);
+
+        // Register-wise maxima give exactly the sketch of the union
+        assertEquals(sketchOf(0, 100_000).cardinality(), morning.cardinality());
+        assertEquals(100_000, morning.cardinality(), 5_000);
+    }
+
+    @Test
+    void mergingDifferentPrecisionsIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(12).merge(new HyperLogLog(10)));
+    }
+
+    @Test
+    void serializedSketchCountsTheSame() {
+        HyperLogLog sketch = sketchOf(0, 5_000);
+
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+
+        assertEquals(sketch.cardinality(), restored.cardinality());
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[]{1, 12, 0}));
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private static HyperLogLog sketchOf(int from, int to) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = from; i < to; i++) {
+            sketch.add(mac(i));
+        }
+        return sketch;
+    }
+
+    private static String mac(int i) {
+        return String.format("02:00:%02x:%02x:%02x:%02x", (i >>> 24) & 0xff, (i >>> 16) & 0xff, (i >>> 8) & 0xff, i & 0xff);
+    }
+}
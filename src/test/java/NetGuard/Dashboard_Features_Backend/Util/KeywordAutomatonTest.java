@@ -0,0 +1,92 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeywordAutomatonTest {
+
+    @Test
+    void reportsEveryOverlappingMatchInOnePass() {
+        // The classic Aho-Corasick example: "ushers" contains "she", "he" and "hers"
+        KeywordAutomaton automaton = KeywordAutomaton.builder()
+                .add("he", 0, 0)
+                .add("she", 1, 0)
+                .add("his", 2, 0)
+                .add("hers", 3, 0)
+                .build();
+
+        assertEquals(0b1011, KeywordAutomaton.categoryMask(automaton.scan("ushers")));
+        assertEquals(0b0100, KeywordAutomaton.categoryMask(automaton.scan("this")));
+        assertEquals(0, KeywordAutomaton.categoryMask(automaton.scan("hxs")));
+    }
+
+    @Test
+    void failureLinksReportSuffixPatternsOfAPartialMatch() {
+        KeywordAutomaton automaton = KeywordAutomaton.builder()
+                .add("abcd", 0, 0)
+                .add("bc", 1, 0)
+                .add("aab", 2, 0)
+                .build();
+
+        // Inside the "abcd" branch when "bc" completes; it is only reachable through the failure link
+        assertEquals(0b010, KeywordAutomaton.categoryMask(automaton.scan("abce")));
+        assertEquals(0b011, KeywordAutomaton.categoryMask(automaton.scan("abcd")));
+        // "aaa" fails back to "aa" before the "b"
+        assertEquals(0b110, KeywordAutomaton.categoryMask(automaton.scan("aaabc")));
+    }
+
+    @Test
+    void matchingIsCaseInsensitive() {
+        KeywordAutomaton automaton = KeywordAutomaton.builder().add("Casino", 5, 0).build();
+
+        assertEquals(1 << 5, KeywordAutomaton.categoryMask(automaton.scan("https://BEST-CASINO.example")));
+        assertEquals(1 << 5, KeywordAutomaton.categoryMask(automaton.scan("casino")));
+    }
+
+    @Test
+    void flagsAreCombinedAndKeywordsMayCarryFlagsOnly() {
+        KeywordAutomaton automaton = KeywordAutomaton.builder()
+                .add("free-money", -1, 1)
+                .add("money", 2, 4)
+                .build();
+
+        long hits = automaton.scan("click.free-money.example");
+        assertEquals(1 << 2, KeywordAutomaton.categoryMask(hits));
+        assertEquals(5, KeywordAutomaton.flagMask(hits));
+
+        long partial = automaton.scan("money.example");
+        assertEquals(4, KeywordAutomaton.flagMask(partial));
+    }
+
+    @Test
+    void scansOnlyTheGivenRange() {
+        KeywordAutomaton automaton = KeywordAutomaton.builder().add("news", 0, 0).build();
+        String url = "news.example/sports";
+
+        assertEquals(1, KeywordAutomaton.categoryMask(automaton.scan(url, 0, 4)));
+        assertEquals(0, KeywordAutomaton.categoryMask(automaton.scan(url, 1, url.length())));
+        assertEquals(0, KeywordAutomaton.categoryMask(automaton.scan(url, 0, 3)));
+    }
+
+    @Test
+    void emptyAutomatonMatchesNothing() {
+        KeywordAutomaton automaton = KeywordAutomaton.builder().add("", 0, 1).build();
+
+        assertEquals(0L, automaton.scan("anything at all"));
+        assertEquals(1, automaton.stateCount());
+    }
+
+    @Test
+    void manyKeywordsAreAllFound() {
+        KeywordAutomaton.Builder builder = KeywordAutomaton.builder();
+        for (int i = 0; i < 500; i++) {
+            builder.add("kw" + i + "x", i % 31, 0);
+        }
+        KeywordAutomaton automaton = builder.build();
+
+        for (int i = 0; i < 500; i++) {
+            assertEquals(1 << (i % 31), KeywordAutomaton.categoryMask(automaton.scan("www.kw" + i + "x.example")));
+        }
+    }
+}
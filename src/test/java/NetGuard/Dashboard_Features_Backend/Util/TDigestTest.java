@@ -0,0 +1,116 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TDigestTest {
+
+    private static final int N = 100_000;
+    private static final double[] QUANTILES = {0.001, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999};
+
+    @Test
+    void quantilesOfUniformValuesStayWithinRankError() {
+        TDigest digest = new TDigest();
+        for (double value : shuffled(N, 1)) {
+            digest.add(value);
+        }
+
+        assertEquals(N, digest.size());
+        for (double q : QUANTILES) {
+            assertRankError(digest, q, N);
+        }
+        assertEquals(0, digest.quantile(0), 0.0);
+        assertEquals(N - 1, digest.quantile(1), 0.0);
+    }
+
+    @Test
+    void tailsOfSkewedValuesStayAccurate() {
+        // Session lengths are heavily skewed: most are short, a few run for hours
+        Random random = new Random(7);
+        List<Double> values = new ArrayList<>(N);
+        TDigest digest = new TDigest();
+        for (int i = 0; i < N; i++) {
+            double value = -Math.log(1 - random.nextDouble()) * 600;
+            values.add(value);
+            digest.add(value);
+        }
+        Collections.sort(values);
+
+        for (double q : new double[]{0.5, 0.95, 0.99}) {
+            double exact = values.get((int) (q * (N - 1)));
+            assertEquals(exact, digest.quantile(q), exact * 0.02, "q=" + q);
+        }
+    }
+
+    @Test
+    void mergedDigestMatchesOneBuiltFromAllValues() {
+        TDigest first = new TDigest();
+        TDigest second = new TDigest();
+        // Disjoint ranges, so merging has to get the shape right and not just average
+        for (double value : shuffled(N, 2)) {
+            (value < N * 0.3 ? first : second).add(value);
+        }
+
+        first.merge(second);
+
+        assertEquals(N, first.size());
+        for (double q : QUANTILES) {
+            assertRankError(first, q, N);
+        }
+        assertEquals(0, first.quantile(0), 0.0);
+        assertEquals(N - 1, first.quantile(1), 0.0);
+    }
+
+    @Test
+    void serializedDigestAnswersTheSame() {
+        TDigest digest = new TDigest();
+        for (double value : shuffled(10_000, 3)) {
+            digest.add(value);
+        }
+
+        TDigest restored = TDigest.fromBytes(digest.toBytes());
+
+        assertEquals(digest.size(), restored.size());
+        for (double q : QUANTILES) {
+            assertEquals(digest.quantile(q), restored.quantile(q), 1e-9, "q=" + q);
+        }
+    }
+
+    @Test
+    void emptyDigestHasNoQuantiles() {
+        TDigest digest = new TDigest();
+        digest.add(Double.NaN);
+        digest.add(5, 0);
+
+        assertEquals(0, digest.size());
+        assertTrue(Double.isNaN(digest.quantile(0.5)));
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private static List<Double> shuffled(int count, long seed) {
+        List<Double> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add((double) i);
+        }
+        Collections.shuffle(values, new Random(seed));
+        return values;
+    }
+
+    /**
+     * Values are 0..n-1, so a value's rank is the value itself; middle quantiles may be off by
+     * 0.5% of the ranks, the tails only by 0.1%
+     */
+    private static void assertRankError(TDigest digest, double q, int n) {
+        double tolerance = (q < 0.01 || q > 0.99 ? 0.001 : 0.005) * n;
+        assertEquals(q * n, digest.quantile(q), tolerance, "q=" + q);
+    }
+}
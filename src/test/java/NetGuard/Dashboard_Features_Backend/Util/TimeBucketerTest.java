@@ -0,0 +1,181 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeBucketerTest {
+
+    private static final ZoneId UTC = ZoneOffset.UTC;
+    // Clocks go forward on 2026-03-29 and back on 2026-10-25
+    private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+    @Test
+    void sessionCrossingAnHourEdgeIsSplitInProportion() {
+        TimeBucketer bucketer = new TimeBucketer(TimeBucketer.Unit.HOUR, UTC);
+        TimeBucketer.Session session = new TimeBucketer.Session(utc("2026-10-18T10:15"), utc("2026-10-18T11:45"), 9_000);
+
+        List<TimeBucketer.Bucket> buckets = bucketer.bucket(List.of(session), utc("2026-10-18T10:00"), utc("2026-10-18T12:00"));
+
+        assertEquals(2, buckets.size());
+        assertEquals(Duration.ofMinutes(45).toMillis(), buckets.get(0).activeMillis());
+        assertEquals(4_500, buckets.get(0).bytes());
+        assertEquals(1, buckets.get(0).sessions());
+        assertEquals(Duration.ofMinutes(45).toMillis(), buckets.get(1).activeMillis());
+        assertEquals(4_500, buckets.get(1).bytes());
+        assertEquals(1, buckets.get(1).sessions());
+    }
+
+    @Test
+    void sessionSpanningSeveralBucketsFillsTheMiddleOnes() {
+        TimeBucketer bucketer = new TimeBucketer(TimeBucketer.Unit.HOUR, UTC);
+        TimeBucketer.Session session = new TimeBucketer.Session(utc("2026-10-18T09:30"), utc("2026-10-18T12:30"), 1_800);
+
+        List<TimeBucketer.Bucket> buckets = bucketer.bucket(List.of(session), utc("2026-10-18T09:00"), utc("2026-10-18T13:00"));
+
+        assertEquals(List.of(300L, 600L, 600L, 300L), buckets.stream().map(TimeBucketer.Bucket::bytes).toList());
+        assertEquals(List.of(30L, 60L, 60L, 30L), buckets.stream().map(TimeBucketer.Bucket::activeMinutes).toList());
+        assertTrue(buckets.stream().allMatch(bucket -> bucket.sessions() == 1));
+    }
+
+    @Test
+    void backToBackSessionsDoNotOverlapAtTheBoundary() {
+        TimeBucketer bucketer = new TimeBucketer(TimeBucketer.Unit.HOUR, UTC);
+        List<TimeBucketer.Session> sessions = List.of(
+                new TimeBucketer.Session(utc("2026-10-18T10:00"), utc("2026-10-18T11:00"), 100),
+                new TimeBucketer.Session(utc("2026-10-18T11:00"), utc("2026-10-18T12:00"), 200));
+
+        List<TimeBucketer.Bucket> buckets = bucketer.bucket(sessions, utc("2026-10-18T10:00"), utc("2026-10-18T12:00"));
+
+        assertEquals(1, buckets.get(0).sessions());
+        assertEquals(100, buckets.get(0).bytes());
+        assertEquals(60, buckets.get(0).activeMinutes());
+        assertEquals(1, buckets.get(1).sessions());
+        assertEquals(200, buckets.get(1).bytes());
+        assertEquals(60, buckets.get(1).activeMinutes());
+    }
+
+    @Test
+    void overlappingSessionsAddTheirActiveTime() {
+        TimeBucketer bucketer = new TimeBucketer(TimeBucketer.Unit.HOUR, UTC);
+        List<TimeBucketer.Session> sessions = List.of(
+                new TimeBucketer.Session(utc("2026-10-18T10:00"), utc("2026-10-18T10:40"), 0),
+                new TimeBucketer.Session(utc("2026-10-18T10:20"), utc("2026-10-18T11:00"), 0));
+
+        TimeBucketer.Bucket bucket = bucketer.bucket(sessions, utc("2026-10-18T10:00"), utc("2026-10-18T11:00")).get(0);
+
+        assertEquals(80, bucket.activeMinutes());
+        assertEquals(2, bucket.sessions());
+    }
+
+    @Test
+    void sessionsAreClippedToTheRange() {
+        TimeBucketer bucketer = new TimeBucketer(TimeBucketer.Unit.HOUR, UTC);
+        TimeBucketer.Session session = new TimeBucketer.Session(utc("2026-10-18T08:00"), utc("2026-10-18T12:00"), 4_000);
+
+        List<TimeBucketer.Bucket> buckets = bucketer.bucket(List.of(session), utc("2026-10-18T10:00"), utc("2026-10-18T11:00"));
+
+        assertEquals(1, buckets.size());
+        assertEquals(1_000, buckets.get(0).bytes());
+        assertEquals(60, buckets.get(0).activeMinutes());
+    }
+
+    @Test
+    void pointSessionLandsWhollyInItsBucket() {
+        TimeBucketer bucketer = new TimeBucketer(TimeBucketer.Unit.HOUR, UTC);
+        TimeBucketer.Session point = new TimeBucketer.Session(utc("2026-10-18T11:00"), null, 500);
+
+        List<TimeBucketer.Bucket> buckets = bucketer.bucket(List.of(point), utc("2026-10-18T10:00"), utc("2026-10-18T12:00"));
+
+        assertEquals(0, buckets.get(0).bytes());
+        assertEquals(500, buckets.get(1).bytes());
+        assertEquals(1, buckets.get(1).sessions());
+        assertEquals(0, buckets.get(1).activeMillis());
+    }
+
+    @Test
+    void springForwardDayIs23HoursLong() {
+        TimeBucketer bucketer = new TimeBucketer(TimeBucketer.Unit.DAY, BERLIN);
+        // 71 real hours from Saturday to Tuesday midnight, at 1000 bytes per hour
+        TimeBucketer.Session session = new TimeBucketer.Session(berlin("2026-03-28T00:00"), berlin("2026-03-31T00:00"), 71_000);
+
+        List<TimeBucketer.Bucket> buckets = bucketer.bucket(List.of(session), berlin("2026-03-28T00:00"), berlin("2026-03-31T00:00"));
+
+        assertEquals(3, buckets.size());
+        assertEquals(List.of(24L * 60, 23L * 60, 24L * 60), buckets.stream().map(TimeBucketer.Bucket::activeMinutes).toList());
+        assertEquals(List.of(24_000L, 23_000L, 24_000L), buckets.stream().map(TimeBucketer.Bucket::bytes).toList());
+        assertEquals(LocalDateTime.parse("2026-03-29T00:00"), buckets.get(1).start().toLocalDateTime());
+        assertEquals(LocalDateTime.parse("2026-03-30T00:00"), buckets.get(1).end().toLocalDateTime());
+    }
+
+    @Test
+    void fallBackDayIs25HoursLong() {
+        TimeBucketer bucketer = new TimeBucketer(TimeBucketer.Unit.DAY, BERLIN);
+        TimeBucketer.Session session = new TimeBucketer.Session(berlin("2026-10-25T00:00"), berlin("2026-10-26T00:00"), 25_000);
+
+        List<TimeBucketer.Bucket> buckets = bucketer.bucket(List.of(session), berlin("2026-10-25T00:00"), berlin("2026-10-26T00:00"));
+
+        assertEquals(1, buckets.size());
+        assertEquals(25L * 60, buckets.get(0).activeMinutes());
+        assertEquals(25_000, buckets.get(0).bytes());
+    }
+
+    @Test
+    void hourBucketsFollowRealHoursAcrossTheRepeatedHour() {
+        TimeBucketer bucketer = new TimeBucketer(TimeBucketer.Unit.HOUR, BERLIN);
+        // Local 00:00 to 04:00 on the fall-back night is five real hours; 02:00 happens twice
+        TimeBucketer.Session session = new TimeBucketer.Session(berlin("2026-10-25T01:30"), berlin("2026-10-25T03:30"), 0);
+
+        List<TimeBucketer.Bucket> buckets = bucketer.bucket(List.of(session), berlin("2026-10-25T00:00"), berlin("2026-10-25T04:00"));
+
+        assertEquals(5, buckets.size());
+        assertEquals(List.of(0L, 30L, 60L, 60L, 30L), buckets.stream().map(TimeBucketer.Bucket::activeMinutes).toList());
+        assertEquals(buckets.get(2).start().toLocalDateTime(), buckets.get(3).start().toLocalDateTime());
+        assertNotEquals(buckets.get(2).start().getOffset(), buckets.get(3).start().getOffset());
+    }
+
+    @Test
+    void weekBucketsStartOnTheConfiguredDay() {
+        TimeBucketer bucketer = new TimeBucketer(TimeBucketer.Unit.WEEK, UTC, DayOfWeek.SUNDAY);
+
+        // 2026-10-21 is a Wednesday
+        assertEquals(LocalDateTime.parse("2026-10-18T00:00"), bucketer.floor(utc("2026-10-21T15:00")).toLocalDateTime());
+    }
+
+    @Test
+    void emptyOrInvertedRangeHasNoBuckets() {
+        TimeBucketer bucketer = new TimeBucketer(TimeBucketer.Unit.DAY, UTC);
+
+        assertTrue(bucketer.bucket(List.of(), utc("2026-10-18T00:00"), utc("2026-10-18T00:00")).isEmpty());
+        assertTrue(bucketer.bucket(List.of(), utc("2026-10-19T00:00"), utc("2026-10-18T00:00")).isEmpty());
+    }
+
+    @Test
+    void rangeWithTooManyBucketsIsRejected() {
+        TimeBucketer bucketer = new TimeBucketer(TimeBucketer.Unit.HOUR, UTC);
+        Instant from = utc("2000-01-01T00:00");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bucketer.bucket(List.of(), from, from.plus(Duration.ofHours(TimeBucketer.MAX_BUCKETS + 1L))));
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private static Instant utc(String localDateTime) {
+        return LocalDateTime.parse(localDateTime).toInstant(ZoneOffset.UTC);
+    }
+
+    private static Instant berlin(String localDateTime) {
+        return LocalDateTime.parse(localDateTime).atZone(BERLIN).toInstant();
+    }
+}
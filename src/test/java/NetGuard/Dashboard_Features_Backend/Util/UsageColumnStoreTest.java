@@ -0,0 +1,154 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsageColumnStoreTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 10, 18, 0, 0);
+
+    @Test
+    void deviceTotalsSumSealedAndOpenHoursInRange() {
+        UsageColumnStore store = new UsageColumnStore(30);
+        store.add(DAY.withHour(9), "aa", "Phone", 100, 10, 0, 0, DAY.withHour(9).withMinute(40));
+        store.add(DAY.withHour(10), "aa", "Phone", 200, 20, 0, 0, DAY.withHour(10).withMinute(5));
+        store.add(DAY.withHour(10), "bb", "Laptop", 50, 5, 0, 0, DAY.withHour(10).withMinute(30));
+        // Still the open hour: counted without being sealed
+        store.add(DAY.withHour(11), "aa", "Phone", 400, 40, 0, 0, DAY.withHour(11).withMinute(15));
+
+        Map<String, long[]> totals = deviceTotals(store.deviceTotals(DAY.withHour(10), DAY.withHour(12), false));
+
+        assertEquals(2, totals.size());
+        assertArrayEquals(new long[]{600, 60}, totals.get("aa"));
+        assertArrayEquals(new long[]{50, 5}, totals.get("bb"));
+
+        UsageColumnStore.DeviceTotals raw = store.deviceTotals(DAY.withHour(10), DAY.withHour(12), false);
+        assertEquals(DAY.withHour(11).withMinute(15), raw.lastSeenAt(0));
+        assertEquals("Phone", raw.deviceName(0));
+    }
+
+    @Test
+    void rangeCountsHoursThatStartInsideIt() {
+        UsageColumnStore store = new UsageColumnStore(30);
+        store.add(DAY.withHour(9), "aa", null, 100, 0, 0, 0, null);
+        store.add(DAY.withHour(10), "aa", null, 200, 0, 0, 0, null);
+        store.add(DAY.withHour(11), "aa", null, 400, 0, 0, 0, null);
+
+        // 09:30 rounds down to the 09:00 hour; 11:00 is exclusive
+        assertEquals(300, deviceTotals(store.deviceTotals(DAY.withHour(9).withMinute(30), DAY.withHour(11), false)).get("aa")[0]);
+    }
+
+    @Test
+    void olderHourThanTheOpenOneIsIgnored() {
+        UsageColumnStore store = new UsageColumnStore(30);
+        store.add(DAY.withHour(10), "aa", null, 100, 0, 0, 0, null);
+        store.add(DAY.withHour(9), "aa", null, 999, 0, 0, 0, null);
+
+        assertEquals(100, deviceTotals(store.deviceTotals(DAY, DAY.plusDays(1), false)).get("aa")[0]);
+    }
+
+    @Test
+    void hourOfDayTotalsFoldDaysAndCountDistinctDevices() {
+        UsageColumnStore store = new UsageColumnStore(30);
+        store.add(DAY.withHour(20), "aa", null, 100, 0, -60, 1, null);
+        store.add(DAY.withHour(20), "bb", null, 100, 0, -40, 1, null);
+        store.add(DAY.plusDays(1).withHour(8), "aa", null, 10, 0, 0, 0, null);
+        store.add(DAY.plusDays(1).withHour(20), "aa", null, 300, 0, -50, 2, null);
+        store.add(DAY.plusDays(2), "cc", null, 1, 0, 0, 0, null);
+
+        UsageColumnStore.HourOfDayTotals totals = store.hourOfDayTotals(DAY, DAY.plusDays(2), false);
+
+        assertEquals(500, totals.bytes(20));
+        assertEquals(2, totals.deviceCount(20));
+        assertEquals(-150.0 / 4, totals.averageSignal(20), 1e-9);
+        assertEquals(10, totals.bytes(8));
+        assertEquals(1, totals.deviceCount(8));
+        assertEquals(0, totals.bytes(0));
+        assertEquals(510, totals.totalBytes());
+    }
+
+    @Test
+    void parallelScanMatchesSerialScan() {
+        UsageColumnStore store = new UsageColumnStore(30);
+        // 72 hours of 200 devices spans several chunks
+        for (int hour = 0; hour < 72; hour++) {
+            for (int device = 0; device < 200; device++) {
+                store.add(DAY.plusHours(hour), "dev" + device, null, hour * 1000L + device, 1, -device, 1, null);
+            }
+        }
+        assertTrue(store.rowCount() > UsageColumnStore.CHUNK_SIZE);
+
+        LocalDateTime from = DAY.plusHours(5);
+        LocalDateTime to = DAY.plusHours(70);
+        assertEquals(deviceTotals(store.deviceTotals(from, to, false)).keySet(), deviceTotals(store.deviceTotals(from, to, true)).keySet());
+        deviceTotals(store.deviceTotals(from, to, false)).forEach((mac, serial) ->
+                assertArrayEquals(serial, deviceTotals(store.deviceTotals(from, to, true)).get(mac), mac));
+
+        UsageColumnStore.HourOfDayTotals serial = store.hourOfDayTotals(from, to, false);
+        UsageColumnStore.HourOfDayTotals parallel = store.hourOfDayTotals(from, to, true);
+        for (int hour = 0; hour < 24; hour++) {
+            assertEquals(serial.bytes(hour), parallel.bytes(hour));
+            assertEquals(serial.deviceCount(hour), parallel.deviceCount(hour));
+            assertEquals(serial.averageSignal(hour), parallel.averageSignal(hour), 1e-9);
+        }
+    }
+
+    @Test
+    void oldChunksAreEvictedOnceTheyLeaveTheWindow() {
+        UsageColumnStore store = new UsageColumnStore(1);
+        for (int hour = 0; hour < 96; hour++) {
+            for (int device = 0; device < 200; device++) {
+                store.add(DAY.plusHours(hour), "dev" + device, null, 1, 1, 0, 0, null);
+            }
+        }
+        LocalDateTime now = DAY.plusHours(95).plusMinutes(30);
+        store.markLoaded(now);
+
+        assertTrue(store.covers(now.minusHours(23)));
+        assertFalse(store.covers(now.minusHours(25)));
+        // Whole chunks go, so a little more than the window may stay
+        assertTrue(store.rowCount() < 95 * 200);
+        assertTrue(store.rowCount() >= 23 * 200);
+
+        // Everything in the window is still there: 23 sealed hours plus the open one
+        assertEquals(24, deviceTotals(store.deviceTotals(now.minusHours(23), now.plusHours(1), false)).get("dev0")[0]);
+    }
+
+    @Test
+    void forEachRowVisitsSealedAndOpenRowsOnce() {
+        UsageColumnStore store = new UsageColumnStore(30);
+        store.add(DAY.withHour(9), "aa", null, 100, 0, -50, 1, null);
+        store.add(DAY.withHour(9), "aa", null, 100, 0, -70, 1, null);
+        store.add(DAY.withHour(10), "bb", null, 50, 0, 0, 0, null);
+        store.add(DAY.withHour(11), "aa", null, 7, 0, 0, 0, null);
+
+        Map<String, Long> bytesByRow = new HashMap<>();
+        Map<String, Long> signalByRow = new HashMap<>();
+        store.forEachRow(DAY.withHour(9), DAY.withHour(12), (hourStart, mac, bytes, signalSum, samples) -> {
+            assertNull(bytesByRow.put(hourStart.getHour() + "/" + mac, bytes), "visited twice");
+            signalByRow.put(hourStart.getHour() + "/" + mac, signalSum);
+        });
+
+        assertEquals(Map.of("9/aa", 200L, "10/bb", 50L, "11/aa", 7L), bytesByRow);
+        assertEquals(-120L, signalByRow.get("9/aa"));
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private static Map<String, long[]> deviceTotals(UsageColumnStore.DeviceTotals totals) {
+        Map<String, long[]> byMac = new HashMap<>();
+        for (int id = 0; id < totals.capacity(); id++) {
+            if (totals.isPresent(id)) {
+                byMac.put(totals.deviceMac(id), new long[]{totals.bytes(id), totals.minutes(id)});
+            }
+        }
+        return byMac;
+    }
+}
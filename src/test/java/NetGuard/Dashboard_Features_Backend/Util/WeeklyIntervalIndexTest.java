@@ -0,0 +1,144 @@
+package NetGuard.Dashboard_Features_Backend.Util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static NetGuard.Dashboard_Features_Backend.Util.WeeklyIntervalIndex.MINUTES_PER_DAY;
+import static NetGuard.Dashboard_Features_Backend.Util.WeeklyIntervalIndex.MINUTES_PER_WEEK;
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeeklyIntervalIndexTest {
+
+    @Test
+    void minuteOfWeekStartsOnMonday() {
+        assertEquals(0, WeeklyIntervalIndex.minuteOfWeek(LocalDateTime.of(2026, 10, 12, 0, 0)));
+        // 2026-10-18 is a Sunday
+        assertEquals(minute(DayOfWeek.SUNDAY, "23:59"), WeeklyIntervalIndex.minuteOfWeek(LocalDateTime.of(2026, 10, 18, 23, 59)));
+        assertEquals(MINUTES_PER_WEEK - 1, minute(DayOfWeek.SUNDAY, "23:59"));
+    }
+
+    @Test
+    void windowRunningPastMidnightEndsOnTheNextDay() {
+        WeeklyIntervalIndex index = WeeklyIntervalIndex.builder()
+                .addWindow(DayOfWeek.MONDAY, time("21:00"), time("07:00"))
+                .build();
+
+        assertFalse(index.contains(minute(DayOfWeek.MONDAY, "20:59")));
+        assertTrue(index.contains(minute(DayOfWeek.MONDAY, "21:00")));
+        assertTrue(index.contains(minute(DayOfWeek.TUESDAY, "06:59")));
+        assertFalse(index.contains(minute(DayOfWeek.TUESDAY, "07:00")));
+
+        assertEquals(60, index.minutesUntilTransition(minute(DayOfWeek.MONDAY, "20:00")));
+        assertEquals(8 * 60, index.minutesUntilTransition(minute(DayOfWeek.MONDAY, "23:00")));
+    }
+
+    @Test
+    void windowRunningPastTheEndOfTheWeekWrapsToMonday() {
+        WeeklyIntervalIndex index = WeeklyIntervalIndex.builder()
+                .addWindow(DayOfWeek.SUNDAY, time("22:00"), time("02:00"))
+                .build();
+
+        // Split at the week boundary into two intervals
+        assertEquals(2, index.intervalCount());
+        assertTrue(index.contains(minute(DayOfWeek.SUNDAY, "23:30")));
+        assertTrue(index.contains(minute(DayOfWeek.MONDAY, "01:59")));
+        assertFalse(index.contains(minute(DayOfWeek.MONDAY, "02:00")));
+        assertFalse(index.contains(minute(DayOfWeek.SUNDAY, "21:59")));
+
+        // The window closes Monday 02:00, not at the week boundary
+        assertEquals(150, index.minutesUntilTransition(minute(DayOfWeek.SUNDAY, "23:30")));
+        assertEquals(60, index.minutesUntilTransition(minute(DayOfWeek.MONDAY, "01:00")));
+        // After it closes, the next opening is next Sunday
+        assertEquals(minute(DayOfWeek.SUNDAY, "22:00") - minute(DayOfWeek.MONDAY, "03:00"),
+                index.minutesUntilTransition(minute(DayOfWeek.MONDAY, "03:00")));
+    }
+
+    @Test
+    void nextOpeningWrapsPastTheEndOfTheWeek() {
+        WeeklyIntervalIndex index = WeeklyIntervalIndex.builder()
+                .addWindow(DayOfWeek.MONDAY, time("08:00"), time("15:00"))
+                .build();
+
+        assertEquals(MINUTES_PER_DAY - minute(DayOfWeek.SUNDAY, "20:00") % MINUTES_PER_DAY + 8 * 60,
+                index.minutesUntilTransition(minute(DayOfWeek.SUNDAY, "20:00")));
+    }
+
+    @Test
+    void overlappingAndAdjacentWindowsMerge() {
+        WeeklyIntervalIndex index = WeeklyIntervalIndex.builder()
+                .addWindow(DayOfWeek.WEDNESDAY, time("08:00"), time("12:00"))
+                .addWindow(DayOfWeek.WEDNESDAY, time("11:00"), time("15:00"))
+                .addWindow(DayOfWeek.WEDNESDAY, time("15:00"), time("16:00"))
+                .build();
+
+        assertEquals(1, index.intervalCount());
+        assertEquals(7 * 60, index.minutesUntilTransition(minute(DayOfWeek.WEDNESDAY, "09:00")));
+    }
+
+    @Test
+    void equalStartAndEndCoversTheWholeDay() {
+        WeeklyIntervalIndex index = WeeklyIntervalIndex.builder()
+                .addWindow(DayOfWeek.FRIDAY, time("00:00"), time("00:00"))
+                .build();
+
+        assertTrue(index.contains(minute(DayOfWeek.FRIDAY, "00:00")));
+        assertTrue(index.contains(minute(DayOfWeek.FRIDAY, "23:59")));
+        assertFalse(index.contains(minute(DayOfWeek.SATURDAY, "00:00")));
+    }
+
+    @Test
+    void wholeWeekNeverTransitions() {
+        WeeklyIntervalIndex.Builder builder = WeeklyIntervalIndex.builder();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            builder.addWindow(day, time("00:00"), time("00:00"));
+        }
+        WeeklyIntervalIndex index = builder.build();
+
+        assertEquals(1, index.intervalCount());
+        assertTrue(index.contains(0));
+        assertTrue(index.contains(MINUTES_PER_WEEK - 1));
+        assertEquals(-1, index.minutesUntilTransition(minute(DayOfWeek.THURSDAY, "12:00")));
+    }
+
+    @Test
+    void emptyIndexContainsNothing() {
+        assertTrue(WeeklyIntervalIndex.builder().build().isEmpty());
+        assertFalse(WeeklyIntervalIndex.EMPTY.contains(0));
+        assertEquals(-1, WeeklyIntervalIndex.EMPTY.minutesUntilTransition(0));
+    }
+
+    @Test
+    void addAllUnionsCompiledIndexes() {
+        WeeklyIntervalIndex bedtime = WeeklyIntervalIndex.builder()
+                .addWindow(DayOfWeek.SUNDAY, time("21:00"), time("07:00"))
+                .build();
+        WeeklyIntervalIndex school = WeeklyIntervalIndex.builder()
+                .addWindow(DayOfWeek.MONDAY, time("06:00"), time("15:00"))
+                .build();
+
+        WeeklyIntervalIndex union = WeeklyIntervalIndex.builder().addAll(bedtime).addAll(school).build();
+
+        assertEquals(2, union.intervalCount());
+        assertTrue(union.contains(minute(DayOfWeek.SUNDAY, "22:00")));
+        assertTrue(union.contains(minute(DayOfWeek.MONDAY, "14:59")));
+        // Sunday night runs straight into school hours
+        assertEquals(MINUTES_PER_DAY - 22 * 60 + 15 * 60,
+                union.minutesUntilTransition(minute(DayOfWeek.SUNDAY, "22:00")));
+    }
+
+    // ==========================================
+    // PRIVATE HELPER METHODS
+    // ==========================================
+
+    private static LocalTime time(String time) {
+        return LocalTime.parse(time);
+    }
+
+    private static int minute(DayOfWeek day, String time) {
+        LocalTime parsed = time(time);
+        return (day.getValue() - 1) * MINUTES_PER_DAY + parsed.getHour() * 60 + parsed.getMinute();
+    }
+}